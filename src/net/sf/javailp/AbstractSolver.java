@@ -15,7 +15,9 @@
 package net.sf.javailp;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * The {@code AbstractSolver} contains a map for the parameters.
@@ -26,6 +28,53 @@ import java.util.Map;
 public abstract class AbstractSolver implements Solver {
 
 	protected final Map<Object, Object> parameters = new HashMap<Object, Object>();
+	protected final List<IncumbentListener> incumbentListeners = new CopyOnWriteArrayList<IncumbentListener>();
+	protected SolveOutcome outcome = null;
+	protected SolveStatistics statistics = null;
+	protected SolverMonitor.Session session = null;
+	protected SolverMetrics metrics = null;
+
+	private static volatile SolverMonitor monitor = null;
+
+	/**
+	 * Sets the monitor of all solvers.
+	 * 
+	 * @param monitor
+	 *            the monitor ({@code null} to remove the monitor)
+	 */
+	public static void setMonitor(SolverMonitor monitor) {
+		AbstractSolver.monitor = monitor;
+	}
+
+	/**
+	 * Returns the monitor of all solvers.
+	 * 
+	 * @return the monitor or {@code null}
+	 */
+	public static SolverMonitor getMonitor() {
+		return monitor;
+	}
+
+	/**
+	 * Sets the metrics that count the solves of this solver.
+	 * 
+	 * @param metrics
+	 *            the metrics ({@code null} to disable the counting)
+	 */
+	public void setMetrics(SolverMetrics metrics) {
+		this.metrics = metrics;
+	}
+
+	/**
+	 * Returns the name of the backend, i.e., the name of the class without
+	 * the prefix "Solver".
+	 * 
+	 * @return the name of the backend
+	 */
+	public String getBackend() {
+		String name = getClass().getSimpleName();
+		return name.startsWith("Solver") ? name.substring(6) : name;
+	}
 
 	/*
 	 * (non-Javadoc)
@@ -46,4 +95,265 @@ public abstract class AbstractSolver implements Solver {
 		parameters.put(parameter, value);
 	}
 
+	/**
+	 * Returns {@code true} if the values of the result are read on demand
+	 * (see {@link Solver#LAZY}).
+	 * 
+	 * @return {@code true} if the result is lazy
+	 */
+	protected boolean isLazy() {
+		return Boolean.TRUE.equals(parameters.get(Solver.LAZY));
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see net.sf.javailp.Solver#getOutcome()
+	 */
+	public SolveOutcome getOutcome() {
+		return outcome;
+	}
+
+	/**
+	 * Sets the outcome of the current call of {@code solve}.
+	 * 
+	 * @param status
+	 *            the status
+	 * @param result
+	 *            the result ({@code null} if no solution is available)
+	 * @param bound
+	 *            the best bound ({@code null} if not available)
+	 * @return the result
+	 */
+	protected Result outcome(SolveStatus status, Result result, Number bound) {
+		return outcome(status, result, bound, null);
+	}
+
+	/**
+	 * Sets the outcome of the current call of {@code solve} that was stopped
+	 * at the given limit. If a solve at a limit does not name its limit, it
+	 * is attributed to the timeout if it ran at least as long as the
+	 * timeout.
+	 * 
+	 * @param status
+	 *            the status
+	 * @param result
+	 *            the result ({@code null} if no solution is available)
+	 * @param bound
+	 *            the best bound ({@code null} if not available)
+	 * @param limit
+	 *            the limit ({@code null} if not stopped at a limit or unknown)
+	 * @return the result
+	 */
+	protected Result outcome(SolveStatus status, Result result, Number bound, SolveLimit limit) {
+		SolveStatistics statistics = this.statistics;
+		this.statistics = null;
+		if (result instanceof ResultImpl) {
+			((ResultImpl) result).setStatus(status);
+		}
+		if (statistics != null) {
+			statistics.finish();
+			if (result instanceof ResultImpl) {
+				((ResultImpl) result).setStatistics(statistics);
+			}
+			if (limit == null && (status == SolveStatus.FEASIBLE_AT_LIMIT || status == SolveStatus.LIMIT_NO_SOLUTION)
+					&& isTimeoutElapsed(statistics.getTotalNanos())) {
+				limit = SolveLimit.TIME;
+			}
+			if (metrics != null) {
+				metrics.finished(status, limit, statistics.getTotalNanos());
+			}
+		}
+		SolverMonitor.Session session = this.session;
+		this.session = null;
+		if (session != null) {
+			session.end(status);
+		}
+		outcome = new SolveOutcome(status, result, bound, statistics, limit);
+		return result;
+	}
+
+	/**
+	 * Solves the problem with {@link #solveInternal(Problem)} and counts the
+	 * solve as failed if it throws an exception (see {@link #abort()}).
+	 * Subclasses that override this method instead of
+	 * {@link #solveInternal(Problem)} keep working; a solve of theirs that
+	 * throws is counted as failed by the next {@link #begin(Problem)}.
+	 * 
+	 * @param problem
+	 *            the problem
+	 * @return the result
+	 */
+	public Result solve(Problem problem) {
+		try {
+			return solveInternal(problem);
+		} finally {
+			abort();
+		}
+	}
+
+	/**
+	 * Solves the problem. The implementation starts the solve with
+	 * {@link #begin(Problem)} and finishes it with
+	 * {@link #outcome(SolveStatus, Result, Number)}; if it throws an
+	 * exception in between, the solve is counted as failed (see
+	 * {@link #abort()}). The default throws an
+	 * {@code UnsupportedOperationException}, i.e., subclasses override either
+	 * this method or {@link #solve(Problem)}.
+	 * 
+	 * @param problem
+	 *            the problem
+	 * @return the result
+	 */
+	protected Result solveInternal(Problem problem) {
+		throw new UnsupportedOperationException(getClass().getName() + " does not implement solveInternal.");
+	}
+
+	/**
+	 * Returns {@code true} if the given time is at least the timeout.
+	 * 
+	 * @param nanos
+	 *            the time in nanoseconds
+	 * @return {@code true} if the timeout elapsed
+	 */
+	protected boolean isTimeoutElapsed(long nanos) {
+		Object timeout = parameters.get(Solver.TIMEOUT);
+		if (timeout instanceof Number && ((Number) timeout).doubleValue() > 0) {
+			return nanos >= ((Number) timeout).doubleValue() * 1e9;
+		}
+		return false;
+	}
+
+	/**
+	 * Finishes a solve that was started with {@link #begin(Problem)} but not
+	 * finished with {@link #outcome(SolveStatus, Result, Number)}, i.e., that
+	 * threw an exception. The solve is counted as failed and the outcome is
+	 * {@link SolveStatus#ERROR}. Has no effect if the solve was finished.
+	 * Entry points other than {@link #solve(Problem)} have to call this
+	 * method in a {@code finally} block.
+	 */
+	protected void abort() {
+		SolveStatistics statistics = this.statistics;
+		SolverMonitor.Session session = this.session;
+		if (statistics == null && session == null) {
+			return;
+		}
+		this.statistics = null;
+		this.session = null;
+		if (statistics != null) {
+			statistics.finish();
+			if (metrics != null) {
+				metrics.finished(null, statistics.getTotalNanos());
+			}
+		}
+		if (session != null) {
+			session.end(SolveStatus.ERROR);
+		}
+		outcome = new SolveOutcome(SolveStatus.ERROR, null, null, statistics);
+	}
+
+	/**
+	 * Starts the statistics of the current call of {@code solve} with the
+	 * phase {@link SolveStatistics.Phase#BUILD}. The statistics are finished
+	 * and attached to the result and the outcome by
+	 * {@link #outcome(SolveStatus, Result, Number)}. If a monitor is
+	 * installed, the session of the solve is started as well.
+	 * 
+	 * @param problem
+	 *            the problem
+	 * @return the statistics
+	 */
+	protected SolveStatistics begin(Problem problem) {
+		abort();
+		if (metrics != null) {
+			metrics.started();
+		}
+
+		SolverMonitor monitor = AbstractSolver.monitor;
+		session = (monitor != null) ? monitor.begin(getBackend(), problem) : null;
+		statistics = new SolveStatistics(problem);
+		phase(SolveStatistics.Phase.BUILD);
+		return statistics;
+	}
+
+	/**
+	 * Starts a phase of the statistics of the current call of {@code solve}.
+	 * 
+	 * @param phase
+	 *            the phase
+	 */
+	protected void phase(SolveStatistics.Phase phase) {
+		if (statistics != null) {
+			statistics.begin(phase);
+		}
+		if (session != null) {
+			session.phase(phase);
+		}
+	}
+
+	/**
+	 * Adds an incumbent listener. The listener can be added and removed while
+	 * the solver is running.
+	 * 
+	 * @param listener
+	 *            the listener to be added
+	 */
+	public void addIncumbentListener(IncumbentListener listener) {
+		incumbentListeners.add(listener);
+	}
+
+	/**
+	 * Removes an incumbent listener.
+	 * 
+	 * @param listener
+	 *            the listener to be removed
+	 */
+	public void removeIncumbentListener(IncumbentListener listener) {
+		incumbentListeners.remove(listener);
+	}
+
+	/**
+	 * Returns {@code true} if at least one incumbent listener is registered
+	 * or the solve is observed by a monitor, i.e., if the solver has to
+	 * report its incumbents.
+	 * 
+	 * @return {@code true} if incumbents are reported
+	 */
+	protected boolean hasIncumbentListeners() {
+		return !incumbentListeners.isEmpty() || session != null;
+	}
+
+	/**
+	 * Notifies the incumbent listeners.
+	 * 
+	 * @param result
+	 *            the solution ({@code null} if not available)
+	 * @param objective
+	 *            the objective value
+	 * @param bound
+	 *            the best bound ({@code null} if not available)
+	 * @param start
+	 *            the start time of the optimization (see
+	 *            {@link System#currentTimeMillis()})
+	 */
+	protected void fireIncumbent(Result result, Number objective, Number bound, long start) {
+		Incumbent incumbent = new Incumbent(result, objective, bound, System.currentTimeMillis() - start);
+		for (IncumbentListener listener : incumbentListeners) {
+			listener.incumbent(incumbent);
+		}
+		SolverMonitor.Session session = this.session;
+		if (session != null) {
+			session.incumbent(incumbent);
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see net.sf.javailp.Solver#close()
+	 */
+	public void close() {
+		// nothing to release by default
+	}
+
 }
@@ -14,13 +14,20 @@
  */
 package net.sf.javailp;
 
+import java.lang.management.ManagementFactory;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
 
 /**
  * The {@code AbstractSolverFactory} contains a map for the parameters and sets
- * these parameters for each created {@code Solver}.
+ * these parameters for each created {@code Solver}. Furthermore, the solves
+ * of the created solvers are counted by the {@link SolverMetrics} of the
+ * factory.
  * 
  * @author lukasiewycz
  * 
@@ -28,12 +35,19 @@ import java.util.Map.Entry;
 public abstract class AbstractSolverFactory implements SolverFactory {
 
 	protected final Map<Object, Object> parameters = new HashMap<Object, Object>();
+	protected SolverMetrics metrics = null;
+	protected ObjectName objectName = null;
+
+	private static final AtomicInteger ids = new AtomicInteger();
 	
 	/* (non-Javadoc)
 	 * @see net.sf.javailp.SolverFactory#get()
 	 */
 	public Solver get() {
 		Solver solver = getInternal();
+		if (solver instanceof AbstractSolver) {
+			((AbstractSolver) solver).setMetrics(getMetrics());
+		}
 		
 		for(Entry<Object,Object> entry: parameters.entrySet()){
 			Object parameter = entry.getKey();
@@ -59,6 +73,62 @@ public abstract class AbstractSolverFactory implements SolverFactory {
 		parameters.put(parameter, value);
 	}
 	
+	/**
+	 * Returns the metrics of the solvers created by this factory.
+	 * 
+	 * @return the metrics
+	 */
+	public synchronized SolverMetrics getMetrics() {
+		if (metrics == null) {
+			metrics = new SolverMetrics(getBackend());
+		}
+		return metrics;
+	}
+
+	/**
+	 * Registers the metrics of this factory as MBean at the platform MBean
+	 * server. The name is
+	 * {@code net.sf.javailp:type=SolverFactory,backend=<backend>,id=<id>}.
+	 * 
+	 * @return the name of the MBean
+	 * @throws JMException
+	 *             if the registration fails
+	 */
+	public synchronized ObjectName register() throws JMException {
+		if (objectName == null) {
+			ObjectName name = new ObjectName("net.sf.javailp:type=SolverFactory,backend=" + getBackend() + ",id="
+					+ ids.incrementAndGet());
+			getMetrics().register(name);
+			objectName = name;
+		}
+		return objectName;
+	}
+
+	/**
+	 * Unregisters the MBean of this factory.
+	 * 
+	 * @throws JMException
+	 *             if the MBean cannot be unregistered
+	 */
+	public synchronized void unregister() throws JMException {
+		if (objectName != null) {
+			ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+			objectName = null;
+		}
+	}
+
+	/**
+	 * Returns the name of the backend, i.e., the name of the class without
+	 * the prefix "SolverFactory". The name has to match the name of the
+	 * solvers in {@link NativeHandles}.
+	 * 
+	 * @return the name of the backend
+	 */
+	protected String getBackend() {
+		String name = getClass().getSimpleName();
+		return name.startsWith("SolverFactory") ? name.substring(13) : name;
+	}
+
 	/**
 	 * Returns the {@code Solver}
 	 * 
@@ -0,0 +1,500 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The class {@code ArrayResult} is an array based implementation of the
+ * {@link Result}. The primal and dual values of the variables and
+ * constraints are stored in {@code double} arrays that are indexed by the ids
+ * of the {@link Problem} (see {@link Problem#getVariableId(Object)}) and the
+ * indices of the constraints, respectively. The values are only boxed when
+ * they are accessed with the {@code Object} based methods. Constraints are
+ * accessed with their names by these methods. Missing values are stored as
+ * {@code NaN}; other keys are stored in the maps of the {@link ResultImpl}.
+ *
+ * @author lukasiewycz
+ *
+ */
+public class ArrayResult extends ResultImpl {
+
+	protected final Problem problem;
+	protected final int variablesCount;
+	protected final int constraintsCount;
+	protected double[] primal;
+	protected double[] dual = null;
+	protected double[] constraintPrimal = null;
+	protected double[] constraintDual = null;
+	protected Map<Object, Integer> constraintIds = null;
+
+	/**
+	 * Constructs an {@code ArrayResult} for a {@code Problem}. The objective
+	 * value is calculated from the objective function of the problem.
+	 *
+	 * @param problem
+	 *            the problem
+	 */
+	public ArrayResult(Problem problem) {
+		this(problem, true);
+	}
+
+	/**
+	 * Constructs an {@code ArrayResult} for a {@code Problem}.
+	 *
+	 * @param problem
+	 *            the problem
+	 * @param allocate
+	 *            {@code true} if the array of the primal values is allocated
+	 */
+	protected ArrayResult(Problem problem, boolean allocate) {
+		super(problem.getObjective());
+		this.problem = problem;
+		this.variablesCount = problem.getVariablesCount();
+		this.constraintsCount = problem.getConstraintsCount();
+		this.primal = allocate ? create(variablesCount) : null;
+	}
+
+	/**
+	 * Constructs an {@code ArrayResult} for a {@code Problem} with the
+	 * optimal value.
+	 *
+	 * @param problem
+	 *            the problem
+	 * @param objectiveValue
+	 *            the objective value
+	 */
+	public ArrayResult(Problem problem, Number objectiveValue) {
+		this(problem);
+		this.objectiveValue = objectiveValue;
+	}
+
+	/**
+	 * Returns the primal value of the variable with the given id.
+	 *
+	 * @param id
+	 *            the id of the variable
+	 * @return the value or {@code NaN} if there is no value
+	 */
+	public double getPrimalValue(int id) {
+		return primal()[id];
+	}
+
+	/**
+	 * Sets the primal value of the variable with the given id.
+	 *
+	 * @param id
+	 *            the id of the variable
+	 * @param value
+	 *            the value
+	 */
+	public void setPrimalValue(int id, double value) {
+		primal()[id] = value;
+	}
+
+	/**
+	 * Sets the primal values of all variables. The array is indexed by the
+	 * ids of the variables and is used directly, i.e., it is not copied.
+	 *
+	 * @param values
+	 *            the values
+	 */
+	public void setPrimalValues(double[] values) {
+		primal = check(values, variablesCount);
+	}
+
+	/**
+	 * Returns the dual value (reduced cost) of the variable with the given
+	 * id.
+	 *
+	 * @param id
+	 *            the id of the variable
+	 * @return the value or {@code NaN} if there is no value
+	 */
+	public double getDualValue(int id) {
+		double[] dual = dual(false);
+		return dual != null ? dual[id] : Double.NaN;
+	}
+
+	/**
+	 * Sets the dual values (reduced costs) of all variables. The array is
+	 * indexed by the ids of the variables and is used directly.
+	 *
+	 * @param values
+	 *            the values
+	 */
+	public void setDualValues(double[] values) {
+		dual = check(values, variablesCount);
+	}
+
+	/**
+	 * Returns the primal value (activity) of the constraint with the given
+	 * index.
+	 *
+	 * @param index
+	 *            the index of the constraint
+	 * @return the value or {@code NaN} if there is no value
+	 */
+	public double getConstraintPrimalValue(int index) {
+		double[] constraintPrimal = constraintPrimal(false);
+		return constraintPrimal != null ? constraintPrimal[index] : Double.NaN;
+	}
+
+	/**
+	 * Sets the primal values (activities) of all constraints. The array is
+	 * indexed by the indices of the constraints and is used directly.
+	 *
+	 * @param values
+	 *            the values
+	 */
+	public void setConstraintPrimalValues(double[] values) {
+		constraintPrimal = check(values, constraintsCount);
+	}
+
+	/**
+	 * Returns the dual value of the constraint with the given index.
+	 *
+	 * @param index
+	 *            the index of the constraint
+	 * @return the value or {@code NaN} if there is no value
+	 */
+	public double getConstraintDualValue(int index) {
+		double[] constraintDual = constraintDual(false);
+		return constraintDual != null ? constraintDual[index] : Double.NaN;
+	}
+
+	/**
+	 * Sets the dual values of all constraints. The array is indexed by the
+	 * indices of the constraints and is used directly.
+	 *
+	 * @param values
+	 *            the values
+	 */
+	public void setConstraintDualValues(double[] values) {
+		constraintDual = check(values, constraintsCount);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see net.sf.javailp.ResultImpl#getObjective()
+	 */
+	@Override
+	public Number getObjective() {
+		if (objectiveValue == null && objectiveFunction != null) {
+			objectiveValue = evaluate(objectiveFunction);
+		}
+		return objectiveValue;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see net.sf.javailp.ResultImpl#getBoolean(java.lang.Object)
+	 */
+	@Override
+	public boolean getBoolean(Object key) {
+		Number number = get(key);
+		double v = number.doubleValue();
+		if (v == 0) {
+			return false;
+		} else {
+			return true;
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see net.sf.javailp.ResultImpl#get(java.lang.Object)
+	 */
+	@Override
+	public Number get(Object key) {
+		return getPrimalValue(key);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see net.sf.javailp.ResultImpl#put(java.lang.Object, java.lang.Number)
+	 */
+	@Override
+	public void put(Object key, Number value) {
+		putPrimalValue(key, value);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see net.sf.javailp.ResultImpl#getPrimalValue(java.lang.Object)
+	 */
+	@Override
+	public Number getPrimalValue(Object key) {
+		int id = problem.getVariableId(key);
+		if (id >= 0 && id < variablesCount) {
+			return box(key, getPrimalValue(id));
+		}
+		int index = getConstraintIndex(key);
+		if (index >= 0) {
+			return box(null, getConstraintPrimalValue(index));
+		}
+		return super.getPrimalValue(key);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see net.sf.javailp.ResultImpl#putPrimalValue(java.lang.Object,
+	 * java.lang.Number)
+	 */
+	@Override
+	public void putPrimalValue(Object key, Number value) {
+		int id = problem.getVariableId(key);
+		if (id >= 0 && id < variablesCount) {
+			setPrimalValue(id, value.doubleValue());
+			return;
+		}
+		int index = getConstraintIndex(key);
+		if (index >= 0) {
+			constraintPrimal(true)[index] = value.doubleValue();
+			return;
+		}
+		super.putPrimalValue(key, value);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see net.sf.javailp.ResultImpl#getDualValue(java.lang.Object)
+	 */
+	@Override
+	public Number getDualValue(Object key) {
+		int id = problem.getVariableId(key);
+		if (id >= 0 && id < variablesCount) {
+			return box(null, getDualValue(id));
+		}
+		int index = getConstraintIndex(key);
+		if (index >= 0) {
+			return box(null, getConstraintDualValue(index));
+		}
+		return super.getDualValue(key);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see net.sf.javailp.ResultImpl#putDualValue(java.lang.Object,
+	 * java.lang.Number)
+	 */
+	@Override
+	public void putDualValue(Object key, Number value) {
+		int id = problem.getVariableId(key);
+		if (id >= 0 && id < variablesCount) {
+			dual(true)[id] = value.doubleValue();
+			return;
+		}
+		int index = getConstraintIndex(key);
+		if (index >= 0) {
+			constraintDual(true)[index] = value.doubleValue();
+			return;
+		}
+		super.putDualValue(key, value);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see net.sf.javailp.ResultImpl#containsVar(java.lang.Object)
+	 */
+	@Override
+	public Boolean containsVar(Object var) {
+		int id = problem.getVariableId(var);
+		if (id >= 0 && id < variablesCount && !Double.isNaN(getPrimalValue(id))) {
+			return true;
+		}
+		return super.containsVar(var);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see net.sf.javailp.ResultImpl#toString()
+	 */
+	@Override
+	public String toString() {
+		StringBuilder s = new StringBuilder();
+		s.append("Objective: ").append(getObjective()).append(" {");
+		boolean first = true;
+		for (int id = 0; id < variablesCount; id++) {
+			Object variable = problem.getVariable(id);
+			Number value = box(variable, getPrimalValue(id));
+			if (value != null) {
+				if (!first) {
+					s.append(", ");
+				}
+				s.append(variable).append("=").append(value);
+				first = false;
+			}
+		}
+		s.append("}");
+		if (!primalValues.isEmpty()) {
+			s.append(" ").append(primalValues);
+		}
+		return s.toString();
+	}
+
+	/**
+	 * Returns the primal values of the variables.
+	 *
+	 * @return the primal values
+	 */
+	protected double[] primal() {
+		return primal;
+	}
+
+	/**
+	 * Returns the dual values of the variables.
+	 *
+	 * @param create
+	 *            {@code true} if missing values are created
+	 * @return the dual values or {@code null} if there are no values
+	 */
+	protected double[] dual(boolean create) {
+		if (dual == null && create) {
+			dual = create(variablesCount);
+		}
+		return dual;
+	}
+
+	/**
+	 * Returns the primal values of the constraints.
+	 *
+	 * @param create
+	 *            {@code true} if missing values are created
+	 * @return the primal values or {@code null} if there are no values
+	 */
+	protected double[] constraintPrimal(boolean create) {
+		if (constraintPrimal == null && create) {
+			constraintPrimal = create(constraintsCount);
+		}
+		return constraintPrimal;
+	}
+
+	/**
+	 * Returns the dual values of the constraints.
+	 *
+	 * @param create
+	 *            {@code true} if missing values are created
+	 * @return the dual values or {@code null} if there are no values
+	 */
+	protected double[] constraintDual(boolean create) {
+		if (constraintDual == null && create) {
+			constraintDual = create(constraintsCount);
+		}
+		return constraintDual;
+	}
+
+	/**
+	 * Evaluates a linear expression with the primal values (see
+	 * {@link Linear#evaluate(Map)}).
+	 *
+	 * @param linear
+	 *            the linear expression
+	 * @return the value
+	 */
+	protected Number evaluate(Linear linear) {
+		double d = 0.0;
+		boolean asDouble = false;
+
+		for (Term term : linear) {
+			Object variable = term.getVariable();
+			Number coeff = term.getCoefficient();
+			Number value = get(variable);
+			if (value == null) {
+				throw new IllegalArgumentException("The variable " + variable
+						+ " is missing in the given result.");
+			}
+			if (coeff instanceof Double || value instanceof Double) {
+				asDouble = true;
+			}
+			d += coeff.doubleValue() * value.doubleValue();
+		}
+		if (asDouble) {
+			return d;
+		} else {
+			return (long) d;
+		}
+	}
+
+	/**
+	 * Boxes a value. Values of integer and boolean variables are rounded and
+	 * returned as {@code Integer}, all other values as {@code Double}.
+	 *
+	 * @param variable
+	 *            the variable or {@code null}
+	 * @param value
+	 *            the value
+	 * @return the boxed value or {@code null} for {@code NaN}
+	 */
+	protected Number box(Object variable, double value) {
+		if (Double.isNaN(value)) {
+			return null;
+		} else if (variable != null && problem.getVarType(variable).isInt()) {
+			return (int) Math.round(value);
+		} else {
+			return value;
+		}
+	}
+
+	/**
+	 * Returns the index of the constraint with the given name.
+	 *
+	 * @param key
+	 *            the name
+	 * @return the index or {@code -1} if there is no constraint with this name
+	 */
+	protected int getConstraintIndex(Object key) {
+		if (constraintIds == null) {
+			constraintIds = new HashMap<Object, Integer>();
+			List<Constraint> constraints = problem.getConstraints();
+			for (int i = 0; i < constraintsCount; i++) {
+				constraintIds.put(constraints.get(i).getName(), i);
+			}
+		}
+		Integer index = constraintIds.get(key);
+		if (index != null) {
+			return index;
+		} else {
+			return -1;
+		}
+	}
+
+	protected static double[] create(int size) {
+		double[] values = new double[size];
+		Arrays.fill(values, Double.NaN);
+		return values;
+	}
+
+	protected static double[] check(double[] values, int size) {
+		if (values.length < size) {
+			throw new IllegalArgumentException("The array is too small (" + values.length + " < " + size + ").");
+		}
+		return values;
+	}
+
+}
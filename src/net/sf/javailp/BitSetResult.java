@@ -0,0 +1,230 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp;
+
+/**
+ * The class {@code BitSetResult} is a packed bitset based implementation of
+ * the {@link Result} for problems with boolean variables only. The value of
+ * the variable with the id {@code x} (see {@link Problem#getVariableId(Object)})
+ * is the bit {@code x%32} of {@code bits[x/32]}. The values are returned as
+ * the (cached) {@code Integer} values {@code 0} and {@code 1}. Other keys are
+ * stored in the maps of the {@link ResultImpl}.
+ *
+ * @author lukasiewycz
+ *
+ */
+public class BitSetResult extends ResultImpl {
+
+	protected final Problem problem;
+	protected final int variablesCount;
+	protected final int[] bits;
+
+	/**
+	 * Constructs a {@code BitSetResult} for a {@code Problem}. All values are
+	 * initially {@code 0}. The objective value is calculated from the
+	 * objective function of the problem.
+	 *
+	 * @param problem
+	 *            the problem
+	 */
+	public BitSetResult(Problem problem) {
+		this(problem, new int[(problem.getVariablesCount() + 31) / 32]);
+	}
+
+	/**
+	 * Constructs a {@code BitSetResult} for a {@code Problem} with the given
+	 * bitset. The array is used directly, i.e., it is not copied.
+	 *
+	 * @param problem
+	 *            the problem
+	 * @param bits
+	 *            the bitset
+	 */
+	public BitSetResult(Problem problem, int[] bits) {
+		super(problem.getObjective());
+		this.problem = problem;
+		this.variablesCount = problem.getVariablesCount();
+		if (bits.length * 32 < variablesCount) {
+			throw new IllegalArgumentException("The bitset is too small (" + bits.length * 32 + " < "
+					+ variablesCount + ").");
+		}
+		this.bits = bits;
+	}
+
+	/**
+	 * Returns the value of the variable with the given id.
+	 *
+	 * @param id
+	 *            the id of the variable
+	 * @return the value
+	 */
+	public boolean getBoolean(int id) {
+		return ((bits[id >>> 5] >>> (id & 31)) & 1) != 0;
+	}
+
+	/**
+	 * Sets the value of the variable with the given id.
+	 *
+	 * @param id
+	 *            the id of the variable
+	 * @param value
+	 *            the value
+	 */
+	public void setBoolean(int id, boolean value) {
+		if (value) {
+			bits[id >>> 5] |= 1 << (id & 31);
+		} else {
+			bits[id >>> 5] &= ~(1 << (id & 31));
+		}
+	}
+
+	/**
+	 * Returns the bitset. Changes of the array are reflected in this result.
+	 *
+	 * @return the bitset
+	 */
+	public int[] getBits() {
+		return bits;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see net.sf.javailp.ResultImpl#getObjective()
+	 */
+	@Override
+	public Number getObjective() {
+		if (objectiveValue == null && objectiveFunction != null) {
+			double d = 0.0;
+			boolean asDouble = false;
+			for (Term term : objectiveFunction) {
+				Number coeff = term.getCoefficient();
+				if (coeff instanceof Double) {
+					asDouble = true;
+				}
+				if (get(term.getVariable()).intValue() != 0) {
+					d += coeff.doubleValue();
+				}
+			}
+			if (asDouble) {
+				objectiveValue = d;
+			} else {
+				objectiveValue = (long) d;
+			}
+		}
+		return objectiveValue;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see net.sf.javailp.ResultImpl#getBoolean(java.lang.Object)
+	 */
+	@Override
+	public boolean getBoolean(Object key) {
+		int id = problem.getVariableId(key);
+		if (id >= 0 && id < variablesCount) {
+			return getBoolean(id);
+		}
+		return super.getBoolean(key);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see net.sf.javailp.ResultImpl#get(java.lang.Object)
+	 */
+	@Override
+	public Number get(Object key) {
+		return getPrimalValue(key);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see net.sf.javailp.ResultImpl#put(java.lang.Object, java.lang.Number)
+	 */
+	@Override
+	public void put(Object key, Number value) {
+		putPrimalValue(key, value);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see net.sf.javailp.ResultImpl#getPrimalValue(java.lang.Object)
+	 */
+	@Override
+	public Number getPrimalValue(Object key) {
+		int id = problem.getVariableId(key);
+		if (id >= 0 && id < variablesCount) {
+			return getBoolean(id) ? 1 : 0;
+		}
+		return super.getPrimalValue(key);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see net.sf.javailp.ResultImpl#putPrimalValue(java.lang.Object,
+	 * java.lang.Number)
+	 */
+	@Override
+	public void putPrimalValue(Object key, Number value) {
+		int id = problem.getVariableId(key);
+		if (id >= 0 && id < variablesCount) {
+			setBoolean(id, value.doubleValue() != 0);
+		} else {
+			super.putPrimalValue(key, value);
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see net.sf.javailp.ResultImpl#containsVar(java.lang.Object)
+	 */
+	@Override
+	public Boolean containsVar(Object var) {
+		int id = problem.getVariableId(var);
+		if (id >= 0 && id < variablesCount) {
+			return true;
+		}
+		return super.containsVar(var);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see net.sf.javailp.ResultImpl#toString()
+	 */
+	@Override
+	public String toString() {
+		StringBuilder s = new StringBuilder();
+		s.append("Objective: ").append(getObjective()).append(" {");
+		for (int id = 0; id < variablesCount; id++) {
+			if (id > 0) {
+				s.append(", ");
+			}
+			s.append(problem.getVariable(id)).append("=").append(getBoolean(id) ? 1 : 0);
+		}
+		s.append("}");
+		if (!primalValues.isEmpty()) {
+			s.append(" ").append(primalValues);
+		}
+		return s.toString();
+	}
+
+}
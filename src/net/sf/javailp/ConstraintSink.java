@@ -0,0 +1,195 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * The class {@code ConstraintSink} is the container of a parallel reduction
+ * of constraints into a {@link Problem}, e.g., the accumulation type of the
+ * collectors in {@code net.sf.javailp.stream}. Each thread adds constraints
+ * to its own sink; two sinks are combined in constant time by linking their
+ * chunks, and the constraints keep their encounter order. Each chunk also
+ * records the variables that appear in the sink for the first time, such
+ * that {@link #into(Problem)} assigns the same ids as adding the
+ * constraints sequentially while hashing each distinct variable only once
+ * per sink instead of each term.
+ *
+ * <pre>
+ * ConstraintSink sink = new ConstraintSink();
+ * sink.add(constraint);
+ * sink.combine(other);
+ * Problem problem = sink.toProblem();
+ * </pre>
+ *
+ * A sink must not be used by several threads at the same time.
+ *
+ * @author lukasiewycz
+ *
+ */
+public class ConstraintSink {
+
+	/**
+	 * The number of constraints of a chunk.
+	 */
+	protected static final int CHUNK = 1024;
+
+	protected final Problem target;
+	protected final Set<Object> seen = new HashSet<Object>();
+	protected Chunk head = null;
+	protected Chunk tail = null;
+	protected int size = 0;
+
+	/**
+	 * Constructs a {@code ConstraintSink} for a new problem.
+	 */
+	public ConstraintSink() {
+		this(null);
+	}
+
+	/**
+	 * Constructs a {@code ConstraintSink} for the given problem. The
+	 * variables of the families of this problem are not tracked since their
+	 * ids are already known.
+	 *
+	 * @param target
+	 *            the problem the constraints are added to
+	 */
+	public ConstraintSink(Problem target) {
+		this.target = target;
+	}
+
+	/**
+	 * Adds a constraint.
+	 *
+	 * @param constraint
+	 *            the constraint to be added
+	 */
+	public void add(Constraint constraint) {
+		if (tail == null || tail.count == CHUNK) {
+			Chunk chunk = new Chunk();
+			if (tail == null) {
+				head = chunk;
+			} else {
+				tail.next = chunk;
+			}
+			tail = chunk;
+		}
+		for (Term term : constraint.getLhs()) {
+			Object variable = term.getVariable();
+			if (variable instanceof VarFamily.Var && ((VarFamily.Var) variable).family.problem == target) {
+				continue;
+			}
+			if (seen.add(variable)) {
+				tail.addVariable(variable);
+			}
+		}
+		tail.constraints[tail.count++] = constraint;
+		size++;
+	}
+
+	/**
+	 * Appends the constraints of another sink. The other sink must not be
+	 * used afterwards.
+	 *
+	 * @param other
+	 *            the other sink
+	 * @return this sink
+	 */
+	public ConstraintSink combine(ConstraintSink other) {
+		if (other.head != null) {
+			if (tail == null) {
+				head = other.head;
+			} else {
+				tail.next = other.head;
+			}
+			tail = other.tail;
+			size += other.size;
+		}
+		other.head = null;
+		other.tail = null;
+		other.size = 0;
+		return this;
+	}
+
+	/**
+	 * Returns the number of constraints.
+	 *
+	 * @return the number of constraints
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Adds the constraints to the problem of this sink or a new problem.
+	 *
+	 * @return the problem
+	 */
+	public Problem toProblem() {
+		return into(target != null ? target : new Problem());
+	}
+
+	/**
+	 * Adds the constraints to a problem in their encounter order. The sink is
+	 * empty afterwards.
+	 *
+	 * @param problem
+	 *            the problem
+	 * @return the problem
+	 */
+	public Problem into(Problem problem) {
+		for (Chunk chunk = head; chunk != null; chunk = chunk.next) {
+			for (int i = 0; i < chunk.variableCount; i++) {
+				problem.addVariable(chunk.variables[i]);
+			}
+			for (int i = 0; i < chunk.count; i++) {
+				problem.constraints.add(chunk.constraints[i]);
+			}
+		}
+		head = null;
+		tail = null;
+		size = 0;
+		seen.clear();
+		return problem;
+	}
+
+	/**
+	 * The {@code Chunk} holds up to {@link ConstraintSink#CHUNK} constraints
+	 * and the variables that appear first in them.
+	 *
+	 * @author lukasiewycz
+	 *
+	 */
+	protected static class Chunk {
+
+		protected final Constraint[] constraints = new Constraint[CHUNK];
+		protected int count = 0;
+		protected Object[] variables = new Object[16];
+		protected int variableCount = 0;
+		protected Chunk next = null;
+
+		protected void addVariable(Object variable) {
+			if (variableCount == variables.length) {
+				Object[] array = new Object[variables.length * 2];
+				System.arraycopy(variables, 0, array, 0, variableCount);
+				variables = array;
+			}
+			variables[variableCount++] = variable;
+		}
+	}
+
+}
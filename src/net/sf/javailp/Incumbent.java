@@ -0,0 +1,112 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp;
+
+/**
+ * The class {@code Incumbent} is an improving feasible solution that is found
+ * while the solver is still running (see {@link IncumbentListener}).
+ *
+ * @author lukasiewycz
+ *
+ */
+public class Incumbent {
+
+	protected final Result result;
+	protected final Number objective;
+	protected final Number bound;
+	protected final long elapsed;
+
+	/**
+	 * Constructs an {@code Incumbent}.
+	 *
+	 * @param result
+	 *            the solution ({@code null} if the values are not available)
+	 * @param objective
+	 *            the objective value
+	 * @param bound
+	 *            the best bound ({@code null} if not available)
+	 * @param elapsed
+	 *            the elapsed time in milliseconds
+	 */
+	public Incumbent(Result result, Number objective, Number bound, long elapsed) {
+		this.result = result;
+		this.objective = objective;
+		this.bound = bound;
+		this.elapsed = elapsed;
+	}
+
+	/**
+	 * Returns the solution. The values are only available if the solver can
+	 * read them during the optimization.
+	 *
+	 * @return the solution or {@code null}
+	 */
+	public Result getResult() {
+		return result;
+	}
+
+	/**
+	 * Returns the objective value.
+	 *
+	 * @return the objective value
+	 */
+	public Number getObjective() {
+		return objective;
+	}
+
+	/**
+	 * Returns the best bound on the optimal objective value.
+	 *
+	 * @return the bound or {@code null}
+	 */
+	public Number getBound() {
+		return bound;
+	}
+
+	/**
+	 * Returns the relative gap {@code |bound-objective|/|objective|} between
+	 * the bound and the objective value.
+	 *
+	 * @return the gap or {@code NaN} if the bound is not available
+	 */
+	public double getGap() {
+		if (bound == null) {
+			return Double.NaN;
+		}
+		double value = objective.doubleValue();
+		return Math.abs(bound.doubleValue() - value) / Math.max(Math.abs(value), 1e-10);
+	}
+
+	/**
+	 * Returns the elapsed time since the start of the optimization.
+	 *
+	 * @return the elapsed time in milliseconds
+	 */
+	public long getElapsed() {
+		return elapsed;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "Incumbent: " + objective + " (bound: " + bound + ", gap: " + getGap() + ", elapsed: " + elapsed
+				+ "ms)";
+	}
+
+}
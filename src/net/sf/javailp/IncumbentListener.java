@@ -0,0 +1,38 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp;
+
+/**
+ * The {@code IncumbentListener} is notified about each improving solution
+ * that is found during the optimization. The listener is called by the
+ * thread that runs the solver (for native solvers from within a callback)
+ * and should return quickly.
+ *
+ * @see AbstractSolver#addIncumbentListener(IncumbentListener)
+ * @see IncumbentPublisher
+ * @author lukasiewycz
+ *
+ */
+public interface IncumbentListener {
+
+	/**
+	 * This method is called for each improving solution.
+	 *
+	 * @param incumbent
+	 *            the incumbent
+	 */
+	public void incumbent(Incumbent incumbent);
+
+}
@@ -0,0 +1,303 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+
+/**
+ * The class {@code IncumbentPublisher} publishes the incumbents of a solver
+ * to subscribers with backpressure. It follows the contract of the reactive
+ * streams {@code Publisher}: a subscriber receives incumbents only as far as
+ * it requested them with {@link Subscription#request(long)}. Incumbents
+ * that arrive without demand are conflated, i.e., only the latest one is
+ * kept and delivered on the next request, since an older incumbent is of no
+ * use once a better one is known. Thus, a slow subscriber never blocks the
+ * solver and never receives outdated solutions. On Java 9 and later,
+ * {@code net.sf.javailp.flow.FlowIncumbentPublisher} adapts the publisher to
+ * a {@code java.util.concurrent.Flow.Publisher}.
+ * <p>
+ * The publisher is registered as {@link IncumbentListener} at the solver and
+ * has to be closed after the optimization to signal the completion:
+ *
+ * <pre>
+ * IncumbentPublisher publisher = new IncumbentPublisher(executor);
+ * solver.addIncumbentListener(publisher);
+ * publisher.subscribe(subscriber);
+ * try {
+ * 	result = solver.solve(problem);
+ * } finally {
+ * 	publisher.close();
+ * }
+ * </pre>
+ *
+ * @author lukasiewycz
+ *
+ */
+public class IncumbentPublisher implements IncumbentListener, AutoCloseable {
+
+	/**
+	 * The {@code Subscriber} of an {@code IncumbentPublisher}.
+	 *
+	 * @author lukasiewycz
+	 *
+	 */
+	public interface Subscriber {
+
+		/**
+		 * This method is called once before any other method.
+		 *
+		 * @param subscription
+		 *            the subscription
+		 */
+		public void onSubscribe(Subscription subscription);
+
+		/**
+		 * This method is called for each requested incumbent.
+		 *
+		 * @param incumbent
+		 *            the incumbent
+		 */
+		public void onNext(Incumbent incumbent);
+
+		/**
+		 * This method is called if the subscription failed.
+		 *
+		 * @param throwable
+		 *            the cause
+		 */
+		public void onError(Throwable throwable);
+
+		/**
+		 * This method is called once the optimization is finished and the
+		 * latest incumbent was delivered.
+		 */
+		public void onComplete();
+	}
+
+	/**
+	 * The {@code Subscription} of a {@code Subscriber}.
+	 *
+	 * @author lukasiewycz
+	 *
+	 */
+	public interface Subscription {
+
+		/**
+		 * Requests further incumbents.
+		 *
+		 * @param n
+		 *            the number of incumbents (positive)
+		 */
+		public void request(long n);
+
+		/**
+		 * Cancels the subscription.
+		 */
+		public void cancel();
+	}
+
+	protected final Executor executor;
+	protected final List<Channel> channels = new CopyOnWriteArrayList<Channel>();
+	protected boolean closed = false;
+
+	/**
+	 * Constructs an {@code IncumbentPublisher} that calls the subscribers
+	 * synchronously from the solver thread (or the thread that requests
+	 * incumbents).
+	 */
+	public IncumbentPublisher() {
+		this(new Executor() {
+			public void execute(Runnable command) {
+				command.run();
+			}
+		});
+	}
+
+	/**
+	 * Constructs an {@code IncumbentPublisher} that calls the subscribers
+	 * with the given executor. The calls for one subscriber are never
+	 * concurrent.
+	 *
+	 * @param executor
+	 *            the executor
+	 */
+	public IncumbentPublisher(Executor executor) {
+		this.executor = executor;
+	}
+
+	/**
+	 * Adds a subscriber.
+	 *
+	 * @param subscriber
+	 *            the subscriber
+	 */
+	public void subscribe(Subscriber subscriber) {
+		Channel channel = new Channel(subscriber);
+		boolean completed;
+		synchronized (this) {
+			completed = closed;
+			if (!completed) {
+				channels.add(channel);
+			}
+		}
+		subscriber.onSubscribe(channel);
+		if (completed) {
+			channel.complete();
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see net.sf.javailp.IncumbentListener#incumbent(net.sf.javailp.Incumbent)
+	 */
+	public void incumbent(Incumbent incumbent) {
+		for (Channel channel : channels) {
+			channel.offer(incumbent);
+		}
+	}
+
+	/**
+	 * Signals the completion to all subscribers. Subsequent subscribers are
+	 * completed immediately.
+	 */
+	public void close() {
+		synchronized (this) {
+			closed = true;
+		}
+		for (Channel channel : channels) {
+			channel.complete();
+		}
+		channels.clear();
+	}
+
+	/**
+	 * The {@code Channel} is the {@code Subscription} of a single
+	 * {@code Subscriber}. It holds the demand and the latest undelivered
+	 * incumbent.
+	 *
+	 * @author lukasiewycz
+	 *
+	 */
+	protected class Channel implements Subscription, Runnable {
+
+		protected final Subscriber subscriber;
+		protected long demand = 0;
+		protected Incumbent pending = null;
+		protected Throwable error = null;
+		protected boolean completed = false;
+		protected boolean cancelled = false;
+		protected boolean draining = false;
+
+		public Channel(Subscriber subscriber) {
+			this.subscriber = subscriber;
+		}
+
+		public void request(long n) {
+			synchronized (this) {
+				if (n <= 0) {
+					error = new IllegalArgumentException("The number of requested incumbents has to be positive.");
+				} else {
+					demand = (demand + n < 0) ? Long.MAX_VALUE : demand + n;
+				}
+			}
+			schedule();
+		}
+
+		public void cancel() {
+			synchronized (this) {
+				cancelled = true;
+				pending = null;
+			}
+			channels.remove(this);
+		}
+
+		protected void offer(Incumbent incumbent) {
+			synchronized (this) {
+				if (cancelled || completed) {
+					return;
+				}
+				pending = incumbent;
+			}
+			schedule();
+		}
+
+		protected void complete() {
+			synchronized (this) {
+				completed = true;
+			}
+			schedule();
+		}
+
+		protected void schedule() {
+			synchronized (this) {
+				if (draining || cancelled) {
+					return;
+				}
+				draining = true;
+			}
+			executor.execute(this);
+		}
+
+		/*
+		 * (non-Javadoc)
+		 *
+		 * @see java.lang.Runnable#run()
+		 */
+		public void run() {
+			for (;;) {
+				Incumbent next = null;
+				Throwable failure = null;
+				synchronized (this) {
+					if (cancelled) {
+						draining = false;
+						return;
+					} else if (error != null) {
+						failure = error;
+						cancelled = true;
+					} else if (pending != null && demand > 0) {
+						next = pending;
+						pending = null;
+						if (demand != Long.MAX_VALUE) {
+							demand--;
+						}
+					} else if (completed && pending == null) {
+						cancelled = true;
+					} else {
+						draining = false;
+						return;
+					}
+				}
+
+				try {
+					if (failure != null) {
+						channels.remove(this);
+						subscriber.onError(failure);
+					} else if (next != null) {
+						subscriber.onNext(next);
+					} else {
+						subscriber.onComplete();
+					}
+				} catch (RuntimeException e) {
+					// a failing subscriber must not stop the solver
+					cancel();
+				}
+			}
+		}
+	}
+
+}
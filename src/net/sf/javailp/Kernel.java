@@ -0,0 +1,107 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp;
+
+/**
+ * The class {@code Kernel} computes the dot products of the evaluation of
+ * rows and objective functions on primitive arrays. The implementation is
+ * selected once at startup with {@link #get()}: the SIMD implementation
+ * {@code net.sf.javailp.vector.VectorKernel} if its jar is on the class path
+ * and the JVM runs with {@code --add-modules jdk.incubator.vector}, and the
+ * {@link ScalarKernel} otherwise. The system property {@code javailp.kernel}
+ * with the value {@code scalar} enforces the {@link ScalarKernel}. The
+ * implementations sum in different orders, such that the results might
+ * differ in the last bits.
+ *
+ * @author lukasiewycz
+ *
+ */
+public abstract class Kernel {
+
+	private static final Kernel instance = select();
+
+	/**
+	 * Returns the selected kernel.
+	 *
+	 * @return the kernel
+	 */
+	public static Kernel get() {
+		return instance;
+	}
+
+	/**
+	 * Returns the name of the kernel.
+	 *
+	 * @return the name
+	 */
+	public abstract String getName();
+
+	/**
+	 * Returns the dot product of two dense vectors.
+	 *
+	 * @param a
+	 *            the first vector
+	 * @param b
+	 *            the second vector
+	 * @param from
+	 *            the first position
+	 * @param to
+	 *            the last position (exclusive)
+	 * @return the dot product of the positions {@code from} to {@code to-1}
+	 */
+	public abstract double dot(double[] a, double[] b, int from, int to);
+
+	/**
+	 * Returns the dot product of a sparse vector, given by the values and
+	 * indices of its non-zeros, and a dense vector.
+	 *
+	 * @param values
+	 *            the values of the non-zeros
+	 * @param indices
+	 *            the indices of the non-zeros
+	 * @param from
+	 *            the first non-zero
+	 * @param to
+	 *            the last non-zero (exclusive)
+	 * @param x
+	 *            the dense vector
+	 * @return the dot product
+	 */
+	public abstract double dot(double[] values, int[] indices, int from, int to, double[] x);
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return getName();
+	}
+
+	private static Kernel select() {
+		if (!"scalar".equals(System.getProperty("javailp.kernel"))) {
+			try {
+				return (Kernel) Class.forName("net.sf.javailp.vector.VectorKernel").newInstance();
+			} catch (Exception e) {
+				// not on the class path
+			} catch (LinkageError e) {
+				// the module jdk.incubator.vector is not available
+			}
+		}
+		return new ScalarKernel();
+	}
+
+}
@@ -0,0 +1,117 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The {@code LatencyHistogram} records non-negative values (e.g.,
+ * nanoseconds) lock-free into log-linear buckets like an HDR histogram. The
+ * values below {@code 64} are recorded exactly, larger values with a
+ * relative error of at most {@code 1/32} (about {@code 3%}). The recording
+ * is a single atomic increment; the percentiles are calculated from a
+ * (non-atomic) pass over all buckets.
+ * 
+ * @author lukasiewycz
+ * 
+ */
+public class LatencyHistogram {
+
+	private static final int SUB_BITS = 5;
+	private static final int SUB_COUNT = 1 << SUB_BITS;
+	private static final int BUCKETS = index(Long.MAX_VALUE) + 1;
+
+	protected final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+	protected final StripedCounter total = new StripedCounter();
+
+	/**
+	 * Records a value.
+	 * 
+	 * @param value
+	 *            the value (negative values are recorded as {@code 0})
+	 */
+	public void record(long value) {
+		counts.incrementAndGet(index(Math.max(value, 0)));
+		total.increment();
+	}
+
+	/**
+	 * Returns the number of recorded values.
+	 * 
+	 * @return the number of values
+	 */
+	public long getCount() {
+		return total.sum();
+	}
+
+	/**
+	 * Returns the value at a percentile, i.e., the highest value of the
+	 * bucket that contains the percentile.
+	 * 
+	 * @param percentile
+	 *            the percentile (between {@code 0} and {@code 100})
+	 * @return the value or {@code 0} if no value was recorded
+	 */
+	public long getValueAtPercentile(double percentile) {
+		long[] snapshot = new long[BUCKETS];
+		long count = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			snapshot[i] = counts.get(i);
+			count += snapshot[i];
+		}
+		if (count == 0) {
+			return 0;
+		}
+		long rank = (long) Math.ceil(Math.min(Math.max(percentile, 0), 100) / 100 * count);
+		rank = Math.max(rank, 1);
+		long sum = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			sum += snapshot[i];
+			if (sum >= rank) {
+				return highestValue(i);
+			}
+		}
+		return highestValue(BUCKETS - 1);
+	}
+
+	/**
+	 * Removes all recorded values. Values recorded concurrently might be
+	 * kept.
+	 */
+	public void reset() {
+		for (int i = 0; i < BUCKETS; i++) {
+			long value = counts.getAndSet(i, 0);
+			total.add(-value);
+		}
+	}
+
+	protected static int index(long value) {
+		if (value < 2 * SUB_COUNT) {
+			return (int) value;
+		}
+		int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BITS;
+		return SUB_COUNT * shift + (int) (value >>> shift);
+	}
+
+	protected static long highestValue(int index) {
+		if (index < 2 * SUB_COUNT) {
+			return index;
+		}
+		int shift = index / SUB_COUNT - 1;
+		long top = index % SUB_COUNT + SUB_COUNT;
+		return ((top + 1) << shift) - 1;
+	}
+
+}
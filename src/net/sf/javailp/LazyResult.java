@@ -0,0 +1,240 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp;
+
+/**
+ * The class {@code LazyResult} is an {@link ArrayResult} that reads the
+ * values from the solver on demand. The native problem stays open until the
+ * result is closed. The primal values of the variables, the dual values of
+ * the variables, and the primal and dual values of the constraints are each
+ * read in bulk on the first access and cached afterwards.
+ *
+ * @see Solver#LAZY
+ * @author lukasiewycz
+ *
+ */
+public class LazyResult extends ArrayResult {
+
+	/**
+	 * The {@code Source} reads the values from the native problem of a
+	 * solver. All arrays are indexed by the ids of the variables and the
+	 * indices of the constraints, respectively.
+	 *
+	 * @author lukasiewycz
+	 *
+	 */
+	public interface Source {
+
+		/**
+		 * Returns the primal values of the variables.
+		 *
+		 * @return the primal values
+		 */
+		public double[] getPrimalValues();
+
+		/**
+		 * Returns the dual values (reduced costs) of the variables.
+		 *
+		 * @return the dual values or {@code null} if not available
+		 */
+		public double[] getDualValues();
+
+		/**
+		 * Returns the primal values (activities) of the constraints.
+		 *
+		 * @return the primal values or {@code null} if not available
+		 */
+		public double[] getConstraintPrimalValues();
+
+		/**
+		 * Returns the dual values of the constraints.
+		 *
+		 * @return the dual values or {@code null} if not available
+		 */
+		public double[] getConstraintDualValues();
+
+		/**
+		 * Releases the native problem.
+		 */
+		public void close();
+	}
+
+	protected Source source;
+	protected boolean dualLoaded = false;
+	protected boolean constraintPrimalLoaded = false;
+	protected boolean constraintDualLoaded = false;
+
+	/**
+	 * Constructs a {@code LazyResult}.
+	 *
+	 * @param problem
+	 *            the problem
+	 * @param source
+	 *            the source of the values
+	 */
+	public LazyResult(Problem problem, Source source) {
+		super(problem, false);
+		this.source = source;
+	}
+
+	/**
+	 * Returns {@code true} if the native problem is released.
+	 *
+	 * @return {@code true} if the result is closed
+	 */
+	public synchronized boolean isClosed() {
+		return source == null;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see net.sf.javailp.ResultImpl#close()
+	 */
+	@Override
+	public synchronized void close() {
+		if (source != null) {
+			source.close();
+			source = null;
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see net.sf.javailp.ArrayResult#primal()
+	 */
+	@Override
+	protected synchronized double[] primal() {
+		if (primal == null) {
+			primal = check(source().getPrimalValues(), variablesCount);
+		}
+		return primal;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see net.sf.javailp.ArrayResult#dual(boolean)
+	 */
+	@Override
+	protected synchronized double[] dual(boolean create) {
+		if (!dualLoaded) {
+			double[] values = source().getDualValues();
+			dual = values != null ? check(values, variablesCount) : null;
+			dualLoaded = true;
+		}
+		return super.dual(create);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see net.sf.javailp.ArrayResult#constraintPrimal(boolean)
+	 */
+	@Override
+	protected synchronized double[] constraintPrimal(boolean create) {
+		if (!constraintPrimalLoaded) {
+			double[] values = source().getConstraintPrimalValues();
+			constraintPrimal = values != null ? check(values, constraintsCount) : null;
+			constraintPrimalLoaded = true;
+		}
+		return super.constraintPrimal(create);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see net.sf.javailp.ArrayResult#constraintDual(boolean)
+	 */
+	@Override
+	protected synchronized double[] constraintDual(boolean create) {
+		if (!constraintDualLoaded) {
+			double[] values = source().getConstraintDualValues();
+			constraintDual = values != null ? check(values, constraintsCount) : null;
+			constraintDualLoaded = true;
+		}
+		return super.constraintDual(create);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see net.sf.javailp.ArrayResult#setPrimalValues(double[])
+	 */
+	@Override
+	public synchronized void setPrimalValues(double[] values) {
+		super.setPrimalValues(values);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see net.sf.javailp.ArrayResult#setDualValues(double[])
+	 */
+	@Override
+	public synchronized void setDualValues(double[] values) {
+		super.setDualValues(values);
+		dualLoaded = true;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see net.sf.javailp.ArrayResult#setConstraintPrimalValues(double[])
+	 */
+	@Override
+	public synchronized void setConstraintPrimalValues(double[] values) {
+		super.setConstraintPrimalValues(values);
+		constraintPrimalLoaded = true;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see net.sf.javailp.ArrayResult#setConstraintDualValues(double[])
+	 */
+	@Override
+	public synchronized void setConstraintDualValues(double[] values) {
+		super.setConstraintDualValues(values);
+		constraintDualLoaded = true;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see java.lang.Object#finalize()
+	 */
+	@Override
+	protected void finalize() throws Throwable {
+		close();
+		super.finalize();
+	}
+
+	/**
+	 * Returns the source.
+	 *
+	 * @return the source
+	 * @throws IllegalStateException
+	 *             if the result is closed
+	 */
+	protected Source source() {
+		if (source == null) {
+			throw new IllegalStateException("The result is closed and the values were not read before.");
+		}
+		return source;
+	}
+
+}
@@ -0,0 +1,122 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp;
+
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The {@code NativeHandles} counts the native handles (solver instances,
+ * environments, models) that are allocated by the {@code Solver}
+ * implementations and not yet released. The counters are kept per backend,
+ * e.g., "MiniSat" or "CPLEX".
+ * 
+ * @author lukasiewycz
+ * 
+ */
+public final class NativeHandles {
+
+	private static final ConcurrentMap<String, AtomicLong> allocated = new ConcurrentHashMap<String, AtomicLong>();
+	private static final ConcurrentMap<String, AtomicLong> released = new ConcurrentHashMap<String, AtomicLong>();
+
+	private NativeHandles() {
+	}
+
+	/**
+	 * Counts the allocation of a native handle.
+	 * 
+	 * @param backend
+	 *            the backend
+	 */
+	public static void allocated(String backend) {
+		counter(allocated, backend).incrementAndGet();
+	}
+
+	/**
+	 * Counts the release of a native handle.
+	 * 
+	 * @param backend
+	 *            the backend
+	 */
+	public static void released(String backend) {
+		counter(released, backend).incrementAndGet();
+	}
+
+	/**
+	 * Returns the total number of allocated handles of a backend.
+	 * 
+	 * @param backend
+	 *            the backend
+	 * @return the number of allocated handles
+	 */
+	public static long getAllocated(String backend) {
+		return counter(allocated, backend).get();
+	}
+
+	/**
+	 * Returns the total number of released handles of a backend.
+	 * 
+	 * @param backend
+	 *            the backend
+	 * @return the number of released handles
+	 */
+	public static long getReleased(String backend) {
+		return counter(released, backend).get();
+	}
+
+	/**
+	 * Returns the number of handles of a backend that are not yet released.
+	 * 
+	 * @param backend
+	 *            the backend
+	 * @return the number of outstanding handles
+	 */
+	public static long getOutstanding(String backend) {
+		long released = getReleased(backend);
+		return getAllocated(backend) - released;
+	}
+
+	/**
+	 * Returns the number of outstanding handles of all backends that
+	 * allocated at least one handle.
+	 * 
+	 * @return the map of the backends to the number of outstanding handles
+	 */
+	public static Map<String, Long> getOutstanding() {
+		Map<String, Long> map = new TreeMap<String, Long>();
+		for (Entry<String, AtomicLong> entry : allocated.entrySet()) {
+			String backend = entry.getKey();
+			map.put(backend, getOutstanding(backend));
+		}
+		return map;
+	}
+
+	private static AtomicLong counter(ConcurrentMap<String, AtomicLong> counters, String backend) {
+		AtomicLong counter = counters.get(backend);
+		if (counter == null) {
+			AtomicLong value = new AtomicLong();
+			counter = counters.putIfAbsent(backend, value);
+			if (counter == null) {
+				counter = value;
+			}
+		}
+		return counter;
+	}
+
+}
@@ -14,13 +14,14 @@
  */
 package net.sf.javailp;
 
+import java.util.AbstractCollection;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
+import java.util.NoSuchElementException;
 
 /**
  * The class {@code Problem} represents a linear problem consisting of multiple
@@ -35,7 +36,11 @@ public class Problem {
 	protected OptType optType = OptType.MIN;
 	protected final List<Constraint> constraints = new ArrayList<Constraint>();
 
-	protected final Set<Object> variables = new HashSet<Object>();
+	protected final Collection<Object> variables = new Variables();
+	protected final List<Object> variableList = new ArrayList<Object>();
+	protected final List<VarFamily> families = new ArrayList<VarFamily>();
+	protected int reserved = 0;
+	protected final Map<Object, Integer> variableIds = new HashMap<Object, Integer>();
 	protected final Map<Object, VarType> varType = new HashMap<Object, VarType>();
 	protected final Map<Object, Number> varLowerBound = new HashMap<Object, Number>();
 	protected final Map<Object, Number> varUpperBound = new HashMap<Object, Number>();
@@ -64,7 +69,7 @@ public class Problem {
 	 */
 	public void setObjective(Linear objective) {
 		for (Term term : objective) {
-			variables.add(term.getVariable());
+			addVariable(term.getVariable());
 		}
 		Linear linear = new Linear(objective);
 		this.objective = linear;
@@ -142,7 +147,8 @@ public class Problem {
 	}
 
 	/**
-	 * Returns the variables.
+	 * Returns the variables. The variables are iterated in the order of their
+	 * ids.
 	 * 
 	 * @return the variables
 	 */
@@ -150,13 +156,103 @@ public class Problem {
 		return variables;
 	}
 
+	/**
+	 * Returns the id of a variable. The ids are assigned in the order in
+	 * which the variables appear in the problem, starting from {@code 0}, and
+	 * do not change when the problem is extended.
+	 * 
+	 * @param variable
+	 *            the variable
+	 * @return the id or {@code -1} if the variable is not part of the problem
+	 */
+	public int getVariableId(Object variable) {
+		if (variable instanceof VarFamily.Var) {
+			VarFamily.Var var = (VarFamily.Var) variable;
+			if (var.family.problem == this) {
+				return var.family.base + var.offset;
+			}
+		}
+		Integer id = variableIds.get(variable);
+		if (id != null) {
+			return id;
+		} else {
+			return -1;
+		}
+	}
+
+	/**
+	 * Returns the variable with the given id.
+	 * 
+	 * @param id
+	 *            the id
+	 * @return the variable
+	 */
+	public Object getVariable(int id) {
+		if (id < 0 || id >= getVariablesCount()) {
+			throw new IndexOutOfBoundsException("Variable id " + id + " is out of range.");
+		}
+		int lo = 0;
+		int hi = families.size() - 1;
+		VarFamily family = null;
+		while (lo <= hi) {
+			int mid = (lo + hi) >>> 1;
+			VarFamily f = families.get(mid);
+			if (f.base <= id) {
+				family = f;
+				lo = mid + 1;
+			} else {
+				hi = mid - 1;
+			}
+		}
+		if (family == null) {
+			return variableList.get(id);
+		} else if (id < family.base + family.size) {
+			return family.var(id - family.base);
+		} else {
+			return variableList.get(id - family.reservedEnd);
+		}
+	}
+
 	/**
 	 * Returns the number of variables.
 	 * 
 	 * @return the number of variables
 	 */
 	public int getVariablesCount() {
-		return variables.size();
+		return variableList.size() + reserved;
+	}
+
+	/**
+	 * Creates a family of variables with the given dimensions, e.g.,
+	 * {@code family("x", n, m)} for the variables {@code x_i_j} with
+	 * {@code 0 <= i < n} and {@code 0 <= j < m}. All variables of the family
+	 * become part of the problem and get the next ids in row-major order.
+	 * 
+	 * @param name
+	 *            the name of the family
+	 * @param dimensions
+	 *            the dimensions
+	 * @return the family
+	 */
+	public VarFamily family(String name, int... dimensions) {
+		int size = VarFamily.size(dimensions);
+		int base = getVariablesCount();
+		if ((long) base + size > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("The problem has more than " + Integer.MAX_VALUE + " variables.");
+		}
+		VarFamily family = new VarFamily(this, name, dimensions, base, reserved + size);
+		families.add(family);
+		reserved += size;
+		return family;
+	}
+
+	/**
+	 * Returns the families of variables in the order of their creation.
+	 * 
+	 * @return the families
+	 */
+	public List<VarFamily> getFamilies() {
+		return families;
 	}
 
 	/**
@@ -167,11 +263,27 @@ public class Problem {
 	 */
 	public void add(Constraint constraint) {
 		for (Term term : constraint.getLhs()) {
-			variables.add(term.getVariable());
+			addVariable(term.getVariable());
 		}
 		constraints.add(constraint);
 	}
 
+	/**
+	 * Adds a variable and assigns the next id if it is a new variable.
+	 * 
+	 * @param variable
+	 *            the variable
+	 */
+	protected void addVariable(Object variable) {
+		if (variable instanceof VarFamily.Var && ((VarFamily.Var) variable).family.problem == this) {
+			return;
+		}
+		if (!variableIds.containsKey(variable)) {
+			variableIds.put(variable, getVariablesCount());
+			variableList.add(variable);
+		}
+	}
+
 	/**
 	 * Adds a constraint.
 	 * 
@@ -265,6 +377,9 @@ public class Problem {
 	 */
 	public VarType getVarType(Object variable) {
 		VarType type = varType.get(variable);
+		if (type == null && variable instanceof VarFamily.Var) {
+			type = ((VarFamily.Var) variable).family.type;
+		}
 		if (type != null) {
 			return type;
 		} else {
@@ -319,7 +434,11 @@ public class Problem {
 	 * @return the variable or {@code null} if no lower bound exists
 	 */
 	public Number getVarLowerBound(Object variable) {
-		return varLowerBound.get(variable);
+		Number bound = varLowerBound.get(variable);
+		if (bound == null && variable instanceof VarFamily.Var) {
+			bound = ((VarFamily.Var) variable).family.lowerBound;
+		}
+		return bound;
 	}
 
 	/**
@@ -330,7 +449,11 @@ public class Problem {
 	 * @return the variable or {@code null} if no upper bound exists
 	 */
 	public Number getVarUpperBound(Object variable) {
-		return varUpperBound.get(variable);
+		Number bound = varUpperBound.get(variable);
+		if (bound == null && variable instanceof VarFamily.Var) {
+			bound = ((VarFamily.Var) variable).family.upperBound;
+		}
+		return bound;
 	}
 
 	/**
@@ -436,4 +559,75 @@ public class Problem {
 		return s;
 	}
 
+	/**
+	 * The {@code Variables} is the collection of all variables in the order
+	 * of their ids. The variables of families are created while iterating.
+	 * 
+	 * @author lukasiewycz
+	 * 
+	 */
+	protected class Variables extends AbstractCollection<Object> {
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see java.util.AbstractCollection#iterator()
+		 */
+		@Override
+		public Iterator<Object> iterator() {
+			return new Iterator<Object>() {
+
+				int id = 0;
+				int family = 0;
+				final int count = getVariablesCount();
+
+				public boolean hasNext() {
+					return id < count;
+				}
+
+				public Object next() {
+					if (id >= count) {
+						throw new NoSuchElementException();
+					}
+					while (family < families.size() && families.get(family).base + families.get(family).size <= id) {
+						family++;
+					}
+					Object variable;
+					if (family < families.size() && families.get(family).base <= id) {
+						VarFamily f = families.get(family);
+						variable = f.var(id - f.base);
+					} else {
+						variable = variableList.get(id - (family > 0 ? families.get(family - 1).reservedEnd : 0));
+					}
+					id++;
+					return variable;
+				}
+
+				public void remove() {
+					throw new UnsupportedOperationException();
+				}
+			};
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see java.util.AbstractCollection#contains(java.lang.Object)
+		 */
+		@Override
+		public boolean contains(Object o) {
+			return getVariableId(o) >= 0;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see java.util.AbstractCollection#size()
+		 */
+		@Override
+		public int size() {
+			return getVariablesCount();
+		}
+	}
+
 }
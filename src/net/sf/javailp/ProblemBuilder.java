@@ -0,0 +1,318 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The class {@code ProblemBuilder} builds a {@link Problem} from several
+ * threads. The constraints are added to {@link Partition}s, the append
+ * buffers of the threads, that are identified by an index. While adding,
+ * each partition registers the first position of each of its variables in a
+ * concurrent registry without locks. The method {@link #build()} merges the
+ * partitions in the order of their indices, such that the problem (the order
+ * of the constraints and the ids of the variables) is the same as if all
+ * constraints were added sequentially, partition by partition, regardless of
+ * the scheduling of the threads.
+ *
+ * <pre>
+ * final ProblemBuilder builder = new ProblemBuilder();
+ * final VarFamily x = builder.family(&quot;x&quot;, n, m);
+ * // in parallel for each partition p
+ * ProblemBuilder.Partition partition = builder.partition(p);
+ * partition.add(linear, Operator.LE, 1);
+ * // after all threads are finished
+ * Problem problem = builder.build();
+ * </pre>
+ *
+ * The families, the objective, and the variable types and bounds may be set
+ * from any thread. If a type or bound of the same variable is set by several
+ * threads, the last one wins.
+ *
+ * @author lukasiewycz
+ *
+ */
+public class ProblemBuilder {
+
+	protected final Problem problem;
+	protected final ConcurrentMap<Integer, Partition> partitions = new ConcurrentHashMap<Integer, Partition>();
+	protected final ConcurrentMap<Object, Long> registry = new ConcurrentHashMap<Object, Long>();
+	protected final ConcurrentMap<Object, VarType> varType = new ConcurrentHashMap<Object, VarType>();
+	protected final ConcurrentMap<Object, Number> varLowerBound = new ConcurrentHashMap<Object, Number>();
+	protected final ConcurrentMap<Object, Number> varUpperBound = new ConcurrentHashMap<Object, Number>();
+
+	protected volatile Linear objective = null;
+	protected volatile OptType optType = OptType.MIN;
+	protected volatile boolean built = false;
+
+	/**
+	 * Constructs a {@code ProblemBuilder}.
+	 */
+	public ProblemBuilder() {
+		this.problem = new Problem();
+	}
+
+	/**
+	 * Returns the partition with the given index. The partition is created on
+	 * the first call. A partition must not be used by several threads at the
+	 * same time.
+	 *
+	 * @param index
+	 *            the index (non-negative)
+	 * @return the partition
+	 */
+	public Partition partition(int index) {
+		if (index < 0) {
+			throw new IllegalArgumentException("The index of a partition has to be non-negative.");
+		}
+		Partition partition = partitions.get(index);
+		if (partition == null) {
+			Partition created = new Partition(index);
+			partition = partitions.putIfAbsent(index, created);
+			if (partition == null) {
+				partition = created;
+			}
+		}
+		return partition;
+	}
+
+	/**
+	 * Creates a family of variables in the problem. The families get their
+	 * ids in the order of their creation before all other variables.
+	 *
+	 * @see Problem#family(String, int...)
+	 * @param name
+	 *            the name of the family
+	 * @param dimensions
+	 *            the dimensions
+	 * @return the family
+	 */
+	public synchronized VarFamily family(String name, int... dimensions) {
+		checkNotBuilt();
+		return problem.family(name, dimensions);
+	}
+
+	/**
+	 * Sets the objective function. Its variables get their ids before the
+	 * variables of the partitions.
+	 *
+	 * @param objective
+	 *            the objective function
+	 * @param optType
+	 *            the optimization type
+	 */
+	public void setObjective(Linear objective, OptType optType) {
+		this.objective = new Linear(objective);
+		this.optType = optType;
+	}
+
+	/**
+	 * Sets the variable type of one variable.
+	 *
+	 * @param variable
+	 *            the variable
+	 * @param type
+	 *            the type
+	 */
+	public void setVarType(Object variable, VarType type) {
+		varType.put(variable, type);
+	}
+
+	/**
+	 * Sets the lower bound of a variable.
+	 *
+	 * @param variable
+	 *            the variable
+	 * @param value
+	 *            the lower bound value
+	 */
+	public void setVarLowerBound(Object variable, Number value) {
+		varLowerBound.put(variable, value);
+	}
+
+	/**
+	 * Sets the upper bound of a variable.
+	 *
+	 * @param variable
+	 *            the variable
+	 * @param value
+	 *            the upper bound value
+	 */
+	public void setVarUpperBound(Object variable, Number value) {
+		varUpperBound.put(variable, value);
+	}
+
+	/**
+	 * Merges the partitions and returns the problem. This method has to be
+	 * called once after all threads finished adding constraints.
+	 *
+	 * @return the problem
+	 * @throws IllegalStateException
+	 *             if the problem was already built
+	 */
+	public synchronized Problem build() {
+		checkNotBuilt();
+		built = true;
+
+		if (objective != null) {
+			problem.setObjective(objective, optType);
+		}
+
+		List<Map.Entry<Object, Long>> entries = new ArrayList<Map.Entry<Object, Long>>(registry.entrySet());
+		Collections.sort(entries, new Comparator<Map.Entry<Object, Long>>() {
+			public int compare(Map.Entry<Object, Long> a, Map.Entry<Object, Long> b) {
+				return a.getValue().compareTo(b.getValue());
+			}
+		});
+		for (Map.Entry<Object, Long> entry : entries) {
+			problem.addVariable(entry.getKey());
+		}
+		registry.clear();
+
+		List<Partition> ordered = new ArrayList<Partition>(partitions.values());
+		Collections.sort(ordered, new Comparator<Partition>() {
+			public int compare(Partition a, Partition b) {
+				return a.index < b.index ? -1 : (a.index == b.index ? 0 : 1);
+			}
+		});
+		for (Partition partition : ordered) {
+			problem.constraints.addAll(partition.constraints);
+			partition.constraints.clear();
+			partition.seen.clear();
+		}
+
+		problem.varType.putAll(varType);
+		problem.varLowerBound.putAll(varLowerBound);
+		problem.varUpperBound.putAll(varUpperBound);
+		return problem;
+	}
+
+	protected void checkNotBuilt() {
+		if (built) {
+			throw new IllegalStateException("The problem is already built.");
+		}
+	}
+
+	/**
+	 * Registers the first position of a variable. The smallest key wins.
+	 *
+	 * @param variable
+	 *            the variable
+	 * @param key
+	 *            the index of the partition and the position in the partition
+	 */
+	protected void register(Object variable, long key) {
+		Long value = key;
+		Long old = registry.putIfAbsent(variable, value);
+		while (old != null && old > key && !registry.replace(variable, old, value)) {
+			old = registry.get(variable);
+		}
+	}
+
+	/**
+	 * The {@code Partition} is the append buffer of one thread. The
+	 * constraints are kept in the order in which they are added.
+	 *
+	 * @author lukasiewycz
+	 *
+	 */
+	public class Partition {
+
+		protected final int index;
+		protected final List<Constraint> constraints = new ArrayList<Constraint>();
+		protected final Set<Object> seen = new HashSet<Object>();
+
+		protected Partition(int index) {
+			this.index = index;
+		}
+
+		/**
+		 * Returns the index.
+		 *
+		 * @return the index
+		 */
+		public int getIndex() {
+			return index;
+		}
+
+		/**
+		 * Returns the number of constraints.
+		 *
+		 * @return the number of constraints
+		 */
+		public int getConstraintsCount() {
+			return constraints.size();
+		}
+
+		/**
+		 * Adds a constraint.
+		 *
+		 * @param constraint
+		 *            the constraint to be added
+		 */
+		public void add(Constraint constraint) {
+			checkNotBuilt();
+			for (Term term : constraint.getLhs()) {
+				Object variable = term.getVariable();
+				if (variable instanceof VarFamily.Var && ((VarFamily.Var) variable).family.problem == problem) {
+					continue;
+				}
+				if (seen.add(variable)) {
+					register(variable, ((long) index << 32) | (seen.size() - 1));
+				}
+			}
+			constraints.add(constraint);
+		}
+
+		/**
+		 * Adds a constraint.
+		 *
+		 * @param lhs
+		 *            the left-hand-side linear expression
+		 * @param operator
+		 *            the operator
+		 * @param rhs
+		 *            the right-hand-side number
+		 */
+		public void add(Linear lhs, Operator operator, Number rhs) {
+			add(new Constraint(new Linear(lhs), operator, rhs));
+		}
+
+		/**
+		 * Adds a constraint.
+		 *
+		 * @param name
+		 *            the name of the constraint
+		 * @param lhs
+		 *            the left-hand-side linear expression
+		 * @param operator
+		 *            the operator
+		 * @param rhs
+		 *            the right-hand-side number
+		 */
+		public void add(String name, Linear lhs, Operator operator, Number rhs) {
+			add(new Constraint(name, new Linear(lhs), operator, rhs));
+		}
+	}
+
+}
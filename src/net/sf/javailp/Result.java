@@ -15,12 +15,14 @@
 package net.sf.javailp;
 
 /**
- * The class {@code Result} is a result of a {@code Problem}.
+ * The class {@code Result} is a result of a {@code Problem}. A result might
+ * keep native resources of the solver to read the values on demand; these
+ * are released by {@link #close()}.
  * 
  * @author lukasiewycz
  * 
  */
-public interface Result {
+public interface Result extends AutoCloseable {
 
 	/**
 	 * Returns the objective value.
@@ -104,4 +106,26 @@ public interface Result {
 	 */
 	public Boolean containsVar(Object var);
 
+	/**
+	 * Returns the statistics of the solve that produced this result.
+	 * 
+	 * @return the statistics or {@code null} if not available
+	 */
+	public SolveStatistics getStatistics();
+
+	/**
+	 * Returns the status of the solve that produced this result, i.e.,
+	 * whether the result is optimal or only the best solution at a limit.
+	 * 
+	 * @return the status or {@code null} if not available
+	 */
+	public SolveStatus getStatus();
+
+	/**
+	 * Releases the native resources of this result. Values that were not read
+	 * before are not available afterwards. Calling this method more than once
+	 * has no effect.
+	 */
+	public void close();
+
 }
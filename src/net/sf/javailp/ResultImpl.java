@@ -30,6 +30,8 @@ public class ResultImpl implements Result {
 	protected Map<Object,Number> dualValues;
 	protected Number objectiveValue = null;
 	protected Linear objectiveFunction = null;
+	protected SolveStatistics statistics = null;
+	protected SolveStatus status = null;
 
 	/**
 	 * Constructs a {@code ResultImpl} for a {@code Problem} without objective
@@ -157,6 +159,53 @@ public class ResultImpl implements Result {
 		return primalValues.containsKey(var);
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see net.sf.javailp.Result#getStatistics()
+	 */
+	public SolveStatistics getStatistics() {
+		return statistics;
+	}
+
+	/**
+	 * Sets the statistics.
+	 * 
+	 * @param statistics
+	 *            the statistics
+	 */
+	public void setStatistics(SolveStatistics statistics) {
+		this.statistics = statistics;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see net.sf.javailp.Result#getStatus()
+	 */
+	public SolveStatus getStatus() {
+		return status;
+	}
+
+	/**
+	 * Sets the status.
+	 * 
+	 * @param status
+	 *            the status
+	 */
+	public void setStatus(SolveStatus status) {
+		this.status = status;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see net.sf.javailp.Result#close()
+	 */
+	public void close() {
+		// nothing to release by default
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -0,0 +1,79 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp;
+
+/**
+ * The class {@code ScalarKernel} is the portable {@link Kernel}. The loops
+ * are unrolled four times with independent partial sums, such that the
+ * multiplications do not wait for the previous additions.
+ *
+ * @author lukasiewycz
+ *
+ */
+public class ScalarKernel extends Kernel {
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see net.sf.javailp.Kernel#getName()
+	 */
+	@Override
+	public String getName() {
+		return "scalar";
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see net.sf.javailp.Kernel#dot(double[], double[], int, int)
+	 */
+	@Override
+	public double dot(double[] a, double[] b, int from, int to) {
+		double s0 = 0, s1 = 0, s2 = 0, s3 = 0;
+		int i = from;
+		for (int end = to - 3; i < end; i += 4) {
+			s0 += a[i] * b[i];
+			s1 += a[i + 1] * b[i + 1];
+			s2 += a[i + 2] * b[i + 2];
+			s3 += a[i + 3] * b[i + 3];
+		}
+		for (; i < to; i++) {
+			s0 += a[i] * b[i];
+		}
+		return (s0 + s1) + (s2 + s3);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see net.sf.javailp.Kernel#dot(double[], int[], int, int, double[])
+	 */
+	@Override
+	public double dot(double[] values, int[] indices, int from, int to, double[] x) {
+		double s0 = 0, s1 = 0, s2 = 0, s3 = 0;
+		int p = from;
+		for (int end = to - 3; p < end; p += 4) {
+			s0 += values[p] * x[indices[p]];
+			s1 += values[p + 1] * x[indices[p + 1]];
+			s2 += values[p + 2] * x[indices[p + 2]];
+			s3 += values[p + 3] * x[indices[p + 3]];
+		}
+		for (; p < to; p++) {
+			s0 += values[p] * x[indices[p]];
+		}
+		return (s0 + s1) + (s2 + s3);
+	}
+
+}
@@ -0,0 +1,188 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * The class {@code SolutionIterator} enumerates the solutions of a 0-1
+ * problem on a live solver. After a solution is returned, the next call of
+ * {@link #hasNext()} adds a blocking clause over the projection variables
+ * to the solver, such that each further solution differs from all previous
+ * ones in at least one of these variables. If the problem has an objective
+ * function, the solutions are returned best first, i.e., the first solution
+ * is optimal and the {@code k} first solutions are the {@code k} best
+ * solutions (with distinct projections). With a tolerance, the enumeration
+ * stops at the first solution whose objective value differs by more than the
+ * tolerance from the optimum. With Java 8, the solutions are available as
+ * stream with {@code net.sf.javailp.stream.SolutionStreams}.
+ *
+ * @author lukasiewycz
+ *
+ */
+public abstract class SolutionIterator implements Iterator<Result> {
+
+	protected final Problem problem;
+	protected final List<Object> projection;
+	protected final Number tolerance;
+
+	protected Result last = null;
+	protected Result next = null;
+	protected Number optimum = null;
+	protected boolean done = false;
+	protected boolean limitReached = false;
+
+	/**
+	 * Constructs a {@code SolutionIterator}.
+	 *
+	 * @param problem
+	 *            the problem
+	 * @param projection
+	 *            the variables that distinguish the solutions ({@code null}
+	 *            for all variables)
+	 * @param tolerance
+	 *            the maximal difference to the optimal objective value
+	 *            ({@code null} for no limit)
+	 */
+	public SolutionIterator(Problem problem, Collection<Object> projection, Number tolerance) {
+		this.problem = problem;
+		if (projection == null) {
+			this.projection = new ArrayList<Object>(problem.getVariables());
+		} else {
+			for (Object variable : projection) {
+				if (problem.getVariableId(variable) < 0) {
+					throw new IllegalArgumentException("Variable " + variable + " is not a variable of the problem.");
+				}
+			}
+			this.projection = new ArrayList<Object>(projection);
+		}
+		this.tolerance = tolerance;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see java.util.Iterator#hasNext()
+	 */
+	public boolean hasNext() {
+		if (next == null && !done) {
+			if (last != null && (projection.isEmpty() || !block(last))) {
+				done = true;
+				return false;
+			}
+
+			Result result = find();
+			if (limitReached) {
+				// the enumeration is incomplete, the result is feasible
+				done = true;
+			}
+			if (result == null || !isWithinTolerance(result)) {
+				done = true;
+			} else {
+				next = result;
+			}
+		}
+		return next != null;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see java.util.Iterator#next()
+	 */
+	public Result next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		last = next;
+		next = null;
+		return last;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see java.util.Iterator#remove()
+	 */
+	public void remove() {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * Returns {@code true} if the enumeration was stopped by the timeout or a
+	 * budget of the solver, i.e., there might exist further solutions.
+	 *
+	 * @return {@code true} if the enumeration was stopped
+	 */
+	public boolean isLimitReached() {
+		return limitReached;
+	}
+
+	/**
+	 * Returns the optimal objective value, i.e., the objective value of the
+	 * first solution.
+	 *
+	 * @return the optimal objective value or {@code null}
+	 */
+	public Number getOptimum() {
+		return optimum;
+	}
+
+	/**
+	 * Returns the variables that distinguish the solutions.
+	 *
+	 * @return the projection variables
+	 */
+	public List<Object> getProjection() {
+		return Collections.unmodifiableList(projection);
+	}
+
+	/**
+	 * Returns the best solution that is not blocked or {@code null} if no
+	 * such solution exists. If the timeout or a budget is reached,
+	 * {@code limitReached} has to be set.
+	 *
+	 * @return the next solution
+	 */
+	protected abstract Result find();
+
+	/**
+	 * Adds the blocking clause of the given solution over the projection
+	 * variables.
+	 *
+	 * @param result
+	 *            the solution
+	 * @return {@code false} if the clause caused a contradiction
+	 */
+	protected abstract boolean block(Result result);
+
+	protected boolean isWithinTolerance(Result result) {
+		if (problem.getObjective() == null) {
+			return true;
+		}
+		Number value = result.getObjective();
+		if (optimum == null) {
+			optimum = value;
+			return true;
+		}
+		return tolerance == null || Math.abs(value.doubleValue() - optimum.doubleValue()) <= tolerance.doubleValue();
+	}
+
+}
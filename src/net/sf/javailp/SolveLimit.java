@@ -0,0 +1,42 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp;
+
+/**
+ * The limit that stopped a call of {@link Solver#solve(Problem)} before the
+ * optimality or the infeasibility was proven.
+ * 
+ * @see SolveOutcome#getLimit()
+ * @author lukasiewycz
+ * 
+ */
+public enum SolveLimit {
+
+	/**
+	 * The timeout (see {@link Solver#TIMEOUT}).
+	 */
+	TIME,
+	/**
+	 * The node limit (see {@link Solver#NODE_LIMIT}), an iteration limit, or
+	 * another budget of the search, e.g., the conflicts of a SAT solver.
+	 */
+	NODES,
+	/**
+	 * The relative or absolute gap (see {@link Solver#MIP_GAP} and
+	 * {@link Solver#ABS_GAP}).
+	 */
+	GAP;
+
+}
@@ -0,0 +1,168 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp;
+
+/**
+ * The class {@code SolveOutcome} describes how a call of
+ * {@link Solver#solve(Problem)} ended: the {@link SolveStatus}, the result
+ * (if any), and the best bound on the optimal objective value (if known).
+ * 
+ * @see Solver#getOutcome()
+ * @author lukasiewycz
+ * 
+ */
+public class SolveOutcome {
+
+	protected final SolveStatus status;
+	protected final Result result;
+	protected final Number bound;
+	protected final SolveStatistics statistics;
+	protected final SolveLimit limit;
+
+	/**
+	 * Constructs a {@code SolveOutcome}.
+	 * 
+	 * @param status
+	 *            the status
+	 * @param result
+	 *            the result ({@code null} if no solution is available)
+	 * @param bound
+	 *            the best bound ({@code null} if not available)
+	 */
+	public SolveOutcome(SolveStatus status, Result result, Number bound) {
+		this(status, result, bound, null);
+	}
+
+	/**
+	 * Constructs a {@code SolveOutcome} with statistics.
+	 * 
+	 * @param status
+	 *            the status
+	 * @param result
+	 *            the result ({@code null} if no solution is available)
+	 * @param bound
+	 *            the best bound ({@code null} if not available)
+	 * @param statistics
+	 *            the statistics ({@code null} if not available)
+	 */
+	public SolveOutcome(SolveStatus status, Result result, Number bound, SolveStatistics statistics) {
+		this(status, result, bound, statistics, null);
+	}
+
+	/**
+	 * Constructs a {@code SolveOutcome} with statistics and the limit that
+	 * stopped the solve.
+	 * 
+	 * @param status
+	 *            the status
+	 * @param result
+	 *            the result ({@code null} if no solution is available)
+	 * @param bound
+	 *            the best bound ({@code null} if not available)
+	 * @param statistics
+	 *            the statistics ({@code null} if not available)
+	 * @param limit
+	 *            the limit ({@code null} if not stopped at a limit or unknown)
+	 */
+	public SolveOutcome(SolveStatus status, Result result, Number bound, SolveStatistics statistics,
+			SolveLimit limit) {
+		this.limit = limit;
+		this.status = status;
+		this.statistics = statistics;
+		this.result = result;
+		this.bound = bound;
+	}
+
+	/**
+	 * Returns the status.
+	 * 
+	 * @return the status
+	 */
+	public SolveStatus getStatus() {
+		return status;
+	}
+
+	/**
+	 * Returns the result.
+	 * 
+	 * @return the result or {@code null}
+	 */
+	public Result getResult() {
+		return result;
+	}
+
+	/**
+	 * Returns the best bound on the optimal objective value. For an optimal
+	 * result without a given bound, the bound is the objective value, which
+	 * is only read from the result on this call.
+	 * 
+	 * @return the bound or {@code null}
+	 */
+	public Number getBound() {
+		if (bound == null && status == SolveStatus.OPTIMAL && result != null) {
+			return result.getObjective();
+		}
+		return bound;
+	}
+
+	/**
+	 * Returns the limit that stopped the solve if the status is
+	 * {@link SolveStatus#FEASIBLE_AT_LIMIT} or
+	 * {@link SolveStatus#LIMIT_NO_SOLUTION}.
+	 * 
+	 * @return the limit or {@code null} if not stopped at a limit or unknown
+	 */
+	public SolveLimit getLimit() {
+		return limit;
+	}
+
+	/**
+	 * Returns the statistics of the solve. The statistics are also available
+	 * if no result was found.
+	 * 
+	 * @return the statistics or {@code null}
+	 */
+	public SolveStatistics getStatistics() {
+		return statistics;
+	}
+
+	/**
+	 * Returns the relative gap {@code |bound-objective|/|objective|} between
+	 * the bound and the objective value of the result.
+	 * 
+	 * @return the gap or {@code NaN} if the bound or the objective value is
+	 *         not available
+	 */
+	public double getGap() {
+		Number bound = getBound();
+		if (bound == null || result == null || result.getObjective() == null) {
+			return Double.NaN;
+		}
+		double value = result.getObjective().doubleValue();
+		return Math.abs(bound.doubleValue() - value) / Math.max(Math.abs(value), 1e-10);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "Outcome: " + status + (limit != null ? " at " + limit : "") + " (bound: " + getBound() + ", gap: "
+				+ getGap() + ")";
+	}
+
+}
@@ -0,0 +1,313 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Method;
+
+/**
+ * The class {@code SolveStatistics} records where the time of a call of
+ * {@link Solver#solve(Problem)} went. The time is split into the phases
+ * {@link Phase} and measured in nanoseconds on the calling thread; a phase
+ * that is entered more than once accumulates its time. Furthermore, it
+ * contains the size of the model, the counters of the backend (if exposed),
+ * and the bytes allocated on the calling thread in total and per phase (if
+ * supported by the JVM). Native memory of the backends is not included.
+ *
+ * @see AbstractSolver#begin(Problem)
+ * @author lukasiewycz
+ *
+ */
+public class SolveStatistics {
+
+	/**
+	 * The phases of a solve.
+	 *
+	 * @author lukasiewycz
+	 *
+	 */
+	public enum Phase {
+		/**
+		 * Creating the backend model and the index maps.
+		 */
+		BUILD,
+		/**
+		 * Checking the variable types and coefficients.
+		 */
+		VALIDATION,
+		/**
+		 * Passing the objective, constraints, and bounds to the backend.
+		 */
+		TRANSFER,
+		/**
+		 * Running the backend.
+		 */
+		SOLVE,
+		/**
+		 * Reading the values into the result.
+		 */
+		EXTRACTION;
+	}
+
+	private static final Object threadBean = ManagementFactory.getThreadMXBean();
+	private static final Method allocatedBytesMethod = allocatedBytesMethod();
+
+	protected final long[] nanos = new long[Phase.values().length];
+	protected final long[] allocated = new long[Phase.values().length];
+	protected final int rows;
+	protected final int columns;
+	protected final long nonZeros;
+
+	protected long iterations = -1;
+	protected long nodes = -1;
+	protected long conflicts = -1;
+	protected long allocatedBytes = -1;
+
+	protected Phase phase = null;
+	protected long phaseStart = 0;
+	protected long phaseAllocationStart = -1;
+	protected final long allocationStart;
+
+	/**
+	 * Constructs a {@code SolveStatistics} for a {@code Problem}.
+	 *
+	 * @param problem
+	 *            the problem
+	 */
+	public SolveStatistics(Problem problem) {
+		this.rows = problem.getConstraintsCount();
+		this.columns = problem.getVariablesCount();
+		long nnz = 0;
+		for (Constraint constraint : problem.getConstraints()) {
+			nnz += constraint.size();
+		}
+		this.nonZeros = nnz;
+		this.allocationStart = currentAllocatedBytes();
+	}
+
+	/**
+	 * Ends the current phase and starts the given phase.
+	 *
+	 * @param phase
+	 *            the phase
+	 */
+	public void begin(Phase phase) {
+		long now = System.nanoTime();
+		long bytes = allocationStart >= 0 ? currentAllocatedBytes() : -1;
+		end(now, bytes);
+		this.phase = phase;
+		this.phaseStart = now;
+		this.phaseAllocationStart = bytes;
+	}
+
+	/**
+	 * Ends the current phase and the measurement of the allocated bytes.
+	 */
+	public void finish() {
+		long bytes = allocationStart >= 0 ? currentAllocatedBytes() : -1;
+		end(System.nanoTime(), bytes);
+		phase = null;
+		if (bytes >= 0) {
+			allocatedBytes = bytes - allocationStart;
+		}
+	}
+
+	protected void end(long now, long bytes) {
+		if (phase != null) {
+			nanos[phase.ordinal()] += now - phaseStart;
+			if (bytes >= 0 && phaseAllocationStart >= 0) {
+				allocated[phase.ordinal()] += bytes - phaseAllocationStart;
+			}
+		}
+	}
+
+	/**
+	 * Returns the time of a phase.
+	 *
+	 * @param phase
+	 *            the phase
+	 * @return the time in nanoseconds
+	 */
+	public long getNanos(Phase phase) {
+		return nanos[phase.ordinal()];
+	}
+
+	/**
+	 * Returns the time of all phases.
+	 *
+	 * @return the time in nanoseconds
+	 */
+	public long getTotalNanos() {
+		long sum = 0;
+		for (long n : nanos) {
+			sum += n;
+		}
+		return sum;
+	}
+
+	/**
+	 * Returns the number of constraints.
+	 *
+	 * @return the number of rows
+	 */
+	public int getRows() {
+		return rows;
+	}
+
+	/**
+	 * Returns the number of variables.
+	 *
+	 * @return the number of columns
+	 */
+	public int getColumns() {
+		return columns;
+	}
+
+	/**
+	 * Returns the number of terms of all constraints.
+	 *
+	 * @return the number of non-zeros
+	 */
+	public long getNonZeros() {
+		return nonZeros;
+	}
+
+	/**
+	 * Returns the number of iterations (simplex or barrier iterations, or
+	 * propagations for the SAT solvers).
+	 *
+	 * @return the number of iterations or {@code -1} if not exposed
+	 */
+	public long getIterations() {
+		return iterations;
+	}
+
+	/**
+	 * Sets the number of iterations.
+	 *
+	 * @param iterations
+	 *            the number of iterations
+	 */
+	public void setIterations(long iterations) {
+		this.iterations = iterations;
+	}
+
+	/**
+	 * Returns the number of branch and bound nodes (decisions for the SAT
+	 * solvers).
+	 *
+	 * @return the number of nodes or {@code -1} if not exposed
+	 */
+	public long getNodes() {
+		return nodes;
+	}
+
+	/**
+	 * Sets the number of nodes.
+	 *
+	 * @param nodes
+	 *            the number of nodes
+	 */
+	public void setNodes(long nodes) {
+		this.nodes = nodes;
+	}
+
+	/**
+	 * Returns the number of conflicts of the SAT solvers.
+	 *
+	 * @return the number of conflicts or {@code -1} if not exposed
+	 */
+	public long getConflicts() {
+		return conflicts;
+	}
+
+	/**
+	 * Sets the number of conflicts.
+	 *
+	 * @param conflicts
+	 *            the number of conflicts
+	 */
+	public void setConflicts(long conflicts) {
+		this.conflicts = conflicts;
+	}
+
+	/**
+	 * Returns the bytes allocated on the calling thread during the solve.
+	 *
+	 * @return the allocated bytes or {@code -1} if not supported
+	 */
+	public long getAllocatedBytes() {
+		return allocatedBytes;
+	}
+
+	/**
+	 * Returns the bytes allocated on the calling thread during a phase.
+	 * Allocations of callback threads of the backend are not included.
+	 *
+	 * @param phase
+	 *            the phase
+	 * @return the allocated bytes or {@code -1} if not supported
+	 */
+	public long getAllocatedBytes(Phase phase) {
+		return allocationStart >= 0 ? allocated[phase.ordinal()] : -1;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		StringBuilder s = new StringBuilder("Statistics: {");
+		for (Phase p : Phase.values()) {
+			s.append(p).append("=").append(nanos[p.ordinal()] / 1000).append("us, ");
+		}
+		s.append("rows=").append(rows).append(", columns=").append(columns).append(", nnz=").append(nonZeros);
+		s.append(", iterations=").append(iterations).append(", nodes=").append(nodes);
+		s.append(", conflicts=").append(conflicts).append(", allocated=").append(allocatedBytes).append("}");
+		return s.toString();
+	}
+
+	/**
+	 * Returns the bytes allocated so far by the current thread, using the
+	 * {@code com.sun.management.ThreadMXBean} extension if available.
+	 *
+	 * @return the allocated bytes or {@code -1} if not supported
+	 */
+	protected static long currentAllocatedBytes() {
+		if (allocatedBytesMethod == null) {
+			return -1;
+		}
+		try {
+			return (Long) allocatedBytesMethod.invoke(threadBean, Thread.currentThread().getId());
+		} catch (Exception e) {
+			return -1;
+		}
+	}
+
+	private static Method allocatedBytesMethod() {
+		try {
+			Class<?> type = Class.forName("com.sun.management.ThreadMXBean");
+			if (type.isInstance(threadBean)) {
+				return type.getMethod("getThreadAllocatedBytes", long.class);
+			}
+		} catch (Exception e) {
+			// not supported by this JVM
+		}
+		return null;
+	}
+
+}
@@ -0,0 +1,73 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp;
+
+/**
+ * The status of a call of {@link Solver#solve(Problem)}.
+ * 
+ * @see SolveOutcome
+ * @author lukasiewycz
+ * 
+ */
+public enum SolveStatus {
+
+	/**
+	 * The solution is proven optimal (or feasible for problems without
+	 * objective function).
+	 */
+	OPTIMAL,
+	/**
+	 * A feasible solution was found, but the solver stopped at a limit (time,
+	 * budget, gap) before proving optimality.
+	 */
+	FEASIBLE_AT_LIMIT,
+	/**
+	 * The problem is proven infeasible.
+	 */
+	INFEASIBLE,
+	/**
+	 * The problem is unbounded.
+	 */
+	UNBOUNDED,
+	/**
+	 * The solver stopped at a limit before a feasible solution was found.
+	 */
+	LIMIT_NO_SOLUTION,
+	/**
+	 * The solver failed or cannot solve the problem.
+	 */
+	ERROR,
+	/**
+	 * The problem is infeasible or unbounded, i.e., the solver (typically its
+	 * presolve) did not determine which of both.
+	 */
+	INFEASIBLE_OR_UNBOUNDED;
+
+	/**
+	 * Returns {@code true} if a solution is available.
+	 * 
+	 * @return {@code true} if a solution is available
+	 */
+	public boolean hasSolution() {
+		switch (this) {
+		case OPTIMAL:
+		case FEASIBLE_AT_LIMIT:
+			return true;
+		default:
+			return false;
+		}
+	}
+
+}
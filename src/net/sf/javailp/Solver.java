@@ -17,12 +17,19 @@ package net.sf.javailp;
 import java.util.Map;
 
 /**
- * The {@code Solver}.
+ * The {@code Solver}. A solver might hold native resources that are freed by
+ * {@link #close()}; a closed solver must not be used anymore.
+ * <p>
+ * A solver instance must only be used by one thread at a time. Separate
+ * instances can solve concurrently: the native problems are created and
+ * released within {@link #solve(Problem)} on the calling thread (or owned by
+ * a lazy result that synchronizes its accesses), and the backends whose
+ * native libraries keep global state serialize their calls internally.
  * 
  * @author lukasiewycz
  * 
  */
-public interface Solver {
+public interface Solver extends AutoCloseable {
 
 	/**
 	 * Identifier for the timeout value.
@@ -39,6 +46,37 @@ public interface Solver {
 	 */
 	public static final int POSTSOLVE = 2;
 
+	/**
+	 * Identifier for the lazy result value. If set to {@code true}, the
+	 * values of the result are read from the solver on demand (see
+	 * {@link LazyResult}) and the result has to be closed.
+	 */
+	public static final int LAZY = 3;
+
+	/**
+	 * Identifier for the relative MIP gap value. The solver stops as soon as
+	 * the relative gap {@code |bound-objective|/|objective|} is not larger
+	 * than this value (e.g. {@code 0.01} for 1%).
+	 */
+	public static final int MIP_GAP = 4;
+
+	/**
+	 * Identifier for the absolute MIP gap value. The solver stops as soon as
+	 * the absolute gap {@code |bound-objective|} is not larger than this
+	 * value.
+	 */
+	public static final int ABS_GAP = 5;
+
+	/**
+	 * Identifier for the maximal number of threads value.
+	 */
+	public static final int THREADS = 6;
+
+	/**
+	 * Identifier for the maximal number of branch and bound nodes value.
+	 */
+	public static final int NODE_LIMIT = 7;
+
 	/**
 	 * Sets a parameter.
 	 * 
@@ -66,4 +104,18 @@ public interface Solver {
 	 */
 	public Result solve(Problem problem);
 
+	/**
+	 * Returns the outcome of the last call of {@code solve}, i.e., the
+	 * status, the result, and the best bound. Unlike the result, the outcome
+	 * is also available if no solution was found.
+	 * @return the outcome or {@code null} if no problem was solved
+	 */
+	public SolveOutcome getOutcome();
+
+	/**
+	 * Frees all native resources of this solver. Calling this method more
+	 * than once has no effect.
+	 */
+	public void close();
+
 }
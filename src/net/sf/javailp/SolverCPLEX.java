@@ -20,15 +20,20 @@ import ilog.concert.IloNumVar;
 import ilog.concert.IloNumVarType;
 import ilog.cplex.IloCplex;
 import ilog.cplex.IloCplex.DoubleParam;
+import ilog.cplex.IloCplex.IntParam;
 
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
-import java.util.Map.Entry;
+
+import net.sf.javailp.SolveStatistics.Phase;
 
 /**
  * The {@code SolverCPLEX} is the {@code Solver} CPLEX.
+ * <p>
+ * Each solve creates its own CPLEX environment, thus, separate instances
+ * can solve concurrently.
  * 
  * @author lukasiewycz
  * 
@@ -80,17 +85,24 @@ public class SolverCPLEX extends AbstractSolver {
 	/*
 	 * (non-Javadoc)
 	 * 
-	 * @see net.sf.javailp.Solver#solve(net.sf.javailp.Problem)
+	 * @see net.sf.javailp.AbstractSolver#solveInternal(net.sf.javailp.Problem)
 	 */
-	public Result solve(Problem problem) {
+	@Override
+	protected Result solveInternal(Problem problem) {
+		SolveStatistics statistics = begin(problem);
 		Map<IloNumVar, Object> numToVar = new HashMap<IloNumVar, Object>();
 		Map<Object, IloNumVar> varToNum = new HashMap<Object, IloNumVar>();
 
+		IloCplex cplex = null;
 		try {
-			IloCplex cplex = new IloCplex();
+			cplex = new IloCplex();
+			NativeHandles.allocated("CPLEX");
 
 			initWithParameters(cplex);
 
+			phase(Phase.TRANSFER);
+			IloNumVar[] nums = new IloNumVar[problem.getVariablesCount()];
+
 			for (Object variable : problem.getVariables()) {
 				VarType varType = problem.getVarType(variable);
 				Number lowerBound = problem.getVarLowerBound(variable);
@@ -116,6 +128,7 @@ public class SolverCPLEX extends AbstractSolver {
 
 				numToVar.put(num, variable);
 				varToNum.put(variable, num);
+				nums[problem.getVariableId(variable)] = num;
 			}
 
 			for (Constraint constraint : problem.getConstraints()) {
@@ -153,53 +166,93 @@ public class SolverCPLEX extends AbstractSolver {
 				hook.call(cplex, varToNum);
 			}
 
-			if (!cplex.solve()) {
-				cplex.end();
-				return null;
+			if (hasIncumbentListeners()) {
+				cplex.use(new Incumbents(problem, nums, System.currentTimeMillis()));
 			}
 
-			final Result result;
-			if (problem.getObjective() != null) {
-				Linear objective = problem.getObjective();
-				result = new ResultImpl(objective);
-			} else {
-				result = new ResultImpl();
+			phase(Phase.SOLVE);
+			boolean solved = cplex.solve();
+			statistics.setIterations(cplex.getNiterations());
+			statistics.setNodes(cplex.getNnodes());
+
+			SolveLimit limit = null;
+			IloCplex.CplexStatus cplexStatus = cplex.getCplexStatus();
+			if (cplexStatus == IloCplex.CplexStatus.AbortTimeLim) {
+				limit = SolveLimit.TIME;
+			} else if (cplexStatus == IloCplex.CplexStatus.NodeLimFeas
+					|| cplexStatus == IloCplex.CplexStatus.NodeLimInfeas || cplexStatus == IloCplex.CplexStatus.AbortItLim) {
+				limit = SolveLimit.NODES;
 			}
 
-			for (Entry<Object, IloNumVar> entry : varToNum.entrySet()) {
-				Object variable = entry.getKey();
-				IloNumVar num = entry.getValue();
-				VarType varType = problem.getVarType(variable);
-
-				double value = cplex.getValue(num);
-				if (varType.isInt()) {
-					int v = (int) Math.round(value);
-					result.putPrimalValue(variable, v);
-				} else {
-					result.putPrimalValue(variable, value);
+			if (!solved) {
+				IloCplex.Status status = cplex.getStatus();
+				if (status == IloCplex.Status.Infeasible) {
+					return outcome(SolveStatus.INFEASIBLE, null, null);
+				} else if (status == IloCplex.Status.InfeasibleOrUnbounded) {
+					return outcome(SolveStatus.INFEASIBLE_OR_UNBOUNDED, null, null);
+				} else if (status == IloCplex.Status.Unbounded) {
+					return outcome(SolveStatus.UNBOUNDED, null, null);
+				} else if (status == IloCplex.Status.Error) {
+					return outcome(SolveStatus.ERROR, null, null);
 				}
+				return outcome(SolveStatus.LIMIT_NO_SOLUTION, null, null, limit);
 			}
 
-			cplex.end();
+			SolveStatus status = cplex.getStatus() == IloCplex.Status.Optimal ? SolveStatus.OPTIMAL
+					: SolveStatus.FEASIBLE_AT_LIMIT;
+			Number bound = cplex.isMIP() ? cplex.getBestObjValue() : null;
+
+			phase(Phase.EXTRACTION);
+			Source source = new Source(cplex, nums);
+			if (isLazy()) {
+				// the result releases the solver
+				cplex = null;
+				return outcome(status, new LazyResult(problem, source), bound, limit);
+			}
+
+			// values of integer variables are rounded on access
+			final ArrayResult result = new ArrayResult(problem);
+			result.setPrimalValues(source.getPrimalValues());
 
-			return result;
+			return outcome(status, result, bound, limit);
 
 		} catch (IloException e) {
 			e.printStackTrace();
+		} finally {
+			if (cplex != null) {
+				cplex.end();
+				NativeHandles.released("CPLEX");
+			}
 		}
 
-		return null;
+		return outcome(SolveStatus.ERROR, null, null);
 	}
 
 	protected void initWithParameters(IloCplex cplex) throws IloException {
 		Object timeout = parameters.get(Solver.TIMEOUT);
 		Object verbose = parameters.get(Solver.VERBOSE);
+		Object mipGap = parameters.get(Solver.MIP_GAP);
+		Object absGap = parameters.get(Solver.ABS_GAP);
+		Object threads = parameters.get(Solver.THREADS);
+		Object nodeLimit = parameters.get(Solver.NODE_LIMIT);
 
 		if (timeout != null && timeout instanceof Number) {
 			Number number = (Number) timeout;
 			double value = number.doubleValue();
 			cplex.setParam(DoubleParam.TiLim, value);
 		}
+		if (mipGap != null && mipGap instanceof Number) {
+			cplex.setParam(DoubleParam.EpGap, ((Number) mipGap).doubleValue());
+		}
+		if (absGap != null && absGap instanceof Number) {
+			cplex.setParam(DoubleParam.EpAGap, ((Number) absGap).doubleValue());
+		}
+		if (threads != null && threads instanceof Number) {
+			cplex.setParam(IntParam.Threads, ((Number) threads).intValue());
+		}
+		if (nodeLimit != null && nodeLimit instanceof Number) {
+			cplex.setParam(IntParam.NodeLim, ((Number) nodeLimit).intValue());
+		}
 		if (verbose != null && verbose instanceof Number) {
 			Number number = (Number) verbose;
 			int value = number.intValue();
@@ -211,6 +264,75 @@ public class SolverCPLEX extends AbstractSolver {
 
 	}
 
+	/**
+	 * The {@code Incumbents} reports each new incumbent of CPLEX to the
+	 * incumbent listeners.
+	 * 
+	 * @author lukasiewycz
+	 * 
+	 */
+	protected class Incumbents extends IloCplex.IncumbentCallback {
+
+		protected final Problem problem;
+		protected final IloNumVar[] nums;
+		protected final long start;
+
+		public Incumbents(Problem problem, IloNumVar[] nums, long start) {
+			this.problem = problem;
+			this.nums = nums;
+			this.start = start;
+		}
+
+		@Override
+		protected void main() throws IloException {
+			ArrayResult result = new ArrayResult(problem);
+			result.setPrimalValues(getValues(nums));
+			fireIncumbent(result, getObjValue(), getBestObjValue(), start);
+		}
+	}
+
+	/**
+	 * The {@code Source} reads the values of a solved CPLEX problem.
+	 * 
+	 * @author lukasiewycz
+	 * 
+	 */
+	protected static class Source implements LazyResult.Source {
+
+		protected final IloCplex cplex;
+		protected final IloNumVar[] nums;
+
+		public Source(IloCplex cplex, IloNumVar[] nums) {
+			this.cplex = cplex;
+			this.nums = nums;
+		}
+
+		public double[] getPrimalValues() {
+			try {
+				return cplex.getValues(nums);
+			} catch (IloException e) {
+				throw new IllegalStateException(e);
+			}
+		}
+
+		public double[] getDualValues() {
+			return null;
+		}
+
+		public double[] getConstraintPrimalValues() {
+			return null;
+		}
+
+		public double[] getConstraintDualValues() {
+			return null;
+		}
+
+		public void close() {
+			cplex.end();
+			NativeHandles.released("CPLEX");
+		}
+	}
+
 	protected void convert(Linear linear, IloLinearNumExpr lin, Map<Object, IloNumVar> varToNum) throws IloException {
 		for (Term term : linear) {
 			Number coeff = term.getCoefficient();
@@ -29,4 +29,14 @@ public class SolverFactoryLpSolve extends AbstractSolverFactory {
 		return new SolverLpSolve();
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see net.sf.javailp.AbstractSolverFactory#getBackend()
+	 */
+	@Override
+	protected String getBackend() {
+		return "lp_solve";
+	}
+
 }
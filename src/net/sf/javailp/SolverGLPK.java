@@ -17,7 +17,12 @@ package net.sf.javailp;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantLock;
+
+import net.sf.javailp.SolveStatistics.Phase;
 
 import org.gnu.glpk.GLPK;
 import org.gnu.glpk.GLPKConstants;
@@ -29,6 +34,10 @@ import org.gnu.glpk.glp_smcp;
 
 /**
  * The {@code SolverGLPK} is the {@code Solver} GLPK.
+ * <p>
+ * GLPK 4.40 keeps its environment (the memory accounting and the terminal
+ * output) in a global variable of the native library, thus, the solves of
+ * all instances and the accesses to lazy results are serialized.
  * 
  * @author lukasiewycz
  * 
@@ -60,6 +69,40 @@ public class SolverGLPK extends AbstractSolver {
 				glp_iocp integerParameters, Map<Object, Integer> varToIndex);
 	}
 
+	/**
+	 * The lock of the global environment of the native library.
+	 */
+	protected static final ReentrantLock NATIVE = new ReentrantLock();
+
+	/**
+	 * The released problems that are deleted by the next holder of
+	 * {@link #NATIVE}.
+	 */
+	protected static final Queue<glp_prob> RELEASED = new ConcurrentLinkedQueue<glp_prob>();
+
+	/**
+	 * Acquires the lock of the native library.
+	 */
+	protected static void lock() {
+		NATIVE.lock();
+	}
+
+	/**
+	 * Deletes the released problems and releases the lock of the native
+	 * library.
+	 */
+	protected static void unlock() {
+		try {
+			glp_prob lp;
+			while ((lp = RELEASED.poll()) != null) {
+				GLPK.glp_delete_prob(lp);
+				NativeHandles.released("GLPK");
+			}
+		} finally {
+			NATIVE.unlock();
+		}
+	}
+
 	protected final Set<Hook> hooks = new HashSet<Hook>();
 
 	/**
@@ -85,9 +128,27 @@ public class SolverGLPK extends AbstractSolver {
 	/*
 	 * (non-Javadoc)
 	 * 
-	 * @see net.sf.javailp.Solver#solve(net.sf.javailp.Problem)
+	 * @see net.sf.javailp.AbstractSolver#solveInternal(net.sf.javailp.Problem)
 	 */
-	public Result solve(Problem problem) {
+	@Override
+	protected Result solveInternal(Problem problem) {
+		lock();
+		try {
+			return solveSerialized(problem);
+		} finally {
+			unlock();
+		}
+	}
+
+	/**
+	 * Solves the problem while holding the lock of the native library.
+	 * 
+	 * @param problem
+	 *            the problem
+	 * @return the result or {@code null}
+	 */
+	protected Result solveSerialized(Problem problem) {
+		begin(problem);
 
 		Map<Integer, Object> indexToVar = new HashMap<Integer, Object>();
 		Map<Object, Integer> varToIndex = new HashMap<Object, Integer>();
@@ -114,10 +175,13 @@ public class SolverGLPK extends AbstractSolver {
 		glp_prob lp = null;
 
 		lp = GLPK.glp_create_prob();
+		NativeHandles.allocated("GLPK");
 
 		try {
 			GLPK.glp_set_prob_name(lp, "myProblem");
 
+			phase(Phase.TRANSFER);
+
 			{
 				GLPK.glp_add_cols(lp, nvar);
 				for (i = 1; i <= nvar; i++) {
@@ -226,6 +290,9 @@ public class SolverGLPK extends AbstractSolver {
 					GLPK.glp_set_row_name(lp, k, name);
 					GLPK.glp_set_mat_row(lp, k, size, vars, coeffs);
 					GLPK.glp_set_row_bnds(lp, k, comp, rhs, rhs);
+
+					GLPK.delete_intArray(vars);
+					GLPK.delete_doubleArray(coeffs);
 					
 				}
 			}
@@ -279,6 +346,12 @@ public class SolverGLPK extends AbstractSolver {
 				simplexParameters.setTm_lim(v);
 			}
 
+			// GLPK has only a relative gap, no node limit and a single thread
+			Object mipGap = parameters.get(Solver.MIP_GAP);
+			if (mipGap != null && mipGap instanceof Number) {
+				integerParameters.setMip_gap(((Number) mipGap).doubleValue());
+			}
+
 			if (verbose != null && verbose instanceof Number) {
 				Number number = (Number) verbose;
 				int value = number.intValue();
@@ -303,44 +376,132 @@ public class SolverGLPK extends AbstractSolver {
 
 			if (numberOfIntegerVariables == 0) {
 				
-				GLPK.glp_simplex(lp, simplexParameters);
+				phase(Phase.SOLVE);
+				int ret = GLPK.glp_simplex(lp, simplexParameters);
 				
-				Result result;
-				if (problem.getObjective() != null) {
-					result = new ResultImpl(problem.getObjective());
+				final SolveStatus status;
+				final SolveLimit limit = ret == GLPKConstants.GLP_ETMLIM ? SolveLimit.TIME : null;
+				int glpStatus = GLPK.glp_get_status(lp);
+				if (glpStatus == GLPKConstants.GLP_OPT) {
+					status = SolveStatus.OPTIMAL;
+				} else if (glpStatus == GLPKConstants.GLP_FEAS) {
+					status = SolveStatus.FEASIBLE_AT_LIMIT;
+				} else if (glpStatus == GLPKConstants.GLP_NOFEAS) {
+					return outcome(SolveStatus.INFEASIBLE, null, null);
+				} else if (glpStatus == GLPKConstants.GLP_UNBND) {
+					return outcome(SolveStatus.UNBOUNDED, null, null);
+				} else if (ret == GLPKConstants.GLP_ETMLIM) {
+					return outcome(SolveStatus.LIMIT_NO_SOLUTION, null, null, limit);
 				} else {
-					result = new ResultImpl();
+					return outcome(SolveStatus.ERROR, null, null);
 				}
 				
-				for (i = 1; i <= nvar; i++) {
-					Object variable = indexToVar.get(i);
-					double primalValue = GLPK.glp_get_col_prim(lp, i);
-					double dualValue = GLPK.glp_get_col_dual(lp, i);
-
-					if (problem.getVarType(variable).isInt()) {
-						int v = (int) Math.round(primalValue);
-						result.putPrimalValue(variable, v);
-					} else {
-						result.putPrimalValue(variable, primalValue);
-					}
-					result.putDualValue(variable, dualValue);
+				phase(Phase.EXTRACTION);
+				Source source = new Source(lp, nvar, ncon);
+				if (isLazy()) {
+					// the result releases the problem
+					lp = null;
+					return outcome(status, new LazyResult(problem, source), null, limit);
 				}
 
-				for (i = 1; i <= ncon; i++) {
-					Constraint constraint = indexToCon.get(i);
-					double primalValue = GLPK.glp_get_row_prim(lp, i);
-					double dualValue = GLPK.glp_get_row_dual(lp, i);
-					result.putPrimalValue(constraint.getName(), primalValue);
-					result.putDualValue(constraint.getName(), dualValue);
-				}
+				ArrayResult result = new ArrayResult(problem);
+				result.setPrimalValues(source.getPrimalValues());
+				result.setDualValues(source.getDualValues());
+				result.setConstraintPrimalValues(source.getConstraintPrimalValues());
+				result.setConstraintDualValues(source.getConstraintDualValues());
 				
-				return result;
+				return outcome(status, result, null, limit);
 			} else {
-				return null;
+				// integer variables are not supported
+				return outcome(SolveStatus.ERROR, null, null);
 			}
 
 		} finally {
-			GLPK.glp_delete_prob(lp);
+			if (lp != null) {
+				GLPK.glp_delete_prob(lp);
+				NativeHandles.released("GLPK");
+			}
+		}
+	}
+
+	/**
+	 * The {@code Source} reads the values of a solved GLPK problem. The
+	 * columns are the ids of the variables (index = id+1) and the rows are the
+	 * constraints (index = position+1).
+	 * 
+	 * @author lukasiewycz
+	 * 
+	 */
+	protected static class Source implements LazyResult.Source {
+
+		protected final glp_prob lp;
+		protected final int nvar;
+		protected final int ncon;
+
+		public Source(glp_prob lp, int nvar, int ncon) {
+			this.lp = lp;
+			this.nvar = nvar;
+			this.ncon = ncon;
+		}
+
+		public double[] getPrimalValues() {
+			lock();
+			try {
+				double[] values = new double[nvar];
+				for (int i = 1; i <= nvar; i++) {
+					values[i - 1] = GLPK.glp_get_col_prim(lp, i);
+				}
+				return values;
+			} finally {
+				unlock();
+			}
+		}
+
+		public double[] getDualValues() {
+			lock();
+			try {
+				double[] values = new double[nvar];
+				for (int i = 1; i <= nvar; i++) {
+					values[i - 1] = GLPK.glp_get_col_dual(lp, i);
+				}
+				return values;
+			} finally {
+				unlock();
+			}
+		}
+
+		public double[] getConstraintPrimalValues() {
+			lock();
+			try {
+				double[] values = new double[ncon];
+				for (int i = 1; i <= ncon; i++) {
+					values[i - 1] = GLPK.glp_get_row_prim(lp, i);
+				}
+				return values;
+			} finally {
+				unlock();
+			}
+		}
+
+		public double[] getConstraintDualValues() {
+			lock();
+			try {
+				double[] values = new double[ncon];
+				for (int i = 1; i <= ncon; i++) {
+					values[i - 1] = GLPK.glp_get_row_dual(lp, i);
+				}
+				return values;
+			} finally {
+				unlock();
+			}
+		}
+
+		public void close() {
+			// called by the finalizer of the result, i.e., must not wait
+			RELEASED.add(lp);
+			if (NATIVE.tryLock()) {
+				unlock();
+			}
 		}
 	}
 }
\ No newline at end of file
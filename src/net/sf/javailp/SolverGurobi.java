@@ -15,6 +15,7 @@
 package net.sf.javailp;
 
 import gurobi.GRB;
+import gurobi.GRBCallback;
 import gurobi.GRBEnv;
 import gurobi.GRBException;
 import gurobi.GRBLinExpr;
@@ -24,11 +25,16 @@ import gurobi.GRBVar;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Set;
 
+import net.sf.javailp.SolveStatistics.Phase;
+
 /**
  * The {@code SolverGurobi} is the {@code Solver} Gurobi.
+ * <p>
+ * Each solve creates its own Gurobi environment, thus, separate instances
+ * can solve concurrently. All environments append to the log file
+ * {@code gurobi.log}.
  * 
  * @author fabiogenoese, lukasiewycz
  * 
@@ -38,21 +44,26 @@ public class SolverGurobi extends AbstractSolver {
 	/*
 	 * (non-Javadoc)
 	 * 
-	 * @see net.sf.javailp.Solver#solve(net.sf.javailp.Problem)
+	 * @see net.sf.javailp.AbstractSolver#solveInternal(net.sf.javailp.Problem)
 	 */
-	public Result solve(Problem problem) {
+	@Override
+	protected Result solveInternal(Problem problem) {
+		SolveStatistics statistics = begin(problem);
 
 		Map<Object, GRBVar> objToVar = new HashMap<Object, GRBVar>();
 		Map<GRBVar, Object> varToObj = new HashMap<GRBVar, Object>();
 		// Map<String, GRBVar> nameToVar = new HashMap<String, GRBVar>(nvar);
 
+		GRBEnv env = null;
 		try {
-			GRBEnv env = new GRBEnv("gurobi.log");
+			env = new GRBEnv("gurobi.log");
+			NativeHandles.allocated("Gurobi");
 
 			initWithParameters(env);
 
 			GRBModel model = new GRBModel(env);
 
+			phase(Phase.TRANSFER);
 			OptType optType = problem.getOptType();
 			Map<Object, Double> optimizationCoefficients = new HashMap<Object, Double>();
 			Linear objective = problem.getObjective();
@@ -67,6 +78,8 @@ public class SolverGurobi extends AbstractSolver {
 				}
 			}
 
+			GRBVar[] vars = new GRBVar[problem.getVariablesCount()];
+
 			int i = 1;
 			for (Object variable : problem.getVariables()) {
 				VarType varType = problem.getVarType(variable);
@@ -100,6 +113,7 @@ public class SolverGurobi extends AbstractSolver {
 				GRBVar var = model.addVar(lb, ub, coeff, type, name);
 				objToVar.put(variable, var);
 				varToObj.put(var, variable);
+				vars[problem.getVariableId(variable)] = var;
 				i++;
 			}
 			model.update();
@@ -128,36 +142,145 @@ public class SolverGurobi extends AbstractSolver {
 				hook.call(env, model, objToVar, varToObj, problem);
 			}
 			
+			if (hasIncumbentListeners()) {
+				model.setCallback(new Incumbents(problem, vars, System.currentTimeMillis()));
+			}
+
+			phase(Phase.SOLVE);
 			model.optimize();
+			statistics.setIterations((long) model.get(GRB.DoubleAttr.IterCount));
+			if (model.get(GRB.IntAttr.IsMIP) != 0) {
+				statistics.setNodes((long) model.get(GRB.DoubleAttr.NodeCount));
+			}
 
-			Result result;
-			if (problem.getObjective() != null) {
-				result = new ResultImpl(problem.getObjective());
-			} else {
-				result = new ResultImpl();
+			int grbStatus = model.get(GRB.IntAttr.Status);
+			if (grbStatus == GRB.Status.INFEASIBLE) {
+				return outcome(SolveStatus.INFEASIBLE, null, null);
+			} else if (grbStatus == GRB.Status.INF_OR_UNBD) {
+				return outcome(SolveStatus.INFEASIBLE_OR_UNBOUNDED, null, null);
+			} else if (grbStatus == GRB.Status.UNBOUNDED) {
+				return outcome(SolveStatus.UNBOUNDED, null, null);
+			} else if (grbStatus == GRB.Status.NUMERIC) {
+				return outcome(SolveStatus.ERROR, null, null);
 			}
 
-			for (Entry<Object, GRBVar> entry : objToVar.entrySet()) {
-				Object variable = entry.getKey();
-				GRBVar var = entry.getValue();
+			SolveLimit limit = null;
+			if (grbStatus == GRB.Status.TIME_LIMIT) {
+				limit = SolveLimit.TIME;
+			} else if (grbStatus == GRB.Status.NODE_LIMIT || grbStatus == GRB.Status.ITERATION_LIMIT) {
+				limit = SolveLimit.NODES;
+			}
+			if (model.get(GRB.IntAttr.SolCount) == 0) {
+				return outcome(SolveStatus.LIMIT_NO_SOLUTION, null, null, limit);
+			}
 
-				double primalValue = var.get(GRB.DoubleAttr.X);
+			SolveStatus status = grbStatus == GRB.Status.OPTIMAL ? SolveStatus.OPTIMAL : SolveStatus.FEASIBLE_AT_LIMIT;
+			Number bound = model.get(GRB.IntAttr.IsMIP) != 0 ? model.get(GRB.DoubleAttr.ObjBound) : null;
 
-				if (problem.getVarType(variable).isInt()) {
-					int v = (int) Math.round(primalValue);
-					result.putPrimalValue(variable, v);
-				} else {
-					result.putPrimalValue(variable, primalValue);
-				}
+			phase(Phase.EXTRACTION);
+			Source source = new Source(env, model, vars);
+			if (isLazy()) {
+				// the result releases the environment
+				env = null;
+				return outcome(status, new LazyResult(problem, source), bound, limit);
 			}
 
-			return result;
+			// values of integer variables are rounded on access
+			ArrayResult result = new ArrayResult(problem);
+			result.setPrimalValues(source.getPrimalValues());
+
+			return outcome(status, result, bound, limit);
 
 		} catch (GRBException e) {
 			e.printStackTrace();
+			return outcome(SolveStatus.ERROR, null, null);
+		} finally {
+			// the model of this Gurobi version has no dispose(), releasing
+			// the environment frees the license and the solver memory
+			if (env != null) {
+				env.release();
+				NativeHandles.released("Gurobi");
+			}
+		}
+
+	}
+
+	/**
+	 * The {@code Incumbents} reports each new incumbent of Gurobi to the
+	 * incumbent listeners.
+	 * 
+	 * @author lukasiewycz
+	 * 
+	 */
+	protected class Incumbents extends GRBCallback {
+
+		protected final Problem problem;
+		protected final GRBVar[] vars;
+		protected final long start;
+
+		public Incumbents(Problem problem, GRBVar[] vars, long start) {
+			this.problem = problem;
+			this.vars = vars;
+			this.start = start;
+		}
+
+		@Override
+		protected void callback() {
+			if (where == GRB.Callback.MIPSOL) {
+				try {
+					ArrayResult result = new ArrayResult(problem);
+					result.setPrimalValues(getSolution(vars));
+					fireIncumbent(result, getDoubleInfo(GRB.Callback.MIPSOL_OBJ),
+							getDoubleInfo(GRB.Callback.MIPSOL_OBJBND), start);
+				} catch (GRBException e) {
+					e.printStackTrace();
+				}
+			}
+		}
+	}
+
+	/**
+	 * The {@code Source} reads the values of a solved Gurobi model.
+	 * 
+	 * @author lukasiewycz
+	 * 
+	 */
+	protected static class Source implements LazyResult.Source {
+
+		protected final GRBEnv env;
+		protected final GRBModel model;
+		protected final GRBVar[] vars;
+
+		public Source(GRBEnv env, GRBModel model, GRBVar[] vars) {
+			this.env = env;
+			this.model = model;
+			this.vars = vars;
+		}
+
+		public double[] getPrimalValues() {
+			try {
+				return model.get(GRB.DoubleAttr.X, vars);
+			} catch (GRBException e) {
+				throw new IllegalStateException(e);
+			}
+		}
+
+		public double[] getDualValues() {
 			return null;
 		}
 
+		public double[] getConstraintPrimalValues() {
+			return null;
+		}
+
+		public double[] getConstraintDualValues() {
+			return null;
+		}
+
+		public void close() {
+			env.release();
+			NativeHandles.released("Gurobi");
+		}
 	}
 
 	protected void initWithParameters(GRBEnv env) throws GRBException {
@@ -183,6 +306,24 @@ public class SolverGurobi extends AbstractSolver {
 			double value = number.doubleValue();
 			env.set(GRB.DoubleParam.TimeLimit, value);
 		}
+
+		Object mipGap = parameters.get(Solver.MIP_GAP);
+		Object absGap = parameters.get(Solver.ABS_GAP);
+		Object threads = parameters.get(Solver.THREADS);
+		Object nodeLimit = parameters.get(Solver.NODE_LIMIT);
+
+		if (mipGap != null && mipGap instanceof Number) {
+			env.set(GRB.DoubleParam.MIPGap, ((Number) mipGap).doubleValue());
+		}
+		if (absGap != null && absGap instanceof Number) {
+			env.set(GRB.DoubleParam.MIPGapAbs, ((Number) absGap).doubleValue());
+		}
+		if (threads != null && threads instanceof Number) {
+			env.set(GRB.IntParam.Threads, ((Number) threads).intValue());
+		}
+		if (nodeLimit != null && nodeLimit instanceof Number) {
+			env.set(GRB.DoubleParam.NodeLimit, ((Number) nodeLimit).doubleValue());
+		}
 	}
 
 	/**
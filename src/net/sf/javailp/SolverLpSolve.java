@@ -21,9 +21,15 @@ import java.util.Set;
 
 import lpsolve.LpSolve;
 import lpsolve.LpSolveException;
+import lpsolve.MsgListener;
+import net.sf.javailp.SolveStatistics.Phase;
 
 /**
  * The {@code SolverLpSolve} is the {@code Solver} lp_solve.
+ * <p>
+ * Each solve creates its own lp_solve model and lp_solve keeps no global
+ * state besides the models, thus, separate instances can solve
+ * concurrently.
  * 
  * @author lukasiewycz
  * 
@@ -75,9 +81,21 @@ public class SolverLpSolve extends AbstractSolver {
 	/*
 	 * (non-Javadoc)
 	 * 
-	 * @see net.sf.javailp.Solver#solve(net.sf.javailp.Problem)
+	 * @see net.sf.javailp.AbstractSolver#getBackend()
 	 */
-	public Result solve(Problem problem) {
+	@Override
+	public String getBackend() {
+		return "lp_solve";
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see net.sf.javailp.AbstractSolver#solveInternal(net.sf.javailp.Problem)
+	 */
+	@Override
+	protected Result solveInternal(Problem problem) {
+		SolveStatistics statistics = begin(problem);
 
 		Map<Integer, Object> indexToVar = new HashMap<Integer, Object>();
 		Map<Object, Integer> varToIndex = new HashMap<Object, Integer>();
@@ -89,11 +107,92 @@ public class SolverLpSolve extends AbstractSolver {
 			i++;
 		}
 
+		LpSolve lp = null;
 		try {
-			LpSolve lp = LpSolve.makeLp(0, problem.getVariablesCount());
+			lp = build(problem, varToIndex);
+
+			for (Hook hook : hooks) {
+				hook.call(lp, varToIndex);
+			}
+
+			if (hasIncumbentListeners()) {
+				lp.putMsgfunc(new Incumbents(problem, System.currentTimeMillis()), null, LpSolve.MSG_MILPFEASIBLE
+						| LpSolve.MSG_MILPBETTER);
+			}
+
+			phase(Phase.SOLVE);
+			int ret = lp.solve();
+			statistics.setIterations(lp.getTotalIter());
+			statistics.setNodes(lp.getTotalNodes());
+			
+			final SolveStatus status;
+			switch (ret) {
+			case LpSolve.OPTIMAL:
+				status = SolveStatus.OPTIMAL;
+				break;
+			case LpSolve.SUBOPTIMAL:
+			case LpSolve.FEASFOUND:
+				status = SolveStatus.FEASIBLE_AT_LIMIT;
+				break;
+			case LpSolve.INFEASIBLE:
+				return outcome(SolveStatus.INFEASIBLE, null, null);
+			case LpSolve.UNBOUNDED:
+				return outcome(SolveStatus.UNBOUNDED, null, null);
+			case LpSolve.TIMEOUT:
+				return outcome(SolveStatus.LIMIT_NO_SOLUTION, null, null, SolveLimit.TIME);
+			case LpSolve.USERABORT:
+			case LpSolve.NOFEASFOUND:
+				return outcome(SolveStatus.LIMIT_NO_SOLUTION, null, null);
+			default:
+				return outcome(SolveStatus.ERROR, null, null);
+			}
+			
+			phase(Phase.EXTRACTION);
+			Source source = new Source(lp, problem.getVariablesCount(), problem.getConstraintsCount());
+			if (isLazy()) {
+				// the result releases the problem
+				lp = null;
+				return outcome(status, new LazyResult(problem, source), null);
+			}
+
+			// values of integer variables are rounded on access
+			final ArrayResult result = new ArrayResult(problem);
+			result.setPrimalValues(source.getPrimalValues());
+			// lp.getDualSolution(dualValues); throws lpsolve.LpSolveException: Target array is too short to hold values
+
+			return outcome(status, result, null);
+
+		} catch (LpSolveException e) {
+			e.printStackTrace();
+		} finally {
+			if (lp != null) {
+				lp.deleteLp();
+				NativeHandles.released("lp_solve");
+			}
+		}
+		return outcome(SolveStatus.ERROR, null, null);
+	}
 
+	/**
+	 * Creates the lp_solve problem and transfers the variables, constraints,
+	 * and objective of a {@code Problem}.
+	 * 
+	 * @param problem
+	 *            the problem
+	 * @param varToIndex
+	 *            the map of the variables to the columns
+	 * @return the lp_solve problem
+	 * @throws LpSolveException
+	 *             if the transfer fails
+	 */
+	protected LpSolve build(Problem problem, Map<Object, Integer> varToIndex) throws LpSolveException {
+		LpSolve lp = LpSolve.makeLp(0, problem.getVariablesCount());
+		NativeHandles.allocated("lp_solve");
+
+		try {
 			initWithParameters(lp);
 
+			phase(Phase.TRANSFER);
 			lp.setAddRowmode(true);
 
 			for (Constraint constraint : problem.getConstraints()) {
@@ -174,58 +273,12 @@ public class SolverLpSolve extends AbstractSolver {
 					lp.setMaxim();
 				}
 			}
-
-			for (Hook hook : hooks) {
-				hook.call(lp, varToIndex);
-			}
-
-			int ret = lp.solve();
-			
-			// 0 means optimal
-			// 1 means suboptimal
-			// 12 means feasible
-			if(ret != 0 && ret != 1 && ret != 12){
-				lp.deleteLp();
-				return null;
-			}
-			
-			final Result result;
-			if (problem.getObjective() != null) {
-				result = new ResultImpl(problem.getObjective());
-			} else {
-				result = new ResultImpl();
-			}
-
-			
-			
-			double[] values = new double[problem.getVariablesCount()];
-			double[] dualValues = new double[problem.getConstraintsCount()];
-			lp.getVariables(values);
-			// lp.getDualSolution(dualValues); throws lpsolve.LpSolveException: Target array is too short to hold values
-
-			for (Object variable : problem.getVariables()) {
-
-				int index = varToIndex.get(variable);
-				VarType varType = problem.getVarType(variable);
-
-				double value = values[index - 1];
-
-				if (varType == VarType.INT || varType == VarType.BOOL) {
-					int v = (int) Math.round(value);
-					result.putPrimalValue(variable, v);
-				} else {
-					result.putPrimalValue(variable, value);
-				}
-			}
-
-			lp.deleteLp();
-
-			return result;
-
 		} catch (LpSolveException e) {
-			e.printStackTrace();
+			lp.deleteLp();
+			NativeHandles.released("lp_solve");
+			throw e;
 		}
-		return null;
+		return lp;
 	}
 
 	protected void initWithParameters(LpSolve lp) {
@@ -237,6 +290,17 @@ public class SolverLpSolve extends AbstractSolver {
 			long value = number.longValue();
 			lp.setTimeout(value);
 		}
+
+		// lp_solve runs single-threaded and has no node limit
+		Object mipGap = parameters.get(Solver.MIP_GAP);
+		Object absGap = parameters.get(Solver.ABS_GAP);
+
+		if (mipGap != null && mipGap instanceof Number) {
+			lp.setMipGap(false, ((Number) mipGap).doubleValue());
+		}
+		if (absGap != null && absGap instanceof Number) {
+			lp.setMipGap(true, ((Number) absGap).doubleValue());
+		}
 		if (verbose != null && verbose instanceof Number) {
 			Number number = (Number) verbose;
 			int value = number.intValue();
@@ -251,6 +315,87 @@ public class SolverLpSolve extends AbstractSolver {
 
 	}
 
+	/**
+	 * The {@code Incumbents} reports each improved solution of lp_solve to the
+	 * incumbent listeners. lp_solve does not provide the bound of the branch
+	 * and bound.
+	 * 
+	 * @author lukasiewycz
+	 * 
+	 */
+	protected class Incumbents implements MsgListener {
+
+		protected final Problem problem;
+		protected final long start;
+
+		public Incumbents(Problem problem, long start) {
+			this.problem = problem;
+			this.start = start;
+		}
+
+		public void msgfunc(LpSolve lp, Object handle, int msg) throws LpSolveException {
+			double[] values = new double[problem.getVariablesCount()];
+			lp.getVariables(values);
+			ArrayResult result = new ArrayResult(problem);
+			result.setPrimalValues(values);
+			fireIncumbent(result, lp.getWorkingObjective(), null, start);
+		}
+	}
+
+	/**
+	 * The {@code Source} reads the values of a solved lp_solve problem. The
+	 * columns are the ids of the variables (index = id+1) and the rows are the
+	 * constraints (index = position+1).
+	 * 
+	 * @author lukasiewycz
+	 * 
+	 */
+	protected static class Source implements LazyResult.Source {
+
+		protected final LpSolve lp;
+		protected final int nvar;
+		protected final int ncon;
+
+		public Source(LpSolve lp, int nvar, int ncon) {
+			this.lp = lp;
+			this.nvar = nvar;
+			this.ncon = ncon;
+		}
+
+		public double[] getPrimalValues() {
+			try {
+				double[] values = new double[nvar];
+				lp.getVariables(values);
+				return values;
+			} catch (LpSolveException e) {
+				throw new IllegalStateException(e);
+			}
+		}
+
+		public double[] getDualValues() {
+			return null;
+		}
+
+		public double[] getConstraintPrimalValues() {
+			try {
+				double[] values = new double[ncon];
+				lp.getConstraints(values);
+				return values;
+			} catch (LpSolveException e) {
+				throw new IllegalStateException(e);
+			}
+		}
+
+		public double[] getConstraintDualValues() {
+			return null;
+		}
+
+		public void close() {
+			lp.deleteLp();
+			NativeHandles.released("lp_solve");
+		}
+	}
+
 	protected void convert(Linear linear, int[] var, double[] coeffs, Map<Object, Integer> varToIndex) {
 		int i = 0;
 		for (Term term : linear) {
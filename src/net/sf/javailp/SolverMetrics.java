@@ -0,0 +1,219 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * The class {@code SolverMetrics} counts the solves of the solvers of a
+ * {@link SolverFactory} and records their latencies. The counters are
+ * striped such that solvers on many threads do not contend. It is exposed
+ * over JMX with {@link AbstractSolverFactory#register()}.
+ * 
+ * @author lukasiewycz
+ * 
+ */
+public class SolverMetrics implements SolverMetricsMBean {
+
+	protected final String backend;
+	protected final StripedCounter started = new StripedCounter();
+	protected final StripedCounter completed = new StripedCounter();
+	protected final StripedCounter failed = new StripedCounter();
+	protected final StripedCounter timeouts = new StripedCounter();
+	protected final LatencyHistogram latency = new LatencyHistogram();
+
+	/**
+	 * Constructs a {@code SolverMetrics}.
+	 * 
+	 * @param backend
+	 *            the name of the backend
+	 */
+	public SolverMetrics(String backend) {
+		this.backend = backend;
+	}
+
+	/**
+	 * Counts a started solve.
+	 */
+	public void started() {
+		started.increment();
+	}
+
+	/**
+	 * Counts a finished solve without a known limit.
+	 * 
+	 * @param status
+	 *            the status ({@code null} if the solve threw an exception)
+	 * @param nanos
+	 *            the latency in nanoseconds
+	 */
+	public void finished(SolveStatus status, long nanos) {
+		finished(status, null, nanos);
+	}
+
+	/**
+	 * Counts a finished solve. A solve that was stopped by the timeout or
+	 * the node limit is counted as timeout, a solve that was stopped at the
+	 * gap is not.
+	 * 
+	 * @param status
+	 *            the status ({@code null} if the solve threw an exception)
+	 * @param limit
+	 *            the limit that stopped the solve ({@code null} if none or
+	 *            unknown)
+	 * @param nanos
+	 *            the latency in nanoseconds
+	 */
+	public void finished(SolveStatus status, SolveLimit limit, long nanos) {
+		latency.record(nanos);
+		if (status == null || status == SolveStatus.ERROR) {
+			failed.increment();
+		} else {
+			if (limit == SolveLimit.TIME || limit == SolveLimit.NODES) {
+				timeouts.increment();
+			}
+			completed.increment();
+		}
+	}
+
+	/**
+	 * Registers the metrics at the platform MBean server.
+	 * 
+	 * @param name
+	 *            the name of the MBean
+	 * @throws JMException
+	 *             if the registration fails
+	 */
+	public void register(ObjectName name) throws JMException {
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		server.registerMBean(this, name);
+	}
+
+	/**
+	 * Returns the latency histogram in nanoseconds.
+	 * 
+	 * @return the histogram
+	 */
+	public LatencyHistogram getLatency() {
+		return latency;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see net.sf.javailp.SolverMetricsMBean#getBackend()
+	 */
+	public String getBackend() {
+		return backend;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see net.sf.javailp.SolverMetricsMBean#getSolvesStarted()
+	 */
+	public long getSolvesStarted() {
+		return started.sum();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see net.sf.javailp.SolverMetricsMBean#getSolvesCompleted()
+	 */
+	public long getSolvesCompleted() {
+		return completed.sum();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see net.sf.javailp.SolverMetricsMBean#getSolvesFailed()
+	 */
+	public long getSolvesFailed() {
+		return failed.sum();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see net.sf.javailp.SolverMetricsMBean#getSolvesInFlight()
+	 */
+	public long getSolvesInFlight() {
+		// read the finished solves first such that the difference is not
+		// negative
+		long finished = completed.sum() + failed.sum();
+		return Math.max(started.sum() - finished, 0);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see net.sf.javailp.SolverMetricsMBean#getTimeouts()
+	 */
+	public long getTimeouts() {
+		return timeouts.sum();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see net.sf.javailp.SolverMetricsMBean#getLatencyP50()
+	 */
+	public double getLatencyP50() {
+		return latency.getValueAtPercentile(50) / 1e6;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see net.sf.javailp.SolverMetricsMBean#getLatencyP95()
+	 */
+	public double getLatencyP95() {
+		return latency.getValueAtPercentile(95) / 1e6;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see net.sf.javailp.SolverMetricsMBean#getLatencyP99()
+	 */
+	public double getLatencyP99() {
+		return latency.getValueAtPercentile(99) / 1e6;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see net.sf.javailp.SolverMetricsMBean#getNativeHandlesOutstanding()
+	 */
+	public long getNativeHandlesOutstanding() {
+		return NativeHandles.getOutstanding(backend);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see net.sf.javailp.SolverMetricsMBean#resetLatency()
+	 */
+	public void resetLatency() {
+		latency.reset();
+	}
+
+}
@@ -0,0 +1,107 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp;
+
+/**
+ * The management interface of the {@link SolverMetrics}.
+ * 
+ * @author lukasiewycz
+ * 
+ */
+public interface SolverMetricsMBean {
+
+	/**
+	 * Returns the name of the backend.
+	 * 
+	 * @return the name of the backend
+	 */
+	public String getBackend();
+
+	/**
+	 * Returns the number of started solves.
+	 * 
+	 * @return the number of started solves
+	 */
+	public long getSolvesStarted();
+
+	/**
+	 * Returns the number of solves that returned a status other than
+	 * {@link SolveStatus#ERROR}.
+	 * 
+	 * @return the number of completed solves
+	 */
+	public long getSolvesCompleted();
+
+	/**
+	 * Returns the number of solves that returned {@link SolveStatus#ERROR}
+	 * or threw an exception. A solve that threw an exception is counted with
+	 * the next solve of the same solver.
+	 * 
+	 * @return the number of failed solves
+	 */
+	public long getSolvesFailed();
+
+	/**
+	 * Returns the number of solves that are currently running.
+	 * 
+	 * @return the number of running solves
+	 */
+	public long getSolvesInFlight();
+
+	/**
+	 * Returns the number of solves that were stopped by the timeout, the node
+	 * limit, or a budget (see {@link SolveLimit#TIME} and
+	 * {@link SolveLimit#NODES}). Solves that stopped at the gap are not
+	 * counted.
+	 * 
+	 * @return the number of timeouts
+	 */
+	public long getTimeouts();
+
+	/**
+	 * Returns the median latency of the finished solves.
+	 * 
+	 * @return the latency in milliseconds
+	 */
+	public double getLatencyP50();
+
+	/**
+	 * Returns the 95th percentile of the latency of the finished solves.
+	 * 
+	 * @return the latency in milliseconds
+	 */
+	public double getLatencyP95();
+
+	/**
+	 * Returns the 99th percentile of the latency of the finished solves.
+	 * 
+	 * @return the latency in milliseconds
+	 */
+	public double getLatencyP99();
+
+	/**
+	 * Returns the number of native handles of the backend that are not yet
+	 * released (by all solvers, see {@link NativeHandles}).
+	 * 
+	 * @return the number of outstanding native handles
+	 */
+	public long getNativeHandlesOutstanding();
+
+	/**
+	 * Removes the recorded latencies.
+	 */
+	public void resetLatency();
+
+}
@@ -14,14 +14,23 @@
  */
 package net.sf.javailp;
 
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 
+import net.sf.javailp.SolveStatistics.Phase;
 import net.sf.javailp.minisat.MiniSat;
 
 /**
  * The {@code SolverMiniSat} is the {@code Solver} MiniSat+.
+ * <p>
+ * Each instance owns its native solver. The searches of all instances are
+ * serialized since MiniSat+ keeps global state (see {@link MiniSat}).
  * 
  * @see <a href="http://minisat.se/MiniSat+.html">http://minisat.se/MiniSat+.html</a>
  * @author lukasiewycz
@@ -29,70 +38,358 @@ import net.sf.javailp.minisat.MiniSat;
  */
 public class SolverMiniSat extends AbstractSolver {
 
+	/**
+	 * Identifier for the conflict budget of a single call of {@code solve}.
+	 */
+	public static final String CONFLICTS = "MiniSat.conflicts";
+
+	/**
+	 * Identifier for the propagation budget of a single call of {@code solve}.
+	 */
+	public static final String PROPAGATIONS = "MiniSat.propagations";
+
 	protected MiniSat minisat;
 
+	protected Problem problem = null;
+	protected List<Object> snapshot = null;
+	protected int transferredConstraints = 0;
+	protected boolean blocked = false;
+	protected final Map<Object, Integer> varToInt = new HashMap<Object, Integer>();
+	protected final Map<Integer, Object> intToVar = new HashMap<Integer, Object>();
+	protected final Map<Object, Boolean> failedAssumptions = new HashMap<Object, Boolean>();
+
 	/**
 	 * Constructs a {@code minisat+} solver.
 	 */
 	public SolverMiniSat() {
-		minisat = new MiniSat();
+		minisat = create();
 	}
 
 	/*
 	 * (non-Javadoc)
 	 * 
-	 * @see net.sf.javailp.Solver#solve(net.sf.javailp.Problem)
+	 * @see net.sf.javailp.AbstractSolver#solveInternal(net.sf.javailp.Problem)
+	 */
+	@Override
+	protected Result solveInternal(Problem problem) {
+		Map<Object, Boolean> assumptions = Collections.emptyMap();
+		return solveInternal(problem, assumptions);
+	}
+
+	/**
+	 * Solve the optimization problem under the given assumptions. The
+	 * assumptions fix the value of some variables for this call only. If the
+	 * same {@code Problem} was solved before by this solver and, in the
+	 * meantime, only constraints over the existing variables were added (the
+	 * optimization type, the objective, and the types and bounds of the
+	 * variables are unchanged), the native solver is reused and only the new constraints are transferred.
+	 * Otherwise, the native solver is rebuilt. Returns {@code null} if there
+	 * exists no feasible solution under the assumptions, see
+	 * {@link #getFailedAssumptions()}. If the timeout or a budget is reached,
+	 * the best solution found so far is returned, see
+	 * {@link #isLimitReached()}.
+	 * 
+	 * @param problem
+	 *            the optimization problem
+	 * @param assumptions
+	 *            the assumed values of variables
+	 * @return the result
 	 */
-	public Result solve(Problem problem) {
+	public Result solve(Problem problem, Map<Object, Boolean> assumptions) {
+		try {
+			return solveInternal(problem, assumptions);
+		} finally {
+			abort();
+		}
+	}
+
+	protected Result solveInternal(Problem problem, Map<Object, Boolean> assumptions) {
 
-		Map<Object, Integer> varToInt = new HashMap<Object, Integer>();
-		Map<Integer, Object> intToVar = new HashMap<Integer, Object>();
+		SolveStatistics statistics = begin(problem);
+		prepare(problem);
 
+		int[] lits = new int[assumptions.size()];
 		{
 			int i = 0;
-			for (Object variable : problem.getVariables()) {
-				check(variable, problem);
-				intToVar.put(i, variable);
-				varToInt.put(variable, i);
-				i++;
+			for (Entry<Object, Boolean> entry : assumptions.entrySet()) {
+				Object variable = entry.getKey();
+				Integer var = varToInt.get(variable);
+				if (var == null) {
+					throw new IllegalArgumentException("Variable " + variable
+							+ " is not a variable of the problem.");
+				}
+				lits[i++] = entry.getValue() ? var + 1 : -(var + 1);
 			}
 		}
 
-		initWithParameters();
+		failedAssumptions.clear();
 
-		for (Constraint constraint : problem.getConstraints()) {
-			Linear linear = constraint.getLhs();
-			Operator operator = constraint.getOperator();
+		phase(Phase.SOLVE);
+		long[] before = minisat.getStatistics();
+		long start = System.nanoTime();
+		boolean sat = minisat.solve(lits);
+		long nanos = System.nanoTime() - start;
+		long[] after = minisat.getStatistics();
+		statistics.setNodes(after[0] - before[0]);
+		statistics.setIterations(after[1] - before[1]);
+		statistics.setConflicts(after[2] - before[2]);
 
-			String comp = null;
-			switch (operator) {
-			case LE:
-				comp = "<=";
-				break;
-			case GE:
-				comp = ">=";
-				break;
-			default: // EQ
-				comp = "=";
-				break;
+		if (sat) {
+
+			// the native variables are the ids of the problem
+			phase(Phase.EXTRACTION);
+			int[] bits = new int[(intToVar.size() + 31) / 32];
+			minisat.getModel(bits);
+
+			BitSetResult result = new BitSetResult(problem, bits);
+			if (minisat.isLimitReached()) {
+				return outcome(SolveStatus.FEASIBLE_AT_LIMIT, result, null, limit(nanos));
+			}
+			return outcome(SolveStatus.OPTIMAL, result, null);
+
+		} else {
+			for (int lit : minisat.getFailedAssumptions()) {
+				Object variable = intToVar.get(Math.abs(lit) - 1);
+				failedAssumptions.put(variable, lit > 0);
 			}
+			if (minisat.isLimitReached()) {
+				return outcome(SolveStatus.LIMIT_NO_SOLUTION, null, null, limit(nanos));
+			}
+			return outcome(SolveStatus.INFEASIBLE, null, null);
+		}
 
-			int rhs = toInt(constraint.getRhs());
+	}
 
-			int coeffs[] = new int[linear.size()];
-			int lits[] = new int[linear.size()];
+	/**
+	 * Returns the limit that stopped the search, i.e., the timeout if it
+	 * elapsed and a budget otherwise.
+	 * 
+	 * @param nanos
+	 *            the time of the search in nanoseconds
+	 * @return the limit
+	 */
+	protected SolveLimit limit(long nanos) {
+		return isTimeoutElapsed(nanos) ? SolveLimit.TIME : SolveLimit.NODES;
+	}
 
-			for (int i = 0; i < linear.size(); i++) {
-				Term term = linear.get(i);
-				int var = varToInt.get(term.getVariable());
-				int coeff = toInt(term.getCoefficient());
-				lits[i] = var + 1;
-				coeffs[i] = coeff;
+	/**
+	 * Enumerates all solutions of the problem, see {@link SolutionIterator}.
+	 * 
+	 * @param problem
+	 *            the problem
+	 * @return the iterator over the solutions
+	 */
+	public SolutionIterator enumerate(Problem problem) {
+		return enumerate(problem, null, null);
+	}
+
+	/**
+	 * Enumerates the solutions of the problem that differ in the projection
+	 * variables, best first, see {@link SolutionIterator}. The blocking
+	 * clauses are added to the native solver of this {@code SolverMiniSat},
+	 * such that the next call of {@code solve} or {@code enumerate} rebuilds
+	 * the native solver and the iterator cannot be used anymore. The timeout
+	 * and the budgets apply to each solution.
+	 * 
+	 * @param problem
+	 *            the problem
+	 * @param projection
+	 *            the variables that distinguish the solutions ({@code null}
+	 *            for all variables)
+	 * @param tolerance
+	 *            the maximal difference to the optimal objective value
+	 *            ({@code null} for no limit)
+	 * @return the iterator over the solutions
+	 */
+	public SolutionIterator enumerate(Problem problem,
+			Collection<Object> projection, Number tolerance) {
+		prepare(problem);
+		blocked = true;
+		return new Solutions(problem, projection, tolerance, minisat);
+	}
+
+	/**
+	 * The {@code Solutions} enumerates the solutions on a native solver.
+	 * 
+	 * @author lukasiewycz
+	 * 
+	 */
+	protected class Solutions extends SolutionIterator {
+
+		protected final MiniSat minisat;
+
+		public Solutions(Problem problem, Collection<Object> projection,
+				Number tolerance, MiniSat minisat) {
+			super(problem, projection, tolerance);
+			this.minisat = minisat;
+		}
+
+		@Override
+		protected Result find() {
+			int[] none = new int[0];
+			boolean sat = problem.getObjective() != null ? minisat.solve(none)
+					: minisat.solveSingle(none);
+			limitReached = minisat.isLimitReached();
+			if (!sat) {
+				return null;
+			}
+			int[] bits = new int[(problem.getVariablesCount() + 31) / 32];
+			minisat.getModel(bits);
+			return new BitSetResult(problem, bits);
+		}
+
+		@Override
+		protected boolean block(Result result) {
+			int[] coeffs = new int[projection.size()];
+			int[] lits = new int[projection.size()];
+			for (int i = 0; i < lits.length; i++) {
+				Object variable = projection.get(i);
+				int var = problem.getVariableId(variable) + 1;
+				coeffs[i] = 1;
+				lits[i] = result.getBoolean(variable) ? -var : var;
+			}
+			return minisat.addConstraint(coeffs, lits, ">=", 1);
+		}
+	}
+
+	/**
+	 * Returns the assumptions that caused the last call of {@code solve} to
+	 * fail. The map is empty if the last call succeeded or if the problem is
+	 * infeasible regardless of the assumptions.
+	 * 
+	 * @return the failed assumptions (subset of the given assumptions)
+	 */
+	public Map<Object, Boolean> getFailedAssumptions() {
+		return Collections.unmodifiableMap(failedAssumptions);
+	}
+
+	/**
+	 * Returns {@code true} if the last call of {@code solve} was stopped by
+	 * the timeout or a budget, i.e., the returned result is not necessarily
+	 * optimal and {@code null} does not prove infeasibility.
+	 * 
+	 * @return {@code true} if the last call of {@code solve} was stopped
+	 */
+	public boolean isLimitReached() {
+		return minisat != null && minisat.isLimitReached();
+	}
+
+	/**
+	 * Transfers the problem or the constraints that were added since the
+	 * last call to the native solver.
+	 * 
+	 * @param problem
+	 *            the problem
+	 */
+	protected void prepare(Problem problem) {
+		if (minisat == null) {
+			throw new IllegalStateException("The solver is closed.");
+		}
+
+		if (isTransferred(problem)) {
+			phase(Phase.TRANSFER);
+			initWithParameters();
+			List<Object> none = Collections.emptyList();
+			addConstraints(problem.getConstraints(), transferredConstraints, none, none);
+			transferredConstraints = problem.getConstraintsCount();
+		} else {
+			transfer(problem);
+		}
+	}
+
+	/**
+	 * Returns {@code true} if the native solver contains the given problem
+	 * except for constraints that were added afterwards.
+	 * 
+	 * @param problem
+	 *            the problem
+	 * @return {@code true} if the native solver can be reused
+	 */
+	protected boolean isTransferred(Problem problem) {
+		return this.problem == problem && !blocked && minisat.okay()
+				&& varToInt.size() == problem.getVariablesCount()
+				&& transferredConstraints <= problem.getConstraintsCount()
+				&& snapshot.equals(snapshot(problem));
+	}
+
+	/**
+	 * Returns the state of the problem that is transferred once with the
+	 * native solver, i.e., the optimization type, the terms of the objective,
+	 * and the types and the effective bounds (including the defaults of the
+	 * families) of the variables.
+	 * 
+	 * @param problem
+	 *            the problem
+	 * @return the state
+	 */
+	protected List<Object> snapshot(Problem problem) {
+		List<Object> snapshot = new ArrayList<Object>();
+		snapshot.add(problem.getOptType());
+		Linear objective = problem.getObjective();
+		if (objective == null) {
+			snapshot.add(null);
+		} else {
+			snapshot.add(objective.size());
+			for (int i = 0; i < objective.size(); i++) {
+				Term term = objective.get(i);
+				snapshot.add(term.getVariable());
+				snapshot.add(term.getCoefficient());
 			}
+		}
+		for (Object variable : problem.getVariables()) {
+			snapshot.add(problem.getVarType(variable));
+			snapshot.add(problem.getVarLowerBound(variable));
+			snapshot.add(problem.getVarUpperBound(variable));
+		}
+		return snapshot;
+	}
+
+	/**
+	 * Transfers the complete problem to a new native solver.
+	 * 
+	 * @param problem
+	 *            the problem
+	 */
+	protected void transfer(Problem problem) {
+
+		if (this.problem != null) {
+			release(minisat);
+			minisat = create();
+		}
+		this.problem = problem;
+		this.blocked = false;
+		this.snapshot = snapshot(problem);
+		varToInt.clear();
+		intToVar.clear();
+
+		phase(Phase.VALIDATION);
+		for (Object variable : problem.getVariables()) {
+			check(variable, problem);
+			int i = problem.getVariableId(variable);
+			intToVar.put(i, variable);
+			varToInt.put(variable, i);
+		}
+
+		phase(Phase.TRANSFER);
+		initWithParameters();
 
-			minisat.addConstraint(coeffs, lits, comp, rhs);
+		List<Object> lower = new ArrayList<Object>();
+		List<Object> upper = new ArrayList<Object>();
+		for (Object variable : problem.getVariables()) {
+			Number lowerBound = problem.getVarLowerBound(variable);
+			Number upperBound = problem.getVarUpperBound(variable);
+
+			if (lowerBound != null && lowerBound.doubleValue() > 0) {
+				lower.add(variable);
+			}
+			if (upperBound != null && upperBound.doubleValue() < 1) {
+				upper.add(variable);
+			}
 		}
 
+		addConstraints(problem.getConstraints(), 0, lower, upper);
+		transferredConstraints = problem.getConstraintsCount();
+
 		if (problem.getObjective() != null) {
 
 			boolean isMin = problem.getOptType().equals(OptType.MIN);
@@ -112,80 +409,152 @@ public class SolverMiniSat extends AbstractSolver {
 
 			minisat.setObjective(coeffs, lits);
 		}
+	}
 
-		{
-			for (Object variable : problem.getVariables()) {
-				int var = varToInt.get(variable);
-
-				Number lowerBound = problem.getVarLowerBound(variable);
-				Number upperBound = problem.getVarUpperBound(variable);
-
-				if (lowerBound != null && lowerBound.doubleValue() > 0) {
-					int coeffs[] = new int[1];
-					int lits[] = new int[1];
-					coeffs[0] = 1;
-					lits[0] = var + 1;
-					minisat.addConstraint(coeffs, lits, ">=", 1);
-				}
-				if (upperBound != null && upperBound.doubleValue() < 1) {
-					int coeffs[] = new int[1];
-					int lits[] = new int[1];
-					coeffs[0] = 1;
-					lits[0] = var + 1;
-					minisat.addConstraint(coeffs, lits, "<=", 0);
-				}
-			}
+	/**
+	 * Transfers the constraints starting at index {@code from} and the bounds
+	 * of the given variables to the native solver with a single call.
+	 * 
+	 * @param constraints
+	 *            the constraints
+	 * @param from
+	 *            the index of the first constraint to be transferred
+	 * @param lower
+	 *            the variables with lower bound 1
+	 * @param upper
+	 *            the variables with upper bound 0
+	 */
+	protected void addConstraints(List<Constraint> constraints, int from,
+			List<Object> lower, List<Object> upper) {
+		int rows = constraints.size() - from + lower.size() + upper.size();
+		int nnz = lower.size() + upper.size();
+		for (int i = from; i < constraints.size(); i++) {
+			nnz += constraints.get(i).size();
+		}
+		if (rows == 0) {
+			return;
 		}
 
-		minisat.solve();
-
-		if (minisat.okay()) {
-
-			Number objvalue = null;
-			Map<Object, Number> tmpresult = new HashMap<Object, Number>();
-
-			for (Entry<Integer, Object> entry : intToVar.entrySet()) {
-				int var = entry.getKey();
-				Object variable = entry.getValue();
+		IntBuffer starts = MiniSat.allocate(rows + 1);
+		IntBuffer coeffs = MiniSat.allocate(nnz);
+		IntBuffer lits = MiniSat.allocate(nnz);
+		IntBuffer comps = MiniSat.allocate(rows);
+		IntBuffer rhs = MiniSat.allocate(rows);
 
-				boolean b = minisat.valueOf(var);
-				tmpresult.put(variable, b ? 1 : 0);
-			}
+		starts.put(0);
+		for (int i = from; i < constraints.size(); i++) {
+			Constraint constraint = constraints.get(i);
+			Linear linear = constraint.getLhs();
 
-			if (problem.getObjective() != null) {
-				Linear objective = problem.getObjective();
-				objvalue = objective.evaluate(tmpresult);
+			for (int j = 0; j < linear.size(); j++) {
+				Term term = linear.get(j);
+				int var = varToInt.get(term.getVariable());
+				lits.put(var + 1);
+				coeffs.put(toInt(term.getCoefficient()));
 			}
 
-			final Result result;
-			if (objvalue != null) {
-				result = new ResultImpl(objvalue);
-			} else {
-				result = new ResultImpl();
+			switch (constraint.getOperator()) {
+			case LE:
+				comps.put(MiniSat.LE);
+				break;
+			case GE:
+				comps.put(MiniSat.GE);
+				break;
+			default: // EQ
+				comps.put(MiniSat.EQ);
+				break;
 			}
+			rhs.put(toInt(constraint.getRhs()));
+			starts.put(lits.position());
+		}
 
-			for (Entry<Object, Number> entry : tmpresult.entrySet()) {
-				Object variable = entry.getKey();
-				Number value = entry.getValue();
+		for (Object variable : lower) {
+			lits.put(varToInt.get(variable) + 1);
+			coeffs.put(1);
+			comps.put(MiniSat.GE);
+			rhs.put(1);
+			starts.put(lits.position());
+		}
+		for (Object variable : upper) {
+			lits.put(varToInt.get(variable) + 1);
+			coeffs.put(1);
+			comps.put(MiniSat.LE);
+			rhs.put(0);
+			starts.put(lits.position());
+		}
 
-				result.put(variable, value);
-			}
+		minisat.addConstraints(rows, starts, coeffs, lits, comps, rhs);
+	}
 
-			return result;
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see net.sf.javailp.AbstractSolver#close()
+	 */
+	@Override
+	public synchronized void close() {
+		if (minisat != null) {
+			release(minisat);
+			minisat = null;
+			problem = null;
+		}
+	}
 
-		} else {
-			return null;
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.lang.Object#finalize()
+	 */
+	@Override
+	protected void finalize() throws Throwable {
+		// the native solver is freed by its own finalizer without waiting
+		// for the lock of the native library
+		synchronized (this) {
+			if (minisat != null) {
+				NativeHandles.released("MiniSat");
+				minisat = null;
+				problem = null;
+			}
 		}
+		super.finalize();
+	}
 
+	protected MiniSat create() {
+		MiniSat minisat = new MiniSat();
+		NativeHandles.allocated("MiniSat");
+		return minisat;
+	}
+
+	protected void release(MiniSat minisat) {
+		minisat.close();
+		NativeHandles.released("MiniSat");
 	}
 
 	protected void initWithParameters() {
 		Object timeout = parameters.get(Solver.TIMEOUT);
 		Object verbose = parameters.get(Solver.VERBOSE);
+		Object conflicts = parameters.get(CONFLICTS);
+		Object propagations = parameters.get(PROPAGATIONS);
 
+		long millis = 0;
 		if (timeout != null && timeout instanceof Number) {
-			System.err.println("MiniSat does not support a timeout.");
+			Number number = (Number) timeout;
+			if (number.doubleValue() > 0) {
+				millis = Math.max(1, (long) (number.doubleValue() * 1000));
+			}
 		}
+		minisat.setTimeLimit(millis);
+
+		long conflictBudget = -1;
+		long propagationBudget = -1;
+		if (conflicts != null && conflicts instanceof Number) {
+			conflictBudget = ((Number) conflicts).longValue();
+		}
+		if (propagations != null && propagations instanceof Number) {
+			propagationBudget = ((Number) propagations).longValue();
+		}
+		minisat.setBudget(conflictBudget, propagationBudget);
+
 		if (verbose != null && verbose instanceof Number) {
 			Number number = (Number) verbose;
 			int value = number.intValue();
@@ -0,0 +1,96 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp;
+
+/**
+ * The {@code SolverMonitor} observes the solves of all solvers, e.g., to
+ * emit profiling events. It is installed globally with
+ * {@link AbstractSolver#setMonitor(SolverMonitor)}. Without a monitor, the
+ * solvers only check a single field. A monitor that is currently not
+ * recording should return {@code null} sessions such that the solvers skip
+ * all further calls.
+ *
+ * @see AbstractSolver#setMonitor(SolverMonitor)
+ * @author lukasiewycz
+ *
+ */
+public interface SolverMonitor {
+
+	/**
+	 * The {@code Session} observes a single call of {@code solve}. A session
+	 * is only used by the thread of the solve, except for
+	 * {@link #incumbent(Incumbent)} that might be called from a callback
+	 * thread of the backend.
+	 *
+	 * @author lukasiewycz
+	 *
+	 */
+	public interface Session {
+
+		/**
+		 * Ends the current phase and starts the given phase.
+		 *
+		 * @param phase
+		 *            the phase
+		 */
+		public void phase(SolveStatistics.Phase phase);
+
+		/**
+		 * Reports an incumbent.
+		 *
+		 * @param incumbent
+		 *            the incumbent
+		 */
+		public void incumbent(Incumbent incumbent);
+
+		/**
+		 * Ends the current phase and the session.
+		 *
+		 * @param status
+		 *            the status of the solve
+		 */
+		public void end(SolveStatus status);
+	}
+
+	/**
+	 * Starts the session of a call of {@code solve}.
+	 *
+	 * @param backend
+	 *            the name of the backend
+	 * @param problem
+	 *            the problem
+	 * @return the session or {@code null} if the solve is not observed
+	 */
+	public Session begin(String backend, Problem problem);
+
+	/**
+	 * Starts the wait for a solver of a pool.
+	 *
+	 * @param backend
+	 *            the name of the backend
+	 * @return the handle for {@link #endWait(Object)} or {@code null} if the
+	 *         wait is not observed
+	 */
+	public Object beginWait(String backend);
+
+	/**
+	 * Ends the wait for a solver of a pool.
+	 *
+	 * @param handle
+	 *            the handle of {@link #beginWait(String)}
+	 */
+	public void endWait(Object handle);
+
+}
@@ -21,13 +21,20 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import net.sf.javailp.SolveStatistics.Phase;
+
 import mosek.Env;
 import mosek.Error;
+import mosek.Progress;
 import mosek.Task;
 import mosek.Warning;
 
 /**
  * The {@code SolverCPLEX} is the {@code Solver} Mosek.
+ * <p>
+ * The environment is shared by all solvers of a factory, each solve creates
+ * its own task. Mosek allows to use the tasks of one environment from
+ * different threads, thus, separate instances can solve concurrently.
  * 
  * @author lukasiewycz
  * 
@@ -90,7 +97,14 @@ public class SolverMosek extends AbstractSolver {
 		hooks.remove(hook);
 	}
 
-	public Result solve(Problem problem) {
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see net.sf.javailp.AbstractSolver#solveInternal(net.sf.javailp.Problem)
+	 */
+	@Override
+	protected Result solveInternal(Problem problem) {
+		SolveStatistics statistics = begin(problem);
 
 		Map<Integer, Object> indexToVar = new HashMap<Integer, Object>();
 		Map<Object, Integer> varToIndex = new HashMap<Object, Integer>();
@@ -121,9 +135,13 @@ public class SolverMosek extends AbstractSolver {
 		int ncon = problem.getConstraintsCount();
 		int nvar = problem.getVariablesCount();
 
+		Task task = null;
+		boolean mip = false;
 		try {
-			Task task = new Task(env, ncon, nvar);
+			task = new Task(env, ncon, nvar);
+			NativeHandles.allocated("Mosek");
 
+			phase(Phase.TRANSFER);
 			task.append(Env.accmode.con, ncon);
 			task.append(Env.accmode.var, nvar);
 
@@ -218,6 +236,7 @@ public class SolverMosek extends AbstractSolver {
 
 					if (varType == VarType.BOOL || varType == VarType.INT) {
 						task.putvartype(index, Env.variabletype.type_int);
+						mip = true;
 					}
 
 					Double lb = null;
@@ -266,7 +285,17 @@ public class SolverMosek extends AbstractSolver {
 				hook.call(env, task, varToIndex);
 			}
 
+			if (hasIncumbentListeners()) {
+				task.set_Progress(new Incumbents(task, System.currentTimeMillis()));
+			}
+
+			phase(Phase.SOLVE);
 			task.optimize();
+			statistics.setIterations(getintinf(task, Env.iinfitem.sim_primal_iter)
+					+ getintinf(task, Env.iinfitem.sim_dual_iter) + getintinf(task, Env.iinfitem.intpnt_iter));
+			if (mip) {
+				statistics.setNodes(getintinf(task, Env.iinfitem.mio_num_relax));
+			}
 
 			int[] prosta = new int[1];
 			int[] solsta = new int[1];
@@ -277,42 +306,132 @@ public class SolverMosek extends AbstractSolver {
 			
 			if(p == mosek.Env.prosta.prim_infeas || 
 					p == mosek.Env.prosta.prim_and_dual_infeas ||
-					p == mosek.Env.prosta.dual_infeas || 
 					p == mosek.Env.prosta.prim_infeas_or_unbounded){
-				task.dispose();
-				return null;
+				return outcome(SolveStatus.INFEASIBLE, null, null);
+			} else if (p == mosek.Env.prosta.dual_infeas) {
+				return outcome(SolveStatus.UNBOUNDED, null, null);
 			}
 
-			double[] x = new double[nvar];
-			task.getsolutionslice(mosek.Env.soltype.itg, mosek.Env.solitem.xx, 0, nvar, x);
-
-			Result result;
-			if (problem.getObjective() != null) {
-				result = new ResultImpl(problem.getObjective());
+			final SolveStatus status;
+			int s = solsta[0];
+			if (s == mosek.Env.solsta.integer_optimal || s == mosek.Env.solsta.optimal) {
+				status = SolveStatus.OPTIMAL;
+			} else if (s == mosek.Env.solsta.unknown) {
+				return outcome(SolveStatus.LIMIT_NO_SOLUTION, null, null);
 			} else {
-				result = new ResultImpl();
+				status = SolveStatus.FEASIBLE_AT_LIMIT;
 			}
 
-			for (int j = 0; j < x.length; ++j) {
-				Object variable = indexToVar.get(j);
+			Double bound = null;
+			if (mip) {
+				double[] value = new double[1];
+				task.getdouinf(Env.dinfitem.mio_obj_bound, value);
+				bound = value[0];
+			}
 
-				double value = x[j];
-				if (problem.getVarType(variable).isInt()) {
-					int v = (int) Math.round(value);
-					result.putPrimalValue(variable, v);
-				} else {
-					result.putPrimalValue(variable, value);
-				}
+			phase(Phase.EXTRACTION);
+			Source source = new Source(task, nvar);
+			if (isLazy()) {
+				// the result releases the task
+				task = null;
+				return outcome(status, new LazyResult(problem, source), bound);
 			}
 
-			task.dispose();
+			// values of integer variables are rounded on access
+			ArrayResult result = new ArrayResult(problem);
+			result.setPrimalValues(source.getPrimalValues());
 
-			return result;
+			return outcome(status, result, bound);
 
 		} catch (Exception e) {
 			e.printStackTrace();
+		} finally {
+			if (task != null) {
+				task.dispose();
+				NativeHandles.released("Mosek");
+			}
+		}
+		return outcome(SolveStatus.ERROR, null, null);
+	}
+
+	/**
+	 * The {@code Incumbents} reports each new integer solution of Mosek to the
+	 * incumbent listeners. The values of the solution are not available
+	 * during the optimization.
+	 * 
+	 * @author lukasiewycz
+	 * 
+	 */
+	protected class Incumbents extends Progress {
+
+		protected final Task task;
+		protected final long start;
+
+		public Incumbents(Task task, long start) {
+			this.task = task;
+			this.start = start;
+		}
+
+		@Override
+		public int progress(int code) {
+			if (code == Env.callbackcode.new_int_mio) {
+				try {
+					double[] objective = new double[1];
+					double[] bound = new double[1];
+					task.getdouinf(Env.dinfitem.mio_obj_int, objective);
+					task.getdouinf(Env.dinfitem.mio_obj_bound, bound);
+					fireIncumbent(null, objective[0], bound[0], start);
+				} catch (Exception e) {
+					e.printStackTrace();
+				}
+			}
+			return 0;
+		}
+	}
+
+	/**
+	 * The {@code Source} reads the values of a solved Mosek task. The columns
+	 * are the ids of the variables.
+	 * 
+	 * @author lukasiewycz
+	 * 
+	 */
+	protected static class Source implements LazyResult.Source {
+
+		protected final Task task;
+		protected final int nvar;
+
+		public Source(Task task, int nvar) {
+			this.task = task;
+			this.nvar = nvar;
+		}
+
+		public double[] getPrimalValues() {
+			try {
+				double[] x = new double[nvar];
+				task.getsolutionslice(mosek.Env.soltype.itg, mosek.Env.solitem.xx, 0, nvar, x);
+				return x;
+			} catch (Exception e) {
+				throw new IllegalStateException(e);
+			}
+		}
+
+		public double[] getDualValues() {
+			return null;
+		}
+
+		public double[] getConstraintPrimalValues() {
+			return null;
+		}
+
+		public double[] getConstraintDualValues() {
+			return null;
+		}
+
+		public void close() {
+			task.dispose();
+			NativeHandles.released("Mosek");
 		}
-		return null;
 	}
 
 	protected void initWithParameters(Task task) throws Warning, Error {
@@ -324,6 +443,25 @@ public class SolverMosek extends AbstractSolver {
 			long value = number.longValue();
 			task.putdouparam(Env.dparam.mio_max_time, value);
 		}
+
+		Object mipGap = parameters.get(Solver.MIP_GAP);
+		Object absGap = parameters.get(Solver.ABS_GAP);
+		Object threads = parameters.get(Solver.THREADS);
+		Object nodeLimit = parameters.get(Solver.NODE_LIMIT);
+
+		if (mipGap != null && mipGap instanceof Number) {
+			task.putdouparam(Env.dparam.mio_tol_rel_gap, ((Number) mipGap).doubleValue());
+		}
+		if (absGap != null && absGap instanceof Number) {
+			task.putdouparam(Env.dparam.mio_tol_abs_gap, ((Number) absGap).doubleValue());
+		}
+		if (threads != null && threads instanceof Number) {
+			// this Mosek version only parallelizes the interior-point optimizer
+			task.putintparam(Env.iparam.intpnt_num_threads, ((Number) threads).intValue());
+		}
+		if (nodeLimit != null && nodeLimit instanceof Number) {
+			task.putintparam(Env.iparam.mio_max_num_branches, ((Number) nodeLimit).intValue());
+		}
 		if (verbose != null && verbose instanceof Number) {
 			Number number = (Number) verbose;
 			int value = number.intValue();
@@ -344,4 +482,10 @@ public class SolverMosek extends AbstractSolver {
 		}
 	}
 
+	protected long getintinf(Task task, int item) throws Warning, Error {
+		int[] value = new int[1];
+		task.getintinf(item, value);
+		return value[0];
+	}
+
 }
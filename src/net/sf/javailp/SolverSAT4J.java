@@ -14,12 +14,16 @@
  */
 package net.sf.javailp;
 
+import java.io.PrintStream;
 import java.math.BigInteger;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 
+import net.sf.javailp.SolveStatistics.Phase;
+
 import org.sat4j.core.Vec;
 import org.sat4j.core.VecInt;
 import org.sat4j.pb.ObjectiveFunction;
@@ -31,15 +35,25 @@ import org.sat4j.specs.TimeoutException;
 
 /**
  * The {@code SolverCPLEX} is the {@code Solver} SAT4J.
+ * <p>
+ * The messages of the solver are printed to the streams of this instance
+ * (see {@link #setOutput(PrintStream, PrintStream)}) if the parameter
+ * {@link Solver#VERBOSE} is not {@code 0}. SAT4J is pure Java and each solve
+ * creates its own SAT4J solver, thus, separate instances can solve
+ * concurrently.
  * 
  * @author lukasiewycz
  * 
  */
 public class SolverSAT4J extends AbstractSolver {
 
-	protected static boolean print = true;
+	protected boolean print = true;
+	protected PrintStream out = System.out;
+	protected PrintStream err = System.err;
 
 	protected int timeout = Integer.MAX_VALUE;
+	protected double mipGap = 0;
+	protected double absGap = 0;
 
 	/**
 	 * The {@code Hook} for the {@code SolverSAT4J}.
@@ -87,104 +101,22 @@ public class SolverSAT4J extends AbstractSolver {
 	/*
 	 * (non-Javadoc)
 	 * 
-	 * @see net.sf.javailp.Solver#solve(net.sf.javailp.Problem)
+	 * @see net.sf.javailp.AbstractSolver#solveInternal(net.sf.javailp.Problem)
 	 */
-	public Result solve(Problem problem) {
+	@Override
+	protected Result solveInternal(Problem problem) {
 
+		begin(problem);
 		try {
 
-			Map<Integer, Object> indexToVar = new HashMap<Integer, Object>();
 			Map<Object, Integer> varToIndex = new HashMap<Object, Integer>();
+			PBSolverResolution solver = build(problem, varToIndex);
 
-			int i = 1;
-			for (Object variable : problem.getVariables()) {
-				check(variable, problem);
-				indexToVar.put(i, variable);
-				varToIndex.put(variable, i);
-				i++;
-			}
-			
-			
-
-			PBSolverResolution solver = SolverFactory
-					.newPBResMixedConstraintsObjective();
-			initWithParameters(solver);
-			printOut("Solve problem with SAT4J");
-			solver.newVar(problem.getVariablesCount() + 1);
-
-			if (problem.getObjective() != null) {
-
-				Linear objective = problem.getObjective();
-
-				VecInt vars = new VecInt();
-				IVec<BigInteger> coeffs = new Vec<BigInteger>();
-
-				for (Term term : objective) {
-					Object variable = term.getVariable();
-					Number coeff = term.getCoefficient();
-					int index = varToIndex.get(variable);
-
-					BigInteger integer = toBigInt(coeff);
-
-					vars.push(index);
-					coeffs.push(integer);
-				}
-
-				ObjectiveFunction function = new ObjectiveFunction(vars, coeffs);
-				solver.setObjectiveFunction(function);
-			}
-
-			{
-				for (Constraint constraint : problem.getConstraints()) {
-					Linear linear = constraint.getLhs();
-					Operator operator = constraint.getOperator();
-					BigInteger rhs = toBigInt(constraint.getRhs());
-
-					VecInt vars = new VecInt();
-					IVec<BigInteger> coeffs = new Vec<BigInteger>();
-					for (Term term : linear) {
-						Object variable = term.getVariable();
-						Number coeff = term.getCoefficient();
-						int index = varToIndex.get(variable);
-						vars.push(index);
-						coeffs.push(toBigInt(coeff));
-					}
-
-					if (operator == Operator.LE || operator == Operator.EQ) {
-						solver.addPseudoBoolean(vars, coeffs, false, rhs);
-					}
-					if (operator == Operator.GE || operator == Operator.EQ) {
-						solver.addPseudoBoolean(vars, coeffs, true, rhs);
-					}
-				}
-			}
-
-			{
-				for (Object variable : problem.getVariables()) {
-					int index = varToIndex.get(variable);
-
-					Number lowerBound = problem.getVarLowerBound(variable);
-					Number upperBound = problem.getVarUpperBound(variable);
-
-					if (lowerBound != null && lowerBound.doubleValue() > 0) {
-						VecInt vars = new VecInt();
-						vars.push(index);
-						solver.addAtLeast(vars, 1);
-					}
-					if (upperBound != null && upperBound.doubleValue() < 1) {
-						VecInt vars = new VecInt();
-						vars.push(index);
-						solver.addAtMost(vars, 0);
-					}
-				}
-			}
-
-			for (Hook hook : hooks) {
-				hook.call(solver, varToIndex);
-			}
-
-			Map<Object, Number> r = new HashMap<Object, Number>();
+			BitSetResult result = null;
 			Linear objective = problem.getObjective();
+			boolean limitReached = false;
+			boolean isMax = problem.getOptType() == OptType.MAX;
+			long step = 1;
 
 			
 			
@@ -197,19 +129,19 @@ public class SolverSAT4J extends AbstractSolver {
 				int t = Math.max(this.timeout - diff, 0);
 				solver.setTimeout(t);
 
+				phase(Phase.SOLVE);
 				while (solver.isSatisfiable()) {
-					r.clear();
-					for (Object variable : problem.variables) {
-						int index = varToIndex.get(variable);
-						r.put(variable, solver.model(index) ? 1 : 0);
-					}
+					phase(Phase.EXTRACTION);
+					result = model(solver, problem, varToIndex);
+					phase(Phase.SOLVE);
 					if (objective == null) {
 						break;
 					}
 
-					Number value = objective.evaluate(r);
+					Number value = result.getObjective();
 
 					printOut("Found new solution: " + value);
+					fireIncumbent(result, value, null, startTime);
 
 					VecInt vars = new VecInt();
 					IVec<BigInteger> coeffs = new Vec<BigInteger>();
@@ -225,13 +157,14 @@ public class SolverSAT4J extends AbstractSolver {
 						coeffs.push(integer);
 					}
 
+					// the next solution has to improve by more than the gap
 					long rhs = value.longValue();
+					step = (long) Math.floor(Math.max(absGap, mipGap * Math.abs(value.doubleValue()))) + 1;
 
-					boolean isMax = problem.getOptType() == OptType.MAX;
 					if (isMax) {
-						rhs++;
+						rhs += step;
 					} else {
-						rhs--;
+						rhs -= step;
 					}
 					solver.addPseudoBoolean(vars, coeffs, isMax, toBigInt(rhs));
 
@@ -245,53 +178,337 @@ public class SolverSAT4J extends AbstractSolver {
 				printErr("Contradictions(2): " + ex.toString());
 			} catch (TimeoutException ex) {
 				printErr("Timeout");
+				limitReached = true;
+			}
+
+			if (statistics != null) {
+				Map<String, Number> stat = solver.getStat();
+				statistics.setIterations(stat.get("propagations").longValue());
+				statistics.setNodes(stat.get("decisions").longValue());
+				statistics.setConflicts(stat.get("conflicts").longValue());
 			}
 
-			if (r.isEmpty()) {
+			if (result == null) {
 				printErr("No feasible solution found");
-				return null;
+				return outcome(limitReached ? SolveStatus.LIMIT_NO_SOLUTION : SolveStatus.INFEASIBLE, null, null,
+						limitReached ? SolveLimit.TIME : null);
+			} else if (limitReached) {
+				return outcome(SolveStatus.FEASIBLE_AT_LIMIT, result, null, SolveLimit.TIME);
+			} else if (step > 1) {
+				// no solution improves by the step, i.e., the gap is reached
+				long value = result.getObjective().longValue();
+				long bound = isMax ? value + step - 1 : value - step + 1;
+				return outcome(SolveStatus.FEASIBLE_AT_LIMIT, result, bound, SolveLimit.GAP);
 			} else {
-				final Result result;
-				if (objective == null) {
-					result = new ResultImpl();
-				} else {
-					result = new ResultImpl(objective);
+				return outcome(SolveStatus.OPTIMAL, result, null);
+			}
+
+		} catch (ContradictionException ex) {
+			printErr("Contradictions(1): " + ex.toString());
+		}
+		return outcome(SolveStatus.INFEASIBLE, null, null);
+	}
+
+	/**
+	 * Enumerates all solutions of the problem, see {@link SolutionIterator}.
+	 * 
+	 * @param problem
+	 *            the problem
+	 * @return the iterator over the solutions
+	 */
+	public SolutionIterator enumerate(Problem problem) {
+		return enumerate(problem, null, null);
+	}
+
+	/**
+	 * Enumerates the solutions of the problem that differ in the projection
+	 * variables, best first, see {@link SolutionIterator}. The blocking
+	 * clauses and the guarded bounds on the objective function are added to
+	 * a single SAT4J solver that is built once for the iterator. The timeout
+	 * applies to each solution.
+	 * 
+	 * @param problem
+	 *            the problem
+	 * @param projection
+	 *            the variables that distinguish the solutions ({@code null}
+	 *            for all variables)
+	 * @param tolerance
+	 *            the maximal difference to the optimal objective value
+	 *            ({@code null} for no limit)
+	 * @return the iterator over the solutions
+	 */
+	public SolutionIterator enumerate(Problem problem,
+			Collection<Object> projection, Number tolerance) {
+		return new Solutions(problem, projection, tolerance);
+	}
+
+	/**
+	 * The {@code Solutions} enumerates the solutions on a single SAT4J
+	 * solver. The bound on the objective function that is added after each
+	 * improvement is guarded by a selector variable that is assumed during the
+	 * search for one solution and disabled afterwards.
+	 * 
+	 * @author lukasiewycz
+	 * 
+	 */
+	protected class Solutions extends SolutionIterator {
+
+		protected final Map<Object, Integer> varToIndex = new HashMap<Object, Integer>();
+		protected PBSolverResolution solver = null;
+		protected int vars;
+
+		public Solutions(Problem problem, Collection<Object> projection,
+				Number tolerance) {
+			super(problem, projection, tolerance);
+			try {
+				solver = build(problem, varToIndex);
+				vars = problem.getVariablesCount() + 1;
+			} catch (ContradictionException ex) {
+				printErr("Contradictions(1): " + ex.toString());
+			}
+		}
+
+		@Override
+		protected Result find() {
+			if (solver == null) {
+				return null;
+			}
+			Linear objective = problem.getObjective();
+			BitSetResult result = null;
+			int selector = 0;
+			try {
+				solver.setTimeout(timeout);
+
+				VecInt assumptions = new VecInt();
+				while (solver.isSatisfiable(assumptions)) {
+					result = model(solver, problem, varToIndex);
+					if (objective == null) {
+						break;
+					}
+					if (selector != 0) {
+						solver.addClause(new VecInt(new int[] { -selector }));
+					}
+					selector = ++vars;
+					solver.newVar(vars);
+
+					// goal >= value+1 if the selector is true
+					boolean isMax = problem.getOptType() == OptType.MAX;
+					VecInt lits = new VecInt();
+					IVec<BigInteger> coeffs = new Vec<BigInteger>();
+					BigInteger value = BigInteger.ZERO;
+					BigInteger min = BigInteger.ZERO;
+					for (Term term : objective) {
+						Object variable = term.getVariable();
+						BigInteger coeff = toBigInt(term.getCoefficient());
+						if (!isMax) {
+							coeff = coeff.negate();
+						}
+						if (result.getBoolean(problem.getVariableId(variable))) {
+							value = value.add(coeff);
+						}
+						if (coeff.signum() < 0) {
+							min = min.add(coeff);
+						}
+						lits.push(varToIndex.get(variable));
+						coeffs.push(coeff);
+					}
+					BigInteger rhs = value.add(BigInteger.ONE);
+					lits.push(-selector);
+					coeffs.push(rhs.subtract(min).max(BigInteger.ZERO));
+					solver.addPseudoBoolean(lits, coeffs, true, rhs);
+
+					assumptions = new VecInt(new int[] { selector });
+				}
+				if (selector != 0) {
+					solver.addClause(new VecInt(new int[] { -selector }));
+				}
+			} catch (ContradictionException ex) {
+				// the bound is not satisfiable, the result is optimal
+			} catch (TimeoutException ex) {
+				printErr("Timeout");
+				limitReached = true;
+			}
+			return result;
+		}
+
+		@Override
+		protected boolean block(Result result) {
+			VecInt lits = new VecInt();
+			for (Object variable : projection) {
+				int index = varToIndex.get(variable);
+				lits.push(result.getBoolean(variable) ? -index : index);
+			}
+			try {
+				solver.addClause(lits);
+				return true;
+			} catch (ContradictionException ex) {
+				return false;
+			}
+		}
+	}
+
+	/**
+	 * Builds the SAT4J solver for the problem.
+	 * 
+	 * @param problem
+	 *            the problem
+	 * @param varToIndex
+	 *            the map of variables to sat4j specific variables (filled by
+	 *            this method)
+	 * @return the solver
+	 * @throws ContradictionException
+	 *             if the constraints are trivially unsatisfiable
+	 */
+	protected PBSolverResolution build(Problem problem,
+			Map<Object, Integer> varToIndex) throws ContradictionException {
+		phase(Phase.VALIDATION);
+		int i = 1;
+		for (Object variable : problem.getVariables()) {
+			check(variable, problem);
+			varToIndex.put(variable, i);
+			i++;
+		}
+		phase(Phase.BUILD);
+
+		PBSolverResolution solver = SolverFactory
+				.newPBResMixedConstraintsObjective();
+		initWithParameters(solver);
+		printOut("Solve problem with SAT4J");
+		solver.newVar(problem.getVariablesCount() + 1);
+
+		phase(Phase.TRANSFER);
+		if (problem.getObjective() != null) {
+
+			Linear objective = problem.getObjective();
+
+			VecInt vars = new VecInt();
+			IVec<BigInteger> coeffs = new Vec<BigInteger>();
+
+			for (Term term : objective) {
+				Object variable = term.getVariable();
+				Number coeff = term.getCoefficient();
+				int index = varToIndex.get(variable);
+
+				BigInteger integer = toBigInt(coeff);
+
+				vars.push(index);
+				coeffs.push(integer);
+			}
+
+			ObjectiveFunction function = new ObjectiveFunction(vars, coeffs);
+			solver.setObjectiveFunction(function);
+		}
+
+		{
+			for (Constraint constraint : problem.getConstraints()) {
+				Linear linear = constraint.getLhs();
+				Operator operator = constraint.getOperator();
+				BigInteger rhs = toBigInt(constraint.getRhs());
+
+				VecInt vars = new VecInt();
+				IVec<BigInteger> coeffs = new Vec<BigInteger>();
+				for (Term term : linear) {
+					Object variable = term.getVariable();
+					Number coeff = term.getCoefficient();
+					int index = varToIndex.get(variable);
+					vars.push(index);
+					coeffs.push(toBigInt(coeff));
 				}
 
-				for (Object variable : problem.variables) {
-					Number b = r.get(variable);
-					result.put(variable, b);
+				if (operator == Operator.LE || operator == Operator.EQ) {
+					solver.addPseudoBoolean(vars, coeffs, false, rhs);
+				}
+				if (operator == Operator.GE || operator == Operator.EQ) {
+					solver.addPseudoBoolean(vars, coeffs, true, rhs);
 				}
+			}
+		}
 
-				return result;
+		{
+			for (Object variable : problem.getVariables()) {
+				int index = varToIndex.get(variable);
+
+				Number lowerBound = problem.getVarLowerBound(variable);
+				Number upperBound = problem.getVarUpperBound(variable);
+
+				if (lowerBound != null && lowerBound.doubleValue() > 0) {
+					VecInt vars = new VecInt();
+					vars.push(index);
+					solver.addAtLeast(vars, 1);
+				}
+				if (upperBound != null && upperBound.doubleValue() < 1) {
+					VecInt vars = new VecInt();
+					vars.push(index);
+					solver.addAtMost(vars, 0);
+				}
 			}
+		}
 
-		} catch (ContradictionException ex) {
-			printErr("Contradictions(1): " + ex.toString());
+		for (Hook hook : hooks) {
+			hook.call(solver, varToIndex);
+		}
+
+		return solver;
+	}
+
+	protected BitSetResult model(PBSolverResolution solver, Problem problem,
+			Map<Object, Integer> varToIndex) {
+		BitSetResult result = new BitSetResult(problem);
+		for (Object variable : problem.getVariables()) {
+			int index = varToIndex.get(variable);
+			if (solver.model(index)) {
+				result.setBoolean(problem.getVariableId(variable), true);
+			}
 		}
-		return null;
+		return result;
+	}
+
+	/**
+	 * Sets the streams for the messages of this solver.
+	 * 
+	 * @param out
+	 *            the stream for the progress messages
+	 * @param err
+	 *            the stream for the error messages
+	 */
+	public void setOutput(PrintStream out, PrintStream err) {
+		this.out = out;
+		this.err = err;
 	}
 
 	protected void printOut(String message) {
 		if (print) {
-			System.out.println(message);
+			out.println(message);
 		}
 	}
 
 	protected void printErr(String message) {
 		if (print) {
-			System.err.println(message);
+			err.println(message);
 		}
 	}
 
 	protected void initWithParameters(PBSolverResolution solver) {
 		Object timeout = parameters.get(Solver.TIMEOUT);
 		Object verbose = parameters.get(Solver.VERBOSE);
+		Object mipGap = parameters.get(Solver.MIP_GAP);
+		Object absGap = parameters.get(Solver.ABS_GAP);
 
 		if (timeout != null && timeout instanceof Number) {
 			Number number = (Number) timeout;
 			this.timeout = number.intValue();
 		}
+
+		// SAT4J runs single-threaded, the gaps are checked in the
+		// improvement loop of solve
+		this.mipGap = 0;
+		this.absGap = 0;
+		if (mipGap != null && mipGap instanceof Number) {
+			this.mipGap = ((Number) mipGap).doubleValue();
+		}
+		if (absGap != null && absGap instanceof Number) {
+			this.absGap = ((Number) absGap).doubleValue();
+		}
 		if (verbose != null && verbose instanceof Number) {
 
 			Number number = (Number) verbose;
@@ -301,7 +518,7 @@ public class SolverSAT4J extends AbstractSolver {
 				// do nothing
 			} else if (value > 0) {
 				print = true;
-				solver.printStat(System.out, " ");
+				solver.printStat(out, " ");
 			}
 		}
 
@@ -0,0 +1,330 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * The class {@code SparseMatrix} is the constraint matrix of a
+ * {@link Problem} in compressed sparse row (CSR) format: the non-zeros of row
+ * {@code i} are stored at the positions {@code rowStart[i]} to
+ * {@code rowStart[i+1]-1} of the arrays of the column indices (the ids of the
+ * variables, see {@link Problem#getVariableId(Object)}) and the values. The
+ * matrix is a snapshot, i.e., later changes of the problem are not
+ * reflected. The arrays are built in parallel over blocks of rows.
+ *
+ * @author lukasiewycz
+ *
+ */
+public class SparseMatrix {
+
+	/**
+	 * The number of non-zeros below which a block of rows is not split
+	 * further.
+	 */
+	protected static final int GRAIN = 1 << 15;
+
+	private static ForkJoinPool pool = null;
+
+	protected final int rows;
+	protected final int columns;
+	protected final int[] rowStart;
+	protected final int[] columnIndices;
+	protected final double[] values;
+
+	/**
+	 * Constructs a {@code SparseMatrix} from the given arrays. The arrays are
+	 * used directly, i.e., they are not copied.
+	 *
+	 * @param columns
+	 *            the number of columns
+	 * @param rowStart
+	 *            the start positions of the rows (the number of rows plus
+	 *            one)
+	 * @param columnIndices
+	 *            the column indices of the non-zeros
+	 * @param values
+	 *            the values of the non-zeros
+	 */
+	public SparseMatrix(int columns, int[] rowStart, int[] columnIndices, double[] values) {
+		int nonZeros = rowStart[rowStart.length - 1];
+		if (columnIndices.length < nonZeros || values.length < nonZeros) {
+			throw new IllegalArgumentException("The arrays are smaller than the number of non-zeros (" + nonZeros
+					+ ").");
+		}
+		this.rows = rowStart.length - 1;
+		this.columns = columns;
+		this.rowStart = rowStart;
+		this.columnIndices = columnIndices;
+		this.values = values;
+	}
+
+	/**
+	 * Constructs the {@code SparseMatrix} of the constraints of a
+	 * {@code Problem} with the default pool.
+	 *
+	 * @param problem
+	 *            the problem
+	 */
+	public SparseMatrix(Problem problem) {
+		this(problem, pool());
+	}
+
+	/**
+	 * Constructs the {@code SparseMatrix} of the constraints of a
+	 * {@code Problem}.
+	 *
+	 * @param problem
+	 *            the problem
+	 * @param pool
+	 *            the pool that builds the blocks of rows
+	 */
+	public SparseMatrix(final Problem problem, ForkJoinPool pool) {
+		final List<Constraint> constraints = problem.getConstraints();
+		this.rows = constraints.size();
+		this.columns = problem.getVariablesCount();
+		this.rowStart = new int[rows + 1];
+		long nonZeros = 0;
+		for (int i = 0; i < rows; i++) {
+			nonZeros += constraints.get(i).size();
+			if (nonZeros > Integer.MAX_VALUE - 8) {
+				throw new IllegalArgumentException("The problem has too many non-zeros for a SparseMatrix.");
+			}
+			rowStart[i + 1] = (int) nonZeros;
+		}
+		this.columnIndices = new int[(int) nonZeros];
+		this.values = new double[(int) nonZeros];
+
+		// the problem is only read, concurrent lookups of the ids are safe
+		invoke(pool, new Block<Object>() {
+			public Object compute(int from, int to) {
+				for (int i = from; i < to; i++) {
+					Linear lhs = constraints.get(i).getLhs();
+					int p = rowStart[i];
+					for (int k = 0; k < lhs.size(); k++, p++) {
+						Term term = lhs.get(k);
+						columnIndices[p] = problem.getVariableId(term.getVariable());
+						values[p] = term.getCoefficient().doubleValue();
+					}
+				}
+				return null;
+			}
+
+			public Object combine(Object a, Object b) {
+				return null;
+			}
+		});
+	}
+
+	/**
+	 * Returns the number of rows.
+	 *
+	 * @return the number of rows
+	 */
+	public int getRows() {
+		return rows;
+	}
+
+	/**
+	 * Returns the number of columns.
+	 *
+	 * @return the number of columns
+	 */
+	public int getColumns() {
+		return columns;
+	}
+
+	/**
+	 * Returns the number of non-zeros.
+	 *
+	 * @return the number of non-zeros
+	 */
+	public int getNonZeros() {
+		return rowStart[rows];
+	}
+
+	/**
+	 * Returns the start positions of the rows. The array is not copied.
+	 *
+	 * @return the start positions (the number of rows plus one)
+	 */
+	public int[] getRowStart() {
+		return rowStart;
+	}
+
+	/**
+	 * Returns the column indices of the non-zeros. The array is not copied.
+	 *
+	 * @return the column indices
+	 */
+	public int[] getColumnIndices() {
+		return columnIndices;
+	}
+
+	/**
+	 * Returns the values of the non-zeros. The array is not copied.
+	 *
+	 * @return the values
+	 */
+	public double[] getValues() {
+		return values;
+	}
+
+	/**
+	 * Returns the product of a row and a vector with the selected
+	 * {@link Kernel}.
+	 *
+	 * @param row
+	 *            the row
+	 * @param x
+	 *            the vector (indexed by the columns)
+	 * @return the product
+	 */
+	public double dot(int row, double[] x) {
+		return Kernel.get().dot(values, columnIndices, rowStart[row], rowStart[row + 1], x);
+	}
+
+	/**
+	 * Calculates the product {@code y=Ax} in parallel with the default pool.
+	 *
+	 * @param x
+	 *            the vector (indexed by the columns)
+	 * @param y
+	 *            the result (indexed by the rows)
+	 */
+	public void multiply(final double[] x, final double[] y) {
+		invoke(pool(), new Block<Object>() {
+			public Object compute(int from, int to) {
+				for (int i = from; i < to; i++) {
+					y[i] = dot(i, x);
+				}
+				return null;
+			}
+
+			public Object combine(Object a, Object b) {
+				return null;
+			}
+		});
+	}
+
+	/**
+	 * Returns the default pool for the parallel operations on matrices. Its
+	 * threads are daemon threads.
+	 *
+	 * @return the default pool
+	 */
+	public static synchronized ForkJoinPool pool() {
+		if (pool == null) {
+			pool = new ForkJoinPool();
+		}
+		return pool;
+	}
+
+	/**
+	 * Processes the rows in parallel blocks and combines the results of the
+	 * blocks.
+	 *
+	 * @param <T>
+	 *            the type of the result
+	 * @param pool
+	 *            the pool
+	 * @param block
+	 *            the processing of a block
+	 * @return the combined result
+	 */
+	public <T> T invoke(ForkJoinPool pool, Block<T> block) {
+		return pool.invoke(new RowTask<T>(block, 0, rows));
+	}
+
+	/**
+	 * The {@code Block} processes a block of rows.
+	 *
+	 * @see SparseMatrix#invoke(ForkJoinPool, Block)
+	 * @author lukasiewycz
+	 *
+	 * @param <T>
+	 *            the type of the result
+	 */
+	public interface Block<T> {
+
+		/**
+		 * Processes a block of rows.
+		 *
+		 * @param from
+		 *            the first row
+		 * @param to
+		 *            the last row (exclusive)
+		 * @return the result of the block
+		 */
+		public T compute(int from, int to);
+
+		/**
+		 * Combines the results of two adjacent blocks.
+		 *
+		 * @param a
+		 *            the result of the first block
+		 * @param b
+		 *            the result of the second block
+		 * @return the combined result
+		 */
+		public T combine(T a, T b);
+	}
+
+	/**
+	 * The {@code RowTask} splits a range of rows in halves until a block has
+	 * less than {@link #GRAIN} non-zeros, such that the blocks have a
+	 * similar amount of work.
+	 *
+	 * @author lukasiewycz
+	 *
+	 * @param <T>
+	 *            the type of the result
+	 */
+	protected class RowTask<T> extends RecursiveTask<T> {
+
+		private static final long serialVersionUID = 1L;
+
+		protected final Block<T> block;
+		protected final int from;
+		protected final int to;
+
+		public RowTask(Block<T> block, int from, int to) {
+			this.block = block;
+			this.from = from;
+			this.to = to;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 *
+		 * @see java.util.concurrent.RecursiveTask#compute()
+		 */
+		@Override
+		protected T compute() {
+			if (to - from <= 1 || rowStart[to] - rowStart[from] < GRAIN) {
+				return block.compute(from, to);
+			}
+			int middle = (from + to) >>> 1;
+			RowTask<T> left = new RowTask<T>(block, from, middle);
+			left.fork();
+			T b = new RowTask<T>(block, middle, to).compute();
+			T a = left.join();
+			return block.combine(a, b);
+		}
+	}
+
+}
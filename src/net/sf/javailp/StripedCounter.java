@@ -0,0 +1,88 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The {@code StripedCounter} is a counter that is updated by many threads
+ * without contention (like {@code java.util.concurrent.atomic.LongAdder},
+ * which is not available in Java 7). Each thread adds to one of several
+ * cells that are selected by the id of the thread; the cells are padded to
+ * separate cache lines. The sum is not an atomic snapshot if the counter is
+ * updated concurrently.
+ * 
+ * @author lukasiewycz
+ * 
+ */
+public class StripedCounter {
+
+	private static final int PADDING = 8;
+	private static final int STRIPES = stripes();
+
+	protected final AtomicLongArray cells = new AtomicLongArray(STRIPES * PADDING);
+
+	/**
+	 * Increments the counter.
+	 */
+	public void increment() {
+		add(1);
+	}
+
+	/**
+	 * Adds a value to the counter.
+	 * 
+	 * @param value
+	 *            the value
+	 */
+	public void add(long value) {
+		long id = Thread.currentThread().getId();
+		int stripe = (int) ((id * 0x9e3779b97f4a7c15L) >>> 32) & (STRIPES - 1);
+		cells.addAndGet(stripe * PADDING, value);
+	}
+
+	/**
+	 * Returns the sum of all cells.
+	 * 
+	 * @return the value of the counter
+	 */
+	public long sum() {
+		long sum = 0;
+		for (int i = 0; i < STRIPES; i++) {
+			sum += cells.get(i * PADDING);
+		}
+		return sum;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return Long.toString(sum());
+	}
+
+	private static int stripes() {
+		int n = 2 * Runtime.getRuntime().availableProcessors();
+		int stripes = 1;
+		while (stripes < n) {
+			stripes <<= 1;
+		}
+		return stripes;
+	}
+
+}
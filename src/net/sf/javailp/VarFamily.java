@@ -0,0 +1,381 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp;
+
+/**
+ * The class {@code VarFamily} is a multi-dimensional array of variables of a
+ * {@link Problem}, created with {@link Problem#family(String, int...)}. The
+ * variables of a family occupy a contiguous range of ids that is reserved
+ * when the family is created, such that the id of an index tuple is computed
+ * arithmetically (row-major) instead of hashing a key. The variables are
+ * {@link Var} objects that are compared by their family and offset; their
+ * names (e.g., {@code x_2_3}) are only built if {@code toString} is called,
+ * e.g., by a backend that names its columns.
+ * <p>
+ * The type and bounds of a family apply to all its variables unless they
+ * are set for a single variable in the problem.
+ *
+ * <pre>
+ * VarFamily x = problem.family(&quot;x&quot;, n, m);
+ * x.setType(VarType.BOOL);
+ * Linear linear = new Linear();
+ * for (int j = 0; j &lt; m; j++) {
+ * 	linear.add(1, x.get(i, j));
+ * }
+ * </pre>
+ *
+ * @author lukasiewycz
+ *
+ */
+public class VarFamily {
+
+	/**
+	 * The {@code Var} is a variable of a {@code VarFamily}.
+	 *
+	 * @author lukasiewycz
+	 *
+	 */
+	public static final class Var {
+
+		protected final VarFamily family;
+		protected final int offset;
+
+		protected Var(VarFamily family, int offset) {
+			this.family = family;
+			this.offset = offset;
+		}
+
+		/**
+		 * Returns the family.
+		 *
+		 * @return the family
+		 */
+		public VarFamily getFamily() {
+			return family;
+		}
+
+		/**
+		 * Returns the index of one dimension.
+		 *
+		 * @param dimension
+		 *            the dimension
+		 * @return the index
+		 */
+		public int getIndex(int dimension) {
+			return (offset / family.strides[dimension]) % family.dimensions[dimension];
+		}
+
+		/*
+		 * (non-Javadoc)
+		 *
+		 * @see java.lang.Object#hashCode()
+		 */
+		@Override
+		public int hashCode() {
+			return family.base + offset;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 *
+		 * @see java.lang.Object#equals(java.lang.Object)
+		 */
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			} else if (obj instanceof Var) {
+				Var other = (Var) obj;
+				return family == other.family && offset == other.offset;
+			}
+			return false;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 *
+		 * @see java.lang.Object#toString()
+		 */
+		@Override
+		public String toString() {
+			StringBuilder s = new StringBuilder(family.name);
+			for (int d = 0; d < family.dimensions.length; d++) {
+				s.append('_').append(getIndex(d));
+			}
+			return s.toString();
+		}
+	}
+
+	protected final Problem problem;
+	protected final String name;
+	protected final int[] dimensions;
+	protected final int[] strides;
+	protected final int base;
+	protected final int size;
+	protected final int reservedEnd;
+
+	protected VarType type = null;
+	protected Number lowerBound = null;
+	protected Number upperBound = null;
+
+	/**
+	 * Constructs a {@code VarFamily}.
+	 *
+	 * @param problem
+	 *            the problem
+	 * @param name
+	 *            the name
+	 * @param dimensions
+	 *            the dimensions
+	 * @param base
+	 *            the id of the first variable
+	 * @param reservedEnd
+	 *            the number of ids reserved by this and all previous families
+	 */
+	protected VarFamily(Problem problem, String name, int[] dimensions, int base, int reservedEnd) {
+		this.problem = problem;
+		this.name = name;
+		this.dimensions = dimensions.clone();
+		this.strides = new int[dimensions.length];
+		int s = 1;
+		for (int d = dimensions.length - 1; d >= 0; d--) {
+			strides[d] = s;
+			s *= dimensions[d];
+		}
+		this.size = s;
+		this.base = base;
+		this.reservedEnd = reservedEnd;
+	}
+
+	/**
+	 * Returns the size of the family for the given dimensions.
+	 *
+	 * @param dimensions
+	 *            the dimensions
+	 * @return the number of variables
+	 * @throws IllegalArgumentException
+	 *             if there is no dimension, a dimension is not positive, or
+	 *             the family is too large
+	 */
+	protected static int size(int... dimensions) {
+		if (dimensions.length == 0) {
+			throw new IllegalArgumentException("A family needs at least one dimension.");
+		}
+		long size = 1;
+		for (int n : dimensions) {
+			if (n <= 0) {
+				throw new IllegalArgumentException("The dimensions of a family have to be positive.");
+			}
+			size *= n;
+			if (size > Integer.MAX_VALUE) {
+				throw new IllegalArgumentException("The family has more than " + Integer.MAX_VALUE + " variables.");
+			}
+		}
+		return (int) size;
+	}
+
+	/**
+	 * Returns the name.
+	 *
+	 * @return the name
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Returns the dimensions.
+	 *
+	 * @return the dimensions
+	 */
+	public int[] getDimensions() {
+		return dimensions.clone();
+	}
+
+	/**
+	 * Returns the number of variables.
+	 *
+	 * @return the number of variables
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns the problem.
+	 *
+	 * @return the problem
+	 */
+	public Problem getProblem() {
+		return problem;
+	}
+
+	/**
+	 * Returns the variable of a one-dimensional family.
+	 *
+	 * @param i
+	 *            the index
+	 * @return the variable
+	 */
+	public Var get(int i) {
+		check(1);
+		return new Var(this, index(0, i));
+	}
+
+	/**
+	 * Returns the variable of a two-dimensional family.
+	 *
+	 * @param i
+	 *            the first index
+	 * @param j
+	 *            the second index
+	 * @return the variable
+	 */
+	public Var get(int i, int j) {
+		check(2);
+		return new Var(this, index(0, i) * strides[0] + index(1, j));
+	}
+
+	/**
+	 * Returns the variable of a three-dimensional family.
+	 *
+	 * @param i
+	 *            the first index
+	 * @param j
+	 *            the second index
+	 * @param k
+	 *            the third index
+	 * @return the variable
+	 */
+	public Var get(int i, int j, int k) {
+		check(3);
+		return new Var(this, index(0, i) * strides[0] + index(1, j) * strides[1] + index(2, k));
+	}
+
+	/**
+	 * Returns the variable of an index tuple.
+	 *
+	 * @param indices
+	 *            the indices
+	 * @return the variable
+	 */
+	public Var get(int... indices) {
+		return new Var(this, offset(indices));
+	}
+
+	/**
+	 * Returns the id of the variable of an index tuple in the problem.
+	 *
+	 * @param indices
+	 *            the indices
+	 * @return the id
+	 */
+	public int id(int... indices) {
+		return base + offset(indices);
+	}
+
+	/**
+	 * Returns the variable type of the family.
+	 *
+	 * @return the type or {@code null} if not set
+	 */
+	public VarType getType() {
+		return type;
+	}
+
+	/**
+	 * Sets the variable type of all variables of the family.
+	 *
+	 * @param type
+	 *            the type
+	 */
+	public void setType(VarType type) {
+		this.type = type;
+	}
+
+	/**
+	 * Returns the lower bound of the family.
+	 *
+	 * @return the lower bound or {@code null} if no lower bound exists
+	 */
+	public Number getLowerBound() {
+		return lowerBound;
+	}
+
+	/**
+	 * Returns the upper bound of the family.
+	 *
+	 * @return the upper bound or {@code null} if no upper bound exists
+	 */
+	public Number getUpperBound() {
+		return upperBound;
+	}
+
+	/**
+	 * Sets the lower and upper bounds of all variables of the family.
+	 *
+	 * @param lower
+	 *            the lower bound
+	 * @param upper
+	 *            the upper bound
+	 */
+	public void setBounds(Number lower, Number upper) {
+		this.lowerBound = lower;
+		this.upperBound = upper;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		StringBuilder s = new StringBuilder(name);
+		for (int n : dimensions) {
+			s.append('[').append(n).append(']');
+		}
+		return s.toString();
+	}
+
+	protected Var var(int offset) {
+		return new Var(this, offset);
+	}
+
+	protected int offset(int[] indices) {
+		check(indices.length);
+		int offset = 0;
+		for (int d = 0; d < indices.length; d++) {
+			offset += index(d, indices[d]) * strides[d];
+		}
+		return offset;
+	}
+
+	protected int index(int dimension, int index) {
+		if (index < 0 || index >= dimensions[dimension]) {
+			throw new IndexOutOfBoundsException("Index " + index + " of dimension " + dimension + " of family " + name
+					+ " is out of range.");
+		}
+		return index;
+	}
+
+	protected void check(int length) {
+		if (length != dimensions.length) {
+			throw new IllegalArgumentException("The family " + name + " has " + dimensions.length
+					+ " dimensions, not " + length + ".");
+		}
+	}
+
+}
@@ -0,0 +1,221 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp;
+
+/**
+ * The class {@code Verification} is the report of the {@link Verifier} for a
+ * solution. The violation of a constraint is the amount by which its
+ * activity exceeds the right-hand side ({@code <=}), falls short of it
+ * ({@code >=}), or differs from it ({@code =}). The relative violation is
+ * the violation divided by {@code max(1,|rhs|)}. The slack of a constraint
+ * is {@code rhs-activity} for {@code <=} and {@code =} constraints and
+ * {@code activity-rhs} for {@code >=} constraints, i.e., a negative slack of
+ * an inequality is a violation.
+ *
+ * @author lukasiewycz
+ *
+ */
+public class Verification {
+
+	protected final Problem problem;
+	protected final double objective;
+	protected final double[] slacks;
+	protected final double maxViolation;
+	protected final int maxViolationRow;
+	protected final double maxRelativeViolation;
+	protected final int maxRelativeViolationRow;
+	protected final double maxIntegralityViolation;
+	protected final int maxIntegralityViolationColumn;
+	protected final double maxBoundViolation;
+	protected final int maxBoundViolationColumn;
+
+	/**
+	 * Constructs a {@code Verification}.
+	 *
+	 * @param problem
+	 *            the problem
+	 * @param objective
+	 *            the objective value ({@code NaN} if the problem has no
+	 *            objective function)
+	 * @param slacks
+	 *            the slacks of the constraints
+	 * @param maxViolation
+	 *            the maximal violation of a constraint
+	 * @param maxViolationRow
+	 *            the index of the constraint with the maximal violation
+	 *            ({@code -1} if none)
+	 * @param maxRelativeViolation
+	 *            the maximal relative violation of a constraint
+	 * @param maxRelativeViolationRow
+	 *            the index of the constraint with the maximal relative
+	 *            violation ({@code -1} if none)
+	 * @param maxIntegralityViolation
+	 *            the maximal distance of an integer variable to the next
+	 *            integer
+	 * @param maxIntegralityViolationColumn
+	 *            the id of the variable with the maximal integrality
+	 *            violation ({@code -1} if none)
+	 * @param maxBoundViolation
+	 *            the maximal violation of a bound
+	 * @param maxBoundViolationColumn
+	 *            the id of the variable with the maximal bound violation
+	 *            ({@code -1} if none)
+	 */
+	public Verification(Problem problem, double objective, double[] slacks, double maxViolation,
+			int maxViolationRow, double maxRelativeViolation, int maxRelativeViolationRow,
+			double maxIntegralityViolation, int maxIntegralityViolationColumn, double maxBoundViolation,
+			int maxBoundViolationColumn) {
+		this.problem = problem;
+		this.objective = objective;
+		this.slacks = slacks;
+		this.maxViolation = maxViolation;
+		this.maxViolationRow = maxViolationRow;
+		this.maxRelativeViolation = maxRelativeViolation;
+		this.maxRelativeViolationRow = maxRelativeViolationRow;
+		this.maxIntegralityViolation = maxIntegralityViolation;
+		this.maxIntegralityViolationColumn = maxIntegralityViolationColumn;
+		this.maxBoundViolation = maxBoundViolation;
+		this.maxBoundViolationColumn = maxBoundViolationColumn;
+	}
+
+	/**
+	 * Returns {@code true} if no constraint, integrality, or bound is
+	 * violated by more than the tolerance.
+	 *
+	 * @param tolerance
+	 *            the absolute tolerance
+	 * @return {@code true} if the solution is feasible
+	 */
+	public boolean isFeasible(double tolerance) {
+		return maxViolation <= tolerance && maxIntegralityViolation <= tolerance && maxBoundViolation <= tolerance;
+	}
+
+	/**
+	 * Returns the objective value of the solution, e.g., to compare it with
+	 * the objective value reported by the backend.
+	 *
+	 * @return the objective value or {@code NaN} if the problem has no
+	 *         objective function
+	 */
+	public double getObjective() {
+		return objective;
+	}
+
+	/**
+	 * Returns the slack of a constraint.
+	 *
+	 * @param row
+	 *            the index of the constraint
+	 * @return the slack
+	 */
+	public double getSlack(int row) {
+		return slacks[row];
+	}
+
+	/**
+	 * Returns the slacks of all constraints. The array is not copied.
+	 *
+	 * @return the slacks (indexed by the constraints)
+	 */
+	public double[] getSlacks() {
+		return slacks;
+	}
+
+	/**
+	 * Returns the maximal absolute violation of a constraint.
+	 *
+	 * @return the maximal violation
+	 */
+	public double getMaxViolation() {
+		return maxViolation;
+	}
+
+	/**
+	 * Returns the constraint with the maximal absolute violation.
+	 *
+	 * @return the constraint or {@code null} if no constraint is violated
+	 */
+	public Constraint getMaxViolationConstraint() {
+		return maxViolationRow >= 0 ? problem.getConstraints().get(maxViolationRow) : null;
+	}
+
+	/**
+	 * Returns the maximal relative violation of a constraint.
+	 *
+	 * @return the maximal relative violation
+	 */
+	public double getMaxRelativeViolation() {
+		return maxRelativeViolation;
+	}
+
+	/**
+	 * Returns the constraint with the maximal relative violation.
+	 *
+	 * @return the constraint or {@code null} if no constraint is violated
+	 */
+	public Constraint getMaxRelativeViolationConstraint() {
+		return maxRelativeViolationRow >= 0 ? problem.getConstraints().get(maxRelativeViolationRow) : null;
+	}
+
+	/**
+	 * Returns the maximal distance of an integer or boolean variable to the
+	 * next integer.
+	 *
+	 * @return the maximal integrality violation
+	 */
+	public double getMaxIntegralityViolation() {
+		return maxIntegralityViolation;
+	}
+
+	/**
+	 * Returns the variable with the maximal integrality violation.
+	 *
+	 * @return the variable or {@code null} if no variable is fractional
+	 */
+	public Object getMaxIntegralityViolationVariable() {
+		return maxIntegralityViolationColumn >= 0 ? problem.getVariable(maxIntegralityViolationColumn) : null;
+	}
+
+	/**
+	 * Returns the maximal violation of a bound (the bounds of boolean
+	 * variables are {@code 0} and {@code 1}).
+	 *
+	 * @return the maximal bound violation
+	 */
+	public double getMaxBoundViolation() {
+		return maxBoundViolation;
+	}
+
+	/**
+	 * Returns the variable with the maximal bound violation.
+	 *
+	 * @return the variable or {@code null} if no bound is violated
+	 */
+	public Object getMaxBoundViolationVariable() {
+		return maxBoundViolationColumn >= 0 ? problem.getVariable(maxBoundViolationColumn) : null;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "Verification: {objective=" + objective + ", violation=" + maxViolation + ", relative=" + maxRelativeViolation + ", integrality="
+				+ maxIntegralityViolation + ", bounds=" + maxBoundViolation + "}";
+	}
+
+}
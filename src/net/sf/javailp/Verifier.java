@@ -0,0 +1,265 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * The class {@code Verifier} checks solutions against the constraints,
+ * bounds, and variable types of a {@link Problem}, e.g., to detect slightly
+ * infeasible points returned by a backend. The constraints are evaluated in
+ * parallel over blocks of rows of a {@link SparseMatrix} with primitive
+ * arrays; no values are boxed and no hash lookups are performed per
+ * non-zero. The matrix is built once in the constructor, such that a
+ * {@code Verifier} should be reused for all solutions of a problem. Later
+ * changes of the problem are not reflected. The rows and the objective
+ * function are evaluated with the selected {@link Kernel}.
+ *
+ * @see Verification
+ * @author lukasiewycz
+ *
+ */
+public class Verifier {
+
+	protected final Problem problem;
+	protected final ForkJoinPool pool;
+	protected final SparseMatrix matrix;
+	protected final double[] rhs;
+	protected final Operator[] operators;
+	protected final double[] lower;
+	protected final double[] upper;
+	protected final boolean[] integer;
+	protected final double[] objective;
+
+	/**
+	 * Constructs a {@code Verifier} that uses the default pool (see
+	 * {@link SparseMatrix#pool()}).
+	 *
+	 * @param problem
+	 *            the problem
+	 */
+	public Verifier(Problem problem) {
+		this(problem, SparseMatrix.pool());
+	}
+
+	/**
+	 * Constructs a {@code Verifier}.
+	 *
+	 * @param problem
+	 *            the problem
+	 * @param pool
+	 *            the pool for the parallel evaluation
+	 */
+	public Verifier(Problem problem, ForkJoinPool pool) {
+		this.problem = problem;
+		this.pool = pool;
+		this.matrix = new SparseMatrix(problem, pool);
+
+		List<Constraint> constraints = problem.getConstraints();
+		int rows = matrix.getRows();
+		this.rhs = new double[rows];
+		this.operators = new Operator[rows];
+		for (int i = 0; i < rows; i++) {
+			Constraint constraint = constraints.get(i);
+			rhs[i] = constraint.getRhs().doubleValue();
+			operators[i] = constraint.getOperator();
+		}
+
+		int columns = matrix.getColumns();
+		this.lower = new double[columns];
+		this.upper = new double[columns];
+		this.integer = new boolean[columns];
+		for (int j = 0; j < columns; j++) {
+			Object variable = problem.getVariable(j);
+			Number lb = problem.getVarLowerBound(variable);
+			Number ub = problem.getVarUpperBound(variable);
+			lower[j] = lb != null ? lb.doubleValue() : Double.NEGATIVE_INFINITY;
+			upper[j] = ub != null ? ub.doubleValue() : Double.POSITIVE_INFINITY;
+			VarType type = problem.getVarType(variable);
+			integer[j] = type == VarType.INT || type == VarType.BOOL;
+			if (type == VarType.BOOL) {
+				lower[j] = Math.max(lower[j], 0);
+				upper[j] = Math.min(upper[j], 1);
+			}
+		}
+
+		Linear function = problem.getObjective();
+		if (function != null) {
+			// dense, such that the objective value is a dense dot product
+			this.objective = new double[columns];
+			for (Term term : function) {
+				int id = problem.getVariableId(term.getVariable());
+				if (id >= 0 && id < columns) {
+					objective[id] += term.getCoefficient().doubleValue();
+				}
+			}
+		} else {
+			this.objective = null;
+		}
+	}
+
+	/**
+	 * Returns the constraint matrix.
+	 *
+	 * @return the matrix
+	 */
+	public SparseMatrix getMatrix() {
+		return matrix;
+	}
+
+	/**
+	 * Verifies a result.
+	 *
+	 * @param result
+	 *            the result
+	 * @return the verification
+	 * @throws IllegalArgumentException
+	 *             if the value of a variable is missing
+	 */
+	public Verification verify(Result result) {
+		return verify(values(result));
+	}
+
+	/**
+	 * Verifies the values of the variables.
+	 *
+	 * @param x
+	 *            the values (indexed by the ids of the variables)
+	 * @return the verification
+	 * @throws IllegalArgumentException
+	 *             if the value of a variable is missing ({@code NaN})
+	 */
+	public Verification verify(final double[] x) {
+		int columns = matrix.getColumns();
+		if (x.length < columns) {
+			throw new IllegalArgumentException("The number of values is too small (" + x.length + " < " + columns
+					+ ").");
+		}
+
+		double maxIntegrality = 0, maxBound = 0;
+		int integralityColumn = -1, boundColumn = -1;
+		for (int j = 0; j < columns; j++) {
+			double value = x[j];
+			if (Double.isNaN(value)) {
+				throw new IllegalArgumentException("The variable " + problem.getVariable(j)
+						+ " is missing in the given result.");
+			}
+			if (integer[j]) {
+				double fraction = Math.abs(value - Math.rint(value));
+				if (fraction > maxIntegrality) {
+					maxIntegrality = fraction;
+					integralityColumn = j;
+				}
+			}
+			double bound = Math.max(lower[j] - value, value - upper[j]);
+			if (bound > maxBound) {
+				maxBound = bound;
+				boundColumn = j;
+			}
+		}
+
+		final double[] slacks = new double[matrix.getRows()];
+		Worst worst = matrix.invoke(pool, new SparseMatrix.Block<Worst>() {
+			public Worst compute(int from, int to) {
+				Worst worst = new Worst();
+				for (int i = from; i < to; i++) {
+					double activity = matrix.dot(i, x);
+					double r = rhs[i];
+					Operator operator = operators[i];
+					double slack, violation;
+					if (operator == Operator.LE) {
+						slack = r - activity;
+						violation = -slack;
+					} else if (operator == Operator.GE) {
+						slack = activity - r;
+						violation = -slack;
+					} else {
+						slack = r - activity;
+						violation = Math.abs(slack);
+					}
+					slacks[i] = slack;
+					if (violation > worst.violation) {
+						worst.violation = violation;
+						worst.row = i;
+					}
+					double relative = violation / Math.max(1, Math.abs(r));
+					if (relative > worst.relative) {
+						worst.relative = relative;
+						worst.relativeRow = i;
+					}
+				}
+				return worst;
+			}
+
+			public Worst combine(Worst a, Worst b) {
+				// the first row wins ties for a deterministic report
+				if (b.violation > a.violation) {
+					a.violation = b.violation;
+					a.row = b.row;
+				}
+				if (b.relative > a.relative) {
+					a.relative = b.relative;
+					a.relativeRow = b.relativeRow;
+				}
+				return a;
+			}
+		});
+
+		double value = objective != null ? Kernel.get().dot(objective, x, 0, columns) : Double.NaN;
+		return new Verification(problem, value, slacks, worst.violation, worst.row, worst.relative,
+				worst.relativeRow, maxIntegrality, integralityColumn, maxBound, boundColumn);
+	}
+
+	/**
+	 * Returns the values of the variables of a result, indexed by the ids of
+	 * the variables. The values of an {@link ArrayResult} of the same problem
+	 * are used without a copy.
+	 *
+	 * @param result
+	 *            the result
+	 * @return the values ({@code NaN} for missing values)
+	 */
+	protected double[] values(Result result) {
+		int columns = matrix.getColumns();
+		if (result instanceof ArrayResult && ((ArrayResult) result).problem == problem) {
+			return ((ArrayResult) result).primal();
+		}
+		double[] x = new double[columns];
+		if (result instanceof BitSetResult && ((BitSetResult) result).problem == problem) {
+			BitSetResult bits = (BitSetResult) result;
+			for (int j = 0; j < columns; j++) {
+				x[j] = bits.getBoolean(j) ? 1 : 0;
+			}
+		} else {
+			for (int j = 0; j < columns; j++) {
+				Number value = result.getPrimalValue(problem.getVariable(j));
+				x[j] = value != null ? value.doubleValue() : Double.NaN;
+			}
+		}
+		return x;
+	}
+
+	/**
+	 * The worst constraints of a block.
+	 */
+	protected static class Worst {
+		double violation = 0;
+		int row = -1;
+		double relative = 0;
+		int relativeRow = -1;
+	}
+
+}
@@ -0,0 +1,453 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp.bench;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import net.sf.javailp.AbstractSolver;
+import net.sf.javailp.Constraint;
+import net.sf.javailp.Incumbent;
+import net.sf.javailp.IncumbentListener;
+import net.sf.javailp.Linear;
+import net.sf.javailp.OptType;
+import net.sf.javailp.Problem;
+import net.sf.javailp.Result;
+import net.sf.javailp.SolveOutcome;
+import net.sf.javailp.SolveStatus;
+import net.sf.javailp.Solver;
+import net.sf.javailp.SolverFactory;
+import net.sf.javailp.generator.AssignmentGenerator;
+import net.sf.javailp.generator.FacilityLocationGenerator;
+import net.sf.javailp.generator.Generator;
+import net.sf.javailp.generator.GraphColoringGenerator;
+import net.sf.javailp.generator.KnapsackGenerator;
+import net.sf.javailp.generator.RandomLPGenerator;
+import net.sf.javailp.generator.SetCoverGenerator;
+
+/**
+ * The class {@code BenchmarkRunner} runs a set of instances on all locally
+ * available backends and writes the measurements as CSV file
+ * ({@code results.csv}) and an HTML summary with performance profiles
+ * ({@code report.html}). Each backend runs each instance a fixed number of
+ * times after a fixed number of discarded warmup runs. All runs take place
+ * in the same JVM and one after another:
+ * <ul>
+ * <li>The time to the first solution is taken from the first incumbent; if
+ * the backend does not report incumbents, it is the time of the solve. The
+ * registered incumbent listener might slow down backends that otherwise do
+ * not use callbacks.</li>
+ * <li>The peak resident set size is read from {@code /proc/self/status}
+ * and reset before each run with {@code /proc/self/clear_refs} (Linux 4.0
+ * or later). On other systems, it is not available.</li>
+ * <li>The peak heap usage is the sum of the peaks of the heap memory pools
+ * after a garbage collection before the run.</li>
+ * </ul>
+ * Usage:
+ * 
+ * <pre>
+ * BenchmarkRunner [-backends SAT4J,MiniSat] [-runs 3] [-warmup 1] [-timeout 60]
+ *                 [-generated 3] [-out build/bench] [files or directories...]
+ * </pre>
+ * 
+ * Files and directories are searched for OPB files ({@code .opb},
+ * {@code .opb.gz}). Without files, generated instances are used.
+ * 
+ * @author lukasiewycz
+ * 
+ */
+public class BenchmarkRunner {
+
+	/**
+	 * The known backends, i.e., the suffixes of the {@code SolverFactory}
+	 * classes.
+	 */
+	public static final String[] BACKENDS = { "SAT4J", "MiniSat", "LpSolve", "GLPK", "CPLEX", "Gurobi", "Mosek" };
+
+	protected final List<Instance> instances = new ArrayList<Instance>();
+	protected final Map<String, SolverFactory> factories = new LinkedHashMap<String, SolverFactory>();
+	protected int runs = 3;
+	protected int warmup = 1;
+	protected int timeout = 60;
+
+	/**
+	 * Adds an instance.
+	 * 
+	 * @param instance
+	 *            the instance
+	 */
+	public void addInstance(Instance instance) {
+		instances.add(instance);
+	}
+
+	/**
+	 * Adds the OPB files of a file or directory (recursively).
+	 * 
+	 * @param file
+	 *            the file or directory
+	 */
+	public void addInstances(File file) {
+		if (file.isDirectory()) {
+			File[] files = file.listFiles();
+			Arrays.sort(files);
+			for (File child : files) {
+				addInstances(child);
+			}
+		} else if (file.getName().endsWith(".opb") || file.getName().endsWith(".opb.gz")) {
+			addInstance(Instance.file(file));
+		} else {
+			System.err.println("Skipped " + file + " (only OPB files are supported)");
+		}
+	}
+
+	/**
+	 * Adds generated instances of all generators with the seeds
+	 * {@code 1,...,seeds}.
+	 * 
+	 * @param seeds
+	 *            the number of seeds
+	 */
+	public void addGenerated(int seeds) {
+		for (int seed = 1; seed <= seeds; seed++) {
+			addGenerated("knapsack-25x2", new KnapsackGenerator(25, 2), seed);
+			addGenerated("setcover-80x40", new SetCoverGenerator(80, 40), seed);
+			addGenerated("coloring-20x4", new GraphColoringGenerator(20, 4), seed);
+			addGenerated("assignment-5x15", new AssignmentGenerator(5, 15), seed);
+			addGenerated("facility-8x30", new FacilityLocationGenerator(8, 30), seed);
+			addGenerated("lp-200x200", new RandomLPGenerator(200, 200), seed);
+		}
+	}
+
+	protected void addGenerated(String name, Generator generator, int seed) {
+		generator.setSeed(seed);
+		addInstance(Instance.generated(name + "-s" + seed, generator));
+	}
+
+	/**
+	 * Adds a backend if it is available, i.e., its classes and native
+	 * libraries can be loaded and it solves a trivial problem.
+	 * 
+	 * @param backend
+	 *            the backend (see {@link #BACKENDS})
+	 * @return {@code true} if the backend is available
+	 */
+	public boolean addBackend(String backend) {
+		try {
+			SolverFactory factory = (SolverFactory) Class.forName("net.sf.javailp.SolverFactory" + backend).newInstance();
+			factory.setParameter(Solver.VERBOSE, 0);
+
+			Problem problem = new Problem();
+			Linear linear = new Linear();
+			linear.add(1, "x");
+			problem.setObjective(linear, OptType.MAX);
+			problem.add(linear, "<=", 1);
+			problem.setVarType("x", Boolean.class);
+			Solver solver = factory.get();
+			try {
+				if (solver.solve(problem) == null) {
+					return false;
+				}
+			} finally {
+				solver.close();
+			}
+
+			factory.setParameter(Solver.TIMEOUT, timeout);
+			factories.put(backend, factory);
+			return true;
+		} catch (Exception e) {
+			return false;
+		} catch (LinkageError e) {
+			// missing jar or native library
+			return false;
+		}
+	}
+
+	/**
+	 * Sets the number of measured runs per instance and backend.
+	 * 
+	 * @param runs
+	 *            the number of runs
+	 */
+	public void setRuns(int runs) {
+		this.runs = runs;
+	}
+
+	/**
+	 * Sets the number of discarded warmup runs per instance and backend.
+	 * 
+	 * @param warmup
+	 *            the number of warmup runs
+	 */
+	public void setWarmup(int warmup) {
+		this.warmup = warmup;
+	}
+
+	/**
+	 * Sets the timeout (in seconds) of each run. Has to be set before the
+	 * backends are added.
+	 * 
+	 * @param timeout
+	 *            the timeout
+	 */
+	public void setTimeout(int timeout) {
+		this.timeout = timeout;
+	}
+
+	/**
+	 * Runs all instances on all backends.
+	 * 
+	 * @param csv
+	 *            the output of the CSV lines, flushed after each run
+	 *            ({@code null} for no output)
+	 * @return the measurements
+	 * @throws IOException
+	 *             if an instance cannot be read or the output fails
+	 */
+	public List<Measurement> run(Writer csv) throws IOException {
+		List<Measurement> measurements = new ArrayList<Measurement>();
+		if (csv != null) {
+			csv.write(Measurement.HEADER + "\n");
+		}
+		for (Instance instance : instances) {
+			for (Map.Entry<String, SolverFactory> entry : factories.entrySet()) {
+				for (int i = 0; i < warmup; i++) {
+					measure(instance, entry.getKey(), entry.getValue(), -1);
+				}
+				for (int i = 0; i < runs; i++) {
+					Measurement measurement = measure(instance, entry.getKey(), entry.getValue(), i);
+					measurements.add(measurement);
+					System.out.println(measurement);
+					if (csv != null) {
+						csv.write(measurement.toCsv() + "\n");
+						csv.flush();
+					}
+				}
+			}
+		}
+		return measurements;
+	}
+
+	/**
+	 * Runs an instance once.
+	 * 
+	 * @param instance
+	 *            the instance
+	 * @param backend
+	 *            the name of the backend
+	 * @param factory
+	 *            the factory of the backend
+	 * @param run
+	 *            the index of the run ({@code -1} for a warmup run)
+	 * @return the measurement
+	 * @throws IOException
+	 *             if the instance cannot be read
+	 */
+	protected Measurement measure(Instance instance, String backend, SolverFactory factory, int run)
+			throws IOException {
+		Problem problem = instance.load();
+		long nonZeros = 0;
+		for (Constraint constraint : problem.getConstraints()) {
+			nonZeros += constraint.size();
+		}
+		System.gc();
+		boolean rss = resetPeakRss();
+		resetPeakHeap();
+
+		final long[] firstSolution = { -1 };
+		Solver solver = factory.get();
+		if (solver instanceof AbstractSolver) {
+			((AbstractSolver) solver).addIncumbentListener(new IncumbentListener() {
+				public void incumbent(Incumbent incumbent) {
+					if (firstSolution[0] < 0) {
+						firstSolution[0] = System.nanoTime();
+					}
+				}
+			});
+		}
+
+		Result result = null;
+		SolveStatus status;
+		double gap = Double.NaN;
+		long start = System.nanoTime();
+		long end;
+		try {
+			result = solver.solve(problem);
+			end = System.nanoTime();
+			SolveOutcome outcome = solver.getOutcome();
+			if (outcome != null) {
+				status = outcome.getStatus();
+				gap = status == SolveStatus.OPTIMAL ? 0 : outcome.getGap();
+			} else {
+				status = result != null ? SolveStatus.OPTIMAL : SolveStatus.INFEASIBLE;
+			}
+		} catch (RuntimeException e) {
+			end = System.nanoTime();
+			status = SolveStatus.ERROR;
+			if (run >= 0) {
+				System.err.println(instance + " " + backend + ": " + e);
+			}
+		} finally {
+			solver.close();
+		}
+
+		double time = (end - start) / 1e6;
+		double first = Double.NaN;
+		if (firstSolution[0] >= 0) {
+			first = (firstSolution[0] - start) / 1e6;
+		} else if (status.hasSolution()) {
+			first = time;
+		}
+		Number objective = result != null && status.hasSolution() ? result.getObjective() : null;
+		return new Measurement(instance.getName(), backend, run, status, objective, gap, time, first,
+				rss ? peakRss() : -1, peakHeap(), problem.getConstraintsCount(), problem.getVariablesCount(),
+				nonZeros);
+	}
+
+	/**
+	 * Resets the peak resident set size of the process.
+	 * 
+	 * @return {@code true} if the peak was reset
+	 */
+	protected static boolean resetPeakRss() {
+		try {
+			Writer out = new FileWriter("/proc/self/clear_refs");
+			try {
+				out.write("5");
+			} finally {
+				out.close();
+			}
+			return true;
+		} catch (IOException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Returns the peak resident set size of the process.
+	 * 
+	 * @return the peak resident set size in kB or {@code -1} if not available
+	 */
+	protected static long peakRss() {
+		try {
+			BufferedReader in = new BufferedReader(new FileReader("/proc/self/status"));
+			try {
+				String line;
+				while ((line = in.readLine()) != null) {
+					if (line.startsWith("VmHWM:")) {
+						return Long.parseLong(line.substring(6).replace("kB", "").trim());
+					}
+				}
+			} finally {
+				in.close();
+			}
+		} catch (IOException e) {
+			// not available
+		} catch (NumberFormatException e) {
+			// not available
+		}
+		return -1;
+	}
+
+	protected static void resetPeakHeap() {
+		for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+			if (pool.getType() == MemoryType.HEAP && pool.isValid()) {
+				pool.resetPeakUsage();
+			}
+		}
+	}
+
+	protected static long peakHeap() {
+		long sum = 0;
+		for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+			if (pool.getType() == MemoryType.HEAP && pool.isValid()) {
+				sum += pool.getPeakUsage().getUsed();
+			}
+		}
+		return sum;
+	}
+
+	/**
+	 * Runs the benchmark from the command line.
+	 * 
+	 * @param args
+	 *            the arguments (see the class description)
+	 * @throws IOException
+	 *             if an instance cannot be read or the output fails
+	 */
+	public static void main(String[] args) throws IOException {
+		BenchmarkRunner runner = new BenchmarkRunner();
+		String[] backends = BACKENDS;
+		File out = new File("build/bench");
+		int generated = 0;
+		List<File> files = new ArrayList<File>();
+
+		for (int i = 0; i < args.length; i++) {
+			String arg = args[i];
+			if (arg.equals("-backends")) {
+				backends = args[++i].split(",");
+			} else if (arg.equals("-runs")) {
+				runner.setRuns(Integer.parseInt(args[++i]));
+			} else if (arg.equals("-warmup")) {
+				runner.setWarmup(Integer.parseInt(args[++i]));
+			} else if (arg.equals("-timeout")) {
+				runner.setTimeout(Integer.parseInt(args[++i]));
+			} else if (arg.equals("-generated")) {
+				generated = Integer.parseInt(args[++i]);
+			} else if (arg.equals("-out")) {
+				out = new File(args[++i]);
+			} else if (arg.startsWith("-")) {
+				throw new IllegalArgumentException("Unknown option " + arg);
+			} else {
+				files.add(new File(arg));
+			}
+		}
+
+		for (File file : files) {
+			runner.addInstances(file);
+		}
+		if (generated > 0 || files.isEmpty()) {
+			runner.addGenerated(generated > 0 ? generated : 3);
+		}
+		for (String backend : backends) {
+			System.out.println(backend + ": " + (runner.addBackend(backend.trim()) ? "available" : "not available"));
+		}
+
+		out.mkdirs();
+		Writer csv = new OutputStreamWriter(new FileOutputStream(new File(out, "results.csv")), "UTF-8");
+		List<Measurement> measurements;
+		try {
+			measurements = runner.run(csv);
+		} finally {
+			csv.close();
+		}
+		Reports.writeHtml(measurements, new File(out, "report.html"), runner.timeout * 1000.0);
+		System.out.println("Wrote " + new File(out, "results.csv") + " and " + new File(out, "report.html"));
+	}
+
+}
@@ -0,0 +1,107 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp.bench;
+
+import java.io.File;
+import java.io.IOException;
+
+import net.sf.javailp.Problem;
+import net.sf.javailp.generator.Generator;
+
+/**
+ * The class {@code Instance} is a named benchmark instance. The problem is
+ * loaded (or generated) anew for each run such that no run reuses the
+ * problem of a previous run.
+ * 
+ * @author lukasiewycz
+ * 
+ */
+public abstract class Instance {
+
+	protected final String name;
+
+	/**
+	 * Constructs an {@code Instance}.
+	 * 
+	 * @param name
+	 *            the name
+	 */
+	public Instance(String name) {
+		this.name = name;
+	}
+
+	/**
+	 * Returns the name.
+	 * 
+	 * @return the name
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Loads the problem.
+	 * 
+	 * @return the problem
+	 * @throws IOException
+	 *             if the problem cannot be read
+	 */
+	public abstract Problem load() throws IOException;
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return name;
+	}
+
+	/**
+	 * Returns the instance of an OPB file.
+	 * 
+	 * @param file
+	 *            the file (optionally gzip compressed)
+	 * @return the instance
+	 */
+	public static Instance file(final File file) {
+		return new Instance(file.getName()) {
+			@Override
+			public Problem load() throws IOException {
+				return new OpbReader().read(file);
+			}
+		};
+	}
+
+	/**
+	 * Returns the instance of a generator.
+	 * 
+	 * @param name
+	 *            the name
+	 * @param generator
+	 *            the generator
+	 * @return the instance
+	 */
+	public static Instance generated(String name, final Generator generator) {
+		return new Instance(name) {
+			@Override
+			public Problem load() {
+				return generator.generate();
+			}
+		};
+	}
+
+}
@@ -0,0 +1,221 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp.bench;
+
+import java.util.Locale;
+
+import net.sf.javailp.SolveStatus;
+
+/**
+ * The class {@code Measurement} is a single run of a backend on an instance.
+ * All times are wall-clock times in milliseconds from the call of
+ * {@code solve}, i.e., they include the transfer of the model and the
+ * extraction of the result.
+ * 
+ * @author lukasiewycz
+ * 
+ */
+public class Measurement {
+
+	/**
+	 * The header of the CSV file.
+	 */
+	public static final String HEADER = "instance,backend,run,status,objective,gap,time_ms,first_solution_ms,optimal_ms,peak_rss_kb,peak_heap_bytes,rows,columns,nonzeros";
+
+	protected final String instance;
+	protected final String backend;
+	protected final int run;
+	protected final SolveStatus status;
+	protected final Number objective;
+	protected final double gap;
+	protected final double time;
+	protected final double firstSolution;
+	protected final long peakRss;
+	protected final long peakHeap;
+	protected final int rows;
+	protected final int columns;
+	protected final long nonZeros;
+
+	/**
+	 * Constructs a {@code Measurement}.
+	 * 
+	 * @param instance
+	 *            the name of the instance
+	 * @param backend
+	 *            the name of the backend
+	 * @param run
+	 *            the index of the run
+	 * @param status
+	 *            the status
+	 * @param objective
+	 *            the objective value ({@code null} if not available)
+	 * @param gap
+	 *            the final gap ({@code NaN} if not available)
+	 * @param time
+	 *            the time of the solve
+	 * @param firstSolution
+	 *            the time to the first solution ({@code NaN} if none)
+	 * @param peakRss
+	 *            the peak resident set size in kB ({@code -1} if not
+	 *            available)
+	 * @param peakHeap
+	 *            the peak heap usage in bytes ({@code -1} if not available)
+	 * @param rows
+	 *            the number of constraints
+	 * @param columns
+	 *            the number of variables
+	 * @param nonZeros
+	 *            the number of non-zeros
+	 */
+	public Measurement(String instance, String backend, int run, SolveStatus status, Number objective, double gap,
+			double time, double firstSolution, long peakRss, long peakHeap, int rows, int columns, long nonZeros) {
+		this.instance = instance;
+		this.backend = backend;
+		this.run = run;
+		this.status = status;
+		this.objective = objective;
+		this.gap = gap;
+		this.time = time;
+		this.firstSolution = firstSolution;
+		this.peakRss = peakRss;
+		this.peakHeap = peakHeap;
+		this.rows = rows;
+		this.columns = columns;
+		this.nonZeros = nonZeros;
+	}
+
+	/**
+	 * Returns the name of the instance.
+	 * 
+	 * @return the name of the instance
+	 */
+	public String getInstance() {
+		return instance;
+	}
+
+	/**
+	 * Returns the name of the backend.
+	 * 
+	 * @return the name of the backend
+	 */
+	public String getBackend() {
+		return backend;
+	}
+
+	/**
+	 * Returns the status.
+	 * 
+	 * @return the status
+	 */
+	public SolveStatus getStatus() {
+		return status;
+	}
+
+	/**
+	 * Returns the time of the solve.
+	 * 
+	 * @return the time in milliseconds
+	 */
+	public double getTime() {
+		return time;
+	}
+
+	/**
+	 * Returns the time to the first solution.
+	 * 
+	 * @return the time in milliseconds or {@code NaN} if no solution was
+	 *         found
+	 */
+	public double getFirstSolutionTime() {
+		return firstSolution;
+	}
+
+	/**
+	 * Returns the time to the proven optimum.
+	 * 
+	 * @return the time in milliseconds or {@code NaN} if the solution is not
+	 *         proven optimal
+	 */
+	public double getOptimalTime() {
+		return status == SolveStatus.OPTIMAL ? time : Double.NaN;
+	}
+
+	/**
+	 * Returns the final gap.
+	 * 
+	 * @return the gap or {@code NaN} if not available
+	 */
+	public double getGap() {
+		return gap;
+	}
+
+	/**
+	 * Returns the peak resident set size.
+	 * 
+	 * @return the peak resident set size in kB or {@code -1} if not available
+	 */
+	public long getPeakRss() {
+		return peakRss;
+	}
+
+	/**
+	 * Returns the peak heap usage.
+	 * 
+	 * @return the peak heap usage in bytes or {@code -1} if not available
+	 */
+	public long getPeakHeap() {
+		return peakHeap;
+	}
+
+	/**
+	 * Returns the line of the CSV file.
+	 * 
+	 * @return the line (without line separator)
+	 */
+	public String toCsv() {
+		StringBuilder s = new StringBuilder();
+		s.append(quote(instance)).append(',').append(quote(backend)).append(',').append(run).append(',');
+		s.append(status).append(',').append(objective != null ? objective : "").append(',');
+		s.append(format(gap)).append(',').append(format(time)).append(',').append(format(firstSolution)).append(',');
+		s.append(format(getOptimalTime())).append(',').append(peakRss).append(',').append(peakHeap).append(',');
+		s.append(rows).append(',').append(columns).append(',').append(nonZeros);
+		return s.toString();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return instance + " " + backend + " #" + run + ": " + status + " " + format(time) + "ms";
+	}
+
+	protected static String format(double value) {
+		if (Double.isNaN(value)) {
+			return "";
+		}
+		return String.format(Locale.ROOT, "%.3f", value);
+	}
+
+	protected static String quote(String value) {
+		if (value.indexOf(',') < 0 && value.indexOf('"') < 0) {
+			return value;
+		}
+		return '"' + value.replace("\"", "\"\"") + '"';
+	}
+
+}
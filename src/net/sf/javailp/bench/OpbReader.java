@@ -0,0 +1,201 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp.bench;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import net.sf.javailp.Constraint;
+import net.sf.javailp.Linear;
+import net.sf.javailp.Operator;
+import net.sf.javailp.OptType;
+import net.sf.javailp.Problem;
+import net.sf.javailp.VarType;
+
+/**
+ * The class {@code OpbReader} reads linear pseudo-Boolean problems in the OPB
+ * format of the pseudo-Boolean competitions, e.g.:
+ * 
+ * <pre>
+ * * comment
+ * min: +1 x1 +2 x2 ;
+ * +1 x1 +1 ~x2 >= 1 ;
+ * </pre>
+ * 
+ * A negated literal {@code ~x} is replaced by {@code 1-x}. The constant of
+ * the objective function that results from negated literals is dropped.
+ * Non-linear terms are not supported.
+ * 
+ * @author lukasiewycz
+ * 
+ */
+public class OpbReader {
+
+	/**
+	 * Reads a problem from a file. Files ending with {@code .gz} are
+	 * decompressed.
+	 * 
+	 * @param file
+	 *            the file
+	 * @return the problem
+	 * @throws IOException
+	 *             if the file cannot be read or parsed
+	 */
+	public Problem read(File file) throws IOException {
+		InputStream in = new FileInputStream(file);
+		try {
+			if (file.getName().endsWith(".gz")) {
+				in = new GZIPInputStream(in);
+			}
+			return read(new InputStreamReader(in, "US-ASCII"));
+		} finally {
+			in.close();
+		}
+	}
+
+	/**
+	 * Reads a problem.
+	 * 
+	 * @param reader
+	 *            the reader
+	 * @return the problem
+	 * @throws IOException
+	 *             if the input cannot be read or parsed
+	 */
+	public Problem read(Reader reader) throws IOException {
+		BufferedReader in = new BufferedReader(reader);
+		Problem problem = new Problem();
+		List<String> tokens = new ArrayList<String>();
+		int lineNumber = 0;
+		String line;
+		while ((line = in.readLine()) != null) {
+			lineNumber++;
+			if (line.startsWith("*")) {
+				continue;
+			}
+			for (String token : line.trim().split("\\s+")) {
+				if (token.length() == 0) {
+					continue;
+				} else if (token.endsWith(";")) {
+					if (token.length() > 1) {
+						tokens.add(token.substring(0, token.length() - 1));
+					}
+					statement(problem, tokens, lineNumber);
+					tokens.clear();
+				} else {
+					tokens.add(token);
+				}
+			}
+		}
+		if (!tokens.isEmpty()) {
+			throw new IOException("Line " + lineNumber + ": missing ';'.");
+		}
+		for (Object variable : problem.getVariables()) {
+			problem.setVarType(variable, VarType.BOOL);
+		}
+		return problem;
+	}
+
+	protected void statement(Problem problem, List<String> tokens, int lineNumber) throws IOException {
+		if (tokens.isEmpty()) {
+			return;
+		}
+		String first = tokens.get(0);
+		if (first.equals("min:") || first.equals("max:")) {
+			Linear objective = new Linear();
+			terms(objective, tokens, 1, tokens.size(), lineNumber);
+			problem.setObjective(objective, first.equals("min:") ? OptType.MIN : OptType.MAX);
+			return;
+		}
+
+		int size = tokens.size();
+		if (size < 2) {
+			throw new IOException("Line " + lineNumber + ": missing operator.");
+		}
+		Operator operator;
+		String op = tokens.get(size - 2);
+		if (op.equals(">=")) {
+			operator = Operator.GE;
+		} else if (op.equals("<=")) {
+			operator = Operator.LE;
+		} else if (op.equals("=")) {
+			operator = Operator.EQ;
+		} else {
+			throw new IOException("Line " + lineNumber + ": unknown operator '" + op + "'.");
+		}
+		Linear lhs = new Linear();
+		long rhs = coefficient(tokens.get(size - 1), lineNumber);
+		rhs -= terms(lhs, tokens, 0, size - 2, lineNumber);
+		problem.add(new Constraint("c" + problem.getConstraintsCount(), lhs, operator, rhs));
+	}
+
+	/**
+	 * Adds the terms to the linear expression and returns the constant that
+	 * results from negated literals.
+	 */
+	protected long terms(Linear linear, List<String> tokens, int from, int to, int lineNumber) throws IOException {
+		long constant = 0;
+		long coefficient = 1;
+		boolean pending = false;
+		for (int i = from; i < to; i++) {
+			String token = tokens.get(i);
+			if (isCoefficient(token)) {
+				if (pending) {
+					throw new IOException("Line " + lineNumber + ": coefficient without variable.");
+				}
+				coefficient = coefficient(token, lineNumber);
+				pending = true;
+			} else {
+				if (i + 1 < to && !isCoefficient(tokens.get(i + 1))) {
+					throw new IOException("Line " + lineNumber + ": non-linear terms are not supported.");
+				}
+				if (token.charAt(0) == '~') {
+					linear.add(-coefficient, token.substring(1));
+					constant += coefficient;
+				} else {
+					linear.add(coefficient, token);
+				}
+				coefficient = 1;
+				pending = false;
+			}
+		}
+		if (pending) {
+			throw new IOException("Line " + lineNumber + ": coefficient without variable.");
+		}
+		return constant;
+	}
+
+	protected boolean isCoefficient(String token) {
+		char c = token.charAt(0);
+		return c == '+' || c == '-' || Character.isDigit(c);
+	}
+
+	protected long coefficient(String token, int lineNumber) throws IOException {
+		try {
+			return Long.parseLong(token.startsWith("+") ? token.substring(1) : token);
+		} catch (NumberFormatException e) {
+			throw new IOException("Line " + lineNumber + ": invalid coefficient '" + token + "'.");
+		}
+	}
+
+}
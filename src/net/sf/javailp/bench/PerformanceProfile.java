@@ -0,0 +1,207 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp.bench;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The class {@code PerformanceProfile} is the performance profile of Dolan
+ * and Mor&eacute; ("Benchmarking optimization software with performance
+ * profiles", Math. Programming 91, 2002). For each instance, the performance
+ * ratio of a backend is its cost (e.g., the time to the optimum) divided by
+ * the minimal cost of all backends on this instance. The profile
+ * {@code rho(tau)} of a backend is the fraction of the instances with a ratio
+ * of at most {@code tau}; thus, {@code rho(1)} is the fraction of the
+ * instances on which the backend is the fastest and {@code rho} at infinity
+ * is the fraction of the solved instances. A failure has an infinite cost.
+ * 
+ * @author lukasiewycz
+ * 
+ */
+public class PerformanceProfile {
+
+	protected static final String[] COLORS = { "#1f77b4", "#d62728", "#2ca02c", "#ff7f0e", "#9467bd", "#8c564b",
+			"#e377c2", "#17becf" };
+
+	protected final Map<String, Map<String, Double>> costs = new LinkedHashMap<String, Map<String, Double>>();
+	protected final Set<String> backends = new LinkedHashSet<String>();
+
+	/**
+	 * Sets the cost of a backend on an instance.
+	 * 
+	 * @param instance
+	 *            the instance
+	 * @param backend
+	 *            the backend
+	 * @param cost
+	 *            the cost (positive, {@code NaN} or infinite for a failure)
+	 */
+	public void add(String instance, String backend, double cost) {
+		Map<String, Double> map = costs.get(instance);
+		if (map == null) {
+			map = new LinkedHashMap<String, Double>();
+			costs.put(instance, map);
+		}
+		map.put(backend, Double.isNaN(cost) ? Double.POSITIVE_INFINITY : cost);
+		backends.add(backend);
+	}
+
+	/**
+	 * Returns the backends.
+	 * 
+	 * @return the backends
+	 */
+	public List<String> getBackends() {
+		return new ArrayList<String>(backends);
+	}
+
+	/**
+	 * Returns the sorted performance ratios of a backend. The ratio of an
+	 * instance that no backend solved is infinite.
+	 * 
+	 * @param backend
+	 *            the backend
+	 * @return the ratios
+	 */
+	public double[] getRatios(String backend) {
+		double[] ratios = new double[costs.size()];
+		int i = 0;
+		for (Map<String, Double> map : costs.values()) {
+			double best = Double.POSITIVE_INFINITY;
+			for (double cost : map.values()) {
+				best = Math.min(best, cost);
+			}
+			Double cost = map.get(backend);
+			if (cost == null || Double.isInfinite(cost) || Double.isInfinite(best)) {
+				ratios[i++] = Double.POSITIVE_INFINITY;
+			} else {
+				// guard against a zero cost due to the timer resolution
+				ratios[i++] = Math.max(cost, 1e-6) / Math.max(best, 1e-6);
+			}
+		}
+		Arrays.sort(ratios);
+		return ratios;
+	}
+
+	/**
+	 * Returns the value {@code rho(tau)} of the profile of a backend.
+	 * 
+	 * @param backend
+	 *            the backend
+	 * @param tau
+	 *            the ratio
+	 * @return the fraction of the instances with a ratio of at most
+	 *         {@code tau}
+	 */
+	public double getFraction(String backend, double tau) {
+		double[] ratios = getRatios(backend);
+		if (ratios.length == 0) {
+			return 0;
+		}
+		int count = 0;
+		while (count < ratios.length && ratios[count] <= tau) {
+			count++;
+		}
+		return (double) count / ratios.length;
+	}
+
+	/**
+	 * Writes the profile as SVG image with a logarithmic {@code tau} axis.
+	 * 
+	 * @param out
+	 *            the output
+	 * @param title
+	 *            the title
+	 * @throws IOException
+	 *             if the output fails
+	 */
+	public void writeSvg(Appendable out, String title) throws IOException {
+		final int width = 640, height = 320, left = 50, right = 130, top = 30, bottom = 40;
+		final int plotWidth = width - left - right, plotHeight = height - top - bottom;
+
+		double max = 1;
+		for (String backend : backends) {
+			for (double ratio : getRatios(backend)) {
+				if (!Double.isInfinite(ratio)) {
+					max = Math.max(max, ratio);
+				}
+			}
+		}
+		double logMax = Math.max(1, Math.ceil(Math.log(max) / Math.log(2)));
+
+		out.append("<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"" + width + "\" height=\"" + height + "\">\n");
+		out.append("<text x=\"" + left + "\" y=\"18\" font-weight=\"bold\">" + Reports.escape(title) + "</text>\n");
+		out.append(line(left, top, left, top + plotHeight, "#000"));
+		out.append(line(left, top + plotHeight, left + plotWidth, top + plotHeight, "#000"));
+		for (int k = 0; k <= 4; k++) {
+			double y = top + plotHeight * (1 - k / 4.0);
+			out.append(line(left - 4, y, left + plotWidth, y, "#ddd"));
+			out.append(text(left - 8, y + 4, "end", format(k / 4.0)));
+		}
+		int step = (int) Math.ceil(logMax / 8);
+		for (int k = 0; k <= logMax; k += step) {
+			double x = left + plotWidth * k / logMax;
+			out.append(line(x, top + plotHeight, x, top + plotHeight + 4, "#000"));
+			out.append(text(x, top + plotHeight + 18, "middle", String.valueOf(1L << k)));
+		}
+		out.append(text(left + plotWidth / 2, height - 4, "middle", "tau (log scale)"));
+
+		int index = 0;
+		for (String backend : backends) {
+			String color = COLORS[index % COLORS.length];
+			double[] ratios = getRatios(backend);
+			StringBuilder points = new StringBuilder();
+			double y = top + plotHeight;
+			points.append(format(left)).append(',').append(format(y));
+			for (int i = 0; i < ratios.length && !Double.isInfinite(ratios[i]); i++) {
+				double x = left + plotWidth * (Math.log(ratios[i]) / Math.log(2)) / logMax;
+				points.append(' ').append(format(x)).append(',').append(format(y));
+				y = top + plotHeight * (1 - (i + 1.0) / ratios.length);
+				points.append(' ').append(format(x)).append(',').append(format(y));
+			}
+			points.append(' ').append(format(left + plotWidth)).append(',').append(format(y));
+			out.append("<polyline fill=\"none\" stroke-width=\"2\" stroke=\"" + color + "\" points=\"" + points
+					+ "\"/>\n");
+			double legend = top + 10 + 18 * index;
+			out.append(line(left + plotWidth + 10, legend, left + plotWidth + 30, legend, color));
+			out.append(text(left + plotWidth + 35, legend + 4, "start", backend));
+			index++;
+		}
+		out.append("</svg>\n");
+	}
+
+	protected static String line(double x1, double y1, double x2, double y2, String color) {
+		return "<line x1=\"" + format(x1) + "\" y1=\"" + format(y1) + "\" x2=\"" + format(x2) + "\" y2=\""
+				+ format(y2) + "\" stroke=\"" + color + "\"/>\n";
+	}
+
+	protected static String text(double x, double y, String anchor, String text) {
+		return "<text x=\"" + format(x) + "\" y=\"" + format(y) + "\" font-size=\"12\" text-anchor=\"" + anchor
+				+ "\">" + Reports.escape(text) + "</text>\n";
+	}
+
+	protected static String format(double value) {
+		return String.format(Locale.ROOT, "%.2f", value);
+	}
+
+}
@@ -0,0 +1,190 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp.bench;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import net.sf.javailp.SolveStatus;
+
+/**
+ * The class {@code Reports} writes the HTML summary of the measurements. The
+ * runs of a backend on an instance are aggregated by their median, where a
+ * run without the respective solution counts as infinitely slow.
+ * 
+ * @author lukasiewycz
+ * 
+ */
+public class Reports {
+
+	/**
+	 * The shift (in milliseconds) of the shifted geometric mean.
+	 */
+	public static final double SHIFT = 10;
+
+	/**
+	 * Writes the HTML summary.
+	 * 
+	 * @param measurements
+	 *            the measurements
+	 * @param file
+	 *            the output file
+	 * @param penalty
+	 *            the time (in milliseconds) of a failure in the shifted
+	 *            geometric mean, usually the timeout
+	 * @throws IOException
+	 *             if the file cannot be written
+	 */
+	public static void writeHtml(List<Measurement> measurements, File file, double penalty) throws IOException {
+		Map<String, Map<String, List<Measurement>>> cells = group(measurements);
+		List<String> backends = new ArrayList<String>();
+		for (Measurement measurement : measurements) {
+			if (!backends.contains(measurement.getBackend())) {
+				backends.add(measurement.getBackend());
+			}
+		}
+
+		PerformanceProfile optimal = new PerformanceProfile();
+		PerformanceProfile first = new PerformanceProfile();
+		for (Map.Entry<String, Map<String, List<Measurement>>> entry : cells.entrySet()) {
+			for (Map.Entry<String, List<Measurement>> cell : entry.getValue().entrySet()) {
+				optimal.add(entry.getKey(), cell.getKey(), median(cell.getValue(), true));
+				first.add(entry.getKey(), cell.getKey(), median(cell.getValue(), false));
+			}
+		}
+
+		Writer out = new OutputStreamWriter(new FileOutputStream(file), "UTF-8");
+		try {
+			out.write("<!DOCTYPE html>\n<html>\n<head>\n<meta charset=\"UTF-8\">\n<title>Java ILP benchmark</title>\n");
+			out.write("<style>body{font-family:sans-serif} table{border-collapse:collapse} "
+					+ "td,th{border:1px solid #ccc;padding:2px 6px;text-align:right} td:first-child{text-align:left}</style>\n");
+			out.write("</head>\n<body>\n<h1>Java ILP benchmark</h1>\n");
+			out.write("<p>" + cells.size() + " instances, " + measurements.size() + " runs. Times are medians over the runs in ms.</p>\n");
+
+			out.write("<h2>Summary</h2>\n<table>\n<tr><th>backend</th><th>optimal</th><th>with solution</th>"
+					+ "<th>shifted geometric mean (ms)</th><th>max peak RSS (kB)</th><th>max peak heap (bytes)</th></tr>\n");
+			for (String backend : backends) {
+				int solved = 0, feasible = 0, count = 0;
+				double logSum = 0;
+				long rss = -1, heap = -1;
+				for (Map<String, List<Measurement>> row : cells.values()) {
+					List<Measurement> cell = row.get(backend);
+					if (cell == null) {
+						continue;
+					}
+					double time = median(cell, true);
+					solved += Double.isInfinite(time) ? 0 : 1;
+					feasible += Double.isInfinite(median(cell, false)) ? 0 : 1;
+					logSum += Math.log(Math.min(time, penalty) + SHIFT);
+					count++;
+					for (Measurement measurement : cell) {
+						rss = Math.max(rss, measurement.getPeakRss());
+						heap = Math.max(heap, measurement.getPeakHeap());
+					}
+				}
+				out.write("<tr><td>" + escape(backend) + "</td><td>" + solved + "</td><td>" + feasible + "</td><td>"
+						+ format(Math.exp(logSum / Math.max(count, 1)) - SHIFT) + "</td><td>" + rss + "</td><td>"
+						+ heap + "</td></tr>\n");
+			}
+			out.write("</table>\n");
+
+			out.write("<h2>Performance profiles</h2>\n");
+			optimal.writeSvg(out, "Time to optimal");
+			first.writeSvg(out, "Time to first solution");
+
+			out.write("<h2>Instances</h2>\n<table>\n<tr><th>instance</th>");
+			for (String backend : backends) {
+				out.write("<th>" + escape(backend) + "</th>");
+			}
+			out.write("</tr>\n");
+			for (Map.Entry<String, Map<String, List<Measurement>>> entry : cells.entrySet()) {
+				out.write("<tr><td>" + escape(entry.getKey()) + "</td>");
+				for (String backend : backends) {
+					List<Measurement> cell = entry.getValue().get(backend);
+					if (cell == null) {
+						out.write("<td></td>");
+					} else {
+						double time = median(cell, true);
+						SolveStatus status = cell.get(cell.size() - 1).getStatus();
+						out.write("<td title=\"" + status + "\">"
+								+ (Double.isInfinite(time) ? escape(status.toString()) : format(time)) + "</td>");
+					}
+				}
+				out.write("</tr>\n");
+			}
+			out.write("</table>\n</body>\n</html>\n");
+		} finally {
+			out.close();
+		}
+	}
+
+	/**
+	 * Escapes the special characters of HTML.
+	 * 
+	 * @param text
+	 *            the text
+	 * @return the escaped text
+	 */
+	public static String escape(String text) {
+		return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+	}
+
+	protected static Map<String, Map<String, List<Measurement>>> group(List<Measurement> measurements) {
+		Map<String, Map<String, List<Measurement>>> cells = new LinkedHashMap<String, Map<String, List<Measurement>>>();
+		for (Measurement measurement : measurements) {
+			Map<String, List<Measurement>> row = cells.get(measurement.getInstance());
+			if (row == null) {
+				row = new LinkedHashMap<String, List<Measurement>>();
+				cells.put(measurement.getInstance(), row);
+			}
+			List<Measurement> cell = row.get(measurement.getBackend());
+			if (cell == null) {
+				cell = new ArrayList<Measurement>();
+				row.put(measurement.getBackend(), cell);
+			}
+			cell.add(measurement);
+		}
+		return cells;
+	}
+
+	/**
+	 * Returns the (lower) median of the time to the optimum or the time to the
+	 * first solution, respectively.
+	 */
+	protected static double median(List<Measurement> cell, boolean optimal) {
+		double[] times = new double[cell.size()];
+		for (int i = 0; i < times.length; i++) {
+			Measurement measurement = cell.get(i);
+			double time = optimal ? measurement.getOptimalTime() : measurement.getFirstSolutionTime();
+			times[i] = Double.isNaN(time) ? Double.POSITIVE_INFINITY : time;
+		}
+		Arrays.sort(times);
+		return times[(times.length - 1) / 2];
+	}
+
+	protected static String format(double value) {
+		return String.format(Locale.ROOT, "%.1f", value);
+	}
+
+}
@@ -0,0 +1,106 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp.flow;
+
+import java.util.Objects;
+import java.util.concurrent.Flow;
+
+import net.sf.javailp.Incumbent;
+import net.sf.javailp.IncumbentPublisher;
+
+/**
+ * The class {@code FlowIncumbentPublisher} adapts an
+ * {@link IncumbentPublisher} to a {@link Flow.Publisher} such that the
+ * incumbents can be consumed by any reactive streams library, e.g.,
+ * 
+ * <pre>
+ * IncumbentPublisher publisher = new IncumbentPublisher(executor);
+ * solver.addIncumbentListener(publisher);
+ * new FlowIncumbentPublisher(publisher).subscribe(subscriber);
+ * </pre>
+ * 
+ * The adapter only forwards the signals, i.e., the demand, the conflation
+ * of incumbents without demand, and the completion are those of the
+ * underlying publisher, which still has to be closed after the
+ * optimization.
+ * 
+ * @author lukasiewycz
+ * 
+ */
+public class FlowIncumbentPublisher implements Flow.Publisher<Incumbent> {
+
+	protected final IncumbentPublisher publisher;
+
+	/**
+	 * Constructs a {@code FlowIncumbentPublisher}.
+	 * 
+	 * @param publisher
+	 *            the underlying publisher
+	 */
+	public FlowIncumbentPublisher(IncumbentPublisher publisher) {
+		this.publisher = Objects.requireNonNull(publisher);
+	}
+
+	/**
+	 * Returns the underlying publisher.
+	 * 
+	 * @return the publisher
+	 */
+	public IncumbentPublisher getPublisher() {
+		return publisher;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.util.concurrent.Flow.Publisher#subscribe(java.util.concurrent.Flow.Subscriber)
+	 */
+	@Override
+	public void subscribe(final Flow.Subscriber<? super Incumbent> subscriber) {
+		Objects.requireNonNull(subscriber);
+		publisher.subscribe(new IncumbentPublisher.Subscriber() {
+			@Override
+			public void onSubscribe(final IncumbentPublisher.Subscription subscription) {
+				subscriber.onSubscribe(new Flow.Subscription() {
+					@Override
+					public void request(long n) {
+						subscription.request(n);
+					}
+
+					@Override
+					public void cancel() {
+						subscription.cancel();
+					}
+				});
+			}
+
+			@Override
+			public void onNext(Incumbent incumbent) {
+				subscriber.onNext(incumbent);
+			}
+
+			@Override
+			public void onError(Throwable throwable) {
+				subscriber.onError(throwable);
+			}
+
+			@Override
+			public void onComplete() {
+				subscriber.onComplete();
+			}
+		});
+	}
+
+}
@@ -0,0 +1,121 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp.generator;
+
+import net.sf.javailp.Linear;
+import net.sf.javailp.OptType;
+import net.sf.javailp.Operator;
+import net.sf.javailp.VarType;
+
+/**
+ * The {@code AssignmentGenerator} generates generalized assignment problems:
+ * assign each job to exactly one agent ({@code x<i>_<j>} for agent
+ * {@code i} and job {@code j}) with minimal costs such that the weights of
+ * the jobs of an agent do not exceed its capacity. The density is the
+ * probability that a job can be assigned to an agent; each job {@code j} can
+ * be assigned to the agent {@code j mod agents}. The capacity of an agent is
+ * the tightness times its expected load, but at least its largest weight.
+ * 
+ * @author lukasiewycz
+ * 
+ */
+public class AssignmentGenerator extends Generator {
+
+	protected final int agents;
+	protected final int jobs;
+	protected double tightness = 0.8;
+
+	/**
+	 * Constructs an {@code AssignmentGenerator}.
+	 * 
+	 * @param agents
+	 *            the number of agents
+	 * @param jobs
+	 *            the number of jobs
+	 */
+	public AssignmentGenerator(int agents, int jobs) {
+		this.agents = agents;
+		this.jobs = jobs;
+	}
+
+	/**
+	 * Sets the tightness of the capacities (values below {@code 1} are
+	 * tight, the problem might be infeasible).
+	 * 
+	 * @param tightness
+	 *            the ratio of the capacity to the expected load
+	 */
+	public void setTightness(double tightness) {
+		this.tightness = tightness;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * net.sf.javailp.generator.Generator#generate(net.sf.javailp.generator.
+	 * ProblemSink)
+	 */
+	@Override
+	public void generate(ProblemSink sink) {
+		Linear objective = new Linear();
+		for (int i = 0; i < agents; i++) {
+			for (int j = 0; j < jobs; j++) {
+				if (allowed(i, j)) {
+					sink.variable(name(i, j), VarType.BOOL, null, null);
+					objective.add(objective(1, i, j), name(i, j));
+				}
+			}
+		}
+		sink.objective(objective, OptType.MIN);
+
+		for (int j = 0; j < jobs; j++) {
+			Linear linear = new Linear();
+			for (int i = 0; i < agents; i++) {
+				if (allowed(i, j)) {
+					linear.add(1, name(i, j));
+				}
+			}
+			sink.constraint("job" + j, linear, Operator.EQ, 1);
+		}
+
+		for (int i = 0; i < agents; i++) {
+			Linear linear = new Linear();
+			long sum = 0;
+			int max = 0;
+			for (int j = 0; j < jobs; j++) {
+				if (allowed(i, j)) {
+					int weight = coefficient(2, i, j);
+					linear.add(weight, name(i, j));
+					sum += weight;
+					max = Math.max(max, weight);
+				}
+			}
+			if (linear.size() > 0) {
+				long capacity = Math.max(max, (long) Math.ceil(tightness * sum / (density * agents)));
+				sink.constraint("agent" + i, linear, Operator.LE, capacity);
+			}
+		}
+	}
+
+	protected boolean allowed(int agent, int job) {
+		return job % agents == agent || exists(0, agent, job);
+	}
+
+	protected String name(int agent, int job) {
+		return "x" + agent + "_" + job;
+	}
+
+}
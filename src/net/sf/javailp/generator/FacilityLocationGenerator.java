@@ -0,0 +1,141 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp.generator;
+
+import net.sf.javailp.Linear;
+import net.sf.javailp.OptType;
+import net.sf.javailp.Operator;
+import net.sf.javailp.VarType;
+
+/**
+ * The {@code FacilityLocationGenerator} generates facility location
+ * problems: open facilities {@code y<f>} and serve the demand of each
+ * customer {@code c} by the open facilities ({@code x<f>_<c>} is the served
+ * fraction) with minimal opening and serving costs. The formulation is the
+ * strong one with a linking constraint {@code x<f>_<c> <= y<f>} for each
+ * pair. The density is the probability that a facility can serve a
+ * customer; each customer {@code c} can be served by the facility
+ * {@code c mod facilities}. The opening costs are the objective range times
+ * the ratio of customers to facilities. If capacitated, the capacity of each
+ * facility is twice its share of the total demand.
+ * 
+ * @author lukasiewycz
+ * 
+ */
+public class FacilityLocationGenerator extends Generator {
+
+	protected final int facilities;
+	protected final int customers;
+	protected boolean capacitated = false;
+
+	/**
+	 * Constructs a {@code FacilityLocationGenerator}.
+	 * 
+	 * @param facilities
+	 *            the number of facilities
+	 * @param customers
+	 *            the number of customers
+	 */
+	public FacilityLocationGenerator(int facilities, int customers) {
+		this.facilities = facilities;
+		this.customers = customers;
+	}
+
+	/**
+	 * Sets whether the facilities have capacities (the demands are drawn from
+	 * the coefficient range).
+	 * 
+	 * @param capacitated
+	 *            {@code true} if the facilities have capacities
+	 */
+	public void setCapacitated(boolean capacitated) {
+		this.capacitated = capacitated;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * net.sf.javailp.generator.Generator#generate(net.sf.javailp.generator.
+	 * ProblemSink)
+	 */
+	@Override
+	public void generate(ProblemSink sink) {
+		long scale = Math.max(1, customers / facilities);
+		Linear objective = new Linear();
+		for (int f = 0; f < facilities; f++) {
+			sink.variable("y" + f, VarType.BOOL, null, null);
+			objective.add(scale * objective(1, f, 0), "y" + f);
+		}
+		for (int f = 0; f < facilities; f++) {
+			for (int c = 0; c < customers; c++) {
+				if (allowed(f, c)) {
+					sink.variable(name(f, c), VarType.REAL, 0, 1);
+					objective.add(objective(2, f, c), name(f, c));
+				}
+			}
+		}
+		sink.objective(objective, OptType.MIN);
+
+		for (int c = 0; c < customers; c++) {
+			Linear linear = new Linear();
+			for (int f = 0; f < facilities; f++) {
+				if (allowed(f, c)) {
+					linear.add(1, name(f, c));
+				}
+			}
+			sink.constraint("demand" + c, linear, Operator.EQ, 1);
+		}
+
+		for (int f = 0; f < facilities; f++) {
+			for (int c = 0; c < customers; c++) {
+				if (allowed(f, c)) {
+					Linear linear = new Linear();
+					linear.add(1, name(f, c));
+					linear.add(-1, "y" + f);
+					sink.constraint("link" + f + "_" + c, linear, Operator.LE, 0);
+				}
+			}
+		}
+
+		if (capacitated) {
+			long total = 0;
+			for (int c = 0; c < customers; c++) {
+				total += coefficient(3, c, 0);
+			}
+			long capacity = (long) Math.ceil(2.0 * total / facilities);
+
+			for (int f = 0; f < facilities; f++) {
+				Linear linear = new Linear();
+				for (int c = 0; c < customers; c++) {
+					if (allowed(f, c)) {
+						linear.add(coefficient(3, c, 0), name(f, c));
+					}
+				}
+				linear.add(-capacity, "y" + f);
+				sink.constraint("capacity" + f, linear, Operator.LE, 0);
+			}
+		}
+	}
+
+	protected boolean allowed(int facility, int customer) {
+		return customer % facilities == facility || exists(0, facility, customer);
+	}
+
+	protected String name(int facility, int customer) {
+		return "x" + facility + "_" + customer;
+	}
+
+}
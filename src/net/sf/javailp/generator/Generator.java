@@ -0,0 +1,287 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp.generator;
+
+import java.util.Random;
+
+import net.sf.javailp.Constraint;
+import net.sf.javailp.Linear;
+import net.sf.javailp.OptType;
+import net.sf.javailp.Operator;
+import net.sf.javailp.Problem;
+import net.sf.javailp.VarType;
+
+/**
+ * The class {@code Generator} is the base class of the problem generators. A
+ * generator is configured by its size (constructor), the seed, the density,
+ * and the ranges of the coefficients of the constraints and the objective.
+ * The same configuration always generates the same problem.
+ * <p>
+ * The random values are not drawn from a sequence but calculated from the
+ * seed and the indices of the element (e.g., the weight of item {@code i} in
+ * knapsack {@code k}). Thus, a generator can visit the same value from a row
+ * and from a column without storing it, and the generation streams each
+ * constraint to the {@link ProblemSink} as soon as it is complete.
+ * 
+ * @author lukasiewycz
+ * 
+ */
+public abstract class Generator {
+
+	protected long seed = 0;
+	protected double density = 1.0;
+	protected int minCoefficient = 1;
+	protected int maxCoefficient = 100;
+	protected int minObjective = 1;
+	protected int maxObjective = 100;
+
+	/**
+	 * Generates the problem into a sink.
+	 * 
+	 * @param sink
+	 *            the sink
+	 */
+	public abstract void generate(ProblemSink sink);
+
+	/**
+	 * Generates the problem.
+	 * 
+	 * @return the problem
+	 */
+	public Problem generate() {
+		final Problem problem = new Problem();
+		generate(new ProblemSink() {
+			public void variable(Object variable, VarType type, Number lower, Number upper) {
+				problem.setVarType(variable, type);
+				if (lower != null) {
+					problem.setVarLowerBound(variable, lower);
+				}
+				if (upper != null) {
+					problem.setVarUpperBound(variable, upper);
+				}
+			}
+
+			public void objective(Linear objective, OptType optType) {
+				problem.setObjective(objective, optType);
+			}
+
+			public void constraint(String name, Linear lhs, Operator operator, Number rhs) {
+				// the constraint takes the expression without a copy
+				problem.add(new Constraint(name, lhs, operator, rhs));
+			}
+		});
+		return problem;
+	}
+
+	/**
+	 * Returns the seed.
+	 * 
+	 * @return the seed
+	 */
+	public long getSeed() {
+		return seed;
+	}
+
+	/**
+	 * Sets the seed.
+	 * 
+	 * @param seed
+	 *            the seed
+	 */
+	public void setSeed(long seed) {
+		this.seed = seed;
+	}
+
+	/**
+	 * Returns the density. Its meaning depends on the generator.
+	 * 
+	 * @return the density
+	 */
+	public double getDensity() {
+		return density;
+	}
+
+	/**
+	 * Sets the density.
+	 * 
+	 * @param density
+	 *            the density (greater than {@code 0} and at most {@code 1})
+	 */
+	public void setDensity(double density) {
+		if (!(density > 0 && density <= 1)) {
+			throw new IllegalArgumentException("The density has to be in (0,1]: " + density);
+		}
+		this.density = density;
+	}
+
+	/**
+	 * Sets the range of the coefficients of the constraints (e.g., weights,
+	 * demands, or processing times).
+	 * 
+	 * @param min
+	 *            the minimal coefficient
+	 * @param max
+	 *            the maximal coefficient
+	 */
+	public void setCoefficientRange(int min, int max) {
+		if (min > max) {
+			throw new IllegalArgumentException("Empty range [" + min + "," + max + "].");
+		}
+		this.minCoefficient = min;
+		this.maxCoefficient = max;
+	}
+
+	/**
+	 * Sets the range of the coefficients of the objective (e.g., values or
+	 * costs).
+	 * 
+	 * @param min
+	 *            the minimal coefficient
+	 * @param max
+	 *            the maximal coefficient
+	 */
+	public void setObjectiveRange(int min, int max) {
+		if (min > max) {
+			throw new IllegalArgumentException("Empty range [" + min + "," + max + "].");
+		}
+		this.minObjective = min;
+		this.maxObjective = max;
+	}
+
+	/**
+	 * Returns a uniform random number in {@code [0,1)} that is determined by
+	 * the seed, a stream, and two indices.
+	 * 
+	 * @param stream
+	 *            the stream (to separate the kinds of values)
+	 * @param i
+	 *            the first index
+	 * @param j
+	 *            the second index
+	 * @return the random number
+	 */
+	protected double uniform(int stream, long i, long j) {
+		long h = mix(seed ^ mix(stream + 0x632be59bd9b4e019L));
+		h = mix(h ^ i);
+		h = mix(h ^ (j * 0x9e3779b97f4a7c15L));
+		return (h >>> 11) * 0x1.0p-53;
+	}
+
+	/**
+	 * Returns a uniform random integer in {@code [min,max]}.
+	 * 
+	 * @param stream
+	 *            the stream
+	 * @param i
+	 *            the first index
+	 * @param j
+	 *            the second index
+	 * @param min
+	 *            the minimum
+	 * @param max
+	 *            the maximum
+	 * @return the random integer
+	 */
+	protected int uniform(int stream, long i, long j, int min, int max) {
+		return min + (int) (uniform(stream, i, j) * ((long) max - min + 1));
+	}
+
+	/**
+	 * Returns the coefficient of the constraints with the given indices.
+	 * 
+	 * @param stream
+	 *            the stream
+	 * @param i
+	 *            the first index
+	 * @param j
+	 *            the second index
+	 * @return the coefficient
+	 */
+	protected int coefficient(int stream, long i, long j) {
+		return uniform(stream, i, j, minCoefficient, maxCoefficient);
+	}
+
+	/**
+	 * Returns the coefficient of the objective with the given indices.
+	 * 
+	 * @param stream
+	 *            the stream
+	 * @param i
+	 *            the first index
+	 * @param j
+	 *            the second index
+	 * @return the coefficient
+	 */
+	protected int objective(int stream, long i, long j) {
+		return uniform(stream, i, j, minObjective, maxObjective);
+	}
+
+	/**
+	 * Returns {@code true} with the probability of the density for the given
+	 * indices.
+	 * 
+	 * @param stream
+	 *            the stream
+	 * @param i
+	 *            the first index
+	 * @param j
+	 *            the second index
+	 * @return {@code true} if the element exists
+	 */
+	protected boolean exists(int stream, long i, long j) {
+		return density >= 1 || uniform(stream, i, j) < density;
+	}
+
+	/**
+	 * Returns the random sequence of a row, e.g., to sample the columns of a
+	 * sparse row with {@link #next(Random, int)}.
+	 * 
+	 * @param stream
+	 *            the stream
+	 * @param row
+	 *            the row
+	 * @return the random sequence
+	 */
+	protected Random random(int stream, long row) {
+		return new Random(mix(mix(seed ^ stream) ^ row));
+	}
+
+	/**
+	 * Returns the next sampled index after {@code index}, i.e., each index is
+	 * sampled with the probability of the density. The gaps are drawn from
+	 * the geometric distribution such that the costs are proportional to the
+	 * number of sampled indices.
+	 * 
+	 * @param random
+	 *            the random sequence
+	 * @param index
+	 *            the last sampled index ({@code -1} to start)
+	 * @return the next sampled index
+	 */
+	protected long next(Random random, long index) {
+		if (density >= 1) {
+			return index + 1;
+		}
+		double u = 1 - random.nextDouble();
+		return index + 1 + (long) Math.floor(Math.log(u) / Math.log(1 - density));
+	}
+
+	protected static long mix(long z) {
+		z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+		z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+		return z ^ (z >>> 31);
+	}
+
+}
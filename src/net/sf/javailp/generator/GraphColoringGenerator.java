@@ -0,0 +1,108 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp.generator;
+
+import java.util.Random;
+
+import net.sf.javailp.Linear;
+import net.sf.javailp.OptType;
+import net.sf.javailp.Operator;
+import net.sf.javailp.VarType;
+
+/**
+ * The {@code GraphColoringGenerator} generates graph coloring problems on
+ * random graphs: assign one of the colors to each vertex ({@code x<v>_<c>})
+ * such that adjacent vertices have different colors and minimize the number
+ * of used colors ({@code w<c>}). The density is the probability of an edge
+ * between two vertices. The colors are used in order to break the symmetry.
+ * The coefficient and objective ranges are not used.
+ * 
+ * @author lukasiewycz
+ * 
+ */
+public class GraphColoringGenerator extends Generator {
+
+	protected final int vertices;
+	protected final int colors;
+
+	/**
+	 * Constructs a {@code GraphColoringGenerator}.
+	 * 
+	 * @param vertices
+	 *            the number of vertices
+	 * @param colors
+	 *            the number of available colors
+	 */
+	public GraphColoringGenerator(int vertices, int colors) {
+		this.vertices = vertices;
+		this.colors = colors;
+		this.density = 0.1;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * net.sf.javailp.generator.Generator#generate(net.sf.javailp.generator.
+	 * ProblemSink)
+	 */
+	@Override
+	public void generate(ProblemSink sink) {
+		Linear objective = new Linear();
+		for (int c = 0; c < colors; c++) {
+			sink.variable("w" + c, VarType.BOOL, null, null);
+			objective.add(1, "w" + c);
+		}
+		for (int v = 0; v < vertices; v++) {
+			for (int c = 0; c < colors; c++) {
+				sink.variable(name(v, c), VarType.BOOL, null, null);
+			}
+		}
+		sink.objective(objective, OptType.MIN);
+
+		for (int v = 0; v < vertices; v++) {
+			Linear linear = new Linear();
+			for (int c = 0; c < colors; c++) {
+				linear.add(1, name(v, c));
+			}
+			sink.constraint("vertex" + v, linear, Operator.EQ, 1);
+		}
+
+		for (int c = 1; c < colors; c++) {
+			Linear linear = new Linear();
+			linear.add(1, "w" + c);
+			linear.add(-1, "w" + (c - 1));
+			sink.constraint("order" + c, linear, Operator.LE, 0);
+		}
+
+		for (int u = 0; u < vertices; u++) {
+			Random random = random(0, u);
+			for (long v = next(random, u); v < vertices; v = next(random, v)) {
+				for (int c = 0; c < colors; c++) {
+					Linear linear = new Linear();
+					linear.add(1, name(u, c));
+					linear.add(1, name((int) v, c));
+					linear.add(-1, "w" + c);
+					sink.constraint("edge" + u + "_" + v + "_" + c, linear, Operator.LE, 0);
+				}
+			}
+		}
+	}
+
+	protected String name(int vertex, int color) {
+		return "x" + vertex + "_" + color;
+	}
+
+}
@@ -0,0 +1,172 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp.generator;
+
+import java.util.Random;
+
+import net.sf.javailp.Linear;
+import net.sf.javailp.OptType;
+import net.sf.javailp.Operator;
+import net.sf.javailp.VarType;
+
+/**
+ * The {@code JobShopGenerator} generates time-indexed job shop problems:
+ * each job visits all machines in a random order, and {@code x<j>_<m>_<t>}
+ * is {@code 1} if the operation of job {@code j} on machine {@code m} starts
+ * at time {@code t}. The operations of a job are processed in order, each
+ * machine processes at most one operation at a time, and the makespan
+ * {@code C} is minimized. The processing times are drawn from the
+ * coefficient range (which should be small, e.g., {@code [1,10]}). The start
+ * times are restricted to the windows that leave room for the preceding and
+ * succeeding operations of the job. The density and the objective range are
+ * not used.
+ * 
+ * @author lukasiewycz
+ * 
+ */
+public class JobShopGenerator extends Generator {
+
+	protected final int jobs;
+	protected final int machines;
+	protected final int horizon;
+
+	/**
+	 * Constructs a {@code JobShopGenerator}.
+	 * 
+	 * @param jobs
+	 *            the number of jobs
+	 * @param machines
+	 *            the number of machines
+	 * @param horizon
+	 *            the number of time steps
+	 */
+	public JobShopGenerator(int jobs, int machines, int horizon) {
+		this.jobs = jobs;
+		this.machines = machines;
+		this.horizon = horizon;
+		this.minCoefficient = 1;
+		this.maxCoefficient = 10;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * net.sf.javailp.generator.Generator#generate(net.sf.javailp.generator.
+	 * ProblemSink)
+	 */
+	@Override
+	public void generate(ProblemSink sink) {
+		// the machine of the k-th operation of job j and the processing time
+		// and start window of the operation of job j on machine m
+		int[][] order = new int[jobs][machines];
+		int[][] time = new int[jobs][machines];
+		int[][] earliest = new int[jobs][machines];
+		int[][] latest = new int[jobs][machines];
+
+		for (int j = 0; j < jobs; j++) {
+			Random random = random(0, j);
+			for (int k = 0; k < machines; k++) {
+				order[j][k] = k;
+			}
+			for (int k = machines - 1; k > 0; k--) {
+				int l = random.nextInt(k + 1);
+				int swap = order[j][k];
+				order[j][k] = order[j][l];
+				order[j][l] = swap;
+			}
+			int start = 0;
+			for (int k = 0; k < machines; k++) {
+				int m = order[j][k];
+				time[j][m] = coefficient(1, j, m);
+				earliest[j][m] = start;
+				start += time[j][m];
+			}
+			int end = horizon;
+			for (int k = machines - 1; k >= 0; k--) {
+				int m = order[j][k];
+				end -= time[j][m];
+				latest[j][m] = end;
+			}
+		}
+
+		sink.variable("C", VarType.INT, 0, horizon);
+		for (int j = 0; j < jobs; j++) {
+			for (int m = 0; m < machines; m++) {
+				for (int t = earliest[j][m]; t <= latest[j][m]; t++) {
+					sink.variable(name(j, m, t), VarType.BOOL, null, null);
+				}
+			}
+		}
+		Linear objective = new Linear();
+		objective.add(1, "C");
+		sink.objective(objective, OptType.MIN);
+
+		for (int j = 0; j < jobs; j++) {
+			for (int m = 0; m < machines; m++) {
+				Linear linear = new Linear();
+				for (int t = earliest[j][m]; t <= latest[j][m]; t++) {
+					linear.add(1, name(j, m, t));
+				}
+				// empty if the horizon is too short, i.e., infeasible
+				sink.constraint("start" + j + "_" + m, linear, Operator.EQ, 1);
+			}
+		}
+
+		for (int j = 0; j < jobs; j++) {
+			for (int k = 1; k < machines; k++) {
+				int prev = order[j][k - 1];
+				int m = order[j][k];
+				Linear linear = new Linear();
+				for (int t = earliest[j][m]; t <= latest[j][m]; t++) {
+					linear.add(t, name(j, m, t));
+				}
+				for (int t = earliest[j][prev]; t <= latest[j][prev]; t++) {
+					linear.add(-t, name(j, prev, t));
+				}
+				sink.constraint("precedence" + j + "_" + k, linear, Operator.GE, time[j][prev]);
+			}
+
+			int last = order[j][machines - 1];
+			Linear linear = new Linear();
+			linear.add(1, "C");
+			for (int t = earliest[j][last]; t <= latest[j][last]; t++) {
+				linear.add(-(t + time[j][last]), name(j, last, t));
+			}
+			sink.constraint("makespan" + j, linear, Operator.GE, 0);
+		}
+
+		for (int m = 0; m < machines; m++) {
+			for (int t = 0; t < horizon; t++) {
+				Linear linear = new Linear();
+				for (int j = 0; j < jobs; j++) {
+					int from = Math.max(earliest[j][m], t - time[j][m] + 1);
+					int to = Math.min(latest[j][m], t);
+					for (int s = from; s <= to; s++) {
+						linear.add(1, name(j, m, s));
+					}
+				}
+				if (linear.size() > 1) {
+					sink.constraint("machine" + m + "_" + t, linear, Operator.LE, 1);
+				}
+			}
+		}
+	}
+
+	protected String name(int job, int machine, int time) {
+		return "x" + job + "_" + machine + "_" + time;
+	}
+
+}
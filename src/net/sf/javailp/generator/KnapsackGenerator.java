@@ -0,0 +1,94 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp.generator;
+
+import java.util.Random;
+
+import net.sf.javailp.Linear;
+import net.sf.javailp.OptType;
+import net.sf.javailp.Operator;
+import net.sf.javailp.VarType;
+
+/**
+ * The {@code KnapsackGenerator} generates multi-dimensional 0-1 knapsack
+ * problems: maximize the value of the selected items {@code x<i>} such that
+ * the weights fit into each knapsack. The density is the probability that an
+ * item has a weight in a knapsack. The capacity of a knapsack is the
+ * tightness times the sum of its weights.
+ * 
+ * @author lukasiewycz
+ * 
+ */
+public class KnapsackGenerator extends Generator {
+
+	protected final int items;
+	protected final int knapsacks;
+	protected double tightness = 0.5;
+
+	/**
+	 * Constructs a {@code KnapsackGenerator}.
+	 * 
+	 * @param items
+	 *            the number of items
+	 * @param knapsacks
+	 *            the number of knapsacks (constraints)
+	 */
+	public KnapsackGenerator(int items, int knapsacks) {
+		this.items = items;
+		this.knapsacks = knapsacks;
+	}
+
+	/**
+	 * Sets the tightness of the capacities.
+	 * 
+	 * @param tightness
+	 *            the ratio of the capacity to the sum of the weights
+	 */
+	public void setTightness(double tightness) {
+		this.tightness = tightness;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * net.sf.javailp.generator.Generator#generate(net.sf.javailp.generator.
+	 * ProblemSink)
+	 */
+	@Override
+	public void generate(ProblemSink sink) {
+		Linear objective = new Linear();
+		for (int i = 0; i < items; i++) {
+			sink.variable("x" + i, VarType.BOOL, null, null);
+			objective.add(objective(0, i, 0), "x" + i);
+		}
+		sink.objective(objective, OptType.MAX);
+
+		for (int k = 0; k < knapsacks; k++) {
+			Random random = random(1, k);
+			Linear linear = new Linear();
+			long sum = 0;
+			for (long i = next(random, -1); i < items; i = next(random, i)) {
+				int weight = coefficient(2, k, i);
+				linear.add(weight, "x" + i);
+				sum += weight;
+			}
+			if (linear.size() > 0) {
+				sink.constraint("knapsack" + k, linear, Operator.LE, (long) Math.floor(tightness * sum));
+			}
+		}
+	}
+
+}
@@ -0,0 +1,74 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp.generator;
+
+import net.sf.javailp.Linear;
+import net.sf.javailp.OptType;
+import net.sf.javailp.Operator;
+import net.sf.javailp.VarType;
+
+/**
+ * The {@code ProblemSink} receives a generated problem element by element.
+ * The generators call {@link #variable(Object, VarType, Number, Number)}
+ * for all variables first, then {@link #objective(Linear, OptType)}, and
+ * then {@link #constraint(String, Linear, Operator, Number)} for each
+ * constraint. The linear expressions are created for each call and are not
+ * used by the generator afterwards, i.e., the sink can keep them without a
+ * copy.
+ * 
+ * @author lukasiewycz
+ * 
+ */
+public interface ProblemSink {
+
+	/**
+	 * Receives a variable.
+	 * 
+	 * @param variable
+	 *            the variable
+	 * @param type
+	 *            the type
+	 * @param lower
+	 *            the lower bound ({@code null} if unbounded)
+	 * @param upper
+	 *            the upper bound ({@code null} if unbounded)
+	 */
+	public void variable(Object variable, VarType type, Number lower, Number upper);
+
+	/**
+	 * Receives the objective function.
+	 * 
+	 * @param objective
+	 *            the objective function
+	 * @param optType
+	 *            the optimization type
+	 */
+	public void objective(Linear objective, OptType optType);
+
+	/**
+	 * Receives a constraint.
+	 * 
+	 * @param name
+	 *            the name of the constraint
+	 * @param lhs
+	 *            the left-hand side
+	 * @param operator
+	 *            the operator
+	 * @param rhs
+	 *            the right-hand side
+	 */
+	public void constraint(String name, Linear lhs, Operator operator, Number rhs);
+
+}
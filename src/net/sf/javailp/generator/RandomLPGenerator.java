@@ -0,0 +1,98 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp.generator;
+
+import java.util.Random;
+
+import net.sf.javailp.Linear;
+import net.sf.javailp.OptType;
+import net.sf.javailp.Operator;
+import net.sf.javailp.VarType;
+
+/**
+ * The {@code RandomLPGenerator} generates random sparse linear programs:
+ * maximize the objective over the real variables {@code x<j>} in
+ * {@code [0,bound]} subject to {@code <=} constraints. The density is the
+ * probability of a non-zero coefficient. The right-hand side of a row is half
+ * of the maximal activity of its positive coefficients, such that the origin
+ * is feasible and the problem is bounded.
+ * 
+ * @author lukasiewycz
+ * 
+ */
+public class RandomLPGenerator extends Generator {
+
+	protected final int rows;
+	protected final int columns;
+	protected double bound = 10;
+
+	/**
+	 * Constructs a {@code RandomLPGenerator}.
+	 * 
+	 * @param rows
+	 *            the number of constraints
+	 * @param columns
+	 *            the number of variables
+	 */
+	public RandomLPGenerator(int rows, int columns) {
+		this.rows = rows;
+		this.columns = columns;
+		this.density = 0.01;
+	}
+
+	/**
+	 * Sets the upper bound of the variables.
+	 * 
+	 * @param bound
+	 *            the upper bound
+	 */
+	public void setBound(double bound) {
+		this.bound = bound;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * net.sf.javailp.generator.Generator#generate(net.sf.javailp.generator.
+	 * ProblemSink)
+	 */
+	@Override
+	public void generate(ProblemSink sink) {
+		Linear objective = new Linear();
+		for (int j = 0; j < columns; j++) {
+			sink.variable("x" + j, VarType.REAL, 0, bound);
+			objective.add(objective(0, j, 0), "x" + j);
+		}
+		sink.objective(objective, OptType.MAX);
+
+		for (int i = 0; i < rows; i++) {
+			Random random = random(1, i);
+			Linear linear = new Linear();
+			double positive = 0;
+			for (long j = next(random, -1); j < columns; j = next(random, j)) {
+				int coefficient = coefficient(2, i, j);
+				if (coefficient != 0) {
+					linear.add(coefficient, "x" + j);
+					positive += Math.max(coefficient, 0);
+				}
+			}
+			if (linear.size() > 0) {
+				sink.constraint("row" + i, linear, Operator.LE, Math.floor(positive * bound / 2));
+			}
+		}
+	}
+
+}
@@ -0,0 +1,82 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp.generator;
+
+import java.util.Random;
+
+import net.sf.javailp.Linear;
+import net.sf.javailp.OptType;
+import net.sf.javailp.Operator;
+import net.sf.javailp.VarType;
+
+/**
+ * The {@code SetCoverGenerator} generates weighted set cover problems:
+ * minimize the costs of the selected sets {@code s<j>} such that each element
+ * is covered by at least one selected set. The density is the probability
+ * that a set contains an element; each element is contained in at least one
+ * set.
+ * 
+ * @author lukasiewycz
+ * 
+ */
+public class SetCoverGenerator extends Generator {
+
+	protected final int elements;
+	protected final int sets;
+
+	/**
+	 * Constructs a {@code SetCoverGenerator}.
+	 * 
+	 * @param elements
+	 *            the number of elements (constraints)
+	 * @param sets
+	 *            the number of sets (variables)
+	 */
+	public SetCoverGenerator(int elements, int sets) {
+		this.elements = elements;
+		this.sets = sets;
+		this.density = 0.05;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * net.sf.javailp.generator.Generator#generate(net.sf.javailp.generator.
+	 * ProblemSink)
+	 */
+	@Override
+	public void generate(ProblemSink sink) {
+		Linear objective = new Linear();
+		for (int j = 0; j < sets; j++) {
+			sink.variable("s" + j, VarType.BOOL, null, null);
+			objective.add(objective(0, j, 0), "s" + j);
+		}
+		sink.objective(objective, OptType.MIN);
+
+		for (int e = 0; e < elements; e++) {
+			Random random = random(1, e);
+			Linear linear = new Linear();
+			for (long j = next(random, -1); j < sets; j = next(random, j)) {
+				linear.add(1, "s" + j);
+			}
+			if (linear.size() == 0) {
+				linear.add(1, "s" + uniform(2, e, 0, 0, sets - 1));
+			}
+			sink.constraint("cover" + e, linear, Operator.GE, 1);
+		}
+	}
+
+}
@@ -0,0 +1,264 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp.jfr;
+
+import jdk.jfr.EventType;
+import jdk.jfr.FlightRecorder;
+import net.sf.javailp.AbstractSolver;
+import net.sf.javailp.Constraint;
+import net.sf.javailp.Incumbent;
+import net.sf.javailp.Linear;
+import net.sf.javailp.Problem;
+import net.sf.javailp.SolveStatistics.Phase;
+import net.sf.javailp.SolveStatus;
+import net.sf.javailp.SolverMonitor;
+import net.sf.javailp.Term;
+
+/**
+ * The {@code FlightRecorderMonitor} emits the events {@link ModelTransfer},
+ * {@link NativeSolve}, {@link ResultExtraction}, {@link IncumbentFound}, and
+ * {@link SolverPoolWait} to the Java Flight Recorder. It is installed with
+ * {@link #install()}. If none of the events is enabled in a running
+ * recording, the solves are not observed at all, i.e., neither events are
+ * allocated nor the fingerprint of the problem is calculated.
+ * 
+ * @author lukasiewycz
+ * 
+ */
+public class FlightRecorderMonitor implements SolverMonitor {
+
+	private static final EventType modelTransfer = EventType.getEventType(ModelTransfer.class);
+	private static final EventType nativeSolve = EventType.getEventType(NativeSolve.class);
+	private static final EventType resultExtraction = EventType.getEventType(ResultExtraction.class);
+	private static final EventType incumbentFound = EventType.getEventType(IncumbentFound.class);
+	private static final EventType solverPoolWait = EventType.getEventType(SolverPoolWait.class);
+
+	/**
+	 * Registers the events at the flight recorder and installs a
+	 * {@code FlightRecorderMonitor} as monitor of all solvers.
+	 * 
+	 * @return the monitor
+	 */
+	public static FlightRecorderMonitor install() {
+		FlightRecorder.register(ModelTransfer.class);
+		FlightRecorder.register(NativeSolve.class);
+		FlightRecorder.register(ResultExtraction.class);
+		FlightRecorder.register(IncumbentFound.class);
+		FlightRecorder.register(SolverPoolWait.class);
+		FlightRecorderMonitor monitor = new FlightRecorderMonitor();
+		AbstractSolver.setMonitor(monitor);
+		return monitor;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see net.sf.javailp.SolverMonitor#begin(java.lang.String,
+	 * net.sf.javailp.Problem)
+	 */
+	public Session begin(String backend, Problem problem) {
+		if (!modelTransfer.isEnabled() && !nativeSolve.isEnabled() && !resultExtraction.isEnabled()
+				&& !incumbentFound.isEnabled()) {
+			return null;
+		}
+		return new Recording(backend, problem);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see net.sf.javailp.SolverMonitor#beginWait(java.lang.String)
+	 */
+	public Object beginWait(String backend) {
+		if (!solverPoolWait.isEnabled()) {
+			return null;
+		}
+		SolverPoolWait event = new SolverPoolWait();
+		event.backend = backend;
+		event.begin();
+		return event;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see net.sf.javailp.SolverMonitor#endWait(java.lang.Object)
+	 */
+	public void endWait(Object handle) {
+		if (handle != null) {
+			SolverPoolWait event = (SolverPoolWait) handle;
+			event.end();
+			if (event.shouldCommit()) {
+				event.commit();
+			}
+		}
+	}
+
+	/**
+	 * Returns the fingerprint of a problem, i.e., a hash of the objective,
+	 * the constraints, and the types and bounds of the variables. Problems
+	 * with the same fingerprint are equal with a high probability if the
+	 * variables have stable hash codes (e.g., strings or integers).
+	 * 
+	 * @param problem
+	 *            the problem
+	 * @return the fingerprint
+	 */
+	public static long fingerprint(Problem problem) {
+		long hash = 0xcbf29ce484222325L;
+		hash = mix(hash, problem.getOptType().ordinal());
+		hash = mix(hash, problem.getObjective());
+		for (Object variable : problem.getVariables()) {
+			hash = mix(hash, variable.hashCode());
+			hash = mix(hash, problem.getVarType(variable).ordinal());
+			hash = mix(hash, problem.getVarLowerBound(variable));
+			hash = mix(hash, problem.getVarUpperBound(variable));
+		}
+		for (Constraint constraint : problem.getConstraints()) {
+			hash = mix(hash, constraint.getOperator().ordinal());
+			hash = mix(hash, constraint.getRhs());
+			hash = mix(hash, constraint.getLhs());
+		}
+		return hash;
+	}
+
+	private static long mix(long hash, Linear linear) {
+		if (linear == null) {
+			return mix(hash, -1);
+		}
+		for (Term term : linear) {
+			hash = mix(hash, term.getVariable().hashCode());
+			hash = mix(hash, term.getCoefficient());
+		}
+		return mix(hash, linear.size());
+	}
+
+	private static long mix(long hash, Number number) {
+		return mix(hash, number == null ? 0x7ff8000000000001L : Double.doubleToLongBits(number.doubleValue()));
+	}
+
+	private static long mix(long hash, long value) {
+		return (hash ^ value) * 0x100000001b3L;
+	}
+
+	/**
+	 * The {@code Recording} is the session of a single solve. It holds the
+	 * event of the current phase.
+	 * 
+	 * @author lukasiewycz
+	 * 
+	 */
+	protected static class Recording implements Session {
+
+		protected final String backend;
+		protected final int rows;
+		protected final int columns;
+		protected final long nonZeros;
+		protected final long fingerprint;
+		protected SolverEvent current = null;
+
+		public Recording(String backend, Problem problem) {
+			this.backend = backend;
+			this.rows = problem.getConstraintsCount();
+			this.columns = problem.getVariablesCount();
+			long nnz = 0;
+			for (Constraint constraint : problem.getConstraints()) {
+				nnz += constraint.size();
+			}
+			this.nonZeros = nnz;
+			this.fingerprint = fingerprint(problem);
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see
+		 * net.sf.javailp.SolverMonitor.Session#phase(net.sf.javailp.SolveStatistics
+		 * .Phase)
+		 */
+		public void phase(Phase phase) {
+			commit();
+			switch (phase) {
+			case SOLVE:
+				current = nativeSolve.isEnabled() ? new NativeSolve() : null;
+				break;
+			case EXTRACTION:
+				current = resultExtraction.isEnabled() ? new ResultExtraction() : null;
+				break;
+			default: // BUILD, VALIDATION, TRANSFER
+				if (modelTransfer.isEnabled()) {
+					ModelTransfer event = new ModelTransfer();
+					event.phase = phase.name();
+					current = event;
+				} else {
+					current = null;
+				}
+			}
+			if (current != null) {
+				fill(current);
+				current.begin();
+			}
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see
+		 * net.sf.javailp.SolverMonitor.Session#incumbent(net.sf.javailp.Incumbent
+		 * )
+		 */
+		public void incumbent(Incumbent incumbent) {
+			IncumbentFound event = new IncumbentFound();
+			if (event.shouldCommit()) {
+				fill(event);
+				Number objective = incumbent.getObjective();
+				Number bound = incumbent.getBound();
+				event.objective = objective != null ? objective.doubleValue() : Double.NaN;
+				event.bound = bound != null ? bound.doubleValue() : Double.NaN;
+				event.elapsed = incumbent.getElapsed();
+				event.commit();
+			}
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see
+		 * net.sf.javailp.SolverMonitor.Session#end(net.sf.javailp.SolveStatus)
+		 */
+		public void end(SolveStatus status) {
+			commit();
+		}
+
+		protected void fill(SolverEvent event) {
+			event.backend = backend;
+			event.rows = rows;
+			event.columns = columns;
+			event.nonZeros = nonZeros;
+			event.fingerprint = fingerprint;
+		}
+
+		protected void commit() {
+			if (current != null) {
+				current.end();
+				if (current.shouldCommit()) {
+					current.commit();
+				}
+				current = null;
+			}
+		}
+	}
+
+}
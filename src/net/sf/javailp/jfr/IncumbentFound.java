@@ -0,0 +1,46 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * The {@code IncumbentFound} event marks an improved solution of a solve.
+ * 
+ * @author lukasiewycz
+ * 
+ */
+@Name("net.sf.javailp.IncumbentFound")
+@Label("Incumbent Found")
+@Description("An improved solution of a solve.")
+public class IncumbentFound extends SolverEvent {
+
+	@Label("Objective")
+	@Description("The objective value or NaN if not available.")
+	public double objective;
+
+	@Label("Bound")
+	@Description("The best bound or NaN if not available.")
+	public double bound;
+
+	@Label("Elapsed")
+	@Description("The time since the start of the solve.")
+	@Timespan(Timespan.MILLISECONDS)
+	public long elapsed;
+
+}
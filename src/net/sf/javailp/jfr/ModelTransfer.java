@@ -0,0 +1,38 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * The {@code ModelTransfer} event covers the creation of the backend model,
+ * the validation of the problem, and the transfer of the problem to the
+ * backend. Each of these phases is a separate event.
+ * 
+ * @author lukasiewycz
+ * 
+ */
+@Name("net.sf.javailp.ModelTransfer")
+@Label("Model Transfer")
+@Description("Building the backend model and passing the problem to the backend.")
+public class ModelTransfer extends SolverEvent {
+
+	@Label("Phase")
+	@Description("The phase, i.e., BUILD, VALIDATION, or TRANSFER.")
+	public String phase;
+
+}
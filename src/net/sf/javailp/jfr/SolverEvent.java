@@ -0,0 +1,51 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+
+/**
+ * The {@code SolverEvent} is the base class of the events of a solve. It
+ * contains the backend and the size and fingerprint of the problem.
+ * 
+ * @author lukasiewycz
+ * 
+ */
+@Category("Java ILP")
+public abstract class SolverEvent extends Event {
+
+	@Label("Backend")
+	public String backend;
+
+	@Label("Rows")
+	@Description("The number of constraints.")
+	public int rows;
+
+	@Label("Columns")
+	@Description("The number of variables.")
+	public int columns;
+
+	@Label("Non-Zeros")
+	@Description("The number of terms of all constraints.")
+	public long nonZeros;
+
+	@Label("Fingerprint")
+	@Description("The hash of the objective, constraints, and variable types and bounds.")
+	public long fingerprint;
+
+}
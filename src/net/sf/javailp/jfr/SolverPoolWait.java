@@ -0,0 +1,39 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * The {@code SolverPoolWait} event covers the wait of a thread for a solver
+ * of a pool.
+ * 
+ * @author lukasiewycz
+ * 
+ */
+@Name("net.sf.javailp.SolverPoolWait")
+@Label("Solver Pool Wait")
+@Description("Waiting for a solver of a pool.")
+@Category("Java ILP")
+public class SolverPoolWait extends Event {
+
+	@Label("Backend")
+	public String backend;
+
+}
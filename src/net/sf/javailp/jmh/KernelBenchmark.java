@@ -0,0 +1,114 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp.jmh;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import net.sf.javailp.Kernel;
+import net.sf.javailp.Linear;
+import net.sf.javailp.ScalarKernel;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The {@code KernelBenchmark} compares the evaluation of a dense row with
+ * {@link Linear#evaluate(Map)} to the dense and sparse dot products of the
+ * {@link ScalarKernel} and the selected {@link Kernel}. The SIMD kernel is
+ * only selected if the classes of {@code net.sf.javailp.vector} are built
+ * ({@code ant compile-vector}) and the benchmark JVM runs with
+ * {@code --add-modules jdk.incubator.vector} (see {@code jmh.jvmargs}).
+ * 
+ * @author lukasiewycz
+ * 
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class KernelBenchmark {
+
+	/**
+	 * The number of non-zeros of the row.
+	 */
+	@Param({ "16", "256", "4096" })
+	public int size;
+
+	protected Linear linear;
+	protected Map<Object, Number> result;
+	protected double[] values;
+	protected int[] indices;
+	protected double[] x;
+	protected final Kernel scalar = new ScalarKernel();
+	protected final Kernel selected = Kernel.get();
+
+	@Setup
+	public void setup() {
+		Random random = new Random(size);
+		Object[] variables = Models.variables(size);
+		linear = new Linear();
+		result = new HashMap<Object, Number>();
+		values = new double[size];
+		indices = new int[size];
+		x = new double[size];
+		for (int i = 0; i < size; i++) {
+			values[i] = random.nextInt(100) + 1;
+			indices[i] = i;
+			x[i] = random.nextDouble();
+			linear.add(values[i], variables[i]);
+			result.put(variables[i], x[i]);
+		}
+	}
+
+	@Benchmark
+	public Number linearEvaluate() {
+		return linear.evaluate(result);
+	}
+
+	@Benchmark
+	public double scalarDense() {
+		return scalar.dot(values, x, 0, size);
+	}
+
+	@Benchmark
+	public double scalarSparse() {
+		return scalar.dot(values, indices, 0, size, x);
+	}
+
+	@Benchmark
+	public double selectedDense() {
+		return selected.dot(values, x, 0, size);
+	}
+
+	@Benchmark
+	public double selectedSparse() {
+		return selected.dot(values, indices, 0, size, x);
+	}
+
+}
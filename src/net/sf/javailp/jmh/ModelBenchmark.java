@@ -0,0 +1,130 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp.jmh;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import net.sf.javailp.Constraint;
+import net.sf.javailp.Linear;
+import net.sf.javailp.Operator;
+import net.sf.javailp.Problem;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * The {@code ModelBenchmark} measures the building of the model:
+ * {@link Linear#add(Number, Object)}, {@link Problem#add(Linear, String, Number)}
+ * , {@link Linear#evaluate(Map)}, and the construction of
+ * {@link Constraint}s with and without a name (an unnamed constraint is
+ * named by its {@code toString()} in the constructor).
+ * 
+ * @author lukasiewycz
+ * 
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ModelBenchmark {
+
+	/**
+	 * The number of terms of all constraints.
+	 */
+	@Param({ "1000", "100000" })
+	public int size;
+
+	protected Object[] variables;
+	protected int[] indices;
+	protected int[] coefficients;
+	protected Linear[] rows;
+	protected Linear objective;
+	protected Map<Object, Number> values;
+
+	@Setup
+	public void setup() {
+		int columns = size / Models.WIDTH;
+		Random random = new Random(42);
+
+		variables = Models.variables(columns);
+		indices = new int[size];
+		coefficients = new int[size];
+		for (int i = 0; i < size; i++) {
+			indices[i] = random.nextInt(columns);
+			coefficients[i] = 1 + random.nextInt(5);
+		}
+		rows = Models.rows(columns, variables, 42);
+
+		objective = new Linear();
+		values = new HashMap<Object, Number>();
+		for (Object variable : variables) {
+			objective.add(random.nextInt(100), variable);
+			values.put(variable, random.nextInt(2));
+		}
+	}
+
+	@Benchmark
+	public Linear linearAdd() {
+		Linear linear = new Linear();
+		for (int i = 0; i < size; i++) {
+			linear.add(coefficients[i], variables[indices[i]]);
+		}
+		return linear;
+	}
+
+	@Benchmark
+	public Problem problemAdd() {
+		Problem problem = new Problem();
+		for (Linear linear : rows) {
+			problem.add(linear, "<=", 7);
+		}
+		return problem;
+	}
+
+	@Benchmark
+	public Number linearEvaluate() {
+		return objective.evaluate(values);
+	}
+
+	@Benchmark
+	public void constraint(Blackhole blackhole) {
+		for (Linear linear : rows) {
+			blackhole.consume(new Constraint(linear, Operator.LE, 7));
+		}
+	}
+
+	@Benchmark
+	public void constraintNamed(Blackhole blackhole) {
+		for (Linear linear : rows) {
+			blackhole.consume(new Constraint("c", linear, Operator.LE, 7));
+		}
+	}
+
+}
@@ -0,0 +1,107 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp.jmh;
+
+import java.util.Random;
+
+import net.sf.javailp.Linear;
+import net.sf.javailp.OptType;
+import net.sf.javailp.Problem;
+
+/**
+ * The class {@code Models} creates the reproducible inputs of the
+ * benchmarks.
+ * 
+ * @author lukasiewycz
+ * 
+ */
+public class Models {
+
+	/**
+	 * The number of terms per constraint.
+	 */
+	public static final int WIDTH = 10;
+
+	private Models() {
+	}
+
+	/**
+	 * Returns the names of the variables {@code x0, x1, ...}.
+	 * 
+	 * @param columns
+	 *            the number of variables
+	 * @return the names
+	 */
+	public static Object[] variables(int columns) {
+		Object[] variables = new Object[columns];
+		for (int i = 0; i < columns; i++) {
+			variables[i] = "x" + i;
+		}
+		return variables;
+	}
+
+	/**
+	 * Returns random left-hand sides with {@link #WIDTH} terms each and
+	 * coefficients between {@code 1} and {@code 5}.
+	 * 
+	 * @param rows
+	 *            the number of left-hand sides
+	 * @param variables
+	 *            the variables
+	 * @param seed
+	 *            the seed
+	 * @return the left-hand sides
+	 */
+	public static Linear[] rows(int rows, Object[] variables, long seed) {
+		Random random = new Random(seed);
+		Linear[] linears = new Linear[rows];
+		for (int r = 0; r < rows; r++) {
+			Linear linear = new Linear();
+			for (int k = 0; k < WIDTH; k++) {
+				linear.add(1 + random.nextInt(5), variables[random.nextInt(variables.length)]);
+			}
+			linears[r] = linear;
+		}
+		return linears;
+	}
+
+	/**
+	 * Returns a 0-1 problem with {@code rows} knapsack constraints over
+	 * {@code rows} variables that maximizes the number of selected variables.
+	 * 
+	 * @param rows
+	 *            the number of constraints
+	 * @param seed
+	 *            the seed
+	 * @return the problem
+	 */
+	public static Problem booleanProblem(int rows, long seed) {
+		Object[] variables = variables(rows);
+		Problem problem = new Problem();
+
+		Linear objective = new Linear();
+		for (Object variable : variables) {
+			objective.add(1, variable);
+			problem.setVarType(variable, Boolean.class);
+		}
+		problem.setObjective(objective, OptType.MAX);
+
+		for (Linear linear : rows(rows, variables, seed)) {
+			problem.add(linear, "<=", 3 * WIDTH / 2);
+		}
+		return problem;
+	}
+
+}
@@ -0,0 +1,91 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import net.sf.javailp.ArrayResult;
+import net.sf.javailp.Problem;
+import net.sf.javailp.ResultImpl;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The {@code ResultBenchmark} measures the population and the access of the
+ * values of a {@link ResultImpl} and an {@link ArrayResult}.
+ * 
+ * @author lukasiewycz
+ * 
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResultBenchmark {
+
+	/**
+	 * The number of variables.
+	 */
+	@Param({ "1000", "100000" })
+	public int size;
+
+	protected Object[] variables;
+	protected Problem problem;
+
+	@Setup
+	public void setup() {
+		variables = Models.variables(size);
+		problem = new Problem();
+		for (Object variable : variables) {
+			problem.setVarType(variable, Integer.class);
+		}
+	}
+
+	@Benchmark
+	public double resultImpl() {
+		ResultImpl result = new ResultImpl();
+		return populate(result);
+	}
+
+	@Benchmark
+	public double arrayResult() {
+		ArrayResult result = new ArrayResult(problem);
+		return populate(result);
+	}
+
+	protected double populate(ResultImpl result) {
+		for (int i = 0; i < size; i++) {
+			result.put(variables[i], i & 7);
+		}
+		double sum = 0;
+		for (Object variable : variables) {
+			sum += result.get(variable).doubleValue();
+		}
+		return sum;
+	}
+
+}
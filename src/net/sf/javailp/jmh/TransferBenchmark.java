@@ -0,0 +1,131 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp.jmh;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import lpsolve.LpSolve;
+import lpsolve.LpSolveException;
+import net.sf.javailp.NativeHandles;
+import net.sf.javailp.Problem;
+import net.sf.javailp.Solver;
+import net.sf.javailp.SolverLpSolve;
+import net.sf.javailp.SolverMiniSat;
+import net.sf.javailp.SolverSAT4J;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sat4j.specs.ContradictionException;
+
+/**
+ * The {@code TransferBenchmark} measures the transfer of a 0-1 problem to the
+ * backends SAT4J, MiniSat, and lp_solve, i.e., the creation of the backend
+ * model without the solve. MiniSat and lp_solve require the native libraries
+ * on the {@code java.library.path}.
+ * 
+ * @author lukasiewycz
+ * 
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransferBenchmark {
+
+	/**
+	 * The number of constraints and variables.
+	 */
+	@Param({ "1000", "10000" })
+	public int rows;
+
+	protected Problem problem;
+	protected TransferSAT4J sat4j;
+	protected TransferMiniSat minisat;
+	protected TransferLpSolve lpsolve;
+
+	@Setup
+	public void setup() {
+		problem = Models.booleanProblem(rows, 42);
+		sat4j = new TransferSAT4J();
+		minisat = new TransferMiniSat();
+		lpsolve = new TransferLpSolve();
+		sat4j.setParameter(Solver.VERBOSE, 0);
+		minisat.setParameter(Solver.VERBOSE, 0);
+		lpsolve.setParameter(Solver.VERBOSE, 0);
+	}
+
+	@TearDown
+	public void tearDown() {
+		minisat.close();
+	}
+
+	@Benchmark
+	public Object sat4j() throws ContradictionException {
+		return sat4j.transfer(problem);
+	}
+
+	@Benchmark
+	public void minisat() {
+		minisat.transfer(problem);
+	}
+
+	@Benchmark
+	public void lpsolve() throws LpSolveException {
+		lpsolve.transfer(problem);
+	}
+
+	protected static class TransferSAT4J extends SolverSAT4J {
+
+		public Object transfer(Problem problem) throws ContradictionException {
+			return build(problem, new HashMap<Object, Integer>());
+		}
+	}
+
+	protected static class TransferMiniSat extends SolverMiniSat {
+
+		@Override
+		public void transfer(Problem problem) {
+			super.transfer(problem);
+		}
+	}
+
+	protected static class TransferLpSolve extends SolverLpSolve {
+
+		public void transfer(Problem problem) throws LpSolveException {
+			Map<Object, Integer> varToIndex = new HashMap<Object, Integer>();
+			for (Object variable : problem.getVariables()) {
+				varToIndex.put(variable, problem.getVariableId(variable) + 1);
+			}
+			LpSolve lp = build(problem, varToIndex);
+			lp.deleteLp();
+			NativeHandles.released("lp_solve");
+		}
+	}
+
+}
@@ -0,0 +1,23 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+
+/**
+ * Provides the JMH benchmarks of the model building, the result access, and
+ * the transfer of the problems to the backends. This package requires JMH
+ * and is built separately from the other packages (see the targets
+ * {@code compile-jmh} and {@code jmh} of the {@code build.xml}). 
+ * 
+ */
+package net.sf.javailp.jmh;
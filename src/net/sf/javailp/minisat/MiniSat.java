@@ -15,6 +15,14 @@
 
 package net.sf.javailp.minisat;
 
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.util.Queue;
+import java.util.Timer;
+import java.util.TimerTask;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
 /**
  * <p>
  * The {@code MiniSat} is the JNI class for the MiniSat+ solver.
@@ -23,19 +31,75 @@ package net.sf.javailp.minisat;
  * The variables are integers starting from {@code 0}. A positive literal of the
  * variable {@code x} is {@code x+1}, the negative literal is {@code -(x+1)}.
  * </p>
+ * <p>
+ * An instance must only be used by one thread at a time, separate instances
+ * can be used concurrently. {@link #interrupt()} can be called from any
+ * thread. {@link #close()} can be called from another thread while a solve
+ * method of the instance is running: it interrupts the search and frees the
+ * native solver once the search returned. MiniSat+ keeps the formula
+ * environment of the conversion of the constraints to clauses and its
+ * options (including the verbosity) in global variables of the native
+ * library, thus, the solve methods of all instances are serialized and the
+ * verbosity of the instance is restored before each search. The time limit
+ * only counts the search, not the wait for the other instances.
+ * </p>
  * 
  * @see <a href="http://minisat.se/MiniSat+.html">http://minisat.se/MiniSat+.html</a>
  * 
  * @author lukasiewycz
  * 
  */
-public class MiniSat {
+public class MiniSat implements AutoCloseable {
 
 	static {
 		System.loadLibrary("minisat");
 	}
 
+	/**
+	 * Comparator {@code <}.
+	 */
+	public static final int LT = -2;
+
+	/**
+	 * Comparator {@code <=}.
+	 */
+	public static final int LE = -1;
+
+	/**
+	 * Comparator {@code =}.
+	 */
+	public static final int EQ = 0;
+
+	/**
+	 * Comparator {@code >=}.
+	 */
+	public static final int GE = 1;
+
+	/**
+	 * Comparator {@code >}.
+	 */
+	public static final int GT = 2;
+
 	protected long pointer = 0;
+	protected boolean closing = false;
+
+	protected long timeLimit = 0;
+	protected TimerTask deadline = null;
+
+	private static Timer watchdog = null;
+
+	/**
+	 * The lock of the global state of the native library.
+	 */
+	private static final Object NATIVE = new Object();
+
+	/**
+	 * The native solvers of finalized instances. They are freed by the next
+	 * holder of {@link #NATIVE} since a finalizer must not wait for a search.
+	 */
+	private static final Queue<Long> FINALIZED = new ConcurrentLinkedQueue<Long>();
+
+	protected int verbosity = 0;
 
 	/**
 	 * Construct a {@code MiniSat} instance.
@@ -44,6 +108,64 @@ public class MiniSat {
 		pointer = make();
 	}
 
+	/**
+	 * Returns the pointer to the native solver.
+	 * 
+	 * @return the pointer
+	 * @throws IllegalStateException
+	 *             if the solver is closed
+	 */
+	protected synchronized long pointer() {
+		if (closing) {
+			throw new IllegalStateException("The MiniSat instance is closed.");
+		}
+		return pointer;
+	}
+
+	/**
+	 * Frees the native solver. A running search is interrupted and the
+	 * solver is freed after the search returned. Subsequent calls have no
+	 * effect, any other method throws an {@code IllegalStateException}
+	 * afterwards.
+	 */
+	public void close() {
+		synchronized (this) {
+			if (closing) {
+				return;
+			}
+			closing = true;
+			interrupt(pointer);
+		}
+		// a running search holds the lock until it returned
+		synchronized (NATIVE) {
+			freeFinalized();
+			synchronized (this) {
+				free(pointer);
+				pointer = 0;
+			}
+		}
+	}
+
+	/**
+	 * Frees the native solvers of finalized instances. The caller holds the
+	 * lock of the native library.
+	 */
+	protected void freeFinalized() {
+		Long solver;
+		while ((solver = FINALIZED.poll()) != null) {
+			free(solver);
+		}
+	}
+
+	/**
+	 * Returns {@code true} if the native solver is freed.
+	 * 
+	 * @return {@code true} if the solver is closed
+	 */
+	public synchronized boolean isClosed() {
+		return closing;
+	}
+
 	/**
 	 * Set the objective of the problem. By default the objective is minimized.
 	 * If you want the objective to be maximized negate the coefficients.
@@ -54,7 +176,7 @@ public class MiniSat {
 	 *            the literals
 	 */
 	public void setObjective(int[] coeffs, int[] lits) {
-		setObjective(pointer, coeffs, lits);
+		setObjective(pointer(), coeffs, lits);
 	}
 
 	/**
@@ -74,25 +196,89 @@ public class MiniSat {
 
 		final int ineq;
 		if (comp.equals("<=")) {
-			ineq = -1;
+			ineq = LE;
 		} else if (comp.equals("<")) {
-			ineq = -2;
+			ineq = LT;
 		} else if (comp.equals(">=")) {
-			ineq = 1;
+			ineq = GE;
 		} else if (comp.equals(">")) {
-			ineq = 2;
+			ineq = GT;
 		} else {
-			ineq = 0;
+			ineq = EQ;
 		}
 
-		return addConstraint(pointer, coeffs, lits, ineq, rhs);
+		return addConstraint(pointer(), coeffs, lits, ineq, rhs);
+	}
+
+	/**
+	 * Adds multiple linear constraints with a single native call. The
+	 * constraints are given in the compressed sparse row layout: the terms of
+	 * the constraint {@code r} are stored from {@code starts[r]} (inclusive)
+	 * to {@code starts[r+1]} (exclusive) in {@code coeffs} and {@code lits}.
+	 * The comparators ({@code MiniSat#LE}, {@code MiniSat#EQ}, ...) and the
+	 * right hand side values are stored in {@code comps} and {@code rhs}. All
+	 * buffers have to be direct buffers in the native byte order (see
+	 * {@code MiniSat#allocate(int)}) and are read in place from index
+	 * {@code 0}, regardless of their position.
+	 * 
+	 * @param rows
+	 *            the number of constraints
+	 * @param starts
+	 *            the row starts ({@code rows+1} entries)
+	 * @param coeffs
+	 *            the coefficients
+	 * @param lits
+	 *            the literals
+	 * @param comps
+	 *            the comparators
+	 * @param rhs
+	 *            the right hand side values
+	 * @return {@code true} if these constraints did not cause a contradiction
+	 */
+	public boolean addConstraints(int rows, IntBuffer starts, IntBuffer coeffs,
+			IntBuffer lits, IntBuffer comps, IntBuffer rhs) {
+		check(starts, rows + 1);
+		check(coeffs, starts.get(rows));
+		check(lits, starts.get(rows));
+		check(comps, rows);
+		check(rhs, rows);
+
+		return addConstraints(pointer(), rows, starts, coeffs, lits, comps, rhs);
+	}
+
+	/**
+	 * Allocates a direct buffer in the native byte order that can be passed
+	 * to {@code MiniSat#addConstraints}.
+	 * 
+	 * @param size
+	 *            the number of integers
+	 * @return the buffer
+	 */
+	public static IntBuffer allocate(int size) {
+		return ByteBuffer.allocateDirect(size * 4).order(ByteOrder.nativeOrder()).asIntBuffer();
+	}
+
+	protected void check(IntBuffer buffer, int size) {
+		if (!buffer.isDirect() || buffer.order() != ByteOrder.nativeOrder()) {
+			throw new IllegalArgumentException("The buffer has to be a direct buffer in native byte order.");
+		} else if (buffer.capacity() < size) {
+			throw new IllegalArgumentException("The buffer is too small (" + buffer.capacity() + " < " + size + ").");
+		}
 	}
 
 	/**
 	 * Solve the problem.
 	 */
 	public void solve() {
-		solve(pointer);
+		synchronized (NATIVE) {
+			long solver = begin();
+			TimerTask task = startDeadline();
+			try {
+				solve(solver);
+			} finally {
+				stopDeadline(task);
+			}
+		}
 	}
 
 	/**
@@ -101,8 +287,199 @@ public class MiniSat {
 	 * @return {@code true} if a feasible solution is found
 	 */
 	public boolean solveSingle() {
-		boolean b = solveSingle(pointer);
-		return b;
+		synchronized (NATIVE) {
+			long solver = begin();
+			TimerTask task = startDeadline();
+			try {
+				return solveSingle(solver);
+			} finally {
+				stopDeadline(task);
+			}
+		}
+	}
+
+	/**
+	 * Solve the problem under the given assumptions. The assumptions are
+	 * literals that hold for this call only, i.e., they do not restrict
+	 * subsequent calls. In contrast to {@code MiniSat#solve()}, this method
+	 * can be called repeatedly on the same instance and constraints can be
+	 * added between the calls. After the first call, new constraints may
+	 * only use variables that were known before.
+	 * 
+	 * @param assumptions
+	 *            the assumed literals
+	 * @return {@code true} if a feasible solution is found
+	 */
+	public boolean solve(int[] assumptions) {
+		synchronized (NATIVE) {
+			long solver = begin();
+			TimerTask task = startDeadline();
+			try {
+				return solveAssuming(solver, assumptions, true);
+			} finally {
+				stopDeadline(task);
+			}
+		}
+	}
+
+	/**
+	 * Solve the problem under the given assumptions without optimizing (see
+	 * {@code MiniSat#solve(int[])}).
+	 * 
+	 * @param assumptions
+	 *            the assumed literals
+	 * @return {@code true} if a feasible solution is found
+	 */
+	public boolean solveSingle(int[] assumptions) {
+		synchronized (NATIVE) {
+			long solver = begin();
+			TimerTask task = startDeadline();
+			try {
+				return solveAssuming(solver, assumptions, false);
+			} finally {
+				stopDeadline(task);
+			}
+		}
+	}
+
+	/**
+	 * Sets the budgets for each call of one of the solve methods. If a budget
+	 * is exhausted, the search stops and the best solution found so far is
+	 * kept (see {@code MiniSat#isLimitReached()}).
+	 * 
+	 * @param conflicts
+	 *            the maximal number of conflicts (negative for no limit)
+	 * @param propagations
+	 *            the maximal number of propagations (negative for no limit)
+	 */
+	public void setBudget(long conflicts, long propagations) {
+		setBudget(pointer(), conflicts < 0 ? -1 : conflicts, propagations < 0 ? -1 : propagations);
+	}
+
+	/**
+	 * Sets the wall-clock time limit for each call of one of the solve
+	 * methods. The limit is enforced by a watchdog thread that interrupts the
+	 * search (see {@code MiniSat#interrupt()}).
+	 * 
+	 * @param millis
+	 *            the time limit in milliseconds ({@code 0} for no limit)
+	 */
+	public void setTimeLimit(long millis) {
+		timeLimit = millis;
+	}
+
+	/**
+	 * Returns the search statistics accumulated over all calls of the solve
+	 * methods: the number of decisions, propagations, and conflicts (in this
+	 * order).
+	 * 
+	 * @return the statistics
+	 */
+	public long[] getStatistics() {
+		long[] stats = new long[3];
+		statistics(pointer(), stats);
+		return stats;
+	}
+
+	/**
+	 * Interrupts the running search as soon as possible. This method can be
+	 * called from any thread. The best solution found so far is kept (see
+	 * {@code MiniSat#isLimitReached()}).
+	 */
+	public synchronized void interrupt() {
+		if (!closing) {
+			interrupt(pointer);
+		}
+	}
+
+	/**
+	 * Returns {@code true} if the last call of one of the solve methods was
+	 * stopped by a budget, the time limit, or an interrupt. In this case, a
+	 * found solution is not necessarily optimal and an infeasible result
+	 * does not prove that there exists no solution.
+	 * 
+	 * @return {@code true} if the last search was stopped
+	 */
+	public boolean isLimitReached() {
+		return limitReached(pointer());
+	}
+
+	/**
+	 * Prepares a search while holding the lock of the native library: resets
+	 * the interrupt flag and restores the verbosity. The check for a closed
+	 * solver and the reset are atomic such that the interrupt of a
+	 * concurrent {@link #close()} is not lost.
+	 * 
+	 * @return the pointer to the native solver
+	 */
+	protected synchronized long begin() {
+		freeFinalized();
+		long solver = pointer();
+		clearInterrupt(solver);
+		setVerbose(solver, verbosity);
+		return solver;
+	}
+
+	/**
+	 * Schedules the interrupt of the solver after the time limit. It is
+	 * called after the lock of the native library is acquired, such that the
+	 * time limit does not include the wait for other instances.
+	 * 
+	 * @return the scheduled task or {@code null} if there is no time limit
+	 */
+	protected TimerTask startDeadline() {
+		if (timeLimit <= 0) {
+			return null;
+		}
+
+		TimerTask task = new TimerTask() {
+			public void run() {
+				synchronized (MiniSat.this) {
+					if (deadline == this && !closing) {
+						interrupt(pointer);
+					}
+				}
+			}
+		};
+		synchronized (this) {
+			deadline = task;
+		}
+		getWatchdog().schedule(task, timeLimit);
+		return task;
+	}
+
+	/**
+	 * Cancels the scheduled interrupt such that it cannot affect later calls.
+	 * 
+	 * @param task
+	 *            the scheduled task
+	 */
+	protected void stopDeadline(TimerTask task) {
+		if (task != null) {
+			task.cancel();
+			synchronized (this) {
+				deadline = null;
+			}
+		}
+	}
+
+	private static synchronized Timer getWatchdog() {
+		if (watchdog == null) {
+			watchdog = new Timer("MiniSat watchdog", true);
+		}
+		return watchdog;
+	}
+
+	/**
+	 * Returns the assumptions that caused the last call of {@code
+	 * MiniSat#solve(int[])} or {@code MiniSat#solveSingle(int[])} to fail.
+	 * The array is empty if the problem is infeasible regardless of the
+	 * assumptions.
+	 * 
+	 * @return the failed assumptions (subset of the assumed literals)
+	 */
+	public int[] getFailedAssumptions() {
+		return failedAssumptions(pointer());
 	}
 
 	/**
@@ -115,7 +492,20 @@ public class MiniSat {
 	 * @return the boolean result value
 	 */
 	public boolean valueOf(int var) {
-		return valueOf(pointer, var);
+		return valueOf(pointer(), var);
+	}
+
+	/**
+	 * Returns the values of all variables as a packed bitset, i.e., the value
+	 * of the variable {@code x} is the bit {@code x%32} of {@code bits[x/32]}.
+	 * The method should be called after a successful call of one of the solve
+	 * methods.
+	 * 
+	 * @param bits
+	 *            the bitset to be filled
+	 */
+	public void getModel(int[] bits) {
+		model(pointer(), bits);
 	}
 
 	/**
@@ -129,7 +519,7 @@ public class MiniSat {
 	 *            the activity
 	 */
 	public void setVar(int var, boolean phase, double activity) {
-		setVar(pointer, var, phase, activity);
+		setVar(pointer(), var, phase, activity);
 	}
 
 	/**
@@ -137,7 +527,7 @@ public class MiniSat {
 	 * variables.
 	 */
 	public void reset() {
-		reset(pointer);
+		reset(pointer());
 	}
 
 	/**
@@ -147,7 +537,7 @@ public class MiniSat {
 	 *            the inc value to be set
 	 */
 	public void setInc(double value) {
-		setInc(pointer, value);
+		setInc(pointer(), value);
 	}
 
 	/**
@@ -157,17 +547,19 @@ public class MiniSat {
 	 *            the decay value to be set
 	 */
 	public void setDecay(double value) {
-		setDecay(pointer, value);
+		setDecay(pointer(), value);
 	}
 
 	/**
-	 * Set the verbosity level (0=no output,1,2=most output).
+	 * Set the verbosity level (0=no output,1,2=most output) of the searches
+	 * of this instance.
 	 * 
 	 * @param level
 	 *            the level to be set
 	 */
 	public void setVerbose(int level) {
-		setVerbose(pointer, level);
+		pointer();
+		verbosity = level;
 	}
 
 	/**
@@ -176,7 +568,7 @@ public class MiniSat {
 	 * @return {@code true} if no contradiction appeared so far
 	 */
 	public boolean okay() {
-		return okay(pointer);
+		return okay(pointer());
 	}
 
 	/**
@@ -222,6 +614,29 @@ public class MiniSat {
 	protected native boolean addConstraint(long solver, int[] coeffs,
 			int[] vars, int ineq, int rhs);
 
+	/**
+	 * Add multiple constraints (see {@code MiniSat#addConstraints}).
+	 * 
+	 * @param solver
+	 *            the pointer to the solver
+	 * @param rows
+	 *            the number of constraints
+	 * @param starts
+	 *            the row starts
+	 * @param coeffs
+	 *            the coefficients
+	 * @param lits
+	 *            the literals
+	 * @param comps
+	 *            the comparators
+	 * @param rhs
+	 *            the right-hand-side values
+	 * @return {@code true} if no contradiction appeared
+	 */
+	protected native boolean addConstraints(long solver, int rows,
+			IntBuffer starts, IntBuffer coeffs, IntBuffer lits,
+			IntBuffer comps, IntBuffer rhs);
+
 	/**
 	 * Set the phase and activity of a variable.
 	 * 
@@ -245,6 +660,77 @@ public class MiniSat {
 	 */
 	protected native void solve(long solver);
 
+	/**
+	 * Solve under assumptions (incremental).
+	 * 
+	 * @param solver
+	 *            the pointer to the solver
+	 * @param assumptions
+	 *            the assumed literals
+	 * @param optimize
+	 *            {@code true} if the objective is optimized
+	 * @return {@code true} if a feasible solution is found
+	 */
+	protected native boolean solveAssuming(long solver, int[] assumptions,
+			boolean optimize);
+
+	/**
+	 * Returns the failed assumptions of the last incremental solve.
+	 * 
+	 * @param solver
+	 *            the pointer to the solver
+	 * @return the failed assumptions
+	 */
+	protected native int[] failedAssumptions(long solver);
+
+	/**
+	 * Set the conflict and propagation budgets.
+	 * 
+	 * @param solver
+	 *            the pointer to the solver
+	 * @param conflicts
+	 *            the conflicts per solve call (-1 for no limit)
+	 * @param propagations
+	 *            the propagations per solve call (-1 for no limit)
+	 */
+	protected native void setBudget(long solver, long conflicts,
+			long propagations);
+
+	/**
+	 * Interrupt the search (thread-safe).
+	 * 
+	 * @param solver
+	 *            the pointer to the solver
+	 */
+	protected native void interrupt(long solver);
+
+	/**
+	 * Reset the interrupt flag.
+	 * 
+	 * @param solver
+	 *            the pointer to the solver
+	 */
+	protected native void clearInterrupt(long solver);
+
+	/**
+	 * Returns {@code true} if the last search was stopped by a limit.
+	 * 
+	 * @param solver
+	 *            the pointer to the solver
+	 * @return {@code true} if a limit was reached
+	 */
+	protected native boolean limitReached(long solver);
+
+	/**
+	 * Reads the search statistics.
+	 * 
+	 * @param solver
+	 *            the pointer to the solver
+	 * @param stats
+	 *            the array for the decisions, propagations, and conflicts
+	 */
+	protected native void statistics(long solver, long[] stats);
+
 	/**
 	 * Solve without optimizing the objective.
 	 * 
@@ -324,6 +810,16 @@ public class MiniSat {
 	 */
 	protected native boolean valueOf(long solver, int var);
 
+	/**
+	 * Fills the packed bitset with the values of all variables.
+	 * 
+	 * @param solver
+	 *            the pointer to the solver
+	 * @param bits
+	 *            the bitset
+	 */
+	protected native void model(long solver, int[] bits);
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -342,7 +838,14 @@ public class MiniSat {
 	 */
 	@Override
 	protected void finalize() throws Throwable {
-		free(pointer);
+		// no search runs on an unreachable instance, the free is deferred
+		synchronized (this) {
+			if (!closing && pointer != 0) {
+				closing = true;
+				FINALIZED.add(pointer);
+				pointer = 0;
+			}
+		}
 		super.finalize();
 	}
 
@@ -0,0 +1,140 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp.server;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+
+import net.sf.javailp.Problem;
+import net.sf.javailp.worker.ModelFile;
+import net.sf.javailp.worker.ResultFile;
+
+/**
+ * The class {@code SolveClient} sends problems to a {@link SolveServer} on
+ * the same host. A client holds one connection and sends one request at a
+ * time; concurrent requests need one client each.
+ * 
+ * @author lukasiewycz
+ * 
+ */
+public class SolveClient implements AutoCloseable {
+
+	protected final Socket socket;
+	protected final DataInputStream in;
+	protected final DataOutputStream out;
+
+	/**
+	 * Constructs a {@code SolveClient} that connects to a server on the
+	 * loopback interface.
+	 * 
+	 * @param port
+	 *            the port of the server
+	 * @throws IOException
+	 *             if the connection fails
+	 */
+	public SolveClient(int port) throws IOException {
+		this.socket = new Socket(InetAddress.getByName(null), port);
+		socket.setTcpNoDelay(true);
+		this.in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+		this.out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+	}
+
+	/**
+	 * Solves a problem with the default priority {@code 0} and without
+	 * parameters.
+	 * 
+	 * @param backend
+	 *            the backend
+	 * @param problem
+	 *            the problem
+	 * @return the outcome
+	 * @throws IOException
+	 *             if the connection fails
+	 */
+	public ResultFile solve(String backend, Problem problem) throws IOException {
+		return solve(backend, problem, 0, Collections.<Object, Object> emptyMap());
+	}
+
+	/**
+	 * Solves a problem. The result of the outcome refers to the variables of
+	 * the problem. Only the parameters with a {@code String},
+	 * {@code Integer}, {@code Long}, {@code Double}, or {@code Boolean} key
+	 * and value are sent.
+	 * 
+	 * @param backend
+	 *            the backend
+	 * @param problem
+	 *            the problem
+	 * @param priority
+	 *            the priority (higher priorities are solved first)
+	 * @param parameters
+	 *            the parameters of the solver
+	 * @return the outcome
+	 * @throws RejectedExecutionException
+	 *             if the server rejected the request
+	 * @throws IllegalStateException
+	 *             if the solve failed
+	 * @throws IOException
+	 *             if the connection fails
+	 */
+	public synchronized ResultFile solve(String backend, Problem problem, int priority,
+			Map<Object, Object> parameters) throws IOException {
+		long size = ModelFile.size(problem);
+		if (size > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("The model is larger than 2GB.");
+		}
+		ByteBuffer model = ByteBuffer.allocate((int) size);
+		ModelFile.write(problem, model);
+
+		out.writeInt(SolveServer.REQUEST);
+		out.writeUTF(backend);
+		out.writeInt(priority);
+		SolveServer.writeParameters(out, parameters);
+		out.writeInt(model.capacity());
+		out.write(model.array());
+		out.flush();
+
+		int reply = in.readInt();
+		if (reply == SolveServer.OK) {
+			byte[] result = new byte[in.readInt()];
+			in.readFully(result);
+			return ResultFile.read(problem, ByteBuffer.wrap(result));
+		} else if (reply == SolveServer.REJECTED) {
+			throw new RejectedExecutionException(in.readUTF());
+		} else {
+			throw new IllegalStateException("The solve failed: " + in.readUTF());
+		}
+	}
+
+	/**
+	 * Closes the connection.
+	 * 
+	 * @throws IOException
+	 *             if the connection cannot be closed
+	 */
+	public void close() throws IOException {
+		socket.close();
+	}
+
+}
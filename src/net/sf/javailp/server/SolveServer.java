@@ -0,0 +1,895 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp.server;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.RejectedExecutionException;
+
+import net.sf.javailp.Problem;
+import net.sf.javailp.Result;
+import net.sf.javailp.ResultImpl;
+import net.sf.javailp.Solver;
+import net.sf.javailp.SolverFactory;
+import net.sf.javailp.worker.ModelFile;
+import net.sf.javailp.worker.ResultFile;
+
+/**
+ * The class {@code SolveServer} is an embeddable solve service on a socket
+ * of the loopback interface. The clients (see {@link SolveClient}) send the
+ * models in the binary layout of {@link ModelFile} and receive the results
+ * in the layout of {@link ResultFile}.
+ * <p>
+ * Each registered {@link SolverFactory} has a bounded priority queue and its
+ * own threads. Requests with the same backend, parameters, and model are
+ * collapsed while the first of them is queued or running, i.e., the model
+ * is solved once and all clients receive the same result.
+ * <p>
+ * The admission control reads the header of a model before the model
+ * itself. It reserves the size of the model plus the memory of the solve,
+ * which is estimated from the number of rows, columns, and non-zeros (see
+ * {@link #estimate(int, int, long)}). The reservation covers the request
+ * while it is queued and running and is released once it is finished. A
+ * request that exceeds the memory budget on its own or that finds the queue
+ * of its backend full is rejected. Otherwise, it waits for admission until
+ * the admitted requests leave enough of the budget. The requests of a
+ * backend are admitted in the order of their priorities, i.e., a request
+ * does not pass a waiting request of its backend with a higher priority (or
+ * the same priority and an earlier arrival). The requests of different
+ * backends do not block each other: a request that fits into the budget
+ * passes the waiting requests of other backends that do not fit. Hence, a
+ * large request waits until the admitted requests leave enough of the
+ * budget for it, while the small requests of other backends proceed. The
+ * model of a waiting request is not read, i.e., it stays in the buffers of
+ * the connection.
+ * 
+ * <pre>
+ * SolveServer server = new SolveServer(0);
+ * server.register(&quot;SAT4J&quot;, new SolverFactorySAT4J(), 4);
+ * server.setMemoryBudget(2L &lt;&lt; 30);
+ * server.start();
+ * ...
+ * server.close();
+ * </pre>
+ * 
+ * @author lukasiewycz
+ * 
+ */
+public class SolveServer implements AutoCloseable {
+
+	protected static final int REQUEST = 0x4A494C52;
+
+	protected static final int OK = 0;
+	protected static final int FAILED = -1;
+	protected static final int REJECTED = 1;
+
+	protected final ServerSocket server;
+	protected final Map<String, Lane> lanes = new HashMap<String, Lane>();
+	protected final Map<String, Job> jobs = new HashMap<String, Job>();
+	protected final PriorityQueue<Job> waiting = new PriorityQueue<Job>(16, Job.ORDER);
+	protected final List<Socket> connections = new ArrayList<Socket>();
+
+	protected long memoryBudget = Long.MAX_VALUE;
+	protected long memoryUsed = 0;
+	protected int queueCapacity = 1024;
+	protected long sequence = 0;
+	protected long collapsed = 0;
+	protected long rejected = 0;
+	protected boolean closed = false;
+
+	/**
+	 * Constructs a {@code SolveServer} on a port of the loopback interface.
+	 * The server accepts connections after {@link #start()}.
+	 * 
+	 * @param port
+	 *            the port ({@code 0} for an ephemeral port)
+	 * @throws IOException
+	 *             if the port cannot be bound
+	 */
+	public SolveServer(int port) throws IOException {
+		this.server = new ServerSocket(port, 50, InetAddress.getByName(null));
+	}
+
+	/**
+	 * Returns the port of the server.
+	 * 
+	 * @return the port
+	 */
+	public int getPort() {
+		return server.getLocalPort();
+	}
+
+	/**
+	 * Registers a solver factory with its own queue and threads.
+	 * 
+	 * @param backend
+	 *            the name of the backend in the requests
+	 * @param factory
+	 *            the factory
+	 * @param threads
+	 *            the number of concurrent solves
+	 */
+	public synchronized void register(String backend, SolverFactory factory, int threads) {
+		if (closed) {
+			throw new IllegalStateException("The server is closed.");
+		} else if (lanes.containsKey(backend)) {
+			throw new IllegalArgumentException("The backend " + backend + " is already registered.");
+		} else if (threads < 1) {
+			throw new IllegalArgumentException("The backend needs at least one thread.");
+		}
+		Lane lane = new Lane(backend, factory);
+		lanes.put(backend, lane);
+		for (int i = 0; i < threads; i++) {
+			start(lane, "javailp-solve-" + backend + "-" + i);
+		}
+	}
+
+	/**
+	 * Sets the memory budget of all admitted requests. Waiting and queued
+	 * requests that exceed a lowered budget on their own are rejected.
+	 * 
+	 * @param bytes
+	 *            the budget in bytes
+	 */
+	public synchronized void setMemoryBudget(long bytes) {
+		this.memoryBudget = bytes;
+		String reason = "The estimated memory exceeds the lowered budget of " + bytes + " bytes.";
+		for (Job job : waiting) {
+			if (job.reserved > bytes) {
+				job.rejection = reason;
+			}
+		}
+		for (Lane lane : lanes.values()) {
+			for (Iterator<Job> it = lane.queue.iterator(); it.hasNext();) {
+				Job job = it.next();
+				if (job.reserved > bytes) {
+					it.remove();
+					jobs.remove(job.fingerprint);
+					drop(job);
+					rejected++;
+					job.finish(null, reason, true);
+				}
+			}
+		}
+		notifyAll();
+	}
+
+	/**
+	 * Sets the number of requests that each backend queues at most. The
+	 * default is 1024.
+	 * 
+	 * @param capacity
+	 *            the capacity of the queues
+	 */
+	public synchronized void setQueueCapacity(int capacity) {
+		this.queueCapacity = capacity;
+	}
+
+	/**
+	 * Returns the number of requests that wait for admission or are queued.
+	 * 
+	 * @return the number of queued requests
+	 */
+	public synchronized int getQueued() {
+		int queued = waiting.size();
+		for (Lane lane : lanes.values()) {
+			queued += lane.queue.size();
+		}
+		return queued;
+	}
+
+	/**
+	 * Returns the memory reserved by the admitted requests, i.e., their
+	 * models and the estimated memory of their solves.
+	 * 
+	 * @return the memory in bytes
+	 */
+	public synchronized long getMemoryUsed() {
+		return memoryUsed;
+	}
+
+	/**
+	 * Returns the number of requests that were collapsed with a queued or
+	 * running request.
+	 * 
+	 * @return the number of collapsed requests
+	 */
+	public synchronized long getCollapsed() {
+		return collapsed;
+	}
+
+	/**
+	 * Returns the number of rejected requests.
+	 * 
+	 * @return the number of rejected requests
+	 */
+	public synchronized long getRejected() {
+		return rejected;
+	}
+
+	/**
+	 * Starts to accept connections.
+	 */
+	public synchronized void start() {
+		start(new Runnable() {
+			public void run() {
+				accept();
+			}
+		}, "javailp-solve-server");
+	}
+
+	/**
+	 * Estimates the memory of a solve, i.e., of the problem that is read from
+	 * the model and of the model of the backend. The default assumes 1 KB
+	 * per row and column and 128 bytes per non-zero, the order of magnitude
+	 * of the {@code Problem} and the native models. Backends with other
+	 * demands can override this method.
+	 * 
+	 * @param rows
+	 *            the number of rows
+	 * @param columns
+	 *            the number of columns
+	 * @param nonZeros
+	 *            the number of non-zeros
+	 * @return the estimated memory in bytes
+	 */
+	protected long estimate(int rows, int columns, long nonZeros) {
+		return 64 * 1024 + 1024L * rows + 1024L * columns + 128L * nonZeros;
+	}
+
+	/**
+	 * Admits a request, i.e., reserves its memory against the budget. The
+	 * request waits while the admitted requests leave too little of the
+	 * budget and while requests of the same backend with a higher priority
+	 * wait before it. Waiting requests of other backends do not block it.
+	 * 
+	 * @param backend
+	 *            the backend
+	 * @param priority
+	 *            the priority (higher priorities are solved first)
+	 * @param need
+	 *            the size of the model plus the estimated memory of the solve
+	 * @return the job
+	 * @throws RejectedExecutionException
+	 *             if the request exceeds the memory budget, the queue is full,
+	 *             or the server is closed
+	 * @throws IllegalArgumentException
+	 *             if the backend is unknown
+	 * @throws InterruptedException
+	 *             if the thread is interrupted
+	 */
+	protected synchronized Job admit(String backend, int priority, long need) throws InterruptedException {
+		Lane lane = lanes.get(backend);
+		if (lane == null) {
+			throw new IllegalArgumentException("The backend " + backend + " is not registered.");
+		}
+		if (closed) {
+			rejected++;
+			throw new RejectedExecutionException("The server is closed.");
+		} else if (need > memoryBudget) {
+			rejected++;
+			throw new RejectedExecutionException("The estimated memory of " + need + " bytes exceeds the budget of "
+					+ memoryBudget + " bytes.");
+		} else if (lane.pending >= queueCapacity) {
+			rejected++;
+			throw new RejectedExecutionException("The queue of the backend " + backend + " is full.");
+		}
+
+		Job job = new Job(lane, priority, sequence++, need);
+		lane.pending++;
+		waiting.add(job);
+		boolean admitted = false;
+		try {
+			while (job.rejection == null && (!isFirst(job) || memoryUsed + need > memoryBudget)) {
+				wait();
+			}
+			if (job.rejection == null) {
+				memoryUsed += need;
+				admitted = true;
+			}
+		} finally {
+			waiting.remove(job);
+			if (!admitted) {
+				lane.pending--;
+			}
+			notifyAll();
+		}
+		if (!admitted) {
+			rejected++;
+			throw new RejectedExecutionException(job.rejection);
+		}
+		return job;
+	}
+
+	/**
+	 * Returns {@code true} if no waiting request of the same backend precedes
+	 * the given job.
+	 * 
+	 * @param job
+	 *            the waiting job
+	 * @return {@code true} if the job is the first of its backend
+	 */
+	protected boolean isFirst(Job job) {
+		for (Job other : waiting) {
+			if (other.lane == job.lane && Job.ORDER.compare(other, job) < 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Submits the model of an admitted request. A request with the same
+	 * fingerprint as a queued or running request releases its reservation and
+	 * returns the job of that request.
+	 * 
+	 * @param job
+	 *            the admitted job
+	 * @param parameters
+	 *            the parameters of the solver
+	 * @param model
+	 *            the model
+	 * @return the job
+	 * @throws RejectedExecutionException
+	 *             if the server is closed
+	 */
+	protected Job submit(Job job, Map<Object, Object> parameters, byte[] model) {
+		String fingerprint = fingerprint(job.lane.backend, parameters, model);
+
+		synchronized (this) {
+			Job running = jobs.get(fingerprint);
+			if (running != null) {
+				drop(job);
+				collapsed++;
+				return running;
+			}
+			if (closed) {
+				drop(job);
+				rejected++;
+				throw new RejectedExecutionException("The server is closed.");
+			}
+			job.fingerprint = fingerprint;
+			job.parameters = parameters;
+			job.model = ByteBuffer.wrap(model);
+			job.lane.queue.add(job);
+			jobs.put(fingerprint, job);
+			notifyAll();
+			return job;
+		}
+	}
+
+	/**
+	 * Abandons an admitted job whose model could not be read.
+	 * 
+	 * @param job
+	 *            the job
+	 */
+	protected synchronized void abandon(Job job) {
+		drop(job);
+	}
+
+	/**
+	 * Releases the reservation of an admitted job that is not running.
+	 * 
+	 * @param job
+	 *            the job
+	 */
+	protected void drop(Job job) {
+		memoryUsed -= job.reserved;
+		job.lane.pending--;
+		notifyAll();
+	}
+
+	/**
+	 * Waits for a job.
+	 * 
+	 * @param job
+	 *            the job
+	 * @throws InterruptedException
+	 *             if the thread is interrupted
+	 */
+	protected synchronized void await(Job job) throws InterruptedException {
+		while (!job.done) {
+			wait();
+		}
+	}
+
+	/**
+	 * Solves the requests of a backend until the server is closed.
+	 * 
+	 * @param lane
+	 *            the backend
+	 */
+	protected void run(Lane lane) {
+		for (;;) {
+			Job job;
+			synchronized (this) {
+				for (;;) {
+					if (closed) {
+						return;
+					}
+					job = lane.queue.poll();
+					if (job != null) {
+						lane.pending--;
+						break;
+					}
+					try {
+						wait();
+					} catch (InterruptedException e) {
+						return;
+					}
+				}
+			}
+
+			byte[] result = null;
+			String error = null;
+			try {
+				result = solve(lane.factory, job);
+			} catch (Throwable e) {
+				error = String.valueOf(e);
+			} finally {
+				synchronized (this) {
+					memoryUsed -= job.reserved;
+					jobs.remove(job.fingerprint);
+					job.finish(result, error, false);
+					notifyAll();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Solves the model of a job.
+	 * 
+	 * @param factory
+	 *            the factory of the solver
+	 * @param job
+	 *            the job
+	 * @return the result in the layout of {@link ResultFile}
+	 */
+	protected byte[] solve(SolverFactory factory, Job job) {
+		Problem problem = ModelFile.read(job.model);
+		job.model = null;
+
+		Solver solver = factory.get();
+		try {
+			for (Entry<Object, Object> entry : job.parameters.entrySet()) {
+				solver.setParameter(entry.getKey(), entry.getValue());
+			}
+			Result result = solver.solve(problem);
+			ByteBuffer buffer = ByteBuffer.allocate((int) ResultFile.size(problem.getConstraintsCount(), problem
+					.getVariablesCount()));
+			ResultFile.write(problem, ResultFile.of(solver, result), buffer);
+			if (result instanceof ResultImpl) {
+				((ResultImpl) result).close();
+			}
+			return buffer.array();
+		} finally {
+			solver.close();
+		}
+	}
+
+	protected void accept() {
+		for (;;) {
+			final Socket socket;
+			try {
+				socket = server.accept();
+			} catch (IOException e) {
+				// closed
+				return;
+			}
+			synchronized (this) {
+				if (closed) {
+					close(socket);
+					return;
+				}
+				connections.add(socket);
+			}
+			start(new Runnable() {
+				public void run() {
+					try {
+						serve(socket);
+					} catch (IOException e) {
+						// the connection is lost
+					} finally {
+						synchronized (SolveServer.this) {
+							connections.remove(socket);
+						}
+						close(socket);
+					}
+				}
+			}, "javailp-solve-connection");
+		}
+	}
+
+	/**
+	 * Answers the requests of a connection until it is closed.
+	 * 
+	 * @param socket
+	 *            the connection
+	 * @throws IOException
+	 *             if the connection fails
+	 */
+	protected void serve(Socket socket) throws IOException {
+		socket.setTcpNoDelay(true);
+		DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+		for (;;) {
+			int request;
+			try {
+				request = in.readInt();
+			} catch (EOFException e) {
+				return;
+			}
+			if (request != REQUEST) {
+				throw new IOException("Invalid request.");
+			}
+			String backend = in.readUTF();
+			int priority = in.readInt();
+			Map<Object, Object> parameters = readParameters(in);
+			int length = in.readInt();
+			if (length < 0) {
+				throw new IOException("Invalid length.");
+			} else if (length < ModelFile.HEADER) {
+				skip(in, length);
+				out.writeInt(FAILED);
+				out.writeUTF("The model is truncated.");
+				out.flush();
+				continue;
+			}
+
+			// only the header is read before the admission
+			byte[] header = new byte[ModelFile.HEADER];
+			in.readFully(header);
+			Job job;
+			try {
+				ModelFile file = ModelFile.header(ByteBuffer.wrap(header));
+				if (length < file.getSize()) {
+					throw new IllegalArgumentException("The model is truncated.");
+				}
+				job = admit(backend, priority, length + estimate(file.getRows(), file.getColumns(), file.getNonZeros()));
+			} catch (RejectedExecutionException e) {
+				skip(in, length - header.length);
+				out.writeInt(REJECTED);
+				out.writeUTF(e.getMessage());
+				out.flush();
+				continue;
+			} catch (IllegalArgumentException e) {
+				skip(in, length - header.length);
+				out.writeInt(FAILED);
+				out.writeUTF(String.valueOf(e.getMessage()));
+				out.flush();
+				continue;
+			} catch (InterruptedException e) {
+				return;
+			}
+
+			byte[] model = null;
+			boolean read = false;
+			try {
+				model = new byte[length];
+				System.arraycopy(header, 0, model, 0, header.length);
+				in.readFully(model, header.length, length - header.length);
+				read = true;
+			} finally {
+				if (!read) {
+					abandon(job);
+				}
+			}
+
+			try {
+				job = submit(job, parameters, model);
+				model = null;
+				await(job);
+				if (job.error == null) {
+					out.writeInt(OK);
+					out.writeInt(job.result.length);
+					out.write(job.result);
+				} else {
+					out.writeInt(job.rejected ? REJECTED : FAILED);
+					out.writeUTF(job.error);
+				}
+			} catch (RejectedExecutionException e) {
+				out.writeInt(REJECTED);
+				out.writeUTF(e.getMessage());
+			} catch (InterruptedException e) {
+				return;
+			}
+			out.flush();
+		}
+	}
+
+	protected static void skip(DataInputStream in, int n) throws IOException {
+		while (n > 0) {
+			int skipped = in.skipBytes(n);
+			if (skipped <= 0) {
+				if (in.read() < 0) {
+					throw new EOFException();
+				}
+				skipped = 1;
+			}
+			n -= skipped;
+		}
+	}
+
+	/**
+	 * Stops the server. Queued requests fail, running solves are finished.
+	 */
+	public void close() {
+		List<Socket> open;
+		synchronized (this) {
+			if (closed) {
+				return;
+			}
+			closed = true;
+			for (Job job : waiting) {
+				job.rejection = "The server is closed.";
+			}
+			for (Lane lane : lanes.values()) {
+				for (Job job : lane.queue) {
+					jobs.remove(job.fingerprint);
+					memoryUsed -= job.reserved;
+					job.finish(null, "The server is closed.", false);
+				}
+				lane.pending -= lane.queue.size();
+				lane.queue.clear();
+			}
+			open = new ArrayList<Socket>(connections);
+			notifyAll();
+		}
+		try {
+			server.close();
+		} catch (IOException e) {
+			// already closed
+		}
+		for (Socket socket : open) {
+			close(socket);
+		}
+	}
+
+	protected void start(final Lane lane, String name) {
+		start(new Runnable() {
+			public void run() {
+				SolveServer.this.run(lane);
+			}
+		}, name);
+	}
+
+	protected void start(Runnable runnable, String name) {
+		Thread thread = new Thread(runnable, name);
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	protected static void close(Socket socket) {
+		try {
+			socket.close();
+		} catch (IOException e) {
+			// already closed
+		}
+	}
+
+	/**
+	 * Returns the fingerprint of a request, i.e., the SHA-256 digest of the
+	 * backend, the parameters, and the model.
+	 * 
+	 * @param backend
+	 *            the backend
+	 * @param parameters
+	 *            the parameters
+	 * @param model
+	 *            the model
+	 * @return the fingerprint
+	 */
+	protected static String fingerprint(String backend, Map<Object, Object> parameters, byte[] model) {
+		Map<String, String> sorted = new TreeMap<String, String>();
+		for (Entry<Object, Object> entry : parameters.entrySet()) {
+			Object value = entry.getValue();
+			sorted.put(entry.getKey().getClass().getSimpleName() + ":" + entry.getKey(), value.getClass()
+					.getSimpleName()
+					+ ":" + value);
+		}
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			digest.update((backend + "\u0000" + sorted + "\u0000").getBytes("UTF-8"));
+			digest.update(model);
+			StringBuilder s = new StringBuilder();
+			for (byte b : digest.digest()) {
+				s.append(Integer.toHexString((b & 0xFF) | 0x100).substring(1));
+			}
+			return s.toString();
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Writes the parameters with a {@code String}, {@code Integer},
+	 * {@code Long}, {@code Double}, or {@code Boolean} key and value; other
+	 * parameters are skipped.
+	 * 
+	 * @param out
+	 *            the output
+	 * @param parameters
+	 *            the parameters
+	 * @throws IOException
+	 *             if the output fails
+	 */
+	protected static void writeParameters(DataOutputStream out, Map<Object, Object> parameters) throws IOException {
+		Map<Object, Object> supported = new HashMap<Object, Object>();
+		for (Entry<Object, Object> entry : parameters.entrySet()) {
+			if (tag(entry.getKey()) != 0 && tag(entry.getValue()) != 0) {
+				supported.put(entry.getKey(), entry.getValue());
+			}
+		}
+		out.writeInt(supported.size());
+		for (Entry<Object, Object> entry : supported.entrySet()) {
+			writeValue(out, entry.getKey());
+			writeValue(out, entry.getValue());
+		}
+	}
+
+	protected static Map<Object, Object> readParameters(DataInputStream in) throws IOException {
+		int size = in.readInt();
+		Map<Object, Object> parameters = new HashMap<Object, Object>();
+		for (int i = 0; i < size; i++) {
+			Object key = readValue(in);
+			parameters.put(key, readValue(in));
+		}
+		return parameters;
+	}
+
+	protected static char tag(Object value) {
+		if (value instanceof String) {
+			return 'S';
+		} else if (value instanceof Integer) {
+			return 'I';
+		} else if (value instanceof Long) {
+			return 'L';
+		} else if (value instanceof Double) {
+			return 'D';
+		} else if (value instanceof Boolean) {
+			return 'B';
+		}
+		return 0;
+	}
+
+	protected static void writeValue(DataOutputStream out, Object value) throws IOException {
+		char tag = tag(value);
+		out.writeByte(tag);
+		switch (tag) {
+		case 'S':
+			out.writeUTF((String) value);
+			break;
+		case 'I':
+			out.writeInt((Integer) value);
+			break;
+		case 'L':
+			out.writeLong((Long) value);
+			break;
+		case 'D':
+			out.writeDouble((Double) value);
+			break;
+		default:
+			out.writeBoolean((Boolean) value);
+		}
+	}
+
+	protected static Object readValue(DataInputStream in) throws IOException {
+		char tag = (char) in.readByte();
+		switch (tag) {
+		case 'S':
+			return in.readUTF();
+		case 'I':
+			return in.readInt();
+		case 'L':
+			return in.readLong();
+		case 'D':
+			return in.readDouble();
+		case 'B':
+			return in.readBoolean();
+		default:
+			throw new IOException("Invalid parameter type " + tag + ".");
+		}
+	}
+
+	/**
+	 * The {@code Lane} is the queue of a backend.
+	 * 
+	 * @author lukasiewycz
+	 * 
+	 */
+	protected static class Lane {
+
+		protected final String backend;
+		protected final SolverFactory factory;
+		protected final PriorityQueue<Job> queue = new PriorityQueue<Job>(16, Job.ORDER);
+		protected int pending = 0;
+
+		public Lane(String backend, SolverFactory factory) {
+			this.backend = backend;
+			this.factory = factory;
+		}
+	}
+
+	/**
+	 * The {@code Job} is a queued or running request. It is shared by all
+	 * collapsed requests.
+	 * 
+	 * @author lukasiewycz
+	 * 
+	 */
+	protected static class Job {
+
+		protected static final Comparator<Job> ORDER = new Comparator<Job>() {
+			public int compare(Job a, Job b) {
+				if (a.priority != b.priority) {
+					return a.priority > b.priority ? -1 : 1;
+				}
+				return a.sequence < b.sequence ? -1 : (a.sequence > b.sequence ? 1 : 0);
+			}
+		};
+
+		protected final Lane lane;
+		protected final int priority;
+		protected final long sequence;
+		protected final long reserved;
+		protected String fingerprint = null;
+		protected Map<Object, Object> parameters = null;
+		protected ByteBuffer model = null;
+		protected String rejection = null;
+
+		protected boolean done = false;
+		protected boolean rejected = false;
+		protected byte[] result = null;
+		protected String error = null;
+
+		public Job(Lane lane, int priority, long sequence, long reserved) {
+			this.lane = lane;
+			this.priority = priority;
+			this.sequence = sequence;
+			this.reserved = reserved;
+		}
+
+		protected void finish(byte[] result, String error, boolean rejected) {
+			this.result = result;
+			this.error = error;
+			this.rejected = rejected;
+			this.done = true;
+		}
+	}
+
+}
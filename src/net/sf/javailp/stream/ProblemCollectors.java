@@ -0,0 +1,87 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp.stream;
+
+import java.util.stream.Collector;
+
+import net.sf.javailp.Constraint;
+import net.sf.javailp.ConstraintSink;
+import net.sf.javailp.Linear;
+import net.sf.javailp.Operator;
+import net.sf.javailp.Problem;
+
+/**
+ * The class {@code ProblemCollectors} provides {@link Collector}s that add
+ * the constraints of a (parallel) stream to a {@link Problem}, e.g.,
+ * 
+ * <pre>
+ * Problem problem = IntStream.range(0, n).parallel().mapToObj(i -&gt; row(i)).collect(ProblemCollectors.toProblem());
+ * </pre>
+ * 
+ * The collectors accumulate into {@link ConstraintSink}s, i.e., the
+ * partial results are combined by linking chunks without copying, and the
+ * constraints and the ids of the variables follow the encounter order of
+ * the stream such that the problem is reproducible.
+ * 
+ * @author lukasiewycz
+ * 
+ */
+public class ProblemCollectors {
+
+	private ProblemCollectors() {
+		// static methods only
+	}
+
+	/**
+	 * Returns a {@code Collector} that adds the constraints to a new problem.
+	 * 
+	 * @return the collector
+	 */
+	public static Collector<Constraint, ConstraintSink, Problem> toProblem() {
+		return Collector.of(ConstraintSink::new, ConstraintSink::add, ConstraintSink::combine,
+				ConstraintSink::toProblem);
+	}
+
+	/**
+	 * Returns a {@code Collector} that adds the constraints to the given
+	 * problem, e.g., a problem with families of variables and an objective.
+	 * The problem must not be changed while the stream is collected.
+	 * 
+	 * @param problem
+	 *            the problem
+	 * @return the collector
+	 */
+	public static Collector<Constraint, ConstraintSink, Problem> into(Problem problem) {
+		return Collector.of(() -> new ConstraintSink(problem), ConstraintSink::add, ConstraintSink::combine,
+				ConstraintSink::toProblem);
+	}
+
+	/**
+	 * Returns a {@code Collector} that adds each linear expression as
+	 * constraint with the given operator and right-hand side to a new
+	 * problem.
+	 * 
+	 * @param operator
+	 *            the operator
+	 * @param rhs
+	 *            the right-hand-side number
+	 * @return the collector
+	 */
+	public static Collector<Linear, ConstraintSink, Problem> toProblem(Operator operator, Number rhs) {
+		return Collector.of(ConstraintSink::new, (sink, linear) -> sink.add(new Constraint(linear, operator, rhs)),
+				ConstraintSink::combine, ConstraintSink::toProblem);
+	}
+
+}
@@ -0,0 +1,60 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp.stream;
+
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import net.sf.javailp.Result;
+import net.sf.javailp.SolutionIterator;
+
+/**
+ * The class {@code SolutionStreams} provides {@link Stream}s over the
+ * solutions of a {@link SolutionIterator}, e.g., the ten best solutions
+ * 
+ * <pre>
+ * List&lt;Result&gt; best = SolutionStreams.of(solver.enumerate(problem)).limit(10).collect(Collectors.toList());
+ * </pre>
+ * 
+ * The stream is sequential and lazy, i.e., each solution is computed on the
+ * live solver of the iterator when the stream requests it, and a
+ * short-circuiting operation such as {@code limit} or {@code findFirst}
+ * stops the enumeration.
+ * 
+ * @author lukasiewycz
+ * 
+ */
+public class SolutionStreams {
+
+	private SolutionStreams() {
+		// static methods only
+	}
+
+	/**
+	 * Returns a sequential {@code Stream} over the remaining solutions of the
+	 * iterator. The iterator must not be used while the stream is consumed.
+	 * 
+	 * @param iterator
+	 *            the iterator
+	 * @return the stream of the solutions
+	 */
+	public static Stream<Result> of(SolutionIterator iterator) {
+		return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED
+				| Spliterator.NONNULL), false);
+	}
+
+}
@@ -0,0 +1,258 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp.test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import junit.framework.Assert;
+import net.sf.javailp.ArrayResult;
+import net.sf.javailp.Linear;
+import net.sf.javailp.OptType;
+import net.sf.javailp.Problem;
+import net.sf.javailp.ResultImpl;
+import net.sf.javailp.SolveStatistics;
+import net.sf.javailp.SolveStatistics.Phase;
+import net.sf.javailp.Solver;
+import net.sf.javailp.SolverFactory;
+
+import org.junit.Test;
+
+/**
+ * Checks the bytes allocated per non-zero (or per variable) on the hot paths
+ * against budgets. The budget of a path is read from the system property
+ * {@code javailp.allocation.budget.<path>}, then from
+ * {@code javailp.allocation.budget}, and otherwise taken from the default of
+ * the path. Each measurement is the minimum of several repetitions after a
+ * warmup. The transfer of a backend is only checked if the backend is
+ * available.
+ */
+public class AllocationTest {
+
+	static final int ROWS = 2000;
+	static final int WIDTH = 10;
+	static final int VARIABLES = 200;
+	static final int WARMUP = 20;
+	static final int REPETITIONS = 5;
+
+	static final String[] BACKENDS = { "SAT4J", "MiniSat", "LpSolve", "GLPK", "CPLEX", "Gurobi", "Mosek" };
+
+	@Test
+	public void testProblemAdd() {
+		final Object[] names = names();
+		final List<Linear> rows = rows(names);
+		// named constraints, an unnamed constraint is named by its toString()
+		final String[] constraints = new String[rows.size()];
+		for (int i = 0; i < constraints.length; i++) {
+			constraints[i] = "c" + i;
+		}
+		long bytes = measure(new Runnable() {
+			public void run() {
+				Problem problem = new Problem();
+				for (Object name : names) {
+					problem.setVarType(name, Boolean.class);
+				}
+				long start = allocated();
+				for (int i = 0; i < constraints.length; i++) {
+					problem.add(constraints[i], rows.get(i), "<=", WIDTH);
+				}
+				AllocationTest.bytes = allocated() - start;
+			}
+		});
+		check("add", bytes, ROWS * WIDTH, 32);
+	}
+
+	@Test
+	public void testEvaluate() {
+		Object[] names = names();
+		final List<Linear> rows = rows(names);
+		final Map<Object, Number> values = new HashMap<Object, Number>();
+		for (Object name : names) {
+			values.put(name, 1);
+		}
+		long bytes = measure(new Runnable() {
+			public void run() {
+				long start = allocated();
+				long sum = 0;
+				for (Linear linear : rows) {
+					sum += linear.evaluate(values).longValue();
+				}
+				AllocationTest.bytes = allocated() - start;
+				Assert.assertTrue(sum > 0);
+			}
+		});
+		check("evaluate", bytes, ROWS * WIDTH, 4);
+	}
+
+	@Test
+	public void testResult() {
+		final Object[] names = names();
+		final Problem problem = new Problem();
+		Linear linear = new Linear();
+		for (Object name : names) {
+			linear.add(1, name);
+		}
+		problem.add(linear, "<=", 1);
+		final Integer one = 1;
+
+		long bytes = measure(new Runnable() {
+			public void run() {
+				long start = allocated();
+				ResultImpl result = new ResultImpl();
+				for (Object name : names) {
+					result.putPrimalValue(name, one);
+				}
+				AllocationTest.bytes = allocated() - start;
+			}
+		});
+		// a map entry per variable
+		check("result", bytes, VARIABLES, 96);
+
+		bytes = measure(new Runnable() {
+			public void run() {
+				ArrayResult result = new ArrayResult(problem);
+				long start = allocated();
+				for (int i = 0; i < VARIABLES; i++) {
+					result.setPrimalValue(i, 1);
+				}
+				AllocationTest.bytes = allocated() - start;
+			}
+		});
+		check("arrayResult", bytes, VARIABLES, 16);
+	}
+
+	@Test
+	public void testTransfer() throws Exception {
+		Object[] names = names();
+		Problem problem = new Problem();
+		Linear objective = new Linear();
+		for (Object name : names) {
+			problem.setVarType(name, Boolean.class);
+			objective.add(1, name);
+		}
+		problem.setObjective(objective, OptType.MIN);
+		for (Linear linear : rows(names)) {
+			// trivially satisfied, only the transfer matters
+			problem.add(linear, "<=", 10 * WIDTH);
+		}
+
+		for (String backend : BACKENDS) {
+			long transfer = Long.MAX_VALUE;
+			long extraction = Long.MAX_VALUE;
+			try {
+				SolverFactory factory = factory(backend);
+				factory.setParameter(Solver.VERBOSE, 0);
+				factory.setParameter(Solver.TIMEOUT, 10);
+				for (int i = 0; i < REPETITIONS; i++) {
+					Solver solver = factory.get();
+					try {
+						solver.solve(problem);
+						SolveStatistics statistics = solver.getOutcome().getStatistics();
+						transfer = Math.min(transfer, statistics.getAllocatedBytes(Phase.TRANSFER));
+						extraction = Math.min(extraction, statistics.getAllocatedBytes(Phase.EXTRACTION));
+					} finally {
+						solver.close();
+					}
+				}
+			} catch (LinkageError e) {
+				System.out.println("Skipped " + backend + " (not available)");
+				continue;
+			}
+			if (transfer < 0) {
+				return;
+			}
+			// SAT4J copies each constraint into its own BigInteger based data structures
+			check("transfer." + backend, transfer, ROWS * WIDTH, backend.equals("SAT4J") ? 1024 : 64);
+			check("extraction." + backend, extraction, VARIABLES, 64);
+		}
+	}
+
+	static long bytes;
+
+	/**
+	 * Constructs the factory of the backend. A {@code LinkageError} of an
+	 * unavailable backend is thrown as is.
+	 */
+	static SolverFactory factory(String backend) throws Exception {
+		try {
+			return (SolverFactory) Class.forName("net.sf.javailp.SolverFactory" + backend).getDeclaredConstructor()
+					.newInstance();
+		} catch (InvocationTargetException e) {
+			if (e.getCause() instanceof Error) {
+				throw (Error) e.getCause();
+			}
+			throw e;
+		}
+	}
+
+	static long allocated() {
+		return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+				.getThreadAllocatedBytes(Thread.currentThread().getId());
+	}
+
+	/**
+	 * Runs the measurement with warmup and returns the minimal allocation.
+	 */
+	static long measure(Runnable measurement) {
+		for (int i = 0; i < WARMUP; i++) {
+			measurement.run();
+		}
+		long min = Long.MAX_VALUE;
+		for (int i = 0; i < REPETITIONS; i++) {
+			measurement.run();
+			min = Math.min(min, bytes);
+		}
+		return min;
+	}
+
+	static void check(String path, long bytes, long count, double budget) {
+		String value = System.getProperty("javailp.allocation.budget." + path,
+				System.getProperty("javailp.allocation.budget"));
+		if (value != null) {
+			budget = Double.parseDouble(value);
+		}
+		double perUnit = (double) bytes / count;
+		System.out.println(path + ": " + perUnit + " bytes (budget " + budget + ")");
+		Assert.assertTrue(path + " allocates " + perUnit + " bytes per unit (budget " + budget + ")",
+				perUnit <= budget);
+	}
+
+	static Object[] names() {
+		Object[] names = new Object[VARIABLES];
+		for (int i = 0; i < VARIABLES; i++) {
+			names[i] = "x" + i;
+		}
+		return names;
+	}
+
+	static List<Linear> rows(Object[] names) {
+		Random random = new Random(1);
+		List<Linear> rows = new ArrayList<Linear>();
+		for (int i = 0; i < ROWS; i++) {
+			Linear linear = new Linear();
+			for (int k = 0; k < WIDTH; k++) {
+				linear.add(1 + random.nextInt(5), names[random.nextInt(VARIABLES)]);
+			}
+			rows.add(linear);
+		}
+		return rows;
+	}
+
+}
@@ -0,0 +1,165 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp.test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import junit.framework.Assert;
+import net.sf.javailp.Linear;
+import net.sf.javailp.NativeHandles;
+import net.sf.javailp.OptType;
+import net.sf.javailp.Problem;
+import net.sf.javailp.Result;
+import net.sf.javailp.Solver;
+import net.sf.javailp.SolverMiniSat;
+
+import org.junit.Test;
+
+public class AssumptionTest {
+
+	@Test
+	public void testAssumptions() {
+		SolverMiniSat solver = new SolverMiniSat();
+		solver.setParameter(Solver.VERBOSE, 0);
+
+		Problem problem = getProblem();
+
+		Result result = solver.solve(problem);
+		Assert.assertEquals(27, result.getObjective().intValue());
+
+		Map<Object, Boolean> assumptions = new HashMap<Object, Boolean>();
+		assumptions.put(9, false);
+		result = solver.solve(problem, assumptions);
+		Assert.assertEquals(24, result.getObjective().intValue());
+
+		// the assumptions must not restrict later calls
+		result = solver.solve(problem);
+		Assert.assertEquals(27, result.getObjective().intValue());
+	}
+
+	@Test
+	public void testFailedAssumptions() {
+		SolverMiniSat solver = new SolverMiniSat();
+		solver.setParameter(Solver.VERBOSE, 0);
+
+		Problem problem = getProblem();
+		Linear linear = new Linear();
+		linear.add(1, 8);
+		linear.add(1, 9);
+		problem.add(linear, "<=", 1);
+
+		Map<Object, Boolean> assumptions = new HashMap<Object, Boolean>();
+		assumptions.put(1, true);
+		assumptions.put(8, true);
+		assumptions.put(9, true);
+
+		Result result = solver.solve(problem, assumptions);
+		Assert.assertEquals(null, result);
+
+		Map<Object, Boolean> failed = solver.getFailedAssumptions();
+		Assert.assertEquals(2, failed.size());
+		Assert.assertEquals(Boolean.TRUE, failed.get(8));
+		Assert.assertEquals(Boolean.TRUE, failed.get(9));
+	}
+
+	@Test
+	public void testIncremental() {
+		SolverMiniSat solver = new SolverMiniSat();
+		solver.setParameter(Solver.VERBOSE, 0);
+
+		Problem problem = getProblem();
+		Result result = solver.solve(problem);
+		Assert.assertEquals(27, result.getObjective().intValue());
+
+		Linear linear = new Linear();
+		linear.add(1, 8);
+		linear.add(1, 9);
+		problem.add(linear, "<=", 1);
+
+		result = solver.solve(problem);
+		Assert.assertEquals(25, result.getObjective().intValue());
+	}
+
+	@Test
+	public void testChangedProblem() {
+		SolverMiniSat solver = new SolverMiniSat();
+		solver.setParameter(Solver.VERBOSE, 0);
+
+		Problem problem = getProblem();
+		Result result = solver.solve(problem);
+		Assert.assertEquals(27, result.getObjective().intValue());
+
+		// the native solver has to be rebuilt for each change
+		problem.setOptimizationType(OptType.MIN);
+		result = solver.solve(problem);
+		Assert.assertEquals(0, result.getObjective().intValue());
+
+		problem.setOptimizationType(OptType.MAX);
+		Linear objective = problem.getObjective();
+		objective.clear();
+		for (int i = 0; i < 10; i++) {
+			objective.add(i < 9 ? i + 1 : 1, i);
+		}
+		result = solver.solve(problem);
+		Assert.assertEquals(24, result.getObjective().intValue());
+
+		problem.setVarUpperBound(8, 0);
+		result = solver.solve(problem);
+		Assert.assertEquals(21, result.getObjective().intValue());
+	}
+
+	@Test
+	public void testClose() {
+		long outstanding = NativeHandles.getOutstanding("MiniSat");
+
+		SolverMiniSat solver = new SolverMiniSat();
+		solver.setParameter(Solver.VERBOSE, 0);
+		Assert.assertEquals(outstanding + 1, NativeHandles.getOutstanding("MiniSat"));
+
+		Problem problem = getProblem();
+		Result result = solver.solve(problem);
+		Assert.assertEquals(27, result.getObjective().intValue());
+
+		solver.close();
+		solver.close();
+		Assert.assertEquals(outstanding, NativeHandles.getOutstanding("MiniSat"));
+
+		try {
+			solver.solve(problem);
+			Assert.fail();
+		} catch (IllegalStateException e) {
+			// expected
+		}
+	}
+
+	protected Problem getProblem() {
+		Problem problem = new Problem();
+
+		Linear objective = new Linear();
+		Linear linear = new Linear();
+		for (int i = 0; i < 10; i++) {
+			objective.add(i + 1, i);
+			linear.add(1, i);
+			problem.setVarType(i, Boolean.class);
+		}
+
+		problem.setObjective(objective, OptType.MAX);
+		problem.add(linear, "<=", 3);
+
+		return problem;
+	}
+
+}
@@ -0,0 +1,73 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp.test;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import junit.framework.Assert;
+import net.sf.javailp.Constraint;
+import net.sf.javailp.OptType;
+import net.sf.javailp.Problem;
+import net.sf.javailp.VarType;
+import net.sf.javailp.bench.OpbReader;
+import net.sf.javailp.bench.PerformanceProfile;
+
+import org.junit.Test;
+
+public class BenchTest {
+
+	@Test
+	public void testOpbReader() throws IOException {
+		String opb = "* #variable= 3 #constraint= 2\n" + "min: +1 x1 +2 x2 -1 x3 ;\n" + "+1 x1 +1 ~x2 >= 1 ;\n"
+				+ "+2 x1 +3 x3 = 3;\n";
+		Problem problem = new OpbReader().read(new StringReader(opb));
+		Assert.assertEquals(OptType.MIN, problem.getOptType());
+		Assert.assertEquals(3, problem.getVariablesCount());
+		Assert.assertEquals(2, problem.getConstraintsCount());
+		Assert.assertEquals(VarType.BOOL, problem.getVarType("x2"));
+
+		// x1 + (1 - x2) >= 1
+		Constraint constraint = problem.getConstraints().get(0);
+		Assert.assertEquals(-1L, constraint.getLhs().getCoefficients().get(1));
+		Assert.assertEquals(0L, constraint.getRhs());
+		Assert.assertEquals(3L, problem.getConstraints().get(1).getRhs());
+	}
+
+	@Test
+	public void testOpbNonLinear() {
+		try {
+			new OpbReader().read(new StringReader("+1 x1 x2 >= 1 ;\n"));
+			Assert.fail();
+		} catch (IOException e) {
+			// expected
+		}
+	}
+
+	@Test
+	public void testProfile() {
+		PerformanceProfile profile = new PerformanceProfile();
+		profile.add("a", "fast", 1);
+		profile.add("a", "slow", 4);
+		profile.add("b", "fast", 2);
+		profile.add("b", "slow", Double.NaN);
+
+		Assert.assertEquals(1.0, profile.getFraction("fast", 1), 1e-9);
+		Assert.assertEquals(0.0, profile.getFraction("slow", 2), 1e-9);
+		Assert.assertEquals(0.5, profile.getFraction("slow", 4), 1e-9);
+		Assert.assertEquals(0.5, profile.getFraction("slow", 1e9), 1e-9);
+	}
+
+}
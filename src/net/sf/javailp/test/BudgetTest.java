@@ -0,0 +1,257 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp.test;
+
+import junit.framework.Assert;
+import net.sf.javailp.Constraint;
+import net.sf.javailp.Linear;
+import net.sf.javailp.OptType;
+import net.sf.javailp.Problem;
+import net.sf.javailp.Result;
+import net.sf.javailp.SolveStatistics;
+import net.sf.javailp.SolveStatistics.Phase;
+import net.sf.javailp.SolveStatus;
+import net.sf.javailp.Solver;
+import net.sf.javailp.SolverMiniSat;
+import net.sf.javailp.SolverSAT4J;
+import net.sf.javailp.minisat.MiniSat;
+
+import org.junit.Test;
+
+public class BudgetTest {
+
+	@Test
+	public void testConflicts() {
+		SolverMiniSat solver = new SolverMiniSat();
+		solver.setParameter(Solver.VERBOSE, 0);
+		solver.setParameter(SolverMiniSat.CONFLICTS, 1000);
+
+		Result result = solver.solve(getProblem(12));
+		Assert.assertEquals(0, result.getObjective().intValue());
+		Assert.assertTrue(solver.isLimitReached());
+		Assert.assertEquals(SolveStatus.FEASIBLE_AT_LIMIT, solver.getOutcome().getStatus());
+
+		solver.close();
+	}
+
+	@Test
+	public void testTimeout() {
+		SolverMiniSat solver = new SolverMiniSat();
+		solver.setParameter(Solver.VERBOSE, 0);
+		solver.setParameter(Solver.TIMEOUT, 0.5);
+
+		long start = System.currentTimeMillis();
+		Result result = solver.solve(getProblem(14));
+		long time = System.currentTimeMillis() - start;
+
+		Assert.assertEquals(0, result.getObjective().intValue());
+		Assert.assertTrue(solver.isLimitReached());
+		Assert.assertTrue(time < 10000);
+
+		solver.close();
+	}
+
+	@Test
+	public void testQueuedTimeout() throws Exception {
+		final SolverMiniSat blocking = new SolverMiniSat();
+		blocking.setParameter(Solver.VERBOSE, 0);
+		blocking.setParameter(Solver.TIMEOUT, 2);
+		Thread thread = new Thread() {
+			@Override
+			public void run() {
+				blocking.solve(getProblem(14));
+			}
+		};
+		thread.start();
+		Thread.sleep(200);
+
+		// the search waits for the other instance, the wait does not count
+		SolverMiniSat solver = new SolverMiniSat();
+		solver.setParameter(Solver.VERBOSE, 0);
+		solver.setParameter(Solver.TIMEOUT, 1);
+		Result result = solver.solve(getProblem(3));
+		Assert.assertEquals(0, result.getObjective().intValue());
+		Assert.assertEquals(SolveStatus.OPTIMAL, solver.getOutcome().getStatus());
+
+		thread.join();
+		blocking.close();
+		solver.close();
+	}
+
+	@Test
+	public void testFinalizeDuringSearch() throws Throwable {
+		final SolverMiniSat blocking = new SolverMiniSat();
+		blocking.setParameter(Solver.VERBOSE, 0);
+		blocking.setParameter(Solver.TIMEOUT, 2);
+		Thread thread = new Thread() {
+			@Override
+			public void run() {
+				blocking.solve(getProblem(14));
+			}
+		};
+		thread.start();
+		Thread.sleep(200);
+
+		// the finalizer defers the free instead of waiting for the search
+		class Finalizable extends MiniSat {
+			void finalizeNow() throws Throwable {
+				finalize();
+			}
+		}
+		Finalizable minisat = new Finalizable();
+		long start = System.currentTimeMillis();
+		minisat.finalizeNow();
+		Assert.assertTrue(System.currentTimeMillis() - start < 1000);
+		Assert.assertTrue(minisat.isClosed());
+
+		thread.join();
+		blocking.close();
+	}
+
+	@Test
+	public void testConcurrentClose() throws Exception {
+		final SolverMiniSat solver = new SolverMiniSat();
+		solver.setParameter(Solver.VERBOSE, 0);
+		Thread thread = new Thread() {
+			@Override
+			public void run() {
+				try {
+					solver.solve(getProblem(14));
+				} catch (RuntimeException e) {
+					// the solver is closed
+				}
+			}
+		};
+		thread.start();
+		Thread.sleep(500);
+
+		long start = System.currentTimeMillis();
+		solver.close();
+		thread.join(10000);
+		Assert.assertFalse(thread.isAlive());
+		Assert.assertTrue(System.currentTimeMillis() - start < 10000);
+	}
+
+	@Test
+	public void testOptimal() {
+		SolverMiniSat solver = new SolverMiniSat();
+		solver.setParameter(Solver.VERBOSE, 0);
+		solver.setParameter(SolverMiniSat.CONFLICTS, 100000);
+		solver.setParameter(Solver.TIMEOUT, 60);
+
+		Result result = solver.solve(getProblem(3));
+		Assert.assertEquals(0, result.getObjective().intValue());
+		Assert.assertFalse(solver.isLimitReached());
+		Assert.assertEquals(SolveStatus.OPTIMAL, solver.getOutcome().getStatus());
+		Assert.assertEquals(SolveStatus.OPTIMAL, result.getStatus());
+		Assert.assertEquals(0.0, solver.getOutcome().getGap());
+
+		solver.close();
+	}
+
+	@Test
+	public void testGap() {
+		SolverSAT4J solver = new SolverSAT4J();
+		solver.setParameter(Solver.VERBOSE, 0);
+		solver.setParameter(Solver.ABS_GAP, 10);
+
+		Problem problem = new Problem();
+		Linear objective = new Linear();
+		Linear linear = new Linear();
+		for (int i = 0; i < 20; i++) {
+			objective.add(i + 1, i);
+			linear.add(1, i);
+			problem.setVarType(i, Boolean.class);
+		}
+		problem.setObjective(objective, OptType.MAX);
+		problem.add(linear, "<=", 5);
+
+		Result result = solver.solve(problem);
+		int value = result.getObjective().intValue();
+		Assert.assertTrue(value >= 90 - 10);
+
+		if (value < 90) {
+			Assert.assertEquals(SolveStatus.FEASIBLE_AT_LIMIT, solver.getOutcome().getStatus());
+			Assert.assertTrue(solver.getOutcome().getBound().intValue() >= 90);
+			Assert.assertTrue(solver.getOutcome().getBound().intValue() - value <= 10);
+		}
+
+		solver.setParameter(Solver.ABS_GAP, 0);
+		Assert.assertEquals(90, solver.solve(problem).getObjective().intValue());
+		Assert.assertEquals(SolveStatus.OPTIMAL, solver.getOutcome().getStatus());
+	}
+
+	@Test
+	public void testStatistics() {
+		Problem problem = getProblem(4);
+		long nnz = 0;
+		for (Constraint constraint : problem.getConstraints()) {
+			nnz += constraint.size();
+		}
+
+		Solver[] solvers = { new SolverSAT4J(), new SolverMiniSat() };
+		for (Solver solver : solvers) {
+			solver.setParameter(Solver.VERBOSE, 0);
+			Result result = solver.solve(problem);
+
+			SolveStatistics statistics = result.getStatistics();
+			Assert.assertNotNull(statistics);
+			Assert.assertSame(statistics, solver.getOutcome().getStatistics());
+			Assert.assertEquals(problem.getConstraintsCount(), statistics.getRows());
+			Assert.assertEquals(problem.getVariablesCount(), statistics.getColumns());
+			Assert.assertEquals(nnz, statistics.getNonZeros());
+			Assert.assertTrue(statistics.getNanos(Phase.SOLVE) > 0);
+			Assert.assertTrue(statistics.getConflicts() > 0);
+			Assert.assertTrue(statistics.getTotalNanos() >= statistics.getNanos(Phase.SOLVE));
+		}
+		((SolverMiniSat) solvers[1]).close();
+	}
+
+	/**
+	 * Returns a problem whose objective {@code y} can only be {@code 1} if
+	 * {@code n+1} pigeons fit into {@code n} holes. The solution {@code y=0}
+	 * is found immediately while proving its optimality is hard.
+	 */
+	protected Problem getProblem(int n) {
+		Problem problem = new Problem();
+
+		Linear objective = new Linear();
+		objective.add(1, "y");
+		problem.setVarType("y", Boolean.class);
+		problem.setObjective(objective, OptType.MAX);
+
+		for (int i = 0; i <= n; i++) {
+			Linear linear = new Linear();
+			for (int j = 0; j < n; j++) {
+				String p = "p" + i + "_" + j;
+				problem.setVarType(p, Boolean.class);
+				linear.add(1, p);
+			}
+			linear.add(-1, "y");
+			problem.add(linear, ">=", 0);
+		}
+
+		for (int j = 0; j < n; j++) {
+			Linear linear = new Linear();
+			for (int i = 0; i <= n; i++) {
+				linear.add(1, "p" + i + "_" + j);
+			}
+			problem.add(linear, "<=", 1);
+		}
+
+		return problem;
+	}
+
+}
@@ -0,0 +1,159 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp.test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import junit.framework.Assert;
+import net.sf.javailp.Linear;
+import net.sf.javailp.OptType;
+import net.sf.javailp.Problem;
+import net.sf.javailp.Result;
+import net.sf.javailp.Solver;
+import net.sf.javailp.SolverFactory;
+import net.sf.javailp.SolverSAT4J;
+import net.sf.javailp.VarType;
+
+import org.junit.Test;
+
+/**
+ * Runs many solves on separate solver instances concurrently and compares
+ * the objective values with the enumerated optima.
+ */
+public class ConcurrencyTest {
+
+	static final String[] BACKENDS = { "LpSolve", "SAT4J", "MiniSat" };
+	static final int SOLVES = 300;
+	static final int THREADS = 8;
+	static final int VARIABLES = 12;
+
+	@Test
+	public void testConcurrentSolves() throws Exception {
+		final Problem[] problems = new Problem[16];
+		final int[] optima = new int[problems.length];
+		for (int i = 0; i < problems.length; i++) {
+			problems[i] = problem(new Random(i));
+			optima[i] = enumerate(problems[i]);
+		}
+
+		for (String backend : BACKENDS) {
+			final SolverFactory factory = AllocationTest.factory(backend);
+			factory.setParameter(Solver.VERBOSE, 0);
+			try {
+				Solver solver = factory.get();
+				try {
+					solver.solve(problems[0]);
+				} finally {
+					solver.close();
+				}
+			} catch (LinkageError e) {
+				System.out.println("Skipped " + backend + " (not available)");
+				continue;
+			}
+
+			ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+			try {
+				List<Future<Object>> futures = new ArrayList<Future<Object>>();
+				for (int i = 0; i < SOLVES; i++) {
+					final int index = i % problems.length;
+					final boolean verbose = (i % 2) == 1;
+					futures.add(executor.submit(new Callable<Object>() {
+						public Object call() {
+							Solver solver = factory.get();
+							ByteArrayOutputStream out = new ByteArrayOutputStream();
+							if (solver instanceof SolverSAT4J) {
+								solver.setParameter(Solver.VERBOSE, verbose ? 1 : 0);
+								PrintStream stream = new PrintStream(out, true);
+								((SolverSAT4J) solver).setOutput(stream, stream);
+							}
+							try {
+								Result result = solver.solve(problems[index]);
+								Assert.assertNotNull(result);
+								Assert.assertEquals(optima[index], result.getObjective().intValue());
+							} finally {
+								solver.close();
+							}
+							if (solver instanceof SolverSAT4J) {
+								Assert.assertEquals(verbose, out.size() > 0);
+							}
+							return null;
+						}
+					}));
+				}
+				for (Future<Object> future : futures) {
+					future.get();
+				}
+			} finally {
+				executor.shutdown();
+			}
+		}
+	}
+
+	static Problem problem(Random random) {
+		Problem problem = new Problem();
+		Linear objective = new Linear();
+		for (int j = 0; j < VARIABLES; j++) {
+			objective.add(random.nextInt(20) + 1, "x" + j);
+			problem.setVarType("x" + j, VarType.BOOL);
+		}
+		problem.setObjective(objective, OptType.MAX);
+		for (int i = 0; i < 3; i++) {
+			Linear linear = new Linear();
+			int sum = 0;
+			for (int j = 0; j < VARIABLES; j++) {
+				int weight = random.nextInt(10) + 1;
+				linear.add(weight, "x" + j);
+				sum += weight;
+			}
+			problem.add(linear, "<=", sum / 2);
+		}
+		return problem;
+	}
+
+	static int enumerate(Problem problem) {
+		int best = Integer.MIN_VALUE;
+		for (int bits = 0; bits < (1 << VARIABLES); bits++) {
+			boolean feasible = true;
+			for (int i = 0; i < problem.getConstraintsCount() && feasible; i++) {
+				feasible = value(problem.getConstraints().get(i).getLhs(), problem, bits) <= problem.getConstraints()
+						.get(i).getRhs().intValue();
+			}
+			if (feasible) {
+				best = Math.max(best, value(problem.getObjective(), problem, bits));
+			}
+		}
+		return best;
+	}
+
+	static int value(Linear linear, Problem problem, int bits) {
+		int sum = 0;
+		for (int k = 0; k < linear.size(); k++) {
+			int id = problem.getVariableId(linear.get(k).getVariable());
+			if ((bits & (1 << id)) != 0) {
+				sum += linear.get(k).getCoefficient().intValue();
+			}
+		}
+		return sum;
+	}
+
+}
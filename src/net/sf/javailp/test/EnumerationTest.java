@@ -0,0 +1,120 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp.test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import junit.framework.Assert;
+import net.sf.javailp.Linear;
+import net.sf.javailp.OptType;
+import net.sf.javailp.Problem;
+import net.sf.javailp.Result;
+import net.sf.javailp.SolutionIterator;
+import net.sf.javailp.Solver;
+import net.sf.javailp.SolverMiniSat;
+import net.sf.javailp.SolverSAT4J;
+
+import org.junit.Test;
+
+public class EnumerationTest {
+
+	@Test
+	public void testSAT4J() {
+		SolverSAT4J solver = new SolverSAT4J();
+		solver.setParameter(Solver.VERBOSE, 0);
+
+		Problem problem = getProblem(true);
+		check(solver, problem);
+		Assert.assertEquals(176, count(solver.enumerate(getProblem(false))));
+	}
+
+	@Test
+	public void testMiniSat() {
+		SolverMiniSat solver = new SolverMiniSat();
+		solver.setParameter(Solver.VERBOSE, 0);
+
+		Problem problem = getProblem(true);
+		check(solver, problem);
+		Assert.assertEquals(176, count(solver.enumerate(getProblem(false))));
+
+		// the blocking clauses must not restrict later calls
+		Result result = solver.solve(problem);
+		Assert.assertEquals(27, result.getObjective().intValue());
+		solver.close();
+	}
+
+	protected void check(Solver solver, Problem problem) {
+		List<Integer> values = new ArrayList<Integer>();
+		SolutionIterator all = enumerate(solver, problem, null, null);
+		for (int i = 0; i < 4 && all.hasNext(); i++) {
+			values.add(all.next().getObjective().intValue());
+		}
+		Assert.assertEquals(Arrays.asList(27, 26, 25, 25), values);
+
+		SolutionIterator best = enumerate(solver, problem, null, 2);
+		Assert.assertEquals(4, count(best));
+		Assert.assertEquals(27, best.getOptimum().intValue());
+		Assert.assertFalse(best.isLimitReached());
+
+		Set<List<Boolean>> projections = new HashSet<List<Boolean>>();
+		SolutionIterator projected = enumerate(solver, problem, Arrays.<Object> asList(8, 9), null);
+		while (projected.hasNext()) {
+			Result result = projected.next();
+			projections.add(Arrays.asList(result.getBoolean(8), result.getBoolean(9)));
+		}
+		Assert.assertEquals(4, projections.size());
+	}
+
+	protected SolutionIterator enumerate(Solver solver, Problem problem, List<Object> projection, Number tolerance) {
+		if (solver instanceof SolverMiniSat) {
+			return ((SolverMiniSat) solver).enumerate(problem, projection, tolerance);
+		} else {
+			return ((SolverSAT4J) solver).enumerate(problem, projection, tolerance);
+		}
+	}
+
+	protected int count(SolutionIterator solutions) {
+		int count = 0;
+		while (solutions.hasNext()) {
+			solutions.next();
+			count++;
+		}
+		return count;
+	}
+
+	protected Problem getProblem(boolean withObjective) {
+		Problem problem = new Problem();
+
+		Linear objective = new Linear();
+		Linear linear = new Linear();
+		for (int i = 0; i < 10; i++) {
+			objective.add(i + 1, i);
+			linear.add(1, i);
+			problem.setVarType(i, Boolean.class);
+		}
+
+		if (withObjective) {
+			problem.setObjective(objective, OptType.MAX);
+		}
+		problem.add(linear, "<=", 3);
+
+		return problem;
+	}
+
+}
@@ -0,0 +1,116 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp.test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.Assert;
+import net.sf.javailp.Linear;
+import net.sf.javailp.Problem;
+import net.sf.javailp.Result;
+import net.sf.javailp.Solver;
+import net.sf.javailp.SolverFactorySAT4J;
+import net.sf.javailp.VarFamily;
+import net.sf.javailp.VarType;
+
+import org.junit.Test;
+
+public class FamilyTest {
+
+	@Test
+	public void testIds() {
+		Problem problem = new Problem();
+		Linear linear = new Linear();
+		linear.add(1, "a");
+		problem.add(linear, "<=", 1);
+		VarFamily x = problem.family("x", 2, 3);
+		linear = new Linear();
+		linear.add(1, "b");
+		linear.add(1, x.get(1, 2));
+		problem.add(linear, "<=", 1);
+		VarFamily y = problem.family("y", 2, 2, 2);
+		linear = new Linear();
+		linear.add(1, "c");
+		linear.add(1, "a");
+		problem.add(linear, "<=", 1);
+
+		Assert.assertEquals(1 + 6 + 1 + 8 + 1, problem.getVariablesCount());
+		Assert.assertEquals(0, problem.getVariableId("a"));
+		Assert.assertEquals(1 + 5, problem.getVariableId(x.get(1, 2)));
+		Assert.assertEquals(1 + 5, x.id(1, 2));
+		Assert.assertEquals(7, problem.getVariableId("b"));
+		Assert.assertEquals(8 + 7, problem.getVariableId(y.get(1, 1, 1)));
+		Assert.assertEquals(16, problem.getVariableId("c"));
+		Assert.assertEquals(-1, problem.getVariableId(new Problem().family("x", 2, 3).get(0, 0)));
+
+		List<Object> variables = new ArrayList<Object>(problem.getVariables());
+		Assert.assertEquals(problem.getVariablesCount(), variables.size());
+		for (int id = 0; id < variables.size(); id++) {
+			Assert.assertEquals(variables.get(id), problem.getVariable(id));
+			Assert.assertEquals(id, problem.getVariableId(variables.get(id)));
+		}
+		Assert.assertEquals("x_1_2", problem.getVariable(6).toString());
+		Assert.assertEquals("y_0_1_1", y.get(0, 1, 1).toString());
+		Assert.assertEquals(x.get(0, 1), x.get(0, 1));
+		Assert.assertFalse(x.get(0, 1).equals(x.get(1, 0)));
+
+		try {
+			x.get(2, 0);
+			Assert.fail();
+		} catch (IndexOutOfBoundsException e) {
+			// expected
+		}
+		try {
+			x.get(1);
+			Assert.fail();
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+	}
+
+	@Test
+	public void testSolve() {
+		int n = 4;
+		Problem problem = new Problem();
+		VarFamily x = problem.family("x", n, n);
+		x.setType(VarType.BOOL);
+		problem.setVarUpperBound(x.get(0, 0), 0);
+
+		Linear objective = new Linear();
+		for (int i = 0; i < n; i++) {
+			Linear row = new Linear();
+			Linear column = new Linear();
+			for (int j = 0; j < n; j++) {
+				row.add(1, x.get(i, j));
+				column.add(1, x.get(j, i));
+				objective.add(i == j ? 1 : 2, x.get(i, j));
+			}
+			problem.add(row, "=", 1);
+			problem.add(column, "=", 1);
+		}
+		problem.setObjective(objective, "min");
+
+		Assert.assertEquals(VarType.BOOL, problem.getVarType(x.get(1, 1)));
+		Assert.assertEquals(0, problem.getVarUpperBound(x.get(0, 0)).intValue());
+		Assert.assertNull(problem.getVarLowerBound(x.get(0, 0)));
+
+		Solver solver = new SolverFactorySAT4J().get();
+		Result result = solver.solve(problem);
+		Assert.assertEquals(n + 2, result.getObjective().intValue());
+		Assert.assertEquals(0, result.get(x.get(0, 0)).intValue());
+	}
+
+}
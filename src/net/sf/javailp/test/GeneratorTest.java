@@ -0,0 +1,81 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp.test;
+
+import junit.framework.Assert;
+import net.sf.javailp.Problem;
+import net.sf.javailp.Result;
+import net.sf.javailp.Solver;
+import net.sf.javailp.SolverFactory;
+import net.sf.javailp.SolverFactorySAT4J;
+import net.sf.javailp.generator.FacilityLocationGenerator;
+import net.sf.javailp.generator.Generator;
+import net.sf.javailp.generator.GraphColoringGenerator;
+import net.sf.javailp.generator.JobShopGenerator;
+import net.sf.javailp.generator.KnapsackGenerator;
+import net.sf.javailp.generator.RandomLPGenerator;
+import net.sf.javailp.generator.SetCoverGenerator;
+
+import org.junit.Test;
+
+public class GeneratorTest {
+
+	@Test
+	public void testDeterminism() {
+		Generator[] generators = { new KnapsackGenerator(50, 3), new SetCoverGenerator(100, 40),
+				new FacilityLocationGenerator(5, 20), new GraphColoringGenerator(30, 4), new JobShopGenerator(3, 3, 30),
+				new RandomLPGenerator(50, 200) };
+		for (Generator generator : generators) {
+			generator.setSeed(42);
+			String first = generator.generate().toString();
+			Assert.assertEquals(first, generator.generate().toString());
+			generator.setSeed(43);
+			Assert.assertFalse(first.equals(generator.generate().toString()));
+		}
+	}
+
+	@Test
+	public void testSize() {
+		Problem problem = new KnapsackGenerator(50, 3).generate();
+		Assert.assertEquals(50, problem.getVariablesCount());
+		Assert.assertEquals(3, problem.getConstraintsCount());
+
+		RandomLPGenerator generator = new RandomLPGenerator(1000, 1000);
+		generator.setDensity(0.01);
+		problem = generator.generate();
+		long nonZeros = 0;
+		for (int i = 0; i < problem.getConstraintsCount(); i++) {
+			nonZeros += problem.getConstraints().get(i).size();
+		}
+		Assert.assertTrue(nonZeros > 8000 && nonZeros < 12000);
+	}
+
+	@Test
+	public void testSolve() {
+		SolverFactory factory = new SolverFactorySAT4J();
+		factory.setParameter(Solver.VERBOSE, 0);
+		factory.setParameter(Solver.TIMEOUT, 60);
+
+		Generator[] generators = { new KnapsackGenerator(20, 2), new SetCoverGenerator(30, 15),
+				new GraphColoringGenerator(10, 4) };
+		for (Generator generator : generators) {
+			generator.setSeed(1);
+			Problem problem = generator.generate();
+			Result result = factory.get().solve(problem);
+			Assert.assertNotNull(generator.getClass().getSimpleName(), result);
+		}
+	}
+
+}
@@ -0,0 +1,112 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp.test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.Assert;
+import net.sf.javailp.Incumbent;
+import net.sf.javailp.IncumbentListener;
+import net.sf.javailp.IncumbentPublisher;
+import net.sf.javailp.Linear;
+import net.sf.javailp.OptType;
+import net.sf.javailp.Problem;
+import net.sf.javailp.Result;
+import net.sf.javailp.Solver;
+import net.sf.javailp.SolverSAT4J;
+
+import org.junit.Test;
+
+public class IncumbentTest {
+
+	@Test
+	public void testListener() {
+		SolverSAT4J solver = new SolverSAT4J();
+		solver.setParameter(Solver.VERBOSE, 0);
+
+		final List<Incumbent> incumbents = new ArrayList<Incumbent>();
+		solver.addIncumbentListener(new IncumbentListener() {
+			public void incumbent(Incumbent incumbent) {
+				incumbents.add(incumbent);
+			}
+		});
+
+		Problem problem = new Problem();
+		Linear objective = new Linear();
+		Linear linear = new Linear();
+		for (int i = 0; i < 10; i++) {
+			objective.add(i + 1, i);
+			linear.add(1, i);
+			problem.setVarType(i, Boolean.class);
+		}
+		problem.setObjective(objective, OptType.MAX);
+		problem.add(linear, "<=", 3);
+
+		Result result = solver.solve(problem);
+
+		Assert.assertFalse(incumbents.isEmpty());
+		for (int i = 1; i < incumbents.size(); i++) {
+			Assert.assertTrue(incumbents.get(i).getObjective().intValue() > incumbents.get(i - 1).getObjective()
+					.intValue());
+		}
+		Incumbent last = incumbents.get(incumbents.size() - 1);
+		Assert.assertEquals(27, last.getObjective().intValue());
+		Assert.assertEquals(27, last.getResult().getObjective().intValue());
+		Assert.assertEquals(result.getObjective(), last.getObjective());
+	}
+
+	@Test
+	public void testBackpressure() {
+		IncumbentPublisher publisher = new IncumbentPublisher();
+
+		final List<Number> received = new ArrayList<Number>();
+		final IncumbentPublisher.Subscription[] subscription = new IncumbentPublisher.Subscription[1];
+		final boolean[] completed = new boolean[1];
+		publisher.subscribe(new IncumbentPublisher.Subscriber() {
+			public void onSubscribe(IncumbentPublisher.Subscription s) {
+				subscription[0] = s;
+				s.request(1);
+			}
+
+			public void onNext(Incumbent incumbent) {
+				received.add(incumbent.getObjective());
+			}
+
+			public void onError(Throwable throwable) {
+				Assert.fail();
+			}
+
+			public void onComplete() {
+				completed[0] = true;
+			}
+		});
+
+		for (int i = 1; i <= 5; i++) {
+			publisher.incumbent(new Incumbent(null, i, 10, i));
+		}
+		Assert.assertEquals(1, received.size());
+		Assert.assertEquals(1, received.get(0));
+
+		// the incumbents without demand are conflated to the latest one
+		publisher.close();
+		Assert.assertFalse(completed[0]);
+		subscription[0].request(10);
+		Assert.assertEquals(2, received.size());
+		Assert.assertEquals(5, received.get(1));
+		Assert.assertTrue(completed[0]);
+	}
+
+}
@@ -0,0 +1,56 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp.test;
+
+import java.util.Random;
+
+import junit.framework.Assert;
+import net.sf.javailp.Kernel;
+import net.sf.javailp.ScalarKernel;
+
+import org.junit.Test;
+
+public class KernelTest {
+
+	@Test
+	public void testDot() {
+		Kernel[] kernels = { new ScalarKernel(), Kernel.get() };
+		Random random = new Random(1);
+		int n = 100;
+		double[] a = new double[n];
+		double[] x = new double[n];
+		int[] indices = new int[n];
+		for (int i = 0; i < n; i++) {
+			a[i] = random.nextInt(21) - 10;
+			x[i] = random.nextDouble();
+			indices[i] = random.nextInt(n);
+		}
+
+		for (Kernel kernel : kernels) {
+			for (int from = 0; from < 5; from++) {
+				for (int to = from; to < n; to += 7) {
+					double dense = 0, sparse = 0;
+					for (int i = from; i < to; i++) {
+						dense += a[i] * x[i];
+						sparse += a[i] * x[indices[i]];
+					}
+					Assert.assertEquals(kernel.getName(), dense, kernel.dot(a, x, from, to), 1e-9);
+					Assert.assertEquals(kernel.getName(), sparse, kernel.dot(a, indices, from, to, x), 1e-9);
+				}
+			}
+		}
+	}
+
+}
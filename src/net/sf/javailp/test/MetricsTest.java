@@ -0,0 +1,189 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp.test;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import junit.framework.Assert;
+import net.sf.javailp.AbstractSolver;
+import net.sf.javailp.LatencyHistogram;
+import net.sf.javailp.Linear;
+import net.sf.javailp.OptType;
+import net.sf.javailp.Problem;
+import net.sf.javailp.Result;
+import net.sf.javailp.ResultImpl;
+import net.sf.javailp.SolveLimit;
+import net.sf.javailp.SolveStatus;
+import net.sf.javailp.Solver;
+import net.sf.javailp.SolverFactorySAT4J;
+import net.sf.javailp.SolverMetrics;
+import net.sf.javailp.StripedCounter;
+
+import org.junit.Test;
+
+public class MetricsTest {
+
+	@Test
+	public void testHistogram() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		for (int i = 1; i <= 1000; i++) {
+			histogram.record(i * 1000L);
+		}
+		Assert.assertEquals(1000, histogram.getCount());
+		assertWithin(500000, histogram.getValueAtPercentile(50));
+		assertWithin(950000, histogram.getValueAtPercentile(95));
+		assertWithin(990000, histogram.getValueAtPercentile(99));
+		assertWithin(1000000, histogram.getValueAtPercentile(100));
+
+		histogram.reset();
+		Assert.assertEquals(0, histogram.getCount());
+		Assert.assertEquals(0, histogram.getValueAtPercentile(50));
+	}
+
+	@Test
+	public void testStripedCounter() throws InterruptedException {
+		final StripedCounter counter = new StripedCounter();
+		Thread[] threads = new Thread[8];
+		for (int i = 0; i < threads.length; i++) {
+			threads[i] = new Thread() {
+				@Override
+				public void run() {
+					for (int j = 0; j < 100000; j++) {
+						counter.increment();
+					}
+				}
+			};
+			threads[i].start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		Assert.assertEquals(800000, counter.sum());
+	}
+
+	@Test
+	public void testFactoryMBean() throws Exception {
+		SolverFactorySAT4J factory = new SolverFactorySAT4J();
+		factory.setParameter(Solver.VERBOSE, 0);
+
+		Problem problem = new Problem();
+		Linear linear = new Linear();
+		for (int i = 0; i < 10; i++) {
+			linear.add(1, i);
+			problem.setVarType(i, Boolean.class);
+		}
+		problem.setObjective(linear, OptType.MAX);
+		problem.add(linear, "<=", 4);
+
+		for (int i = 0; i < 5; i++) {
+			Assert.assertEquals(4, factory.get().solve(problem).getObjective().intValue());
+		}
+
+		Solver solver = factory.get();
+		problem.setVarType("x", Integer.class);
+		Linear bound = new Linear();
+		bound.add(1, "x");
+		problem.add(bound, "<=", 2);
+		try {
+			solver.solve(problem);
+			Assert.fail();
+		} catch (IllegalArgumentException e) {
+			// SAT4J supports only boolean variables
+		}
+
+		SolverMetrics metrics = factory.getMetrics();
+		Assert.assertEquals("SAT4J", metrics.getBackend());
+		Assert.assertEquals(6, metrics.getSolvesStarted());
+		Assert.assertEquals(5, metrics.getSolvesCompleted());
+		Assert.assertEquals(1, metrics.getSolvesFailed());
+		Assert.assertEquals(0, metrics.getSolvesInFlight());
+		Assert.assertEquals(SolveStatus.ERROR, solver.getOutcome().getStatus());
+
+		ObjectName name = factory.register();
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		Assert.assertEquals(5L, server.getAttribute(name, "SolvesCompleted"));
+		Assert.assertEquals(0L, server.getAttribute(name, "Timeouts"));
+		Assert.assertTrue((Double) server.getAttribute(name, "LatencyP99") > 0);
+		Assert.assertTrue((Double) server.getAttribute(name, "LatencyP50") <= (Double) server.getAttribute(name,
+				"LatencyP99"));
+
+		factory.unregister();
+		Assert.assertFalse(server.isRegistered(name));
+	}
+
+	@Test
+	public void testTimeouts() {
+		SolverFactorySAT4J factory = new SolverFactorySAT4J();
+		factory.setParameter(Solver.VERBOSE, 0);
+		factory.setParameter(Solver.ABS_GAP, 100);
+
+		Problem problem = new Problem();
+		Linear linear = new Linear();
+		for (int i = 0; i < 10; i++) {
+			linear.add(1, i);
+			problem.setVarType(i, Boolean.class);
+		}
+		problem.setObjective(linear, OptType.MAX);
+		problem.add(linear, "<=", 4);
+
+		// a stop at the gap is not a timeout
+		Solver solver = factory.get();
+		solver.solve(problem);
+		Assert.assertEquals(SolveStatus.FEASIBLE_AT_LIMIT, solver.getOutcome().getStatus());
+		Assert.assertEquals(SolveLimit.GAP, solver.getOutcome().getLimit());
+		Assert.assertEquals(0, factory.getMetrics().getTimeouts());
+
+		SolverMetrics metrics = new SolverMetrics("test");
+		metrics.started();
+		metrics.finished(SolveStatus.FEASIBLE_AT_LIMIT, SolveLimit.GAP, 1000);
+		metrics.started();
+		metrics.finished(SolveStatus.FEASIBLE_AT_LIMIT, SolveLimit.TIME, 1000);
+		metrics.started();
+		metrics.finished(SolveStatus.LIMIT_NO_SOLUTION, SolveLimit.NODES, 1000);
+		metrics.started();
+		metrics.finished(SolveStatus.OPTIMAL, 1000);
+		Assert.assertEquals(2, metrics.getTimeouts());
+		Assert.assertEquals(4, metrics.getSolvesCompleted());
+	}
+
+	@Test
+	public void testOverriddenSolve() {
+		// subclasses that override solve instead of solveInternal keep working
+		final Result expected = new ResultImpl();
+		Solver solver = new AbstractSolver() {
+			@Override
+			public Result solve(Problem problem) {
+				return expected;
+			}
+		};
+		Assert.assertSame(expected, solver.solve(new Problem()));
+
+		try {
+			new AbstractSolver() {
+			}.solve(new Problem());
+			Assert.fail();
+		} catch (UnsupportedOperationException e) {
+			// expected
+		}
+	}
+
+	protected void assertWithin(long expected, long value) {
+		Assert.assertTrue(value + " != " + expected, Math.abs(value - expected) <= expected / 32);
+	}
+
+}
@@ -0,0 +1,153 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp.test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import junit.framework.Assert;
+import net.sf.javailp.Constraint;
+import net.sf.javailp.ConstraintSink;
+import net.sf.javailp.Linear;
+import net.sf.javailp.Operator;
+import net.sf.javailp.OptType;
+import net.sf.javailp.Problem;
+import net.sf.javailp.ProblemBuilder;
+import net.sf.javailp.VarFamily;
+import net.sf.javailp.VarType;
+
+import org.junit.Test;
+
+public class ProblemBuilderTest {
+
+	static final int PARTITIONS = 8;
+	static final int ROWS = 200;
+
+	@Test
+	public void testDeterministicMerge() throws Exception {
+		Problem expected = new Problem();
+		VarFamily y = expected.family("x", 10, 10);
+		expected.setObjective(objective(), OptType.MAX);
+		for (int p = 0; p < PARTITIONS; p++) {
+			for (Linear linear : rows(p, y)) {
+				expected.add(linear, Operator.LE, 1);
+			}
+		}
+		expected.setVarType("v3", VarType.INT);
+		expected.setVarUpperBound("v3", 5);
+
+		for (int repeat = 0; repeat < 3; repeat++) {
+			final ProblemBuilder builder = new ProblemBuilder();
+			final VarFamily x = builder.family("x", 10, 10);
+			builder.setObjective(objective(), OptType.MAX);
+			builder.setVarType("v3", VarType.INT);
+			builder.setVarUpperBound("v3", 5);
+
+			ExecutorService executor = Executors.newFixedThreadPool(4);
+			List<Future<Object>> futures = new ArrayList<Future<Object>>();
+			for (int p = PARTITIONS - 1; p >= 0; p--) {
+				final int index = p;
+				futures.add(executor.submit(new Callable<Object>() {
+					public Object call() {
+						ProblemBuilder.Partition partition = builder.partition(index);
+						for (Linear linear : rows(index, x)) {
+							partition.add(linear, Operator.LE, 1);
+						}
+						return null;
+					}
+				}));
+			}
+			for (Future<Object> future : futures) {
+				future.get();
+			}
+			executor.shutdown();
+
+			Problem problem = builder.build();
+			Assert.assertEquals(expected.toString(), problem.toString());
+			Assert.assertEquals(expected.getVariablesCount(), problem.getVariablesCount());
+			for (int id = 0; id < problem.getVariablesCount(); id++) {
+				Assert.assertEquals(expected.getVariable(id).toString(), problem.getVariable(id).toString());
+			}
+			Assert.assertEquals(VarType.INT, problem.getVarType("v3"));
+
+			try {
+				builder.partition(0).add(new Linear(), Operator.LE, 1);
+				Assert.fail();
+			} catch (IllegalStateException e) {
+				// expected
+			}
+		}
+	}
+
+	@Test
+	public void testSink() {
+		Problem expected = new Problem();
+		VarFamily y = expected.family("x", 10, 10);
+		Problem problem = new Problem();
+		VarFamily x = problem.family("x", 10, 10);
+		List<ConstraintSink> sinks = new ArrayList<ConstraintSink>();
+		for (int p = 0; p < PARTITIONS; p++) {
+			for (Linear linear : rows(p, y)) {
+				expected.add(linear, Operator.LE, 1);
+			}
+			ConstraintSink sink = new ConstraintSink(problem);
+			for (Linear linear : rows(p, x)) {
+				sink.add(new Constraint(linear, Operator.LE, 1));
+			}
+			sinks.add(sink);
+		}
+
+		// combine as a parallel reduction: pairwise, keeping the order
+		while (sinks.size() > 1) {
+			List<ConstraintSink> combined = new ArrayList<ConstraintSink>();
+			for (int i = sinks.size() - 2; i >= 0; i -= 2) {
+				combined.add(0, sinks.get(i).combine(sinks.get(i + 1)));
+			}
+			sinks = combined;
+		}
+		Assert.assertEquals(PARTITIONS * ROWS, sinks.get(0).size());
+
+		Assert.assertSame(problem, sinks.get(0).toProblem());
+		Assert.assertEquals(expected.toString(), problem.toString());
+		Assert.assertEquals(0, sinks.get(0).size());
+	}
+
+	static Linear objective() {
+		Linear linear = new Linear();
+		linear.add(1, "v7");
+		linear.add(2, "v1");
+		return linear;
+	}
+
+	static List<Linear> rows(int partition, VarFamily x) {
+		Random random = new Random(partition);
+		List<Linear> rows = new ArrayList<Linear>();
+		for (int i = 0; i < ROWS; i++) {
+			Linear linear = new Linear();
+			for (int j = 0; j < 5; j++) {
+				linear.add(random.nextInt(9) + 1, "v" + random.nextInt(1000));
+			}
+			linear.add(1, x.get(random.nextInt(10), random.nextInt(10)));
+			rows.add(linear);
+		}
+		return rows;
+	}
+
+}
@@ -0,0 +1,148 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp.test;
+
+import junit.framework.Assert;
+import net.sf.javailp.ArrayResult;
+import net.sf.javailp.BitSetResult;
+import net.sf.javailp.LazyResult;
+import net.sf.javailp.Linear;
+import net.sf.javailp.OptType;
+import net.sf.javailp.Problem;
+import net.sf.javailp.SolveOutcome;
+import net.sf.javailp.SolveStatus;
+
+import org.junit.Test;
+
+public class ResultTest {
+
+	@Test
+	public void testArrayResult() {
+		Problem problem = new Problem();
+
+		Linear objective = new Linear();
+		objective.add(2, "x");
+		objective.add(3, "y");
+		problem.setObjective(objective, OptType.MAX);
+
+		Linear linear = new Linear();
+		linear.add(1, "x");
+		linear.add(1, "y");
+		problem.add("c", linear, "<=", 4.5);
+		problem.setVarType("x", Integer.class);
+
+		Assert.assertEquals(0, problem.getVariableId("x"));
+		Assert.assertEquals(1, problem.getVariableId("y"));
+		Assert.assertEquals(-1, problem.getVariableId("z"));
+
+		ArrayResult result = new ArrayResult(problem);
+		result.setPrimalValues(new double[] { 2.0000001, 2.5 });
+		result.setConstraintPrimalValues(new double[] { 4.5 });
+
+		Assert.assertEquals(2, result.get("x"));
+		Assert.assertEquals(2.5, result.get("y"));
+		Assert.assertEquals(4.5, result.getPrimalValue("c"));
+		Assert.assertEquals(11.5, result.getObjective().doubleValue(), 1e-6);
+		Assert.assertNull(result.getDualValue("x"));
+		Assert.assertTrue(result.containsVar("y"));
+		Assert.assertFalse(result.containsVar("z"));
+
+		result.putDualValue("c", 1.5);
+		result.put("z", 7);
+		Assert.assertEquals(1.5, result.getConstraintDualValue(0));
+		Assert.assertEquals(7, result.get("z"));
+	}
+
+	@Test
+	public void testBitSetResult() {
+		Problem problem = new Problem();
+
+		Linear objective = new Linear();
+		for (int i = 0; i < 40; i++) {
+			objective.add(i, i);
+			problem.setVarType(i, Boolean.class);
+		}
+		problem.setObjective(objective, OptType.MAX);
+
+		BitSetResult result = new BitSetResult(problem);
+		result.put(3, 1);
+		result.put(35, 1);
+		result.setBoolean(39, true);
+
+		Assert.assertEquals(1, result.get(3));
+		Assert.assertEquals(0, result.get(4));
+		Assert.assertTrue(result.getBoolean(35));
+		Assert.assertEquals(77L, result.getObjective());
+		Assert.assertEquals(1 << 3, result.getBits()[0]);
+	}
+
+	@Test
+	public void testLazyResult() {
+		Problem problem = new Problem();
+
+		Linear linear = new Linear();
+		linear.add(1, "x");
+		linear.add(1, "y");
+		problem.add("c", linear, "<=", 4);
+		problem.setObjective(linear, OptType.MAX);
+
+		final int[] reads = new int[2];
+		LazyResult result = new LazyResult(problem, new LazyResult.Source() {
+			public double[] getPrimalValues() {
+				reads[0]++;
+				return new double[] { 1, 3 };
+			}
+
+			public double[] getDualValues() {
+				return null;
+			}
+
+			public double[] getConstraintPrimalValues() {
+				return new double[] { 4 };
+			}
+
+			public double[] getConstraintDualValues() {
+				return null;
+			}
+
+			public void close() {
+				reads[1]++;
+			}
+		});
+
+		// the outcome reads the objective value only for the bound
+		SolveOutcome outcome = new SolveOutcome(SolveStatus.OPTIMAL, result, null);
+		Assert.assertEquals(0, reads[0]);
+		Assert.assertEquals(4.0, outcome.getBound().doubleValue(), 1e-6);
+		Assert.assertEquals(1.0, result.get("x"));
+		Assert.assertEquals(3.0, result.get("y"));
+		Assert.assertEquals(1, reads[0]);
+
+		result.close();
+		result.close();
+		Assert.assertTrue(result.isClosed());
+		Assert.assertEquals(1, reads[1]);
+
+		// values read before closing remain available
+		Assert.assertEquals(4.0, result.getObjective().doubleValue(), 1e-6);
+		try {
+			result.getPrimalValue("c");
+			Assert.fail();
+		} catch (IllegalStateException e) {
+			// expected
+		}
+	}
+
+}
@@ -0,0 +1,344 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp.test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.Assert;
+import net.sf.javailp.Linear;
+import net.sf.javailp.OptType;
+import net.sf.javailp.Problem;
+import net.sf.javailp.Result;
+import net.sf.javailp.SolveStatus;
+import net.sf.javailp.Solver;
+import net.sf.javailp.SolverFactorySAT4J;
+import net.sf.javailp.SolverSAT4J;
+import net.sf.javailp.server.SolveClient;
+import net.sf.javailp.server.SolveServer;
+import net.sf.javailp.worker.ResultFile;
+
+import org.junit.Test;
+
+/**
+ * Solves problems with a local solve server and checks the priorities, the
+ * collapsing of duplicate requests, and the admission control.
+ */
+public class SolveServerTest {
+
+	/**
+	 * A factory whose solvers wait for a latch and record the number of
+	 * constraints of the solved problems.
+	 */
+	static class BlockingFactory extends SolverFactorySAT4J {
+		final CountDownLatch latch = new CountDownLatch(1);
+		final List<Integer> solved = Collections.synchronizedList(new ArrayList<Integer>());
+
+		@Override
+		protected Solver getInternal() {
+			return new SolverSAT4J() {
+				@Override
+				protected Result solveInternal(Problem problem) {
+					try {
+						latch.await();
+					} catch (InterruptedException e) {
+						throw new IllegalStateException(e);
+					}
+					solved.add(problem.getConstraintsCount());
+					return super.solveInternal(problem);
+				}
+			};
+		}
+	}
+
+	@Test
+	public void testSolve() throws Exception {
+		SolveServer server = new SolveServer(0);
+		try {
+			SolverFactorySAT4J factory = new SolverFactorySAT4J();
+			factory.setParameter(Solver.VERBOSE, 0);
+			server.register("SAT4J", factory, 2);
+			server.start();
+			SolveClient client = new SolveClient(server.getPort());
+			try {
+				for (int i = 0; i < 8; i++) {
+					Problem problem = ConcurrencyTest.problem(new Random(i));
+					ResultFile outcome = client.solve("SAT4J", problem);
+					Assert.assertEquals(SolveStatus.OPTIMAL, outcome.getStatus());
+					Assert.assertEquals(ConcurrencyTest.enumerate(problem), outcome.getResult().getObjective()
+							.intValue());
+				}
+				try {
+					client.solve("Unknown", ConcurrencyTest.problem(new Random(0)));
+					Assert.fail();
+				} catch (IllegalStateException e) {
+					// expected
+				}
+			} finally {
+				client.close();
+			}
+		} finally {
+			server.close();
+		}
+	}
+
+	@Test
+	public void testQueue() throws Exception {
+		final SolveServer server = new SolveServer(0);
+		ExecutorService executor = Executors.newCachedThreadPool();
+		try {
+			BlockingFactory factory = new BlockingFactory();
+			factory.setParameter(Solver.VERBOSE, 0);
+			server.register("SAT4J", factory, 1);
+			server.start();
+
+			// the first request blocks the only thread, the others are queued
+			List<Future<ResultFile>> futures = new ArrayList<Future<ResultFile>>();
+			futures.add(submit(executor, server, problem(1), 0));
+			for (int i = 0; i < 1000 && server.getMemoryUsed() == 0; i++) {
+				Thread.sleep(10);
+			}
+			futures.add(submit(executor, server, problem(2), 0));
+			await(server, 1, 0);
+			futures.add(submit(executor, server, problem(3), 5));
+			await(server, 2, 0);
+			futures.add(submit(executor, server, problem(2), 0));
+			futures.add(submit(executor, server, problem(1), 0));
+			await(server, 2, 2);
+
+			factory.latch.countDown();
+			for (Future<ResultFile> future : futures) {
+				Assert.assertEquals(SolveStatus.OPTIMAL, future.get().getStatus());
+			}
+			Assert.assertEquals(futures.get(1).get().getResult().getObjective(), futures.get(3).get().getResult()
+					.getObjective());
+			Assert.assertEquals(Arrays.asList(1, 3, 2), factory.solved);
+			Assert.assertEquals(0, server.getMemoryUsed());
+		} finally {
+			executor.shutdown();
+			server.close();
+		}
+	}
+
+	@Test
+	public void testAdmission() throws Exception {
+		SolveServer server = new SolveServer(0);
+		try {
+			SolverFactorySAT4J factory = new SolverFactorySAT4J();
+			factory.setParameter(Solver.VERBOSE, 0);
+			server.register("SAT4J", factory, 1);
+			server.setMemoryBudget(70 * 1024);
+			server.start();
+			SolveClient client = new SolveClient(server.getPort());
+			try {
+				try {
+					client.solve("SAT4J", ConcurrencyTest.problem(new Random(0)));
+					Assert.fail();
+				} catch (RejectedExecutionException e) {
+					// expected
+				}
+				Assert.assertEquals(1, server.getRejected());
+				Assert.assertEquals(0, server.getQueued());
+				Assert.assertEquals(0, server.getMemoryUsed());
+
+				// the model is skipped, the connection can be reused
+				server.setMemoryBudget(Long.MAX_VALUE);
+				ResultFile result = client.solve("SAT4J", ConcurrencyTest.problem(new Random(0)));
+				Assert.assertEquals(SolveStatus.OPTIMAL, result.getStatus());
+			} finally {
+				client.close();
+			}
+		} finally {
+			server.close();
+		}
+	}
+
+	@Test
+	public void testBudget() throws Exception {
+		final SolveServer server = new SolveServer(0);
+		ExecutorService executor = Executors.newCachedThreadPool();
+		try {
+			BlockingFactory factory = new BlockingFactory();
+			factory.setParameter(Solver.VERBOSE, 0);
+			server.register("SAT4J", factory, 2);
+			server.start();
+
+			// the budget leaves room for the first request only
+			Future<ResultFile> first = submit(executor, server, problem(1), 0);
+			long used = awaitMemory(server);
+			server.setMemoryBudget(used + used / 2);
+			Future<ResultFile> second = submit(executor, server, problem(2), 0);
+			await(server, 1, 0);
+			Assert.assertEquals(used, server.getMemoryUsed());
+
+			factory.latch.countDown();
+			Assert.assertEquals(SolveStatus.OPTIMAL, first.get().getStatus());
+			Assert.assertEquals(SolveStatus.OPTIMAL, second.get().getStatus());
+			Assert.assertEquals(Arrays.asList(1, 2), factory.solved);
+			Assert.assertEquals(0, server.getMemoryUsed());
+			Assert.assertEquals(0, server.getRejected());
+		} finally {
+			executor.shutdown();
+			server.close();
+		}
+	}
+
+	@Test
+	public void testLoweredBudget() throws Exception {
+		final SolveServer server = new SolveServer(0);
+		ExecutorService executor = Executors.newCachedThreadPool();
+		try {
+			BlockingFactory factory = new BlockingFactory();
+			factory.setParameter(Solver.VERBOSE, 0);
+			server.register("SAT4J", factory, 2);
+			server.start();
+
+			Future<ResultFile> first = submit(executor, server, problem(1), 0);
+			long used = awaitMemory(server);
+			server.setMemoryBudget(used + used / 2);
+			Future<ResultFile> second = submit(executor, server, problem(2), 0);
+			await(server, 1, 0);
+
+			// the waiting request exceeds the lowered budget on its own
+			server.setMemoryBudget(used);
+			try {
+				second.get();
+				Assert.fail();
+			} catch (ExecutionException e) {
+				Assert.assertTrue(e.getCause() instanceof RejectedExecutionException);
+			}
+			Assert.assertEquals(0, server.getQueued());
+			Assert.assertEquals(1, server.getRejected());
+
+			factory.latch.countDown();
+			Assert.assertEquals(SolveStatus.OPTIMAL, first.get().getStatus());
+			Assert.assertEquals(0, server.getMemoryUsed());
+		} finally {
+			executor.shutdown();
+			server.close();
+		}
+	}
+
+	@Test
+	public void testLanes() throws Exception {
+		final SolveServer server = new SolveServer(0);
+		ExecutorService executor = Executors.newCachedThreadPool();
+		try {
+			BlockingFactory factory = new BlockingFactory();
+			factory.setParameter(Solver.VERBOSE, 0);
+			server.register("SAT4J", factory, 2);
+			SolverFactorySAT4J other = new SolverFactorySAT4J();
+			other.setParameter(Solver.VERBOSE, 0);
+			server.register("OTHER", other, 1);
+			server.start();
+
+			Future<ResultFile> first = submit(executor, server, "SAT4J", large(100, 0), 0);
+			long used = awaitMemory(server);
+			server.setMemoryBudget(used + used / 2);
+
+			// the large request waits for the budget, the small request of
+			// the other backend passes it
+			Future<ResultFile> second = submit(executor, server, "SAT4J", large(100, 1), 0);
+			await(server, 1, 0);
+			Future<ResultFile> third = submit(executor, server, "OTHER", large(1, 0), 0);
+			Assert.assertEquals(SolveStatus.OPTIMAL, third.get(10, TimeUnit.SECONDS).getStatus());
+			Assert.assertFalse(second.isDone());
+
+			factory.latch.countDown();
+			Assert.assertEquals(SolveStatus.OPTIMAL, first.get().getStatus());
+			Assert.assertEquals(SolveStatus.OPTIMAL, second.get().getStatus());
+			Assert.assertEquals(0, server.getMemoryUsed());
+			Assert.assertEquals(0, server.getRejected());
+		} finally {
+			executor.shutdown();
+			server.close();
+		}
+	}
+
+	static Problem large(int variables, int offset) {
+		Problem problem = new Problem();
+		Linear linear = new Linear();
+		for (int j = 0; j < variables; j++) {
+			linear.add(1, "x" + j);
+			problem.setVarType("x" + j, Boolean.class);
+		}
+		problem.setObjective(linear, OptType.MAX);
+		problem.add(linear, "<=", 1 + offset);
+		return problem;
+	}
+
+	static Problem problem(int constraints) {
+		Problem problem = ConcurrencyTest.problem(new Random(constraints));
+		Problem copy = new Problem();
+		copy.setObjective(problem.getObjective(), problem.getOptType());
+		for (Object variable : problem.getVariables()) {
+			copy.setVarType(variable, problem.getVarType(variable));
+		}
+		for (int i = 0; i < constraints; i++) {
+			copy.add(problem.getConstraints().get(i));
+		}
+		return copy;
+	}
+
+	static Future<ResultFile> submit(ExecutorService executor, final SolveServer server, final Problem problem,
+			final int priority) {
+		return submit(executor, server, "SAT4J", problem, priority);
+	}
+
+	static Future<ResultFile> submit(ExecutorService executor, final SolveServer server, final String backend,
+			final Problem problem, final int priority) {
+		return executor.submit(new Callable<ResultFile>() {
+			public ResultFile call() throws Exception {
+				SolveClient client = new SolveClient(server.getPort());
+				try {
+					Map<Object, Object> parameters = new HashMap<Object, Object>();
+					return client.solve(backend, problem, priority, parameters);
+				} finally {
+					client.close();
+				}
+			}
+		});
+	}
+
+	static long awaitMemory(SolveServer server) throws InterruptedException {
+		for (int i = 0; i < 1000 && server.getMemoryUsed() == 0; i++) {
+			Thread.sleep(10);
+		}
+		Assert.assertTrue(server.getMemoryUsed() > 0);
+		return server.getMemoryUsed();
+	}
+
+	static void await(SolveServer server, int queued, long collapsed) throws InterruptedException {
+		for (int i = 0; i < 1000 && (server.getQueued() != queued || server.getCollapsed() != collapsed); i++) {
+			Thread.sleep(10);
+		}
+		Assert.assertEquals(queued, server.getQueued());
+		Assert.assertEquals(collapsed, server.getCollapsed());
+	}
+
+}
@@ -18,6 +18,7 @@ import junit.framework.Assert;
 import net.sf.javailp.Linear;
 import net.sf.javailp.Problem;
 import net.sf.javailp.Result;
+import net.sf.javailp.SolveStatus;
 import net.sf.javailp.Solver;
 import net.sf.javailp.SolverFactory;
 import net.sf.javailp.SolverFactoryCPLEX;
@@ -64,6 +65,10 @@ public class UnsatTest {
 		Result result = solver.solve(problem);
 
 		Assert.assertEquals(result, null);
+		// the presolve of CPLEX and Gurobi may not decide between both
+		SolveStatus status = solver.getOutcome().getStatus();
+		Assert.assertTrue(String.valueOf(status), status == SolveStatus.INFEASIBLE
+				|| status == SolveStatus.INFEASIBLE_OR_UNBOUNDED);
 	}
 
 	protected Problem getProblem() {
@@ -0,0 +1,129 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp.test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import junit.framework.Assert;
+import net.sf.javailp.ArrayResult;
+import net.sf.javailp.Constraint;
+import net.sf.javailp.Linear;
+import net.sf.javailp.Operator;
+import net.sf.javailp.Problem;
+import net.sf.javailp.ResultImpl;
+import net.sf.javailp.Verification;
+import net.sf.javailp.Verifier;
+import net.sf.javailp.generator.RandomLPGenerator;
+
+import org.junit.Test;
+
+public class VerifierTest {
+
+	@Test
+	public void testViolations() {
+		Problem problem = new Problem();
+		Linear linear = new Linear();
+		linear.add(1, "x");
+		linear.add(1, "y");
+		problem.add("c1", linear, "<=", 3);
+		linear = new Linear();
+		linear.add(1, "x");
+		linear.add(-1, "y");
+		problem.add("c2", linear, ">=", 1);
+		linear = new Linear();
+		linear.add(1, "x");
+		linear.add(2, "y");
+		problem.add("c3", linear, "=", 100);
+		problem.setVarType("x", Integer.class);
+		problem.setVarType("y", Boolean.class);
+		problem.setVarUpperBound("x", 2);
+
+		ResultImpl result = new ResultImpl();
+		result.putPrimalValue("x", 2.5);
+		result.putPrimalValue("y", 1);
+
+		Verification verification = new Verifier(problem).verify(result);
+		Assert.assertEquals(-0.5, verification.getSlack(0), 1e-9);
+		Assert.assertEquals(0.5, verification.getSlack(1), 1e-9);
+		Assert.assertEquals(95.5, verification.getSlack(2), 1e-9);
+
+		Assert.assertEquals(95.5, verification.getMaxViolation(), 1e-9);
+		Assert.assertEquals("c3", verification.getMaxViolationConstraint().getName());
+		Assert.assertEquals(0.955, verification.getMaxRelativeViolation(), 1e-9);
+		Assert.assertEquals(0.5, verification.getMaxIntegralityViolation(), 1e-9);
+		Assert.assertEquals("x", verification.getMaxIntegralityViolationVariable());
+		Assert.assertEquals(0.5, verification.getMaxBoundViolation(), 1e-9);
+		Assert.assertFalse(verification.isFeasible(1e-6));
+
+		result.putPrimalValue("x", 2);
+		result.putPrimalValue("y", 0);
+		problem.getConstraints().clear();
+		verification = new Verifier(problem).verify(result);
+		Assert.assertTrue(verification.isFeasible(1e-6));
+		Assert.assertNull(verification.getMaxViolationConstraint());
+	}
+
+	@Test
+	public void testSlacks() {
+		RandomLPGenerator generator = new RandomLPGenerator(2000, 1000);
+		generator.setSeed(7);
+		generator.setCoefficientRange(-50, 50);
+		Problem problem = generator.generate();
+
+		Random random = new Random(1);
+		ArrayResult result = new ArrayResult(problem);
+		Map<Object, Number> values = new HashMap<Object, Number>();
+		for (int j = 0; j < problem.getVariablesCount(); j++) {
+			double value = random.nextDouble() * 10;
+			result.setPrimalValue(j, value);
+			values.put(problem.getVariable(j), value);
+		}
+
+		Verification verification = new Verifier(problem).verify(result);
+		List<Constraint> constraints = problem.getConstraints();
+		double max = 0;
+		for (int i = 0; i < constraints.size(); i++) {
+			Constraint constraint = constraints.get(i);
+			Assert.assertEquals(Operator.LE, constraint.getOperator());
+			double slack = constraint.getRhs().doubleValue() - constraint.getLhs().evaluate(values).doubleValue();
+			Assert.assertEquals(slack, verification.getSlack(i), 1e-6);
+			max = Math.max(max, -slack);
+		}
+		Assert.assertEquals(max, verification.getMaxViolation(), 1e-6);
+		Assert.assertEquals(problem.getObjective().evaluate(values).doubleValue(), verification.getObjective(), 1e-6);
+	}
+
+	@Test
+	public void testMissingValue() {
+		Problem problem = new Problem();
+		Linear linear = new Linear();
+		linear.add(1, "x");
+		linear.add(1, "y");
+		problem.add(linear, "<=", 1);
+
+		ResultImpl result = new ResultImpl();
+		result.putPrimalValue("x", 1);
+		try {
+			new Verifier(problem).verify(result);
+			Assert.fail();
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+	}
+
+}
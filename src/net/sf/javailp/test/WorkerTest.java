@@ -0,0 +1,127 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp.test;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import junit.framework.Assert;
+import net.sf.javailp.Problem;
+import net.sf.javailp.Result;
+import net.sf.javailp.SolveStatus;
+import net.sf.javailp.Solver;
+import net.sf.javailp.SolverFactorySAT4J;
+import net.sf.javailp.SolverSAT4J;
+import net.sf.javailp.Verifier;
+import net.sf.javailp.worker.ModelFile;
+import net.sf.javailp.worker.ResultFile;
+import net.sf.javailp.worker.SolverFactoryWorker;
+import net.sf.javailp.worker.SolverWorker;
+
+import org.junit.Test;
+
+/**
+ * Solves problems in worker processes and compares the results with the
+ * solves in this process.
+ */
+public class WorkerTest {
+
+	/**
+	 * A factory whose solvers terminate the worker if the parameter
+	 * {@code crash} is set.
+	 */
+	public static class CrashingFactory extends SolverFactorySAT4J {
+		@Override
+		protected Solver getInternal() {
+			return new SolverSAT4J() {
+				@Override
+				protected Result solveInternal(Problem problem) {
+					if (parameters.containsKey("crash")) {
+						Runtime.getRuntime().halt(1);
+					}
+					return super.solveInternal(problem);
+				}
+			};
+		}
+	}
+
+	@Test
+	public void testFiles() {
+		Problem problem = ConcurrencyTest.problem(new Random(1));
+		ByteBuffer buffer = ByteBuffer.allocateDirect((int) ModelFile.size(problem));
+		ModelFile.write(problem, buffer);
+		Problem copy = ModelFile.read(buffer);
+		Assert.assertEquals(problem.getVariablesCount(), copy.getVariablesCount());
+		Assert.assertEquals(problem.getConstraintsCount(), copy.getConstraintsCount());
+
+		Solver solver = new SolverFactorySAT4J().get();
+		solver.setParameter(Solver.VERBOSE, 0);
+		Result result = solver.solve(copy);
+		buffer = ByteBuffer.allocateDirect((int) ResultFile.size(copy.getConstraintsCount(), copy
+				.getVariablesCount()));
+		ResultFile.write(copy, new ResultFile(SolveStatus.OPTIMAL, result, null), buffer);
+		ResultFile file = ResultFile.read(problem, buffer);
+		Assert.assertEquals(SolveStatus.OPTIMAL, file.getStatus());
+		Assert.assertNull(file.getBound());
+		Assert.assertEquals(ConcurrencyTest.enumerate(problem), file.getResult().getObjective().intValue());
+		for (Object variable : problem.getVariables()) {
+			Assert.assertEquals(result.get(copy.getVariable(problem.getVariableId(variable))).intValue(), file
+					.getResult().get(variable).intValue());
+		}
+	}
+
+	@Test
+	public void testSolve() throws Exception {
+		SolverFactoryWorker factory = new SolverFactoryWorker("SAT4J", 2);
+		try {
+			factory.setParameter(Solver.TIMEOUT, 60);
+			for (int i = 0; i < 8; i++) {
+				Problem problem = ConcurrencyTest.problem(new Random(i));
+				SolverWorker solver = (SolverWorker) factory.get();
+				Result result = solver.solve(problem);
+				Assert.assertEquals(SolveStatus.OPTIMAL, solver.getOutcome().getStatus());
+				Assert.assertEquals(ConcurrencyTest.enumerate(problem), result.getObjective().intValue());
+				Assert.assertTrue(new Verifier(problem).verify(result).isFeasible(1e-9));
+			}
+			Assert.assertEquals(0, factory.getPool().checkHealth());
+			Assert.assertEquals(0, factory.getPool().getRestarts());
+		} finally {
+			factory.close();
+		}
+	}
+
+	@Test
+	public void testRestart() throws Exception {
+		SolverFactoryWorker factory = new SolverFactoryWorker(CrashingFactory.class.getName(), 1);
+		try {
+			factory.getPool().setHeapLimit("64m");
+			Problem problem = ConcurrencyTest.problem(new Random(0));
+
+			SolverWorker solver = (SolverWorker) factory.get();
+			solver.setParameter("crash", true);
+			Assert.assertNull(solver.solve(problem));
+			Assert.assertEquals(SolveStatus.ERROR, solver.getOutcome().getStatus());
+			Assert.assertEquals(1, factory.getPool().getRestarts());
+
+			solver = (SolverWorker) factory.get();
+			Result result = solver.solve(problem);
+			Assert.assertEquals(ConcurrencyTest.enumerate(problem), result.getObjective().intValue());
+			Assert.assertEquals(1, factory.getPool().getRestarts());
+		} finally {
+			factory.close();
+		}
+	}
+
+}
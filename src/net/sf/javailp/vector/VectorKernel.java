@@ -0,0 +1,86 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp.vector;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+import net.sf.javailp.Kernel;
+
+/**
+ * The class {@code VectorKernel} is the {@link Kernel} based on the vector
+ * API with the preferred vector size of the platform. The sparse dot product
+ * loads the dense vector with gather operations.
+ *
+ * @author lukasiewycz
+ *
+ */
+public class VectorKernel extends Kernel {
+
+	static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see net.sf.javailp.Kernel#getName()
+	 */
+	@Override
+	public String getName() {
+		return "vector" + SPECIES.vectorBitSize();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see net.sf.javailp.Kernel#dot(double[], double[], int, int)
+	 */
+	@Override
+	public double dot(double[] a, double[] b, int from, int to) {
+		DoubleVector sum = DoubleVector.zero(SPECIES);
+		int i = from;
+		for (int end = from + SPECIES.loopBound(to - from); i < end; i += SPECIES.length()) {
+			DoubleVector va = DoubleVector.fromArray(SPECIES, a, i);
+			DoubleVector vb = DoubleVector.fromArray(SPECIES, b, i);
+			sum = va.fma(vb, sum);
+		}
+		double s = sum.reduceLanes(VectorOperators.ADD);
+		for (; i < to; i++) {
+			s += a[i] * b[i];
+		}
+		return s;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see net.sf.javailp.Kernel#dot(double[], int[], int, int, double[])
+	 */
+	@Override
+	public double dot(double[] values, int[] indices, int from, int to, double[] x) {
+		DoubleVector sum = DoubleVector.zero(SPECIES);
+		int p = from;
+		for (int end = from + SPECIES.loopBound(to - from); p < end; p += SPECIES.length()) {
+			DoubleVector v = DoubleVector.fromArray(SPECIES, values, p);
+			DoubleVector g = DoubleVector.fromArray(SPECIES, x, 0, indices, p);
+			sum = v.fma(g, sum);
+		}
+		double s = sum.reduceLanes(VectorOperators.ADD);
+		for (; p < to; p++) {
+			s += values[p] * x[indices[p]];
+		}
+		return s;
+	}
+
+}
@@ -0,0 +1,371 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp.worker;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.util.List;
+
+import net.sf.javailp.Constraint;
+import net.sf.javailp.Linear;
+import net.sf.javailp.Operator;
+import net.sf.javailp.OptType;
+import net.sf.javailp.Problem;
+import net.sf.javailp.Term;
+import net.sf.javailp.VarFamily;
+import net.sf.javailp.VarType;
+
+/**
+ * The class {@code ModelFile} defines the binary layout of a
+ * {@link Problem} in a (memory-mapped) buffer, i.e., the constraint matrix
+ * in compressed sparse row format (see {@link net.sf.javailp.SparseMatrix})
+ * together with the objective, the bounds, and the types. All values are
+ * stored in the native byte order and the sections are aligned to 8 bytes:
+ * 
+ * <pre>
+ * header     magic, version, rows, columns, non-zeros, optType, objective (64 bytes)
+ * double[]   objective (columns), lower (columns), upper (columns), rhs (rows), values (non-zeros)
+ * int[]      rowStart (rows+1), columnIndices (non-zeros)
+ * byte[]     types (columns), operators (rows)
+ * </pre>
+ * 
+ * Missing bounds are stored as {@code NaN}. The problem is written and read
+ * in place, i.e., without an intermediate serialization. The columns are
+ * the ids of the variables; the read problem has the family {@code x} with
+ * one variable per column.
+ * 
+ * @author lukasiewycz
+ * 
+ */
+public class ModelFile {
+
+	/**
+	 * The magic number ("JILP").
+	 */
+	public static final int MAGIC = 0x4A494C50;
+
+	/**
+	 * The version of the layout.
+	 */
+	public static final int VERSION = 1;
+
+	/**
+	 * The size of the header in bytes.
+	 */
+	public static final int HEADER = 64;
+
+	protected final int rows;
+	protected final int columns;
+	protected final int nonZeros;
+
+	protected ModelFile(int rows, int columns, int nonZeros) {
+		this.rows = rows;
+		this.columns = columns;
+		this.nonZeros = nonZeros;
+	}
+
+	/**
+	 * Returns the size of the model of a problem in bytes.
+	 * 
+	 * @param problem
+	 *            the problem
+	 * @return the size
+	 */
+	public static long size(Problem problem) {
+		return new ModelFile(problem.getConstraintsCount(), problem.getVariablesCount(), nonZeros(problem)).size();
+	}
+
+	/**
+	 * Writes a problem to the buffer, starting at index {@code 0}. The buffer
+	 * needs at least {@link #size(Problem)} bytes.
+	 * 
+	 * @param problem
+	 *            the problem
+	 * @param buffer
+	 *            the buffer
+	 */
+	public static void write(Problem problem, ByteBuffer buffer) {
+		List<Constraint> constraints = problem.getConstraints();
+		ModelFile layout = new ModelFile(constraints.size(), problem.getVariablesCount(), nonZeros(problem));
+		buffer = buffer.duplicate().order(ByteOrder.nativeOrder());
+		if (buffer.capacity() < layout.size()) {
+			throw new IllegalArgumentException("The buffer is too small (" + buffer.capacity() + " < "
+					+ layout.size() + ").");
+		}
+
+		Linear objective = problem.getObjective();
+		buffer.putInt(0, MAGIC);
+		buffer.putInt(4, VERSION);
+		buffer.putInt(8, layout.rows);
+		buffer.putInt(12, layout.columns);
+		buffer.putInt(16, layout.nonZeros);
+		buffer.putInt(20, problem.getOptType() == OptType.MAX ? 1 : 0);
+		buffer.putInt(24, objective != null ? 1 : 0);
+
+		DoubleBuffer obj = layout.doubles(buffer, layout.objective(), layout.columns);
+		for (int j = 0; j < layout.columns; j++) {
+			obj.put(j, 0);
+		}
+		if (objective != null) {
+			for (Term term : objective) {
+				int j = problem.getVariableId(term.getVariable());
+				obj.put(j, obj.get(j) + term.getCoefficient().doubleValue());
+			}
+		}
+
+		DoubleBuffer lower = layout.doubles(buffer, layout.lower(), layout.columns);
+		DoubleBuffer upper = layout.doubles(buffer, layout.upper(), layout.columns);
+		ByteBuffer types = layout.bytes(buffer, layout.types(), layout.columns);
+		int j = 0;
+		for (Object variable : problem.getVariables()) {
+			Number lb = problem.getVarLowerBound(variable);
+			Number ub = problem.getVarUpperBound(variable);
+			lower.put(j, lb != null ? lb.doubleValue() : Double.NaN);
+			upper.put(j, ub != null ? ub.doubleValue() : Double.NaN);
+			types.put(j, (byte) problem.getVarType(variable).ordinal());
+			j++;
+		}
+
+		DoubleBuffer rhs = layout.doubles(buffer, layout.rhs(), layout.rows);
+		DoubleBuffer values = layout.doubles(buffer, layout.values(), layout.nonZeros);
+		IntBuffer rowStart = layout.ints(buffer, layout.rowStart(), layout.rows + 1);
+		IntBuffer columnIndices = layout.ints(buffer, layout.columnIndices(), layout.nonZeros);
+		ByteBuffer operators = layout.bytes(buffer, layout.operators(), layout.rows);
+		int p = 0;
+		for (int i = 0; i < layout.rows; i++) {
+			Constraint constraint = constraints.get(i);
+			rowStart.put(i, p);
+			Linear lhs = constraint.getLhs();
+			for (int k = 0; k < lhs.size(); k++, p++) {
+				Term term = lhs.get(k);
+				columnIndices.put(p, problem.getVariableId(term.getVariable()));
+				values.put(p, term.getCoefficient().doubleValue());
+			}
+			rhs.put(i, constraint.getRhs().doubleValue());
+			operators.put(i, (byte) constraint.getOperator().ordinal());
+		}
+		rowStart.put(layout.rows, p);
+	}
+
+	/**
+	 * Reads a problem from the buffer, starting at index {@code 0}.
+	 * 
+	 * @param buffer
+	 *            the buffer
+	 * @return the problem
+	 * @throws IllegalArgumentException
+	 *             if the buffer does not contain a model
+	 */
+	public static Problem read(ByteBuffer buffer) {
+		ModelFile layout = header(buffer);
+		buffer = buffer.duplicate().order(ByteOrder.nativeOrder());
+		if (buffer.capacity() < layout.size()) {
+			throw new IllegalArgumentException("The model is truncated.");
+		}
+
+		Problem problem = new Problem();
+		VarFamily x = layout.columns > 0 ? problem.family("x", layout.columns) : null;
+		OptType optType = buffer.getInt(20) == 1 ? OptType.MAX : OptType.MIN;
+		VarType[] varTypes = VarType.values();
+
+		DoubleBuffer lower = layout.doubles(buffer, layout.lower(), layout.columns);
+		DoubleBuffer upper = layout.doubles(buffer, layout.upper(), layout.columns);
+		ByteBuffer types = layout.bytes(buffer, layout.types(), layout.columns);
+		for (int j = 0; j < layout.columns; j++) {
+			Object variable = x.get(j);
+			VarType type = varTypes[types.get(j)];
+			if (type != VarType.REAL) {
+				problem.setVarType(variable, type);
+			}
+			double lb = lower.get(j);
+			double ub = upper.get(j);
+			if (!Double.isNaN(lb)) {
+				problem.setVarLowerBound(variable, lb);
+			}
+			if (!Double.isNaN(ub)) {
+				problem.setVarUpperBound(variable, ub);
+			}
+		}
+
+		if (buffer.getInt(24) == 1) {
+			DoubleBuffer obj = layout.doubles(buffer, layout.objective(), layout.columns);
+			Linear objective = new Linear();
+			for (int j = 0; j < layout.columns; j++) {
+				double c = obj.get(j);
+				if (c != 0) {
+					objective.add(c, x.get(j));
+				}
+			}
+			problem.setObjective(objective, optType);
+		} else {
+			problem.setOptimizationType(optType);
+		}
+
+		Operator[] ops = Operator.values();
+		DoubleBuffer rhs = layout.doubles(buffer, layout.rhs(), layout.rows);
+		DoubleBuffer values = layout.doubles(buffer, layout.values(), layout.nonZeros);
+		IntBuffer rowStart = layout.ints(buffer, layout.rowStart(), layout.rows + 1);
+		IntBuffer columnIndices = layout.ints(buffer, layout.columnIndices(), layout.nonZeros);
+		ByteBuffer operators = layout.bytes(buffer, layout.operators(), layout.rows);
+		for (int i = 0; i < layout.rows; i++) {
+			Linear linear = new Linear();
+			for (int p = rowStart.get(i); p < rowStart.get(i + 1); p++) {
+				linear.add(values.get(p), x.get(columnIndices.get(p)));
+			}
+			problem.add(new Constraint(linear, ops[operators.get(i)], rhs.get(i)));
+		}
+		return problem;
+	}
+
+	/**
+	 * Reads the header of a model, starting at index {@code 0}, e.g., to
+	 * check the dimensions before the problem is read.
+	 * 
+	 * @param buffer
+	 *            the buffer
+	 * @return the layout of the model
+	 * @throws IllegalArgumentException
+	 *             if the buffer does not contain a model
+	 */
+	public static ModelFile header(ByteBuffer buffer) {
+		buffer = buffer.duplicate().order(ByteOrder.nativeOrder());
+		if (buffer.capacity() < HEADER || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+			throw new IllegalArgumentException("The buffer does not contain a model of version " + VERSION + ".");
+		}
+		int rows = buffer.getInt(8);
+		int columns = buffer.getInt(12);
+		int nonZeros = buffer.getInt(16);
+		if (rows < 0 || columns < 0 || nonZeros < 0) {
+			throw new IllegalArgumentException("The header of the model is invalid.");
+		}
+		return new ModelFile(rows, columns, nonZeros);
+	}
+
+	/**
+	 * Returns the number of constraints.
+	 * 
+	 * @return the number of rows
+	 */
+	public int getRows() {
+		return rows;
+	}
+
+	/**
+	 * Returns the number of variables.
+	 * 
+	 * @return the number of columns
+	 */
+	public int getColumns() {
+		return columns;
+	}
+
+	/**
+	 * Returns the number of terms of all constraints.
+	 * 
+	 * @return the number of non-zeros
+	 */
+	public int getNonZeros() {
+		return nonZeros;
+	}
+
+	/**
+	 * Returns the size of the model in bytes.
+	 * 
+	 * @return the size
+	 */
+	public long getSize() {
+		return size();
+	}
+
+	protected static int nonZeros(Problem problem) {
+		long nonZeros = 0;
+		for (Constraint constraint : problem.getConstraints()) {
+			nonZeros += constraint.size();
+		}
+		if (nonZeros > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("The problem has too many non-zeros.");
+		}
+		return (int) nonZeros;
+	}
+
+	protected long objective() {
+		return HEADER;
+	}
+
+	protected long lower() {
+		return objective() + 8L * columns;
+	}
+
+	protected long upper() {
+		return lower() + 8L * columns;
+	}
+
+	protected long rhs() {
+		return upper() + 8L * columns;
+	}
+
+	protected long values() {
+		return rhs() + 8L * rows;
+	}
+
+	protected long rowStart() {
+		return values() + 8L * nonZeros;
+	}
+
+	protected long columnIndices() {
+		return rowStart() + 4L * (rows + 1);
+	}
+
+	protected long types() {
+		return align(columnIndices() + 4L * nonZeros);
+	}
+
+	protected long operators() {
+		return types() + columns;
+	}
+
+	protected long size() {
+		return align(operators() + rows);
+	}
+
+	protected DoubleBuffer doubles(ByteBuffer buffer, long offset, int length) {
+		return slice(buffer, offset, 8L * length).asDoubleBuffer();
+	}
+
+	protected IntBuffer ints(ByteBuffer buffer, long offset, int length) {
+		return slice(buffer, offset, 4L * length).asIntBuffer();
+	}
+
+	protected ByteBuffer bytes(ByteBuffer buffer, long offset, int length) {
+		return slice(buffer, offset, length);
+	}
+
+	protected static ByteBuffer slice(ByteBuffer buffer, long offset, long length) {
+		if (offset + length > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("The model is larger than 2GB.");
+		}
+		ByteBuffer b = buffer.duplicate();
+		b.limit((int) (offset + length));
+		b.position((int) offset);
+		return b.slice().order(ByteOrder.nativeOrder());
+	}
+
+	protected static long align(long offset) {
+		return (offset + 7) & ~7L;
+	}
+
+}
@@ -0,0 +1,243 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp.worker;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+
+import net.sf.javailp.ArrayResult;
+import net.sf.javailp.Problem;
+import net.sf.javailp.Result;
+import net.sf.javailp.SolveOutcome;
+import net.sf.javailp.SolveStatus;
+import net.sf.javailp.Solver;
+
+/**
+ * The class {@code ResultFile} defines the binary layout of the result of a
+ * solve in a (memory-mapped) buffer, the counterpart of {@link ModelFile}.
+ * All values are stored in the native byte order:
+ * 
+ * <pre>
+ * header     magic, status, flags, bound (32 bytes)
+ * double[]   primal (columns), dual (columns), constraint primal (rows), constraint dual (rows)
+ * </pre>
+ * 
+ * The flags tell which of the arrays and the bound are present.
+ * 
+ * @author lukasiewycz
+ * 
+ */
+public class ResultFile {
+
+	protected static final int HEADER = 32;
+
+	protected static final int PRIMAL = 1;
+	protected static final int DUAL = 2;
+	protected static final int CONSTRAINT_PRIMAL = 4;
+	protected static final int CONSTRAINT_DUAL = 8;
+	protected static final int BOUND = 16;
+
+	protected final SolveStatus status;
+	protected final Result result;
+	protected final Number bound;
+
+	/**
+	 * Constructs a {@code ResultFile}.
+	 * 
+	 * @param status
+	 *            the status
+	 * @param result
+	 *            the result or {@code null}
+	 * @param bound
+	 *            the bound or {@code null}
+	 */
+	public ResultFile(SolveStatus status, Result result, Number bound) {
+		this.status = status;
+		this.result = result;
+		this.bound = bound;
+	}
+
+	/**
+	 * Returns the status.
+	 * 
+	 * @return the status
+	 */
+	public SolveStatus getStatus() {
+		return status;
+	}
+
+	/**
+	 * Returns the result.
+	 * 
+	 * @return the result or {@code null} if no solution is available
+	 */
+	public Result getResult() {
+		return result;
+	}
+
+	/**
+	 * Returns the bound.
+	 * 
+	 * @return the bound or {@code null} if not available
+	 */
+	public Number getBound() {
+		return bound;
+	}
+
+	/**
+	 * Returns the outcome of the last solve of a solver.
+	 * 
+	 * @param solver
+	 *            the solver
+	 * @param result
+	 *            the result of the solve
+	 * @return the outcome
+	 */
+	public static ResultFile of(Solver solver, Result result) {
+		SolveOutcome outcome = solver.getOutcome();
+		if (outcome != null) {
+			return new ResultFile(outcome.getStatus(), outcome.getResult(), outcome.getBound());
+		}
+		return new ResultFile(result != null ? SolveStatus.OPTIMAL : SolveStatus.INFEASIBLE, result, null);
+	}
+
+	/**
+	 * Returns the size of the result of a problem in bytes.
+	 * 
+	 * @param rows
+	 *            the number of constraints
+	 * @param columns
+	 *            the number of variables
+	 * @return the size
+	 */
+	public static long size(int rows, int columns) {
+		return HEADER + 16L * columns + 16L * rows;
+	}
+
+	/**
+	 * Writes a result to the buffer, starting at index {@code 0}.
+	 * 
+	 * @param problem
+	 *            the problem that was solved (read with
+	 *            {@link ModelFile#read(ByteBuffer)})
+	 * @param outcome
+	 *            the outcome
+	 * @param buffer
+	 *            the buffer
+	 */
+	public static void write(Problem problem, ResultFile outcome, ByteBuffer buffer) {
+		buffer = buffer.duplicate().order(ByteOrder.nativeOrder());
+		int columns = problem.getVariablesCount();
+		int rows = problem.getConstraintsCount();
+		int flags = 0;
+		Result result = outcome.result;
+		if (result != null) {
+			DoubleBuffer values = doubles(buffer, HEADER, columns);
+			boolean primal = false;
+			boolean dual = false;
+			ArrayResult array = result instanceof ArrayResult ? (ArrayResult) result : null;
+			int j = 0;
+			for (Object variable : problem.getVariables()) {
+				Number value = array == null ? result.getPrimalValue(variable) : null;
+				double v = array != null ? array.getPrimalValue(j) : (value != null ? value.doubleValue()
+						: Double.NaN);
+				primal |= !Double.isNaN(v);
+				values.put(j++, v);
+			}
+			if (array != null) {
+				values = doubles(buffer, HEADER + 8L * columns, columns);
+				for (j = 0; j < columns; j++) {
+					double v = array.getDualValue(j);
+					dual |= !Double.isNaN(v);
+					values.put(j, v);
+				}
+				boolean constraintPrimal = false;
+				boolean constraintDual = false;
+				DoubleBuffer cp = doubles(buffer, HEADER + 16L * columns, rows);
+				DoubleBuffer cd = doubles(buffer, HEADER + 16L * columns + 8L * rows, rows);
+				for (int i = 0; i < rows; i++) {
+					double p = array.getConstraintPrimalValue(i);
+					double d = array.getConstraintDualValue(i);
+					constraintPrimal |= !Double.isNaN(p);
+					constraintDual |= !Double.isNaN(d);
+					cp.put(i, p);
+					cd.put(i, d);
+				}
+				flags |= (constraintPrimal ? CONSTRAINT_PRIMAL : 0) | (constraintDual ? CONSTRAINT_DUAL : 0);
+			}
+			flags |= (primal ? PRIMAL : 0) | (dual ? DUAL : 0);
+		}
+		if (outcome.bound != null) {
+			flags |= BOUND;
+			buffer.putDouble(8, outcome.bound.doubleValue());
+		}
+		buffer.putInt(4, outcome.status.ordinal());
+		buffer.putInt(12, flags);
+		buffer.putInt(0, ModelFile.MAGIC);
+	}
+
+	/**
+	 * Reads a result from the buffer, starting at index {@code 0}. The values
+	 * are copied into an {@link ArrayResult} of the problem.
+	 * 
+	 * @param problem
+	 *            the problem that was written with
+	 *            {@link ModelFile#write(Problem, ByteBuffer)}
+	 * @param buffer
+	 *            the buffer
+	 * @return the result
+	 * @throws IllegalArgumentException
+	 *             if the buffer does not contain a result
+	 */
+	public static ResultFile read(Problem problem, ByteBuffer buffer) {
+		buffer = buffer.duplicate().order(ByteOrder.nativeOrder());
+		int columns = problem.getVariablesCount();
+		int rows = problem.getConstraintsCount();
+		if (buffer.capacity() < size(rows, columns) || buffer.getInt(0) != ModelFile.MAGIC) {
+			throw new IllegalArgumentException("The buffer does not contain a result.");
+		}
+		SolveStatus status = SolveStatus.values()[buffer.getInt(4)];
+		int flags = buffer.getInt(12);
+		Number bound = (flags & BOUND) != 0 ? buffer.getDouble(8) : null;
+
+		ArrayResult result = null;
+		if ((flags & PRIMAL) != 0) {
+			result = new ArrayResult(problem);
+			result.setPrimalValues(read(buffer, HEADER, columns));
+			if ((flags & DUAL) != 0) {
+				result.setDualValues(read(buffer, HEADER + 8L * columns, columns));
+			}
+			if ((flags & CONSTRAINT_PRIMAL) != 0) {
+				result.setConstraintPrimalValues(read(buffer, HEADER + 16L * columns, rows));
+			}
+			if ((flags & CONSTRAINT_DUAL) != 0) {
+				result.setConstraintDualValues(read(buffer, HEADER + 16L * columns + 8L * rows, rows));
+			}
+		}
+		return new ResultFile(status, result, bound);
+	}
+
+	protected static double[] read(ByteBuffer buffer, long offset, int length) {
+		double[] values = new double[length];
+		doubles(buffer, offset, length).get(values);
+		return values;
+	}
+
+	protected static DoubleBuffer doubles(ByteBuffer buffer, long offset, int length) {
+		return ModelFile.slice(buffer, offset, 8L * length).asDoubleBuffer();
+	}
+
+}
@@ -0,0 +1,95 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp.worker;
+
+import java.io.IOException;
+
+import net.sf.javailp.AbstractSolverFactory;
+import net.sf.javailp.Solver;
+
+/**
+ * The {@code SolverFactoryWorker} is a {@code SolverFactory} that solves the
+ * problems in a pool of local worker processes, e.g., to isolate a native
+ * backend from the application:
+ * 
+ * <pre>
+ * SolverFactoryWorker factory = new SolverFactoryWorker(&quot;MiniSat&quot;, 4);
+ * factory.getPool().setHeapLimit(&quot;1g&quot;);
+ * factory.setParameter(Solver.TIMEOUT, 60);
+ * Result result = factory.get().solve(problem);
+ * ...
+ * factory.close();
+ * </pre>
+ * 
+ * @see WorkerPool
+ * @author lukasiewycz
+ * 
+ */
+public class SolverFactoryWorker extends AbstractSolverFactory implements AutoCloseable {
+
+	protected final WorkerPool pool;
+
+	/**
+	 * Constructs a {@code SolverFactoryWorker} with a new pool.
+	 * 
+	 * @param backend
+	 *            the name of the solver factory of the workers, e.g.,
+	 *            {@code MiniSat}
+	 * @param workers
+	 *            the number of workers
+	 * @throws IOException
+	 *             if the pool cannot be created
+	 */
+	public SolverFactoryWorker(String backend, int workers) throws IOException {
+		this(new WorkerPool(backend, workers));
+	}
+
+	/**
+	 * Constructs a {@code SolverFactoryWorker} for an existing pool.
+	 * 
+	 * @param pool
+	 *            the pool
+	 */
+	public SolverFactoryWorker(WorkerPool pool) {
+		this.pool = pool;
+	}
+
+	/**
+	 * Returns the pool of the workers.
+	 * 
+	 * @return the pool
+	 */
+	public WorkerPool getPool() {
+		return pool;
+	}
+
+	/**
+	 * Closes the pool of the workers.
+	 */
+	public void close() {
+		pool.close();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see net.sf.javailp.AbstractSolverFactory#getInternal()
+	 */
+	@Override
+	protected Solver getInternal() {
+		return new SolverWorker(pool);
+	}
+
+}
@@ -0,0 +1,149 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp.worker;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import net.sf.javailp.AbstractSolver;
+import net.sf.javailp.Problem;
+import net.sf.javailp.Result;
+import net.sf.javailp.SolveLimit;
+import net.sf.javailp.SolveStatistics.Phase;
+import net.sf.javailp.SolveStatus;
+import net.sf.javailp.Solver;
+
+/**
+ * The {@code SolverWorker} is a {@code Solver} that solves the problems in a
+ * worker process of a {@link WorkerPool}. The parameters with a
+ * {@code String}, {@code Number}, or {@code Boolean} key and value are
+ * passed to the solver of the worker.
+ * <p>
+ * If the worker crashes, it is restarted and the outcome is
+ * {@link SolveStatus#ERROR}. If the worker does not answer within the
+ * timeout of the solver plus the grace period of the pool, it is restarted
+ * and the outcome is {@link SolveStatus#LIMIT_NO_SOLUTION}. A failure of the
+ * backend in the worker is thrown as {@code IllegalStateException}.
+ * 
+ * @see SolverFactoryWorker
+ * @author lukasiewycz
+ * 
+ */
+public class SolverWorker extends AbstractSolver {
+
+	protected final WorkerPool pool;
+
+	/**
+	 * Constructs a {@code SolverWorker}.
+	 * 
+	 * @param pool
+	 *            the pool of the workers
+	 */
+	public SolverWorker(WorkerPool pool) {
+		this.pool = pool;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see net.sf.javailp.AbstractSolver#solveInternal(net.sf.javailp.Problem)
+	 */
+	@Override
+	protected Result solveInternal(Problem problem) {
+		begin(problem);
+		WorkerPool.WorkerProcess worker;
+		try {
+			worker = pool.acquire();
+		} catch (IOException e) {
+			throw new IllegalStateException("The worker cannot be started.", e);
+		}
+		try {
+			phase(Phase.TRANSFER);
+			String error;
+			try {
+				worker.write(problem);
+			} catch (IOException e) {
+				throw new IllegalStateException("The model cannot be written.", e);
+			}
+
+			phase(Phase.SOLVE);
+			try {
+				error = worker.solve(getWorkerParameters(), getWorkerTimeout());
+			} catch (SocketTimeoutException e) {
+				restart(worker);
+				return outcome(SolveStatus.LIMIT_NO_SOLUTION, null, null, SolveLimit.TIME);
+			} catch (IOException e) {
+				restart(worker);
+				return outcome(SolveStatus.ERROR, null, null);
+			}
+			if (error != null) {
+				throw new IllegalStateException("The worker failed: " + error);
+			}
+
+			phase(Phase.EXTRACTION);
+			ResultFile file = worker.read(problem);
+			return outcome(file.getStatus(), file.getResult(), file.getBound());
+		} finally {
+			pool.release(worker);
+		}
+	}
+
+	protected void restart(WorkerPool.WorkerProcess worker) {
+		try {
+			pool.restart(worker);
+		} catch (IOException e) {
+			// the worker is started again by the next solve
+			worker.stop();
+		}
+	}
+
+	/**
+	 * Returns the parameters that are passed to the worker.
+	 * 
+	 * @return the parameters
+	 */
+	protected Map<Object, Object> getWorkerParameters() {
+		Map<Object, Object> map = new HashMap<Object, Object>();
+		for (Entry<Object, Object> entry : parameters.entrySet()) {
+			if (isPrimitive(entry.getKey()) && isPrimitive(entry.getValue())) {
+				map.put(entry.getKey(), entry.getValue());
+			}
+		}
+		return map;
+	}
+
+	/**
+	 * Returns the time to wait for the worker.
+	 * 
+	 * @return the time in milliseconds or {@code 0} if the solver has no
+	 *         timeout
+	 */
+	protected int getWorkerTimeout() {
+		Object timeout = parameters.get(Solver.TIMEOUT);
+		if (timeout instanceof Number && ((Number) timeout).intValue() > 0) {
+			long millis = 1000L * ((Number) timeout).intValue() + pool.gracePeriod;
+			return (int) Math.min(millis, Integer.MAX_VALUE);
+		}
+		return 0;
+	}
+
+	protected static boolean isPrimitive(Object object) {
+		return object instanceof String || object instanceof Number || object instanceof Boolean;
+	}
+
+}
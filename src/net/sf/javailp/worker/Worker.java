@@ -0,0 +1,248 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp.worker;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.RandomAccessFile;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import net.sf.javailp.Problem;
+import net.sf.javailp.Result;
+import net.sf.javailp.ResultImpl;
+import net.sf.javailp.Solver;
+import net.sf.javailp.SolverFactory;
+
+/**
+ * The class {@code Worker} is the main class of a worker process of a
+ * {@link WorkerPool}. It connects to the pool on the loopback interface and
+ * answers the commands of the pool until the connection is closed. The
+ * models and results are exchanged through memory-mapped files (see
+ * {@link ModelFile} and {@link ResultFile}); the connection only carries the
+ * commands, such that the output of the backends on the standard streams
+ * does not interfere.
+ * 
+ * <pre>
+ * java net.sf.javailp.worker.Worker &lt;port&gt; &lt;token&gt; &lt;backend&gt;
+ * </pre>
+ * 
+ * The backend is the name of a solver factory, e.g., {@code MiniSat} for
+ * {@code net.sf.javailp.SolverFactoryMiniSat}, or the name of any class that
+ * implements {@link SolverFactory}.
+ * 
+ * @author lukasiewycz
+ * 
+ */
+public class Worker {
+
+	/**
+	 * The command that checks the health of the worker.
+	 */
+	protected static final int PING = 1;
+
+	/**
+	 * The command that solves a model.
+	 */
+	protected static final int SOLVE = 2;
+
+	/**
+	 * The reply of a successful command.
+	 */
+	protected static final int OK = 0;
+
+	/**
+	 * The reply of a failed command.
+	 */
+	protected static final int FAILED = -1;
+
+	protected final SolverFactory factory;
+	protected MappedByteBuffer model = null;
+	protected long modelLength = -1;
+	protected MappedByteBuffer result = null;
+	protected long resultLength = -1;
+
+	/**
+	 * Constructs a {@code Worker}.
+	 * 
+	 * @param factory
+	 *            the factory of the solvers
+	 */
+	public Worker(SolverFactory factory) {
+		this.factory = factory;
+	}
+
+	/**
+	 * Starts a worker.
+	 * 
+	 * @param args
+	 *            the port, the token, and the backend
+	 * @throws Exception
+	 *             if the worker cannot be started
+	 */
+	public static void main(String[] args) throws Exception {
+		if (args.length != 3) {
+			System.err.println("usage: Worker <port> <token> <backend>");
+			System.exit(2);
+		}
+		Worker worker = new Worker(factory(args[2]));
+		Socket socket = new Socket(InetAddress.getByName(null), Integer.parseInt(args[0]));
+		socket.setTcpNoDelay(true);
+		try {
+			ObjectOutputStream out = new ObjectOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+			out.writeUTF(args[1]);
+			out.flush();
+			ObjectInputStream in = new ObjectInputStream(new BufferedInputStream(socket.getInputStream()));
+			worker.serve(in, out);
+		} finally {
+			socket.close();
+		}
+		System.exit(0);
+	}
+
+	/**
+	 * Creates the factory of a backend.
+	 * 
+	 * @param backend
+	 *            the backend
+	 * @return the factory
+	 * @throws Exception
+	 *             if the factory cannot be created
+	 */
+	protected static SolverFactory factory(String backend) throws Exception {
+		String name = backend.indexOf('.') < 0 ? "net.sf.javailp.SolverFactory" + backend : backend;
+		return (SolverFactory) Class.forName(name).newInstance();
+	}
+
+	/**
+	 * Answers the commands until the connection is closed.
+	 * 
+	 * @param in
+	 *            the commands
+	 * @param out
+	 *            the replies
+	 * @throws IOException
+	 *             if the connection fails
+	 */
+	protected void serve(ObjectInputStream in, ObjectOutputStream out) throws IOException {
+		for (;;) {
+			int command;
+			try {
+				command = in.readInt();
+			} catch (EOFException e) {
+				return;
+			}
+			if (command == PING) {
+				out.writeInt(OK);
+			} else if (command == SOLVE) {
+				String modelPath = in.readUTF();
+				String resultPath = in.readUTF();
+				Map<?, ?> parameters;
+				try {
+					parameters = (Map<?, ?>) in.readObject();
+				} catch (ClassNotFoundException e) {
+					throw new IOException(e);
+				}
+				try {
+					solve(modelPath, resultPath, parameters);
+					out.writeInt(OK);
+				} catch (OutOfMemoryError e) {
+					// the state of the worker is undefined, the pool restarts it
+					out.writeInt(FAILED);
+					out.writeUTF(String.valueOf(e));
+					out.flush();
+					throw e;
+				} catch (Exception e) {
+					out.writeInt(FAILED);
+					out.writeUTF(String.valueOf(e));
+				}
+			} else {
+				throw new IOException("Unknown command " + command + ".");
+			}
+			out.flush();
+		}
+	}
+
+	/**
+	 * Solves the model of a file and writes the result to a file.
+	 * 
+	 * @param modelPath
+	 *            the model file
+	 * @param resultPath
+	 *            the result file
+	 * @param parameters
+	 *            the parameters of the solver
+	 * @throws IOException
+	 *             if a file cannot be mapped
+	 */
+	protected void solve(String modelPath, String resultPath, Map<?, ?> parameters) throws IOException {
+		Problem problem = ModelFile.read(mapModel(modelPath));
+
+		Solver solver = factory.get();
+		for (Entry<?, ?> entry : parameters.entrySet()) {
+			solver.setParameter(entry.getKey(), entry.getValue());
+		}
+		try {
+			Result result = solver.solve(problem);
+			ResultFile.write(problem, ResultFile.of(solver, result), mapResult(resultPath,
+					ResultFile.size(problem.getConstraintsCount(), problem.getVariablesCount())));
+			if (result instanceof ResultImpl) {
+				((ResultImpl) result).close();
+			}
+		} finally {
+			solver.close();
+		}
+	}
+
+	protected MappedByteBuffer mapModel(String path) throws IOException {
+		RandomAccessFile file = new RandomAccessFile(path, "r");
+		try {
+			long length = file.length();
+			if (model == null || length != modelLength) {
+				model = file.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, length);
+				modelLength = length;
+			}
+			return model;
+		} finally {
+			file.close();
+		}
+	}
+
+	protected MappedByteBuffer mapResult(String path, long size) throws IOException {
+		RandomAccessFile file = new RandomAccessFile(path, "rw");
+		try {
+			if (file.length() < size) {
+				file.setLength(size);
+			}
+			long length = file.length();
+			if (result == null || length != resultLength) {
+				result = file.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, length);
+				resultLength = length;
+			}
+			return result;
+		} finally {
+			file.close();
+		}
+	}
+
+}
@@ -0,0 +1,532 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp.worker;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.RandomAccessFile;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Timer;
+import java.util.TimerTask;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import net.sf.javailp.AbstractSolver;
+import net.sf.javailp.Problem;
+import net.sf.javailp.SolverMonitor;
+
+/**
+ * The class {@code WorkerPool} runs the solves of a backend in a pool of
+ * local worker processes (see {@link Worker}). A crash of a backend, e.g., a
+ * segmentation fault of a native library or an exhausted heap, only
+ * terminates the worker, which is restarted by the pool. The workers are
+ * started on demand with the class path and library path of this JVM and
+ * optionally with a heap limit ({@code -Xmx}) and a limit of the virtual
+ * memory ({@code ulimit -v}).
+ * <p>
+ * Each worker owns a model file and a result file in a temporary directory.
+ * Both files are memory-mapped by the pool and the worker, such that the
+ * model is written by the pool and read by the worker (and the result vice
+ * versa) without further copies; the loopback connection to the worker only
+ * carries the commands.
+ * 
+ * @see SolverFactoryWorker
+ * @author lukasiewycz
+ * 
+ */
+public class WorkerPool implements AutoCloseable {
+
+	protected final String backend;
+	protected final File directory;
+	protected final List<WorkerProcess> workers = new ArrayList<WorkerProcess>();
+	protected final BlockingQueue<WorkerProcess> idle = new LinkedBlockingQueue<WorkerProcess>();
+	protected final AtomicInteger restarts = new AtomicInteger();
+	protected final SecureRandom random = new SecureRandom();
+
+	protected String heapLimit = null;
+	protected long memoryLimit = -1;
+	protected int startTimeout = 30000;
+	protected int gracePeriod = 10000;
+	protected Timer timer = null;
+	protected volatile boolean closed = false;
+
+	/**
+	 * Constructs a {@code WorkerPool}.
+	 * 
+	 * @param backend
+	 *            the name of the solver factory, e.g., {@code MiniSat} for
+	 *            {@code net.sf.javailp.SolverFactoryMiniSat}, or the name of
+	 *            a class that implements {@code SolverFactory}
+	 * @param size
+	 *            the number of workers
+	 * @throws IOException
+	 *             if the temporary directory cannot be created
+	 */
+	public WorkerPool(String backend, int size) throws IOException {
+		if (size < 1) {
+			throw new IllegalArgumentException("The pool needs at least one worker.");
+		}
+		this.backend = backend;
+		File file = File.createTempFile("javailp-worker", "");
+		if (!file.delete() || !file.mkdir()) {
+			throw new IOException("Cannot create the directory " + file + ".");
+		}
+		this.directory = file;
+		for (int i = 0; i < size; i++) {
+			WorkerProcess worker = new WorkerProcess(i);
+			workers.add(worker);
+			idle.add(worker);
+		}
+	}
+
+	/**
+	 * Returns the backend.
+	 * 
+	 * @return the backend
+	 */
+	public String getBackend() {
+		return backend;
+	}
+
+	/**
+	 * Returns the number of workers.
+	 * 
+	 * @return the number of workers
+	 */
+	public int getSize() {
+		return workers.size();
+	}
+
+	/**
+	 * Returns the number of restarts of crashed or unresponsive workers.
+	 * 
+	 * @return the number of restarts
+	 */
+	public int getRestarts() {
+		return restarts.get();
+	}
+
+	/**
+	 * Sets the heap limit of workers that are started afterwards.
+	 * 
+	 * @param heapLimit
+	 *            the heap limit in the format of {@code -Xmx}, e.g.,
+	 *            {@code 512m} ({@code null} for the default of the JVM)
+	 */
+	public synchronized void setHeapLimit(String heapLimit) {
+		this.heapLimit = heapLimit;
+	}
+
+	/**
+	 * Sets the limit of the virtual memory of workers that are started
+	 * afterwards. Unlike the heap limit, this limit also covers the memory
+	 * of native backends. Note that the JVM itself reserves a considerable
+	 * amount of virtual memory (the heap, the class space, and the code
+	 * cache), i.e., the limit has to be set well above the heap limit.
+	 * 
+	 * @param bytes
+	 *            the limit in bytes ({@code -1} for no limit)
+	 */
+	public synchronized void setMemoryLimit(long bytes) {
+		this.memoryLimit = bytes;
+	}
+
+	/**
+	 * Sets the time a solve may exceed the timeout of the solver (see
+	 * {@link net.sf.javailp.Solver#TIMEOUT}) before the worker is considered
+	 * unresponsive and restarted. The default is 10 seconds.
+	 * 
+	 * @param millis
+	 *            the grace period in milliseconds
+	 */
+	public synchronized void setGracePeriod(int millis) {
+		this.gracePeriod = millis;
+	}
+
+	/**
+	 * Sets the interval of the periodic health checks (see
+	 * {@link #checkHealth()}).
+	 * 
+	 * @param millis
+	 *            the interval in milliseconds ({@code 0} to disable the
+	 *            checks)
+	 */
+	public synchronized void setHealthCheckInterval(long millis) {
+		if (timer != null) {
+			timer.cancel();
+			timer = null;
+		}
+		if (millis > 0 && !closed) {
+			timer = new Timer("javailp-worker-health", true);
+			timer.schedule(new TimerTask() {
+				@Override
+				public void run() {
+					checkHealth();
+				}
+			}, millis, millis);
+		}
+	}
+
+	/**
+	 * Checks the health of all idle workers that are started and restarts
+	 * the workers that terminated or do not answer within the grace period.
+	 * Busy workers are checked by their solves.
+	 * 
+	 * @return the number of restarted workers
+	 */
+	public int checkHealth() {
+		List<WorkerProcess> checked = new ArrayList<WorkerProcess>();
+		idle.drainTo(checked);
+		int restarted = 0;
+		try {
+			for (WorkerProcess worker : checked) {
+				if (worker.isStarted() && !worker.ping()) {
+					try {
+						restart(worker);
+					} catch (IOException e) {
+						// the worker is started again by the next solve
+						worker.stop();
+					}
+					restarted++;
+				}
+			}
+		} finally {
+			idle.addAll(checked);
+		}
+		return restarted;
+	}
+
+	/**
+	 * Takes an idle worker and starts it if necessary. The worker has to be
+	 * returned with {@link #release(WorkerProcess)}. The wait for a worker is
+	 * reported to the monitor of the solvers.
+	 * 
+	 * @return the worker
+	 * @throws IOException
+	 *             if the worker cannot be started
+	 */
+	protected WorkerProcess acquire() throws IOException {
+		if (closed) {
+			throw new IllegalStateException("The pool is closed.");
+		}
+		WorkerProcess worker = idle.poll();
+		if (worker == null) {
+			SolverMonitor monitor = AbstractSolver.getMonitor();
+			Object handle = monitor != null ? monitor.beginWait("Worker" + backend) : null;
+			try {
+				worker = idle.take();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IOException("Interrupted while waiting for a worker.");
+			} finally {
+				if (handle != null) {
+					monitor.endWait(handle);
+				}
+			}
+		}
+		try {
+			if (!worker.isStarted()) {
+				worker.start();
+			} else if (!worker.isAlive()) {
+				restart(worker);
+			}
+		} catch (IOException e) {
+			worker.stop();
+			idle.add(worker);
+			throw e;
+		}
+		return worker;
+	}
+
+	/**
+	 * Returns a worker to the pool.
+	 * 
+	 * @param worker
+	 *            the worker
+	 */
+	protected void release(WorkerProcess worker) {
+		if (closed) {
+			worker.stop();
+		}
+		idle.add(worker);
+	}
+
+	/**
+	 * Stops a worker and starts it again.
+	 * 
+	 * @param worker
+	 *            the worker
+	 * @throws IOException
+	 *             if the worker cannot be started
+	 */
+	protected void restart(WorkerProcess worker) throws IOException {
+		worker.stop();
+		restarts.incrementAndGet();
+		if (!closed) {
+			worker.start();
+		}
+	}
+
+	/**
+	 * Stops all workers and deletes the temporary directory. Running solves
+	 * stop their workers once they are finished.
+	 */
+	public void close() {
+		synchronized (this) {
+			if (closed) {
+				return;
+			}
+			closed = true;
+			if (timer != null) {
+				timer.cancel();
+				timer = null;
+			}
+		}
+		List<WorkerProcess> stopped = new ArrayList<WorkerProcess>();
+		idle.drainTo(stopped);
+		for (WorkerProcess worker : stopped) {
+			worker.stop();
+		}
+		idle.addAll(stopped);
+		for (WorkerProcess worker : workers) {
+			worker.modelFile.delete();
+			worker.resultFile.delete();
+			worker.logFile.delete();
+		}
+		directory.delete();
+	}
+
+	/**
+	 * The {@code WorkerProcess} is a single worker of the pool with its
+	 * connection and its memory-mapped files. It is used by one solve at a
+	 * time.
+	 * 
+	 * @author lukasiewycz
+	 * 
+	 */
+	protected class WorkerProcess {
+
+		protected final int index;
+		protected final File modelFile;
+		protected final File resultFile;
+		protected final File logFile;
+
+		protected Process process = null;
+		protected Socket socket = null;
+		protected ObjectInputStream in = null;
+		protected ObjectOutputStream out = null;
+		protected MappedByteBuffer model = null;
+		protected MappedByteBuffer result = null;
+
+		public WorkerProcess(int index) {
+			this.index = index;
+			this.modelFile = new File(directory, "model-" + index);
+			this.resultFile = new File(directory, "result-" + index);
+			this.logFile = new File(directory, "worker-" + index + ".log");
+		}
+
+		protected boolean isStarted() {
+			return process != null;
+		}
+
+		protected boolean isAlive() {
+			try {
+				process.exitValue();
+				return false;
+			} catch (IllegalThreadStateException e) {
+				return true;
+			}
+		}
+
+		protected void start() throws IOException {
+			String token = Long.toHexString(random.nextLong());
+			ServerSocket server = new ServerSocket(0, 1, InetAddress.getByName(null));
+			try {
+				server.setSoTimeout(100);
+				ProcessBuilder builder = new ProcessBuilder(command(server.getLocalPort(), token));
+				builder.redirectErrorStream(true);
+				builder.redirectOutput(ProcessBuilder.Redirect.appendTo(logFile));
+				process = builder.start();
+
+				Socket socket = null;
+				long deadline = System.currentTimeMillis() + startTimeout;
+				while (socket == null) {
+					try {
+						socket = server.accept();
+					} catch (SocketTimeoutException e) {
+						if (!isAlive()) {
+							throw new IOException("The worker " + index + " terminated with exit code "
+									+ process.exitValue() + ", see " + logFile + ".");
+						} else if (System.currentTimeMillis() > deadline) {
+							throw new IOException("The worker " + index + " did not connect, see " + logFile + ".");
+						}
+					}
+				}
+				this.socket = socket;
+				socket.setTcpNoDelay(true);
+				socket.setSoTimeout(startTimeout);
+				in = new ObjectInputStream(new BufferedInputStream(socket.getInputStream()));
+				if (!token.equals(in.readUTF())) {
+					throw new IOException("The worker " + index + " sent an invalid token.");
+				}
+				out = new ObjectOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+				out.flush();
+			} finally {
+				server.close();
+			}
+		}
+
+		protected List<String> command(int port, String token) {
+			List<String> command = new ArrayList<String>();
+			if (memoryLimit > 0) {
+				command.add("/bin/sh");
+				command.add("-c");
+				command.add("ulimit -v " + (memoryLimit / 1024) + " && exec \"$0\" \"$@\"");
+			}
+			command.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+			if (heapLimit != null) {
+				command.add("-Xmx" + heapLimit);
+			}
+			command.add("-cp");
+			command.add(System.getProperty("java.class.path"));
+			command.add("-Djava.library.path=" + System.getProperty("java.library.path"));
+			command.add(Worker.class.getName());
+			command.add(Integer.toString(port));
+			command.add(token);
+			command.add(backend);
+			return command;
+		}
+
+		protected void stop() {
+			if (socket != null) {
+				try {
+					socket.close();
+				} catch (IOException e) {
+					// already closed
+				}
+			}
+			if (process != null) {
+				process.destroy();
+				try {
+					process.waitFor();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+			process = null;
+			socket = null;
+			in = null;
+			out = null;
+		}
+
+		protected boolean ping() {
+			try {
+				socket.setSoTimeout(gracePeriod);
+				out.writeInt(Worker.PING);
+				out.flush();
+				return in.readInt() == Worker.OK;
+			} catch (IOException e) {
+				return false;
+			}
+		}
+
+		/**
+		 * Writes the model of a problem to the model file.
+		 * 
+		 * @param problem
+		 *            the problem
+		 * @throws IOException
+		 *             if the file cannot be mapped
+		 */
+		protected void write(Problem problem) throws IOException {
+			model = map(modelFile, model, ModelFile.size(problem));
+			ModelFile.write(problem, model);
+			result = map(resultFile, result, ResultFile.size(problem.getConstraintsCount(),
+					problem.getVariablesCount()));
+			result.duplicate().order(ByteOrder.nativeOrder()).putInt(0, 0);
+		}
+
+		/**
+		 * Solves the model of the model file.
+		 * 
+		 * @param parameters
+		 *            the parameters of the solver
+		 * @param timeout
+		 *            the time to wait for the worker in milliseconds ({@code 0}
+		 *            to wait without limit)
+		 * @return {@code null} on success or the error of the backend
+		 * @throws SocketTimeoutException
+		 *             if the worker did not answer in time
+		 * @throws IOException
+		 *             if the worker crashed
+		 */
+		protected String solve(Map<Object, Object> parameters, int timeout) throws IOException {
+			socket.setSoTimeout(timeout);
+			out.writeInt(Worker.SOLVE);
+			out.writeUTF(modelFile.getPath());
+			out.writeUTF(resultFile.getPath());
+			out.writeObject(new HashMap<Object, Object>(parameters));
+			out.flush();
+			out.reset();
+			if (in.readInt() == Worker.OK) {
+				return null;
+			}
+			return in.readUTF();
+		}
+
+		/**
+		 * Reads the result of the result file.
+		 * 
+		 * @param problem
+		 *            the problem
+		 * @return the result
+		 */
+		protected ResultFile read(Problem problem) {
+			return ResultFile.read(problem, result);
+		}
+
+		protected MappedByteBuffer map(File file, MappedByteBuffer buffer, long size) throws IOException {
+			if (buffer != null && buffer.capacity() >= size) {
+				return buffer;
+			}
+			RandomAccessFile raf = new RandomAccessFile(file, "rw");
+			try {
+				long length = Math.max(size, 2 * (buffer != null ? buffer.capacity() : 0));
+				raf.setLength(length);
+				return raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, length);
+			} finally {
+				raf.close();
+			}
+		}
+
+	}
+
+}